@@ -0,0 +1,313 @@
+package edu.monmouth.se.oopap;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The inheritance hierarchy of the classes of a program, built from the class
+ * declarations of the program. Each class is indexed by name, along with the
+ * node holding the names of its children, so the children of a class are
+ * found with a single lookup.
+ * 
+ * The declarations are kept in the order they were added, so that the
+ * hierarchy of a single file may be merged into the hierarchy of a program
+ * and so that reports may list the classes in the order they were declared.
+ * A class without a superclass is declared with an empty superclass name.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class ClassHierarchy implements Serializable
+{
+
+  /**
+   * The version of the serialized form of the hierarchy.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * List to store the name of every class declared, in the order declared.
+   */
+  private List<String> classNameList;
+
+  /**
+   * List to store the name of the superclass of every class declared, in the
+   * order declared.
+   */
+  private List<String> superclassNameList;
+
+  /**
+   * Map to store the children each class has. The key is the name of the
+   * class, and the value is the node holding the names of its children.
+   */
+  private Map<String, ClassStructureNode> nodeMap;
+
+  /**
+   * Map to store the depth of inheritance of each class already calculated.
+   * Cleared whenever a declaration is added.
+   */
+  private Map<String, Integer> depthMap;
+
+  /**
+   * Primary constructor. Creates an empty hierarchy.
+   */
+  public ClassHierarchy()
+  {
+
+    this.classNameList = new ArrayList<String>();
+    this.superclassNameList = new ArrayList<String>();
+    this.nodeMap = new HashMap<String, ClassStructureNode>();
+    this.depthMap = new HashMap<String, Integer>();
+
+  }
+
+  /**
+   * Method used to add a class declaration to the hierarchy.
+   * 
+   * @param theSuperclassName
+   *          The name of the superclass of the declared class, empty if the
+   *          class has no superclass
+   * @param theClassName
+   *          The name of the declared class
+   */
+  public void addDeclaration(String theSuperclassName, String theClassName)
+  {
+
+    ClassStructureNode superclassNode = nodeMap.get(theSuperclassName);
+
+    classNameList.add(theClassName);
+    superclassNameList.add(theSuperclassName);
+
+    if (superclassNode == null)
+    {
+
+      nodeMap.put(theSuperclassName, new ClassStructureNode(
+          theSuperclassName, theClassName));
+
+    }
+    else
+    {
+
+      superclassNode.addChild(theClassName);
+
+    }
+
+    // the depths already calculated may no longer hold
+    if (!depthMap.isEmpty())
+    {
+
+      depthMap.clear();
+
+    }
+
+  }
+
+  /**
+   * Method used to add every declaration of another hierarchy to this
+   * hierarchy, in the order they were added to the other hierarchy.
+   * 
+   * @param theClassHierarchy
+   *          The hierarchy to be merged
+   */
+  public void merge(ClassHierarchy theClassHierarchy)
+  {
+
+    for (int i = 0; i < theClassHierarchy.classNameList.size(); i++)
+    {
+
+      this.addDeclaration(theClassHierarchy.superclassNameList.get(i),
+          theClassHierarchy.classNameList.get(i));
+
+    }
+
+  }
+
+  /**
+   * Method used to retrieve the name of every class declared, in the order
+   * declared. A class declared more than once is listed once per
+   * declaration.
+   * 
+   * @return the unmodifiable list of class names
+   */
+  public List<String> getClassNameList()
+  {
+
+    return Collections.unmodifiableList(this.classNameList);
+
+  }
+
+  /**
+   * Method used to retrieve the names of the children of a class.
+   * 
+   * @param theClassName
+   *          The name of the class
+   * @return the unmodifiable set of the names of the children, in the order
+   *         they were declared
+   */
+  public Set<String> getChildren(String theClassName)
+  {
+
+    ClassStructureNode classNode = nodeMap.get(theClassName);
+
+    if (classNode == null)
+    {
+
+      return Collections.emptySet();
+
+    }
+
+    return Collections.unmodifiableSet(classNode.getChildren());
+
+  }
+
+  /**
+   * Method used to retrieve the number of children of a class.
+   * 
+   * @param theClassName
+   *          The name of the class
+   * @return the number of children
+   */
+  public int getNumberChildren(String theClassName)
+  {
+
+    ClassStructureNode classNode = nodeMap.get(theClassName);
+
+    return classNode == null ? 0 : classNode.getNumberChildren();
+
+  }
+
+  /**
+   * Method used to find the depth of inheritance of a class, the number of
+   * levels between the class and its farthest child. The classes below the
+   * class are visited depth first, without recursion, and the depth of every
+   * class visited is kept so that no class is visited twice.
+   * 
+   * An inheritance cycle cannot be declared by valid source. Should one be
+   * found, the relationship leading back to a class still being visited is
+   * ignored, so the depth of each class on the cycle is that of the cycle
+   * broken at that relationship.
+   * 
+   * @param theClassName
+   *          The name of the class
+   * @return the depth of inheritance of the class, 0 if it has no children
+   */
+  public int getDepth(String theClassName)
+  {
+
+    // the classes currently being visited, innermost first
+    LinkedList<DepthFrame> frameStack = new LinkedList<DepthFrame>();
+    // the names of the classes currently being visited
+    Set<String> visitingSet = new HashSet<String>();
+
+    if (!depthMap.containsKey(theClassName))
+    {
+
+      frameStack.addFirst(new DepthFrame(theClassName));
+      visitingSet.add(theClassName);
+
+    }
+
+    while (!frameStack.isEmpty())
+    {
+
+      DepthFrame currFrame = frameStack.getFirst();
+
+      if (currFrame.children.hasNext())
+      {
+
+        String childName = currFrame.children.next();
+        Integer childDepth = depthMap.get(childName);
+
+        if (childDepth != null)
+        {
+
+          // a child already calculated adds 1 to its own depth
+          currFrame.depth = Math.max(currFrame.depth, childDepth + 1);
+
+        }
+        else if (!visitingSet.contains(childName))
+        {
+
+          // the child must be calculated before the class
+          frameStack.addFirst(new DepthFrame(childName));
+          visitingSet.add(childName);
+
+        }
+
+        // otherwise the child closes a cycle and is ignored
+
+      }
+      else
+      {
+
+        // every child has been calculated, so the class is complete
+        frameStack.removeFirst();
+        visitingSet.remove(currFrame.className);
+        depthMap.put(currFrame.className, currFrame.depth);
+
+        if (!frameStack.isEmpty())
+        {
+
+          DepthFrame parentFrame = frameStack.getFirst();
+
+          parentFrame.depth = Math.max(parentFrame.depth,
+              currFrame.depth + 1);
+
+        }
+
+      }
+
+    }
+
+    return depthMap.get(theClassName);
+
+  }
+
+  /**
+   * A class being visited by getDepth, along with the children still to be
+   * visited and the greatest depth found so far.
+   */
+  private class DepthFrame
+  {
+
+    /**
+     * The name of the class.
+     */
+    private String className;
+
+    /**
+     * The children of the class still to be visited.
+     */
+    private Iterator<String> children;
+
+    /**
+     * The greatest depth of inheritance found so far.
+     */
+    private int depth;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theClassName
+     *          The name of the class
+     */
+    DepthFrame(String theClassName)
+    {
+
+      this.className = theClassName;
+      this.children = getChildren(theClassName).iterator();
+      this.depth = 0;
+
+    }
+
+  }
+
+}
@@ -1,32 +1,38 @@
 package edu.monmouth.se.oopap;
 
-import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * This class defines a node structure that stores a class name and a 
- * list of its children.
+ * set of its children. The children are kept in the order they were added,
+ * and a child added more than once is only kept once.
  * 
  * @author Jason Schramm
  * @version %I% %G% 
  */
-public class ClassStructureNode
+public class ClassStructureNode implements Serializable
 {
 
+	// the version of the serialized form of the node
+	private static final long serialVersionUID = 1L;
+
 	//String to hold the name of the class
 	String className;
-	//ArrayList of Strings to hold the names of every child
-	ArrayList<String> children;
+	//Set of Strings to hold the names of every child
+	Set<String> children;
 
 	/**
-	 * Constructor that initializes an empty child list.
+	 * Constructor that initializes an empty child set.
 	 */
 	public ClassStructureNode()
 	{
-	    this.children = new ArrayList<String>();
+	    this.children = new LinkedHashSet<String>();
 	}
 
 	/**
-	 * Constructor that initializes an empty child list,
+	 * Constructor that initializes an empty child set,
 	 * taking a class name to set for the node.
 	 * 
 	 * @param parentName: string of parent class name (superclass)
@@ -34,27 +40,28 @@ public class ClassStructureNode
 	public ClassStructureNode(String parentName)
 	{
 		this.className = parentName;
-	    this.children = new ArrayList<String>();
+	    this.children = new LinkedHashSet<String>();
 	}
 
 	/**
-	 *
-	 * Constructor that initializes an empty children list,
+	 * 
+	 * Constructor that initializes an empty children set,
 	 * taking a class name and child name to set for the node.
-	 * Adds the child class name to the children list.
+	 * Adds the child class name to the children set.
 	 * 
 	 * @param parentName: string of parent class name (superclass)
 	 * @param childName: string of child class name (subclass)
 	 */
 	public ClassStructureNode(String parentName, String childName)
 	{
-	  this.children = new ArrayList<String>();
+	  this.children = new LinkedHashSet<String>();
 		this.className = parentName;
 		this.children.add(childName);
 	}
 	
 	/**
-	 * Method to add a child's class name to the children list.
+	 * Method to add a child's class name to the children set, unless it is
+	 * already a child.
 	 * 
 	 * @param theChildName: string of child class name
 	 */
@@ -66,9 +73,9 @@ public class ClassStructureNode
 	/**
 	 * Method responsible for returning the children nodes (subclasses).
 	 * 
-	 * @return String list of children.
+	 * @return String set of children.
 	 */
-	public ArrayList<String> getChildren()
+	public Set<String> getChildren()
 	{
 		return this.children;
 	}
@@ -76,7 +83,7 @@ public class ClassStructureNode
 	/**
 	 * Method responsible for returning the number of children (subclasses) of the node.
 	 * 
-	 * @return Integer representing number of children in children list.
+	 * @return Integer representing number of children in children set.
 	 */
 	public int getNumberChildren()
 	{
@@ -90,7 +97,7 @@ public class ClassStructureNode
 	 */
 	public String[] getChildrenArray()
 	{
-		return (String[])this.children.toArray();
+		return this.children.toArray(new String[this.children.size()]);
 	}
 	
 	/**
@@ -10,12 +10,35 @@ public class OOPAP
 {
 
   /**
-   * Launch the application. No arguments.
+   * Launch the application. Without arguments the graphical interface is
+   * shown. With arguments the analysis is run from the command line, see
+   * OOPAPCommandLine, and no Swing or AWT classes are loaded.
    * 
    * @param args
-   *          None arguments needed
+   *          None for the graphical interface, otherwise the arguments of the
+   *          command line interface
    */
   public static void main(String args[])
+  {
+
+    if (args.length > 0)
+    {
+
+      OOPAPCommandLine.main(args);
+
+      return;
+
+    }
+
+    launchGUI();
+
+  }
+
+  /**
+   * Method used to show the graphical interface. Kept apart from main so that
+   * the classes of the interface are only loaded when it is shown.
+   */
+  private static void launchGUI()
   {
 
     try
@@ -0,0 +1,773 @@
+package edu.monmouth.se.oopap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.monmouth.se.oopap.cohort.CohortAggregator;
+import edu.monmouth.se.oopap.io.CSVWriter;
+import edu.monmouth.se.oopap.io.FileUtil;
+import edu.monmouth.se.oopap.io.ResultsFile;
+
+/**
+ * Headless driver used to analyze a batch of submissions in a single run. Each
+ * submission is the source of one student for one project and is analyzed by
+ * a controller of its own, writing its reports to the usual
+ * <Project>/<Student> directory beneath the output path. The submissions are
+ * analyzed concurrently by a fixed number of workers.
+ * 
+ * The submissions are listed either by a manifest or by the layout of a
+ * directory. A manifest is a text file with a line for each submission of the
+ * form "project,student,path", where a relative path is relative to the
+ * manifest. The manifest is read as UTF-8, so that the names of the students
+ * are read alike on every platform. Blank lines and lines beginning with '#'
+ * are ignored. A directory of submissions holds a directory for each
+ * project, which in turn holds a directory for each student containing the
+ * source of the student.
+ * 
+ * With -cohort every submission also writes a results file, and once the
+ * batch is complete the results of the students of each project are
+ * aggregated into <Project>/<Project>_Cohort.csv, holding the mean, median,
+ * standard deviation and percentiles of every metric of every report.
+ * 
+ * With -cache the partial results of the files analyzed are kept in the
+ * directory given, shared by every submission, so that regrading the same
+ * submissions only analyzes the files that have changed.
+ * 
+ * Usage: OOPAPBatch [-threads n] [-extension .java] [-cache dir] [-workbook]
+ * [-results] [-cohort] submissions output
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class OOPAPBatch
+{
+
+  /**
+   * The charset the manifests are encoded with.
+   */
+  private static final Charset MANIFEST_CHARSET = Charset.forName("UTF-8");
+
+  /**
+   * The path the reports are written beneath.
+   */
+  private String outputPath;
+
+  /**
+   * The extension of the source files to be analyzed.
+   */
+  private String sourceExtension;
+
+  /**
+   * The number of submissions analyzed at once.
+   */
+  private int workerCount;
+
+  /**
+   * Whether the reports of each submission are also written as a workbook.
+   */
+  private boolean workbookExport;
+
+  /**
+   * Whether the results of each submission are also written to a binary
+   * results file.
+   */
+  private boolean resultsExport;
+
+  /**
+   * The directory the partial results of the files analyzed are cached in,
+   * or null if the results are not cached.
+   */
+  private File analysisCacheDirectory;
+
+  /**
+   * The submissions to be analyzed, in the order they were added.
+   */
+  private List<Submission> submissionList;
+
+  /**
+   * The number of submissions whose analysis failed in the last run.
+   */
+  private int failedCount;
+
+  /**
+   * Primary constructor. Analyzes ".java" files, as many submissions at once
+   * as there are processors available.
+   * 
+   * @param theOutputPath
+   *          The path the reports are written beneath
+   */
+  public OOPAPBatch(String theOutputPath)
+  {
+
+    this.outputPath = theOutputPath;
+    this.sourceExtension = ".java";
+    this.workerCount = Runtime.getRuntime().availableProcessors();
+    this.submissionList = new ArrayList<Submission>();
+
+  }
+
+  /**
+   * Method used to set the extension of the source files to be analyzed.
+   * 
+   * @param theSourceExtension
+   *          The extension, including the period
+   */
+  public void setSourceExtension(String theSourceExtension)
+  {
+
+    this.sourceExtension = theSourceExtension;
+
+  }
+
+  /**
+   * Method used to set whether the reports of each submission are also
+   * written as the sheets of a single workbook.
+   * 
+   * @param theWorkbookExport
+   *          true to write a workbook for each submission
+   */
+  public void setWorkbookExport(boolean theWorkbookExport)
+  {
+
+    this.workbookExport = theWorkbookExport;
+
+  }
+
+  /**
+   * Method used to set whether the results of each submission are also
+   * written to a single binary results file.
+   * 
+   * @param theResultsExport
+   *          true to write a results file for each submission
+   */
+  public void setResultsExport(boolean theResultsExport)
+  {
+
+    this.resultsExport = theResultsExport;
+
+  }
+
+  /**
+   * Method used to set the directory the partial results of the files
+   * analyzed are cached in. The directory is shared by every submission.
+   * 
+   * @param theAnalysisCacheDirectory
+   *          The directory, or null if the results are not to be cached
+   */
+  public void setAnalysisCacheDirectory(File theAnalysisCacheDirectory)
+  {
+
+    this.analysisCacheDirectory = theAnalysisCacheDirectory;
+
+  }
+
+  /**
+   * Method used to aggregate the results of the students of each project,
+   * once the batch has been run with results files, into a cohort report
+   * named <Project>_Cohort.csv in the directory of the project. A submission
+   * without a results file, such as one whose analysis failed, is left out.
+   * 
+   * @return the cohort report of each project, in the order the projects
+   *         were added
+   * @throws IOException
+   *           If a results file can not be read or a report written.
+   */
+  public List<File> writeCohortReports() throws IOException
+  {
+
+    // Map to hold the project to results files association
+    Map<String, List<File>> projectMap = new LinkedHashMap<String, List<File>>();
+    // List to hold the cohort report of each project
+    List<File> reportList = new ArrayList<File>();
+
+    for (Submission currSubmission : submissionList)
+    {
+
+      File currResults = new File(new File(new File(outputPath,
+          currSubmission.projectName), currSubmission.studentName),
+          currSubmission.studentName + "_" + currSubmission.projectName
+              + ResultsFile.FILE_EXTENSION);
+
+      if (!projectMap.containsKey(currSubmission.projectName))
+      {
+
+        projectMap.put(currSubmission.projectName, new ArrayList<File>());
+
+      }
+      if (currResults.exists())
+      {
+
+        projectMap.get(currSubmission.projectName).add(currResults);
+
+      }
+
+    }
+
+    for (Map.Entry<String, List<File>> currProject : projectMap.entrySet())
+    {
+
+      CohortAggregator aggregator = new CohortAggregator();
+      File currReport = new File(new File(outputPath, currProject.getKey()),
+          currProject.getKey() + "_Cohort.csv");
+      CSVWriter csvWriter;
+
+      aggregator.setThreadCount(workerCount);
+      aggregator.addResultsFiles(currProject.getValue());
+      currReport.getParentFile().mkdirs();
+      csvWriter = new CSVWriter(currReport);
+
+      try
+      {
+
+        aggregator.writeWorksheetReport(csvWriter);
+
+      }
+      finally
+      {
+
+        csvWriter.close();
+
+      }
+
+      reportList.add(currReport);
+
+    }
+
+    return reportList;
+
+  }
+
+  /**
+   * Method used to set the number of submissions analyzed at once.
+   * 
+   * @param theWorkerCount
+   *          The number of workers, a count less than 1 is treated as 1
+   */
+  public void setWorkerCount(int theWorkerCount)
+  {
+
+    this.workerCount = Math.max(1, theWorkerCount);
+
+  }
+
+  /**
+   * Method used to add a single submission to the batch.
+   * 
+   * @param theProjectName
+   *          The name of the project
+   * @param theStudentName
+   *          The name of the student
+   * @param theSourcePath
+   *          The path containing the source of the submission
+   */
+  public void addSubmission(String theProjectName, String theStudentName,
+      String theSourcePath)
+  {
+
+    this.submissionList.add(new Submission(theProjectName, theStudentName,
+        theSourcePath));
+
+  }
+
+  /**
+   * Method used to retrieve the number of submissions in the batch.
+   * 
+   * @return the number of submissions
+   */
+  public int getSubmissionCount()
+  {
+
+    return this.submissionList.size();
+
+  }
+
+  /**
+   * Method used to retrieve the number of submissions whose analysis failed
+   * in the last run of the batch.
+   * 
+   * @return the number of failed submissions
+   */
+  public int getFailedCount()
+  {
+
+    return this.failedCount;
+
+  }
+
+  /**
+   * Method used to add every submission listed by a manifest to the batch.
+   * The manifest is decoded as UTF-8.
+   * 
+   * @param theManifest
+   *          The manifest listing the submissions
+   * @throws IOException
+   *           If the manifest cannot be read or a line is malformed.
+   */
+  public void addManifest(File theManifest) throws IOException
+  {
+
+    List<String> manifestContents = FileUtil.getSourceFileContents(
+        theManifest, MANIFEST_CHARSET);
+
+    for (int i = 0; i < manifestContents.size(); i++)
+    {
+
+      String currLine = manifestContents.get(i).trim();
+
+      // skip blank lines and comments
+      if (currLine.length() == 0 || currLine.startsWith("#"))
+      {
+
+        continue;
+
+      }
+
+      String[] currFields = currLine.split(",", 3);
+
+      if (currFields.length != 3)
+      {
+
+        throw new IOException(theManifest + ":" + (i + 1)
+            + ": expected project,student,path");
+
+      }
+
+      File currSourcePath = new File(currFields[2].trim());
+
+      // relative paths are relative to the manifest
+      if (!currSourcePath.isAbsolute())
+      {
+
+        currSourcePath = new File(theManifest.getAbsoluteFile()
+            .getParentFile(), currFields[2].trim());
+
+      }
+
+      this.addSubmission(currFields[0].trim(), currFields[1].trim(),
+          currSourcePath.getPath());
+
+    }
+
+  }
+
+  /**
+   * Method used to add every submission beneath a directory of submissions,
+   * laid out as <Project>/<Student>, to the batch. Projects and students are
+   * added in order of their names.
+   * 
+   * @param theSubmissionPath
+   *          The directory of submissions
+   * @throws IOException
+   *           If the directory cannot be listed.
+   */
+  public void addSubmissionDirectory(File theSubmissionPath)
+      throws IOException
+  {
+
+    for (File currProject : listDirectories(theSubmissionPath))
+    {
+
+      for (File currStudent : listDirectories(currProject))
+      {
+
+        this.addSubmission(currProject.getName(), currStudent.getName(),
+            currStudent.getPath());
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to analyze every submission in the batch. The failure of one
+   * submission does not stop the others from being analyzed.
+   * 
+   * @return a line for each submission, in the order the submissions were
+   *         added, stating whether its analysis succeeded
+   */
+  public List<String> runBatch()
+  {
+
+    // List to hold the outcome of each submission
+    List<String> outcomeList = new ArrayList<String>();
+    ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+
+    this.failedCount = 0;
+    new File(outputPath).mkdirs();
+
+    try
+    {
+
+      // List to hold the pending analysis of each submission
+      List<Future<Object>> futureList = new ArrayList<Future<Object>>();
+
+      for (final Submission currSubmission : submissionList)
+      {
+
+        futureList.add(executor.submit(new Callable<Object>()
+        {
+
+          public Object call() throws Exception
+          {
+
+            analyzeSubmission(currSubmission);
+
+            return null;
+
+          }
+
+        }));
+
+      }
+
+      for (int i = 0; i < submissionList.size(); i++)
+      {
+
+        Submission currSubmission = submissionList.get(i);
+        String currName = currSubmission.projectName + "/"
+            + currSubmission.studentName;
+
+        try
+        {
+
+          futureList.get(i).get();
+          outcomeList.add(currName + ": OK");
+
+        }
+        catch (ExecutionException e)
+        {
+
+          outcomeList.add(currName + ": FAILED " + e.getCause());
+          this.failedCount++;
+
+        }
+        catch (InterruptedException e)
+        {
+
+          Thread.currentThread().interrupt();
+          outcomeList.add(currName + ": INTERRUPTED");
+          this.failedCount++;
+
+        }
+
+      }
+
+    }
+    finally
+    {
+
+      executor.shutdownNow();
+
+    }
+
+    return outcomeList;
+
+  }
+
+  /**
+   * Method used to analyze a single submission with a controller of its own.
+   * The submissions already run concurrently, so each is analyzed on the
+   * thread of its worker.
+   * 
+   * @param theSubmission
+   *          The submission to be analyzed
+   * @throws Exception
+   *           If the submission cannot be analyzed.
+   */
+  private void analyzeSubmission(Submission theSubmission) throws Exception
+  {
+
+    OOPAPController controller = new OOPAPController();
+
+    // a submission without source fails in the controller rather than
+    // reporting an empty program
+    controller.setAnalysisThreadCount(1);
+    controller.setWorkbookExport(workbookExport);
+    controller.setResultsExport(resultsExport);
+    controller.setAnalysisCacheDirectory(analysisCacheDirectory);
+    controller.runAnalysis(theSubmission.sourcePath, sourceExtension,
+        outputPath, theSubmission.studentName, theSubmission.projectName);
+
+  }
+
+  /**
+   * Method used to list the directories within a directory, in order of their
+   * names. Directories whose names begin with a period are skipped.
+   * 
+   * @param theDirectory
+   *          The directory to be listed
+   * @return the directories within the directory
+   * @throws IOException
+   *           If the directory cannot be listed.
+   */
+  private static List<File> listDirectories(File theDirectory)
+      throws IOException
+  {
+
+    File[] files = theDirectory.listFiles();
+    List<File> directoryList = new ArrayList<File>();
+
+    if (files == null)
+    {
+
+      throw new IOException("Unable to list " + theDirectory);
+
+    }
+
+    Arrays.sort(files);
+
+    for (File currFile : files)
+    {
+
+      if (currFile.isDirectory() && !currFile.getName().startsWith("."))
+      {
+
+        directoryList.add(currFile);
+
+      }
+
+    }
+
+    return directoryList;
+
+  }
+
+  /**
+   * Run a batch of submissions.
+   * 
+   * @param args
+   *          [-threads n] [-extension .java] [-cache dir] [-workbook]
+   *          [-results] [-cohort] submissions output, where submissions is
+   *          either a manifest or a directory of submissions
+   */
+  public static void main(String args[])
+  {
+
+    System.exit(run(args));
+
+  }
+
+  /**
+   * Method used to run the batch described by the arguments.
+   * 
+   * @param args
+   *          The arguments of the batch, as described by the usage
+   * @return the exit status, 0 if every submission was analyzed, 1 if the
+   *         analysis of any submission failed and 2 if the arguments are not
+   *         valid or the batch could not be run
+   */
+  public static int run(String args[])
+  {
+
+    // the number of workers, 0 for the default
+    int workerCount = 0;
+    // the extension of the source files
+    String sourceExtension = ".java";
+    // the directory the results are cached in, null if they are not cached
+    File analysisCacheDirectory = null;
+    // whether a workbook is written for each submission
+    boolean workbookExport = false;
+    // whether a results file is written for each submission
+    boolean resultsExport = false;
+    // whether the results of each project are aggregated once the batch is
+    // complete
+    boolean cohortReport = false;
+    // the index of the first argument that is not an option
+    int argIndex = 0;
+
+    try
+    {
+
+      // read the options
+      while (argIndex + 1 < args.length && args[argIndex].startsWith("-"))
+      {
+
+        if (args[argIndex].equals("-workbook"))
+        {
+
+          // an option without a value
+          workbookExport = true;
+          argIndex++;
+          continue;
+
+        }
+        else if (args[argIndex].equals("-results"))
+        {
+
+          // an option without a value
+          resultsExport = true;
+          argIndex++;
+          continue;
+
+        }
+        else if (args[argIndex].equals("-cohort"))
+        {
+
+          // the cohort is aggregated from the results files
+          cohortReport = true;
+          resultsExport = true;
+          argIndex++;
+          continue;
+
+        }
+        else if (args[argIndex].equals("-threads"))
+        {
+
+          workerCount = Integer.parseInt(args[argIndex + 1]);
+
+        }
+        else if (args[argIndex].equals("-extension"))
+        {
+
+          sourceExtension = args[argIndex + 1];
+
+        }
+        else if (args[argIndex].equals("-cache"))
+        {
+
+          analysisCacheDirectory = new File(args[argIndex + 1]);
+
+        }
+        else
+        {
+
+          break;
+
+        }
+
+        argIndex += 2;
+
+      }
+
+      if (args.length - argIndex != 2)
+      {
+
+        System.err.println("Usage: OOPAPBatch [-threads n] "
+            + "[-extension .java] [-cache dir] [-workbook] [-results] "
+            + "[-cohort] <manifest|submissions dir> <output dir>");
+
+        return 2;
+
+      }
+
+      File submissions = new File(args[argIndex]);
+      OOPAPBatch batch = new OOPAPBatch(args[argIndex + 1]);
+
+      batch.setSourceExtension(sourceExtension);
+      batch.setWorkbookExport(workbookExport);
+      batch.setResultsExport(resultsExport);
+      batch.setAnalysisCacheDirectory(analysisCacheDirectory);
+
+      if (workerCount > 0)
+      {
+
+        batch.setWorkerCount(workerCount);
+
+      }
+
+      if (submissions.isDirectory())
+      {
+
+        batch.addSubmissionDirectory(submissions);
+
+      }
+      else
+      {
+
+        batch.addManifest(submissions);
+
+      }
+
+      for (String currOutcome : batch.runBatch())
+      {
+
+        System.out.println(currOutcome);
+
+      }
+
+      System.out.println(batch.getSubmissionCount() + " submissions, "
+          + batch.getFailedCount() + " failed");
+
+      if (cohortReport)
+      {
+
+        for (File currReport : batch.writeCohortReports())
+        {
+
+          System.out.println("Cohort report: " + currReport);
+
+        }
+
+      }
+
+      return batch.getFailedCount() == 0 ? 0 : 1;
+
+    }
+    // catch any unexpected exceptions
+    catch (Exception e)
+    {
+
+      e.printStackTrace();
+
+      return 2;
+
+    }
+
+  }
+
+  /**
+   * The source of one student for one project.
+   */
+  private static class Submission
+  {
+
+    /**
+     * The name of the project.
+     */
+    private String projectName;
+
+    /**
+     * The name of the student.
+     */
+    private String studentName;
+
+    /**
+     * The path containing the source.
+     */
+    private String sourcePath;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theProjectName
+     *          The name of the project
+     * @param theStudentName
+     *          The name of the student
+     * @param theSourcePath
+     *          The path containing the source
+     */
+    Submission(String theProjectName, String theStudentName,
+        String theSourcePath)
+    {
+
+      this.projectName = theProjectName;
+      this.studentName = theStudentName;
+      this.sourcePath = theSourcePath;
+
+    }
+
+  }
+
+}
@@ -0,0 +1,264 @@
+package edu.monmouth.se.oopap;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+
+/**
+ * Command line interface for the OOPAP application. Drives the controller
+ * directly, writing the reports to the output path and the console report to
+ * standard output, without loading any of the Swing or AWT classes used by the
+ * graphical interface, so that it may be run on machines without a display.
+ * 
+ * Usage: OOPAP -source path -output path -student name -project name
+ * [-extension .java] [-threads n] [-include glob] [-exclude glob]
+ * [-cache dir] [-pipelined] [-workbook] [-results] [-quiet]
+ * 
+ * With -cache the partial results of the files analyzed are kept in the
+ * directory given, so that the files of a submission analyzed again,
+ * unchanged, are not analyzed at all.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class OOPAPCommandLine
+{
+
+  /**
+   * The usage message printed when the arguments are not valid.
+   */
+  private static final String USAGE = "Usage: OOPAP -source <path> "
+      + "-output <path> -student <name> -project <name>\n"
+      + "       [-extension .java] [-threads n] [-include glob] "
+      + "[-exclude glob]\n"
+      + "       [-cache dir] [-pipelined] [-workbook] [-results] [-quiet]";
+
+  /**
+   * Run the analysis described by the arguments.
+   * 
+   * @param args
+   *          The arguments of the analysis, as described by the usage
+   */
+  public static void main(String args[])
+  {
+
+    System.exit(run(args));
+
+  }
+
+  /**
+   * Method used to run the analysis described by the arguments.
+   * 
+   * @param args
+   *          The arguments of the analysis
+   * @return the exit status, 0 on success, 1 if the analysis failed or the
+   *         source path does not exist and 2 if the arguments are not valid
+   */
+  public static int run(String args[])
+  {
+
+    // Initialize the controller for the application
+    OOPAPController controller = new OOPAPController();
+    // the values of the arguments
+    String sourcePath = null;
+    String outputPath = null;
+    String studentName = null;
+    String projectName = null;
+    String sourceExtension = ".java";
+    // whether the console report is written to standard output
+    boolean quiet = false;
+
+    try
+    {
+
+      for (int i = 0; i < args.length; i++)
+      {
+
+        String currArg = args[i];
+
+        if (currArg.equals("-pipelined"))
+        {
+
+          controller.setPipelinedAnalysis(true);
+
+        }
+        else if (currArg.equals("-workbook"))
+        {
+
+          controller.setWorkbookExport(true);
+
+        }
+        else if (currArg.equals("-results"))
+        {
+
+          controller.setResultsExport(true);
+
+        }
+        else if (currArg.equals("-quiet"))
+        {
+
+          quiet = true;
+
+        }
+        else if (i + 1 >= args.length)
+        {
+
+          // every other option takes a value
+          return usage("Missing value for " + currArg);
+
+        }
+        else if (currArg.equals("-source"))
+        {
+
+          sourcePath = args[++i];
+
+        }
+        else if (currArg.equals("-output"))
+        {
+
+          outputPath = args[++i];
+
+        }
+        else if (currArg.equals("-student"))
+        {
+
+          studentName = args[++i];
+
+        }
+        else if (currArg.equals("-project"))
+        {
+
+          projectName = args[++i];
+
+        }
+        else if (currArg.equals("-extension"))
+        {
+
+          sourceExtension = args[++i];
+
+        }
+        else if (currArg.equals("-threads"))
+        {
+
+          controller.setAnalysisThreadCount(Integer.parseInt(args[++i]));
+
+        }
+        else if (currArg.equals("-include"))
+        {
+
+          controller.addSourceInclude(args[++i]);
+
+        }
+        else if (currArg.equals("-exclude"))
+        {
+
+          controller.addSourceExclude(args[++i]);
+
+        }
+        else if (currArg.equals("-cache"))
+        {
+
+          controller.setAnalysisCacheDirectory(new File(args[++i]));
+
+        }
+        else
+        {
+
+          return usage("Unknown option " + currArg);
+
+        }
+
+      }
+
+    }
+    catch (NumberFormatException e)
+    {
+
+      return usage("Invalid number " + e.getMessage());
+
+    }
+
+    if (sourcePath == null || outputPath == null || studentName == null
+        || projectName == null)
+    {
+
+      return usage("-source, -output, -student and -project are required");
+
+    }
+
+    // the controller only creates the project and student directories
+    new File(outputPath).mkdirs();
+
+    try
+    {
+
+      controller.runAnalysis(sourcePath, sourceExtension, outputPath,
+          studentName, projectName);
+
+    }
+    catch (FileNotFoundException e)
+    {
+
+      // a report that can not be created is not found either
+      if (new File(sourcePath).exists())
+      {
+
+        e.printStackTrace();
+
+      }
+      else
+      {
+
+        System.err.println("Source path not found: " + e.getMessage());
+
+      }
+
+      return 1;
+
+    }
+    // report any problem with the analysis
+    catch (Exception e)
+    {
+
+      e.printStackTrace();
+
+      return 1;
+
+    }
+
+    if (!quiet)
+    {
+
+      List<String> fullConsoleReport = controller.getFullConsoleReport();
+
+      for (String currReportLine : fullConsoleReport)
+      {
+
+        System.out.println(currReportLine);
+
+      }
+
+    }
+
+    return 0;
+
+  }
+
+  /**
+   * Method used to report arguments that are not valid.
+   * 
+   * @param theMessage
+   *          The problem with the arguments
+   * @return the exit status for arguments that are not valid
+   */
+  private static int usage(String theMessage)
+  {
+
+    System.err.println(theMessage);
+    System.err.println(USAGE);
+
+    return 2;
+
+  }
+
+}
@@ -5,12 +5,22 @@ import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 
 import edu.monmouth.se.oopap.enumerator.ReportType;
 import edu.monmouth.se.oopap.exception.UnhandledReportTypeException;
 import edu.monmouth.se.oopap.io.FileUtil;
-import edu.monmouth.se.oopap.io.CSVUtil;
+import edu.monmouth.se.oopap.io.CSVWriter;
+import edu.monmouth.se.oopap.io.SourceFileFinder;
+import edu.monmouth.se.oopap.io.ResultsFile;
+import edu.monmouth.se.oopap.io.ResultsFileWriter;
+import edu.monmouth.se.oopap.io.TeeWorksheetWriter;
+import edu.monmouth.se.oopap.io.WorksheetWriter;
+import edu.monmouth.se.oopap.io.XLSXWriter;
+import edu.monmouth.se.oopap.sourceanalyzer.AnalysisCache;
+import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalysisEngine;
+import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalysisPipeline;
 import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalyzer;
 import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalyzerFactory;
 
@@ -34,6 +44,47 @@ public class OOPAPController
    * reports run by the controller
    */
   List<String> fullConsoleReport;
+
+  /**
+   * The number of threads the analyzers are run on. Defaults to the number of
+   * processors available.
+   */
+  int analysisThreadCount;
+
+  /**
+   * List of the globs a source file must match one of to be analyzed. When
+   * empty every source file is analyzed.
+   */
+  List<String> includeList;
+
+  /**
+   * List of the globs of the source files and directories to be skipped.
+   */
+  List<String> excludeList;
+
+  /**
+   * Whether the source is analyzed as a pipeline, overlapping the discovery
+   * and reading of the files with their analysis.
+   */
+  boolean pipelinedAnalysis;
+
+  /**
+   * The directory the partial results of the files analyzed are cached in,
+   * so that unchanged files are not analyzed again. Null if the results are
+   * not cached.
+   */
+  File analysisCacheDirectory;
+
+  /**
+   * Whether every report is also written as a sheet of a single workbook.
+   */
+  boolean workbookExport;
+
+  /**
+   * Whether the results of every report are also written to a single binary
+   * results file.
+   */
+  boolean resultsExport;
   
   /**
    * Primary constructor.
@@ -42,6 +93,11 @@ public class OOPAPController
   {
 
     fullConsoleReport = new ArrayList<String>();
+    // run the analyzers on every available processor
+    analysisThreadCount = Runtime.getRuntime().availableProcessors();
+    // analyze every source file unless told otherwise
+    includeList = new ArrayList<String>();
+    excludeList = new ArrayList<String>();
     // initialize the list to hold the reports
     reportList = new ArrayList<ReportType>();
 
@@ -65,20 +121,30 @@ public class OOPAPController
     reportList.add(ReportType.SumOfCommentAndCommented);
     reportList.add(ReportType.ResponseForAClass);
     reportList.add(ReportType.CodingViolation);
+    //5th release reports
+    reportList.add(ReportType.DecisionAndLoopCountByPCO);
+    reportList.add(ReportType.GlobalVarCountByPC);
+    reportList.add(ReportType.TotalOperators);
+    reportList.add(ReportType.TotalLibraryCalls);
+    reportList.add(ReportType.Top5_20PercentOfCalculations);
+    reportList.add(ReportType.MeanMedStdDeviationOfCalcCount);
     
 
   }
 
   /**
    * Method used to run the analysis of the source. The application will run an
-   * analysis on all of the files within a directory with the provided
-   * extension. All the files within the directory are considered to be part of
-   * the same program.
+   * analysis on all of the files beneath a directory with the provided
+   * extension, walking its subdirectories. All the files beneath the directory
+   * are considered to be part of the same program, and each is named by its
+   * path relative to the directory.
    * 
    * @param theSourcePath
    *          The path containing the file(s) to be analyzed
    * @param theSourceExtension
    *          The extension of the files to be analyzed
+   * @throws FileNotFoundException
+   *           If the source path does not exist.
    * @throws IOException
    *           If there are any problems reading data from the file.
    * @throws UnhandledReportTypeException
@@ -91,20 +157,37 @@ public class OOPAPController
       throws IOException, UnhandledReportTypeException
   {
 
-    // list that contains the list of source files to be analyzed
-    // obtained by the file util based on the provided path and extension
-    List<File> sourceFileList = new ArrayList<File>();
-    // Map of lists to contain the contents of each file. They key is the
-    // filename, the value is the contents of that file
-    Map<String, List<String>> sourceContentsMap = new HashMap<String, List<String>>();
-    // SourceAnalyer to be used to analyze the source
-    SourceAnalyzer sourceAnalyzer;
+    // finder used to walk the provided path for the files with the provided
+    // extension
+    SourceFileFinder sourceFileFinder = new SourceFileFinder(new File(
+        theSourcePath), theSourceExtension);
+    // Map of files to be analyzed. The key is the filename, the value is the
+    // file. The files are read as they are analyzed.
+    Map<String, File> sourceFileMap = new HashMap<String, File>();
     //File to point to the directory the csv files are going to be output to
     File newOutputPath = new File(theOutputPath);
 
-    // Get the list of files from the path provided by the application
-    sourceFileList = FileUtil.getSourceFileList(theSourcePath,
-        theSourceExtension);
+    // a missing source path is an error rather than a program without files
+    if (!new File(theSourcePath).exists())
+    {
+
+      throw new FileNotFoundException(theSourcePath);
+
+    }
+
+    // add the globs used to filter the files found
+    for (String currGlob : includeList)
+    {
+
+      sourceFileFinder.addInclude(currGlob);
+
+    }
+    for (String currGlob : excludeList)
+    {
+
+      sourceFileFinder.addExclude(currGlob);
+
+    }
     
     //create the directory that is going to contain the csv reports. This will
     //be in the format of .../<Project Name>/<Student Name>
@@ -116,49 +199,415 @@ public class OOPAPController
     this.fullConsoleReport.add("Project Name: " + theProjectName);
     this.fullConsoleReport.add("");
 
-    // Iterate through the entire list of files provided and obtain the
-    // source contents of each file.
-    for (File currFile : sourceFileList)
-    {
+    // engine used to run every analyzer over the source in a single pass
+    SourceAnalysisEngine analysisEngine = new SourceAnalysisEngine(
+        this.analysisThreadCount);
 
-      // get the contents of the current source file and add it to the map
-      List<String> currFileContents = FileUtil.getSourceFileContents(currFile);
+    // skip the analysis of the files whose results are already cached
+    if (this.analysisCacheDirectory != null)
+    {
 
-      sourceContentsMap.put(currFile.getName(), currFileContents);
+      analysisEngine.setAnalysisCache(new AnalysisCache(
+          this.analysisCacheDirectory));
 
     }
 
-    // iterate through the list of report types and run the analysis on all
-    // of the files in the source contents map
+    // iterate through the list of report types and add the concrete
+    // implementation of each to the engine
     for (ReportType currReport : reportList)
     {
 
-      File outputFile = new File(newOutputPath, theStudentName + "_" + theProjectName + "_" + currReport + ".csv");
-      
-      // get the concrete implementation of the
-      sourceAnalyzer = SourceAnalyzerFactory
-          .getConcreteSourceAnalyzer(currReport);
+      analysisEngine.addAnalyzer(SourceAnalyzerFactory
+          .getConcreteSourceAnalyzer(currReport));
+
+    }
+
+    if (this.pipelinedAnalysis)
+    {
+
+      // walk the provided path, reading and analyzing the files as they are
+      // found
+      new SourceAnalysisPipeline(analysisEngine)
+          .analyzeSource(sourceFileFinder);
+
+    }
+    else
+    {
+
+      // Walk the provided path and add each file found to the map of files
+      // to be analyzed.
+      for (File currFile : sourceFileFinder)
+      {
+
+        sourceFileMap.put(sourceFileFinder.getRelativePath(currFile),
+            currFile);
+
+      }
+
+      // run the analysis on the map of source files, reading each file as it
+      // is analyzed
+      analysisEngine.analyzeSourceFiles(sourceFileMap);
+
+    }
 
-      // run the analysis on the map of source contents
-      sourceAnalyzer.analyzeSource(sourceContentsMap);
+    // the workbook holding a sheet for each report, null if none is written
+    XLSXWriter workbookWriter = null;
+
+    if (this.workbookExport)
+    {
+
+      workbookWriter = new XLSXWriter(new File(newOutputPath, theStudentName
+          + "_" + theProjectName + ".xlsx"));
+
+    }
+
+    // the results file holding a table for each report, null if none is
+    // written
+    ResultsFileWriter resultsWriter = null;
+
+    if (this.resultsExport)
+    {
+
+      resultsWriter = new ResultsFileWriter(new File(newOutputPath,
+          theStudentName + "_" + theProjectName
+              + ResultsFile.FILE_EXTENSION));
+
+    }
+
+    // whether every report was written, including the results file
+    boolean reportsWritten = false;
+
+    try
+    {
+
+      this.writeReports(analysisEngine, newOutputPath, theStudentName,
+          theProjectName, workbookWriter, resultsWriter);
+
+      if (resultsWriter != null)
+      {
+
+        // the results file is only written once it holds every report
+        resultsWriter.close();
+
+      }
+
+      reportsWritten = true;
+
+    }
+    finally
+    {
+
+      if (resultsWriter != null && !reportsWritten)
+      {
+
+        // a results file missing any report, or left by an earlier analysis,
+        // would be aggregated as if it were complete
+        resultsWriter.abort();
+
+      }
+
+      if (workbookWriter != null)
+      {
+
+        workbookWriter.close();
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to write the report of every analyzer to its own CSV file
+   * and, if asked, to its own sheet of a workbook and its own table of a
+   * results file. Each report is generated once, however many formats it is
+   * written in.
+   * 
+   * @param theAnalysisEngine
+   *          The engine holding the analyzers, in the order of the reports
+   * @param theOutputPath
+   *          The directory the reports are written to
+   * @param theStudentName
+   *          The name of the student
+   * @param theProjectName
+   *          The name of the project
+   * @param theWorkbookWriter
+   *          The workbook the reports are written to, or null if none is
+   *          written
+   * @param theResultsWriter
+   *          The results file the reports are written to, or null if none is
+   *          written
+   * @throws IOException
+   *           If a report can not be written.
+   */
+  private void writeReports(SourceAnalysisEngine theAnalysisEngine,
+      File theOutputPath, String theStudentName, String theProjectName,
+      XLSXWriter theWorkbookWriter, ResultsFileWriter theResultsWriter)
+      throws IOException
+  {
+
+    // SourceAnalyer whose report is being written
+    SourceAnalyzer sourceAnalyzer;
+    // the writers each report is written to as well as its CSV file
+    List<WorksheetWriter> extraWriterList = new ArrayList<WorksheetWriter>();
+
+    if (theWorkbookWriter != null)
+    {
+
+      extraWriterList.add(theWorkbookWriter);
+
+    }
+
+    if (theResultsWriter != null)
+    {
+
+      extraWriterList.add(theResultsWriter);
+
+    }
+
+    // iterate through the list of report types and generate the reports of
+    // each analyzer. The analyzers are held in the same order as the reports.
+    for (int i = 0; i < reportList.size(); i++)
+    {
+
+      ReportType currReport = reportList.get(i);
+
+      File outputFile = new File(theOutputPath, theStudentName + "_" + theProjectName + "_" + currReport + ".csv");
+      
+      // get the analyzer that produced the current report
+      sourceAnalyzer = theAnalysisEngine.getAnalyzerList().get(i);
 
       List<String> consoleReportContents = 
     	  sourceAnalyzer.generateConsoleReport();
       
-      List<String> csvReportContents = CSVUtil.generateCSVReport(
-          sourceAnalyzer.generateWorksheetReport());
-
       //add the current analyzers contents to the entire console report
       this.fullConsoleReport.addAll(consoleReportContents);
       this.fullConsoleReport.add("\n");
       
-      //write the csv report to disk
-      FileUtil.writeReport(outputFile, csvReportContents);
+      //write the csv report to disk a row at a time
+      CSVWriter csvWriter = new CSVWriter(outputFile);
+      
+      try
+      {
+        
+        if (extraWriterList.isEmpty())
+        {
+          
+          sourceAnalyzer.writeWorksheetReport(csvWriter);
+          
+        }
+        else
+        {
+          
+          //write the same rows to the sheet and the table of the report
+          List<WorksheetWriter> writerList = new ArrayList<WorksheetWriter>();
+          
+          writerList.add(csvWriter);
+          writerList.addAll(extraWriterList);
+          
+          if (theWorkbookWriter != null)
+          {
+            
+            theWorkbookWriter.beginSheet(currReport.toString());
+            
+          }
+          
+          if (theResultsWriter != null)
+          {
+            
+            theResultsWriter.beginReport(currReport.toString());
+            
+          }
+          
+          sourceAnalyzer.writeWorksheetReport(new TeeWorksheetWriter(
+              writerList.toArray(new WorksheetWriter[writerList.size()])));
+          
+        }
+        
+      }
+      finally
+      {
+        
+        csvWriter.close();
+        
+      }
       
     }
 
   }
   
+  /**
+   * Method to set the number of threads the analyzers are run on. A count of 1
+   * runs the analyzers one after the other. The reports produced are the same
+   * regardless of the count.
+   * 
+   * @param theThreadCount
+   *          The number of threads to run the analyzers on
+   */
+  public void setAnalysisThreadCount(int theThreadCount)
+  {
+
+    this.analysisThreadCount = theThreadCount;
+
+  }
+
+  /**
+   * Method to return the number of threads the analyzers are run on.
+   * 
+   * @return The number of threads
+   */
+  public int getAnalysisThreadCount()
+  {
+
+    return this.analysisThreadCount;
+
+  }
+
+  /**
+   * Method to set whether the source is analyzed as a pipeline. In a pipeline
+   * the files are found, read, classified and analyzed by stages running
+   * concurrently, so that reading from disk overlaps with the analysis. The
+   * reports produced are the same either way.
+   * 
+   * @param thePipelinedAnalysis
+   *          true to analyze the source as a pipeline
+   */
+  public void setPipelinedAnalysis(boolean thePipelinedAnalysis)
+  {
+
+    this.pipelinedAnalysis = thePipelinedAnalysis;
+
+  }
+
+  /**
+   * Method to return whether the source is analyzed as a pipeline.
+   * 
+   * @return true if the source is analyzed as a pipeline
+   */
+  public boolean isPipelinedAnalysis()
+  {
+
+    return this.pipelinedAnalysis;
+
+  }
+
+  /**
+   * Method to set the directory the partial results of the files analyzed
+   * are cached in. A file analyzed again, unchanged, by unchanged analyzers
+   * is then not analyzed at all; only the results spanning files are
+   * calculated again. The reports produced are the same either way. The
+   * directory may be shared by any number of students and projects.
+   * 
+   * @param theAnalysisCacheDirectory
+   *          The directory, or null if the results are not to be cached
+   */
+  public void setAnalysisCacheDirectory(File theAnalysisCacheDirectory)
+  {
+
+    this.analysisCacheDirectory = theAnalysisCacheDirectory;
+
+  }
+
+  /**
+   * Method to return the directory the partial results of the files analyzed
+   * are cached in.
+   * 
+   * @return The directory, or null if the results are not cached
+   */
+  public File getAnalysisCacheDirectory()
+  {
+
+    return this.analysisCacheDirectory;
+
+  }
+
+  /**
+   * Method to set whether every report is also written as a sheet of a single
+   * workbook, named <Student Name>_<Project Name>.xlsx, alongside the CSV
+   * reports. The workbook is written a row at a time, so a large report is
+   * never held in memory.
+   * 
+   * @param theWorkbookExport
+   *          true to write the workbook
+   */
+  public void setWorkbookExport(boolean theWorkbookExport)
+  {
+
+    this.workbookExport = theWorkbookExport;
+
+  }
+
+  /**
+   * Method to return whether every report is also written as a sheet of a
+   * single workbook.
+   * 
+   * @return true if the workbook is written
+   */
+  public boolean isWorkbookExport()
+  {
+
+    return this.workbookExport;
+
+  }
+
+  /**
+   * Method to set whether the results of every report are also written to a
+   * single binary results file, named <Student Name>_<Project Name>.oopr,
+   * alongside the CSV reports. The results file may be read back with
+   * ResultsFile.read without parsing any text.
+   * 
+   * @param theResultsExport
+   *          true to write the results file
+   */
+  public void setResultsExport(boolean theResultsExport)
+  {
+
+    this.resultsExport = theResultsExport;
+
+  }
+
+  /**
+   * Method to return whether the results of every report are also written to
+   * a single binary results file.
+   * 
+   * @return true if the results file is written
+   */
+  public boolean isResultsExport()
+  {
+
+    return this.resultsExport;
+
+  }
+
+  /**
+   * Method to add a glob to the globs a source file must match one of to be
+   * analyzed. A glob without a '/' is matched against the name of the file,
+   * otherwise against its path relative to the source path.
+   * 
+   * @param theGlob
+   *          The glob to be matched, such as "Shape*.java"
+   */
+  public void addSourceInclude(String theGlob)
+  {
+
+    this.includeList.add(theGlob);
+
+  }
+
+  /**
+   * Method to add a glob of the source files and directories to be skipped,
+   * such as "build/" or "target/". Directories that match are not walked.
+   * 
+   * @param theGlob
+   *          The glob to be matched
+   */
+  public void addSourceExclude(String theGlob)
+  {
+
+    this.excludeList.add(theGlob);
+
+  }
+
   /**
    * Method to return the full console report. The full console report
    * contains the entire list of SourceAnalyzer console reports, one
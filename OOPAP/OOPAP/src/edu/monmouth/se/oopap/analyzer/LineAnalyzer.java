@@ -14,13 +14,30 @@ public class LineAnalyzer
 
   /**
    * Method used to determine what type of line of code the specified string of
-   * code is.
+   * code is. The line is classified by the LineClassifier in a single scan.
    * 
    * @param aLine
    *          A string containing a line of code.
    * @return the enumerated type of the line type.
    */
   public static LineType getLineType(String aLine)
+  {
+
+    return LineClassifier.getLineType(aLine);
+
+  }
+
+  /**
+   * Method used to determine what type of line of code the specified string of
+   * code is using the original chain of regular expressions. This method is
+   * retained as the reference implementation of the line classification rules
+   * and must always agree with getLineType.
+   * 
+   * @param aLine
+   *          A string containing a line of code.
+   * @return the enumerated type of the line type.
+   */
+  public static LineType getLegacyLineType(String aLine)
   {
 
     // The final line type to be returned
@@ -340,57 +357,20 @@ public class LineAnalyzer
     return false;
   }
 
-  public static int getNumOperators (String theSourceLine)
+  /**
+   * Method used to count the operators of a line of code, the arithmetic,
+   * logical and relational operators, in a single scan by the
+   * OperatorCounter. The angle brackets of a type argument are counted as
+   * relational operators, as only the line is known.
+   * 
+   * @param theSourceLine
+   *          A string containing a line of code.
+   * @return the number of operators
+   */
+  public static int getNumOperators(String theSourceLine)
   {
-    int   numOps  = 0;
-    String s  = theSourceLine;
-    
-    int numPlus = theSourceLine.length() - s.replaceAll("+", "").length();
-    s = theSourceLine;
 
-    int numMinus = theSourceLine.length() - s.replaceAll ("-", "").length();
-    s = theSourceLine;
-    
-    int numDiv = theSourceLine.length() - s.replaceAll ("/", "").length();
-    s = theSourceLine;
-    
-    int numMod = theSourceLine.length() - s.replaceAll ("%", "").length();
-    s = theSourceLine;
-    
-    int numAnd = theSourceLine.length() - s.replaceAll ("&&", "").length();
-    s = theSourceLine;
-    
-    int numOr = theSourceLine.length() - s.replaceAll ("||", "").length();
-    s = theSourceLine;
-    
-    int numNot = theSourceLine.length() - s.replaceAll ("!", "").length();
-    s = theSourceLine;
-    
-    int numIsEqual = theSourceLine.length() - s.replaceAll ("==", "").length();
-    s = theSourceLine;
-    
-    int numLessThanEqualTo = theSourceLine.length() - s.replaceAll ("<=", "").length();
-    s = theSourceLine;
-
-    int numLessThan = theSourceLine.length() - s.replaceAll ("<", "").length();
-    s = theSourceLine;
+    return OperatorCounter.countOperators(theSourceLine);
 
-    int numGreaterThan = theSourceLine.length() - s.replaceAll (">", "").length();
-    s = theSourceLine;
-
-    int numGreaterThanEqualTo = theSourceLine.length() - s.replaceAll (">=", "").length();
-    s = theSourceLine;
-    
-    int numNotEqualTo = theSourceLine.length() - s.replaceAll ("!=", "").length();
-    s = theSourceLine;
-
-    int numEqualTo = theSourceLine.length() - s.replaceAll ("!=", "").length();
-    s = theSourceLine;
-   
-    numOps  = numAnd + numDiv + numEqualTo + numGreaterThan + numGreaterThanEqualTo + numIsEqual + 
-                numLessThan + numLessThanEqualTo + numMinus + numMod + numNot + numNotEqualTo + numOps + 
-                numOr + numPlus;
-    
-    return (numOps);
   }
 }
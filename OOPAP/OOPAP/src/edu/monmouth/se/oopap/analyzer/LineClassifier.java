@@ -0,0 +1,395 @@
+package edu.monmouth.se.oopap.analyzer;
+
+import edu.monmouth.se.oopap.enumerator.LineType;
+
+/**
+ * Class responsible for classifying lines of code in a single left to right
+ * scan. The classification produced is identical to the chain of regular
+ * expressions originally used by LineAnalyzer.getLineType, but no Pattern is
+ * compiled and no objects are allocated while a line is classified.
+ * 
+ * The scan gathers every fact the original regular expressions were testing
+ * (whitespace only, comment markers, lone braces, scope modifiers followed by
+ * a class keyword or a '(' and so on) and the same order of precedence is then
+ * applied to those facts.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class LineClassifier
+{
+
+  /**
+   * Marker used by the original rules to ignore lines that are themselves
+   * regular expression searches.
+   */
+  private static final String MATCHES_CALL = ".matches(";
+
+  /**
+   * Literal string the original method declaration rule excluded. This is the
+   * text .*\..* and not a regular expression.
+   */
+  private static final String DOT_STAR_LITERAL = ".*\\..*";
+
+  /**
+   * Method used to determine what type of line of code the specified sequence
+   * of characters is.
+   * 
+   * @param aLine
+   *          A sequence of characters containing a line of code.
+   * @return the enumerated type of the line type.
+   */
+  public static LineType getLineType(CharSequence aLine)
+  {
+
+    // the number of characters in the line
+    int length = aLine.length();
+
+    // true while every character seen is a \s white space character
+    boolean allWhiteSpace = true;
+    // true if the line contains a character '.' will not match
+    boolean hasLineTerminator = false;
+    // comment markers
+    boolean hasLineComment = false;
+    boolean hasOpenComment = false;
+    boolean hasCloseComment = false;
+    // brace counts and the count of every other non white space character
+    int openBraceCount = 0;
+    int closeBraceCount = 0;
+    int otherCount = 0;
+    // true if a ';' or ':' has been seen
+    boolean hasLogicalTerminator = false;
+    // excluded literals
+    boolean hasMatchesCall = false;
+    boolean hasDotStarLiteral = false;
+    // the smallest index immediately following a public or private keyword
+    int firstClassScopeEnd = -1;
+    // the smallest index immediately following a public, private or
+    // protected keyword
+    int firstOperationScopeEnd = -1;
+    // the largest index of a " class " or " enum " keyword
+    int lastClassKeywordStart = -1;
+    // the largest index of a '(' char
+    int lastParenPos = -1;
+
+    for (int i = 0; i < length; i++)
+    {
+
+      char currChar = aLine.charAt(i);
+
+      switch (currChar)
+      {
+
+      case ' ':
+      case '\t':
+      case '\u000B':
+      case '\f':
+
+        // look for the class and enum keywords, surrounded by spaces
+        if (currChar == ' '
+            && (regionMatches(aLine, i, " class ") || regionMatches(aLine, i,
+                " enum ")))
+        {
+
+          lastClassKeywordStart = i;
+
+        }
+
+        break;
+
+      case '\n':
+      case '\r':
+
+        // white space that also terminates a line
+        hasLineTerminator = true;
+
+        break;
+
+      case '{':
+
+        allWhiteSpace = false;
+        openBraceCount++;
+
+        break;
+
+      case '}':
+
+        allWhiteSpace = false;
+        closeBraceCount++;
+
+        break;
+
+      case '/':
+
+        allWhiteSpace = false;
+        otherCount++;
+
+        if (regionMatches(aLine, i, "//"))
+        {
+
+          hasLineComment = true;
+
+        }
+        else if (regionMatches(aLine, i, "/*"))
+        {
+
+          hasOpenComment = true;
+
+        }
+
+        break;
+
+      case '*':
+
+        allWhiteSpace = false;
+        otherCount++;
+
+        if (regionMatches(aLine, i, "*/"))
+        {
+
+          hasCloseComment = true;
+
+        }
+
+        break;
+
+      case '.':
+
+        allWhiteSpace = false;
+        otherCount++;
+
+        if (!hasMatchesCall && regionMatches(aLine, i, MATCHES_CALL))
+        {
+
+          hasMatchesCall = true;
+
+        }
+        if (!hasDotStarLiteral && regionMatches(aLine, i, DOT_STAR_LITERAL))
+        {
+
+          hasDotStarLiteral = true;
+
+        }
+
+        break;
+
+      case '(':
+
+        allWhiteSpace = false;
+        otherCount++;
+        lastParenPos = i;
+
+        break;
+
+      case ';':
+      case ':':
+
+        allWhiteSpace = false;
+        otherCount++;
+        hasLogicalTerminator = true;
+
+        break;
+
+      case 'p':
+
+        allWhiteSpace = false;
+        otherCount++;
+
+        // only the first occurrence of a scope modifier is of interest
+        if (firstOperationScopeEnd < 0)
+        {
+
+          if (regionMatches(aLine, i, "public"))
+          {
+
+            firstClassScopeEnd = i + 6;
+            firstOperationScopeEnd = i + 6;
+
+          }
+          else if (regionMatches(aLine, i, "private"))
+          {
+
+            firstClassScopeEnd = i + 7;
+            firstOperationScopeEnd = i + 7;
+
+          }
+          else if (regionMatches(aLine, i, "protected"))
+          {
+
+            firstOperationScopeEnd = i + 9;
+
+          }
+
+        }
+        else if (firstClassScopeEnd < 0)
+        {
+
+          // a protected keyword has been seen, but protected does not
+          // declare a class
+          if (regionMatches(aLine, i, "public"))
+          {
+
+            firstClassScopeEnd = i + 6;
+
+          }
+          else if (regionMatches(aLine, i, "private"))
+          {
+
+            firstClassScopeEnd = i + 7;
+
+          }
+
+        }
+
+        break;
+
+      case '\u0085':
+      case '\u2028':
+      case '\u2029':
+
+        // line terminators that are not white space
+        allWhiteSpace = false;
+        otherCount++;
+        hasLineTerminator = true;
+
+        break;
+
+      default:
+
+        allWhiteSpace = false;
+        otherCount++;
+
+        break;
+
+      }
+
+    }
+
+    // The remainder of the method applies the rules in the order the original
+    // regular expressions were applied. Every rule but the single line
+    // logical rule ignores a line containing a ".matches(" call.
+
+    if (allWhiteSpace)
+    {
+
+      return LineType.Blank;
+
+    }
+
+    if (!hasMatchesCall)
+    {
+
+      // every rule built from .* requires the line to be free of
+      // line terminators
+      if (!hasLineTerminator && hasLineComment)
+      {
+
+        return LineType.Comment;
+
+      }
+      if (!hasLineTerminator && hasOpenComment)
+      {
+
+        return LineType.OpenComment;
+
+      }
+      if (!hasLineTerminator && hasCloseComment)
+      {
+
+        return LineType.CloseComment;
+
+      }
+      if (otherCount == 0 && openBraceCount == 1 && closeBraceCount == 0)
+      {
+
+        return LineType.OpeningBrace;
+
+      }
+      if (otherCount == 0 && openBraceCount == 0 && closeBraceCount == 1)
+      {
+
+        return LineType.ClosingBrace;
+
+      }
+      if (!hasLineTerminator && regionMatches(aLine, 0, "import "))
+      {
+
+        return LineType.ImportStatement;
+
+      }
+      if (!hasLineTerminator && regionMatches(aLine, 0, "package "))
+      {
+
+        return LineType.PackageDeclaration;
+
+      }
+      if (!hasLineTerminator && firstClassScopeEnd >= 0
+          && firstClassScopeEnd <= lastClassKeywordStart)
+      {
+
+        return LineType.ClassDeclaration;
+
+      }
+      if (!hasLineTerminator && firstOperationScopeEnd >= 0
+          && firstOperationScopeEnd <= lastParenPos && !hasDotStarLiteral)
+      {
+
+        return LineType.MethodDeclaration;
+
+      }
+
+    }
+
+    if (!hasLineTerminator && hasLogicalTerminator)
+    {
+
+      return LineType.SingleLineLogical;
+
+    }
+
+    return LineType.MultiLineLogical;
+
+  }
+
+  /**
+   * Method used to determine if a sequence of characters contains the
+   * provided string at the provided position.
+   * 
+   * @param theSequence
+   *          The sequence of characters to be searched
+   * @param theOffset
+   *          The position within the sequence to compare at
+   * @param theString
+   *          The string to be found
+   * @return true if the string is found at the position
+   */
+  static boolean regionMatches(CharSequence theSequence, int theOffset,
+      String theString)
+  {
+
+    int stringLength = theString.length();
+
+    if (theOffset + stringLength > theSequence.length())
+    {
+
+      return false;
+
+    }
+
+    for (int i = 0; i < stringLength; i++)
+    {
+
+      if (theSequence.charAt(theOffset + i) != theString.charAt(i))
+      {
+
+        return false;
+
+      }
+
+    }
+
+    return true;
+
+  }
+
+}
@@ -0,0 +1,510 @@
+package edu.monmouth.se.oopap.analyzer;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class responsible for finding every occurrence of a number of literal
+ * strings within a sequence of characters in a single left to right scan,
+ * using the automaton of Aho and Corasick. The cost of a search depends on
+ * the length of the text and the number of occurrences found, not on the
+ * number of strings searched for.
+ * 
+ * The strings searched for, the patterns, may be added at any time. The
+ * automaton is completed on the first search following the addition of a
+ * pattern. Once complete, searching allocates no objects.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class MultiStringMatcher
+{
+
+  /**
+   * The number of states and patterns room is first made for.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Receives the occurrences found by a search.
+   */
+  public interface MatchListener
+  {
+
+    /**
+     * Method called for every occurrence of a pattern. Occurrences are
+     * reported in order of the position they end at, longer patterns first
+     * when several end at the same position.
+     * 
+     * @param thePattern
+     *          The index of the pattern found
+     * @param theStart
+     *          The index of the first character of the occurrence
+     * @param theEnd
+     *          The index following the last character of the occurrence
+     */
+    void patternFound(int thePattern, int theStart, int theEnd);
+
+  }
+
+  /**
+   * Map to hold the pattern to pattern index association.
+   */
+  private Map<String, Integer> patternIndexMap;
+
+  /**
+   * The patterns, in the order they were added.
+   */
+  private String[] patterns;
+
+  /**
+   * The number of patterns.
+   */
+  private int patternCount;
+
+  /**
+   * The number of states of the automaton. State 0 is the start state.
+   */
+  private int stateCount;
+
+  /**
+   * The characters labeling the transitions out of each state, sorted.
+   */
+  private char[][] transitionChars;
+
+  /**
+   * The states reached by the transitions out of each state, in the order of
+   * the characters labeling them.
+   */
+  private int[][] transitionStates;
+
+  /**
+   * The number of transitions out of each state.
+   */
+  private int[] transitionCounts;
+
+  /**
+   * The pattern ending at each state, -1 if none.
+   */
+  private int[] statePatterns;
+
+  /**
+   * The length of the string leading to each state.
+   */
+  private int[] stateDepths;
+
+  /**
+   * The state reached on failing to follow a transition out of each state,
+   * the state of the longest proper suffix which is also a prefix of a
+   * pattern.
+   */
+  private int[] failureStates;
+
+  /**
+   * The nearest state along the failure states of each state at which a
+   * pattern ends, -1 if none.
+   */
+  private int[] outputStates;
+
+  /**
+   * Whether patterns have been added since the automaton was completed.
+   */
+  private boolean modified;
+
+  /**
+   * Primary constructor. Creates a matcher without any patterns.
+   */
+  public MultiStringMatcher()
+  {
+
+    this.patternIndexMap = new HashMap<String, Integer>();
+    this.patterns = new String[INITIAL_CAPACITY];
+    this.patternCount = 0;
+
+    this.transitionChars = new char[INITIAL_CAPACITY][];
+    this.transitionStates = new int[INITIAL_CAPACITY][];
+    this.transitionCounts = new int[INITIAL_CAPACITY];
+    this.statePatterns = new int[INITIAL_CAPACITY];
+    this.stateDepths = new int[INITIAL_CAPACITY];
+    this.stateCount = 0;
+    this.newState(0);
+
+    this.modified = true;
+
+  }
+
+  /**
+   * Method used to add a pattern to those searched for. A pattern added more
+   * than once keeps the index it was first given. The empty pattern is given
+   * an index but is never found.
+   * 
+   * @param thePattern
+   *          The pattern
+   * @return the index of the pattern
+   */
+  public int addPattern(String thePattern)
+  {
+
+    Integer patternIndex = patternIndexMap.get(thePattern);
+
+    if (patternIndex != null)
+    {
+
+      return patternIndex;
+
+    }
+
+    if (patternCount == patterns.length)
+    {
+
+      patterns = (String[]) grow(patterns, patternCount * 2);
+
+    }
+
+    patternIndex = patternCount++;
+    patterns[patternIndex] = thePattern;
+    patternIndexMap.put(thePattern, patternIndex);
+
+    if (thePattern.length() > 0)
+    {
+
+      // follow the existing transitions, adding a state for every character
+      // not yet in the trie
+      int currState = 0;
+
+      for (int i = 0; i < thePattern.length(); i++)
+      {
+
+        int nextState = this.getTransition(currState, thePattern.charAt(i));
+
+        if (nextState < 0)
+        {
+
+          nextState = this.newState(i + 1);
+          this.addTransition(currState, thePattern.charAt(i), nextState);
+
+        }
+
+        currState = nextState;
+
+      }
+
+      statePatterns[currState] = patternIndex;
+      modified = true;
+
+    }
+
+    return patternIndex;
+
+  }
+
+  /**
+   * Method used to retrieve the number of patterns.
+   * 
+   * @return the number of patterns
+   */
+  public int getPatternCount()
+  {
+
+    return this.patternCount;
+
+  }
+
+  /**
+   * Method used to retrieve a pattern.
+   * 
+   * @param thePattern
+   *          The index of the pattern
+   * @return the pattern
+   */
+  public String getPattern(int thePattern)
+  {
+
+    return this.patterns[thePattern];
+
+  }
+
+  /**
+   * Method used to retrieve the index of a pattern.
+   * 
+   * @param thePattern
+   *          The pattern
+   * @return the index of the pattern, or -1 if it has not been added
+   */
+  public int getPatternIndex(String thePattern)
+  {
+
+    Integer patternIndex = patternIndexMap.get(thePattern);
+
+    return patternIndex == null ? -1 : patternIndex;
+
+  }
+
+  /**
+   * Method used to find every occurrence of every pattern within a sequence
+   * of characters. Occurrences may overlap.
+   * 
+   * @param theText
+   *          The characters to be searched
+   * @param theListener
+   *          Receives every occurrence found
+   */
+  public void findAll(CharSequence theText, MatchListener theListener)
+  {
+
+    if (modified)
+    {
+
+      this.complete();
+
+    }
+
+    int currState = 0;
+
+    for (int i = 0; i < theText.length(); i++)
+    {
+
+      char currChar = theText.charAt(i);
+      int nextState;
+
+      // fall back along the failure states until the character can be
+      // followed or the start state is reached
+      while ((nextState = this.getTransition(currState, currChar)) < 0
+          && currState != 0)
+      {
+
+        currState = failureStates[currState];
+
+      }
+
+      currState = nextState < 0 ? 0 : nextState;
+
+      // report every pattern ending here, the longest first
+      for (int outputState = statePatterns[currState] >= 0 ? currState
+          : outputStates[currState]; outputState >= 0; outputState =
+          outputStates[outputState])
+      {
+
+        theListener.patternFound(statePatterns[outputState], i + 1
+            - stateDepths[outputState], i + 1);
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to complete the automaton, setting the failure and output
+   * states of every state. The states are visited breadth first, so the
+   * failure state of every shallower state is known.
+   */
+  private void complete()
+  {
+
+    int[] stateQueue = new int[stateCount];
+    int queueHead = 0;
+    int queueTail = 0;
+
+    failureStates = new int[stateCount];
+    outputStates = new int[stateCount];
+
+    stateQueue[queueTail++] = 0;
+    outputStates[0] = -1;
+
+    while (queueHead < queueTail)
+    {
+
+      int currState = stateQueue[queueHead++];
+
+      for (int i = 0; i < transitionCounts[currState]; i++)
+      {
+
+        char currChar = transitionChars[currState][i];
+        int childState = transitionStates[currState][i];
+        int failureState = 0;
+
+        if (currState != 0)
+        {
+
+          // the longest suffix of the parent that can be extended by the
+          // character
+          int suffixState = failureStates[currState];
+
+          while ((failureState = this.getTransition(suffixState, currChar)) < 0
+              && suffixState != 0)
+          {
+
+            suffixState = failureStates[suffixState];
+
+          }
+
+          failureState = Math.max(0, failureState);
+
+        }
+
+        failureStates[childState] = failureState;
+        outputStates[childState] = statePatterns[failureState] >= 0
+            ? failureState : outputStates[failureState];
+        stateQueue[queueTail++] = childState;
+
+      }
+
+    }
+
+    modified = false;
+
+  }
+
+  /**
+   * Method used to find the state reached by following the transition
+   * labeled with a character out of a state.
+   * 
+   * @param theState
+   *          The state
+   * @param theChar
+   *          The character
+   * @return the state reached, or -1 if there is no such transition
+   */
+  private int getTransition(int theState, char theChar)
+  {
+
+    int low = 0;
+    int high = transitionCounts[theState] - 1;
+    char[] currChars = transitionChars[theState];
+
+    while (low <= high)
+    {
+
+      int middle = (low + high) >>> 1;
+
+      if (currChars[middle] < theChar)
+      {
+
+        low = middle + 1;
+
+      }
+      else if (currChars[middle] > theChar)
+      {
+
+        high = middle - 1;
+
+      }
+      else
+      {
+
+        return transitionStates[theState][middle];
+
+      }
+
+    }
+
+    return -1;
+
+  }
+
+  /**
+   * Method used to add a transition out of a state, keeping the transitions
+   * sorted by character.
+   * 
+   * @param theState
+   *          The state the transition leaves
+   * @param theChar
+   *          The character labeling the transition
+   * @param theNextState
+   *          The state the transition reaches
+   */
+  private void addTransition(int theState, char theChar, int theNextState)
+  {
+
+    int count = transitionCounts[theState];
+    int insertPos = count;
+
+    if (transitionChars[theState] == null)
+    {
+
+      transitionChars[theState] = new char[2];
+      transitionStates[theState] = new int[2];
+
+    }
+    else if (count == transitionChars[theState].length)
+    {
+
+      transitionChars[theState] = (char[]) grow(transitionChars[theState],
+          count * 2);
+      transitionStates[theState] = (int[]) grow(transitionStates[theState],
+          count * 2);
+
+    }
+
+    // shift the transitions of greater characters up by one
+    while (insertPos > 0 && transitionChars[theState][insertPos - 1] > theChar)
+    {
+
+      transitionChars[theState][insertPos] =
+          transitionChars[theState][insertPos - 1];
+      transitionStates[theState][insertPos] =
+          transitionStates[theState][insertPos - 1];
+      insertPos--;
+
+    }
+
+    transitionChars[theState][insertPos] = theChar;
+    transitionStates[theState][insertPos] = theNextState;
+    transitionCounts[theState] = count + 1;
+
+  }
+
+  /**
+   * Method used to add a state to the automaton.
+   * 
+   * @param theDepth
+   *          The length of the string leading to the state
+   * @return the new state
+   */
+  private int newState(int theDepth)
+  {
+
+    if (stateCount == transitionCounts.length)
+    {
+
+      int capacity = stateCount * 2;
+
+      transitionChars = (char[][]) grow(transitionChars, capacity);
+      transitionStates = (int[][]) grow(transitionStates, capacity);
+      transitionCounts = (int[]) grow(transitionCounts, capacity);
+      statePatterns = (int[]) grow(statePatterns, capacity);
+      stateDepths = (int[]) grow(stateDepths, capacity);
+
+    }
+
+    statePatterns[stateCount] = -1;
+    stateDepths[stateCount] = theDepth;
+
+    return stateCount++;
+
+  }
+
+  /**
+   * Method used to copy an array into a longer array of the same type.
+   * 
+   * @param theArray
+   *          The array to be copied
+   * @param theLength
+   *          The length of the new array
+   * @return the new array
+   */
+  private static Object grow(Object theArray, int theLength)
+  {
+
+    Object newArray = Array.newInstance(theArray.getClass()
+        .getComponentType(), theLength);
+
+    System.arraycopy(theArray, 0, newArray, 0, Array.getLength(theArray));
+
+    return newArray;
+
+  }
+
+}
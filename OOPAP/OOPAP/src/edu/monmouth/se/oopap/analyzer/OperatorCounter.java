@@ -0,0 +1,447 @@
+package edu.monmouth.se.oopap.analyzer;
+
+import edu.monmouth.se.oopap.enumerator.OperatorType;
+
+/**
+ * Class responsible for counting the operators of a line of code in a single
+ * left to right scan. Operators are read longest first, so <= is a single
+ * LessThanOrEqual rather than a LessThan, and the characters of string and
+ * character literals and of comments are skipped. Assignment, the bitwise
+ * operators and the shifts are read but not counted. No objects are
+ * allocated while a line is scanned.
+ * 
+ * Only the line itself is scanned, so a line within a comment spanning
+ * several lines is scanned as code, and the angle brackets of a type
+ * argument are counted as comparisons: List<String> x = new
+ * ArrayList<String>(); holds 2 LessThan and 2 GreaterThan operators. The >>
+ * and >>> closing nested type arguments are read as shifts, which are not
+ * counted. The operators of the TotalOperators report are counted from the
+ * tokens of the whole file by TokenMetrics, which does not count the angle
+ * brackets of type arguments.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class OperatorCounter
+{
+
+  /**
+   * Method used to count the operators of a line.
+   * 
+   * @param theLine
+   *          A sequence of characters containing a line of code.
+   * @return the number of operators
+   */
+  public static int countOperators(CharSequence theLine)
+  {
+
+    return countOperators(theLine, null);
+
+  }
+
+  /**
+   * Method used to count the operators of a line by type. The count of each
+   * operator found is added to the counts given, indexed by the ordinal of
+   * its OperatorType, so the counts of a number of lines may be accumulated.
+   * 
+   * @param theLine
+   *          A sequence of characters containing a line of code.
+   * @param theCounts
+   *          The count of each type of operator, or null if only the total is
+   *          needed
+   * @return the number of operators of the line
+   */
+  public static int countOperators(CharSequence theLine, int[] theCounts)
+  {
+
+    // the number of characters in the line
+    int length = theLine.length();
+    // the number of operators found
+    int operatorCount = 0;
+    // the index of the current character
+    int i = 0;
+
+    while (i < length)
+    {
+
+      char currChar = theLine.charAt(i);
+      // the next character, or 0 at the end of the line
+      char nextChar = i + 1 < length ? theLine.charAt(i + 1) : 0;
+      // the operator found, or null if none is counted
+      OperatorType operator = null;
+      // the length of the token read
+      int tokenLength = 1;
+
+      switch (currChar)
+      {
+
+      case '"':
+      case '\'':
+
+        // skip to the closing quote, passing over escaped characters
+        tokenLength = skipLiteral(theLine, i) - i;
+        break;
+
+      case '/':
+
+        if (nextChar == '/')
+        {
+
+          // the rest of the line is a comment
+          tokenLength = length - i;
+
+        }
+        else if (nextChar == '*')
+        {
+
+          tokenLength = skipComment(theLine, i) - i;
+
+        }
+        else
+        {
+
+          operator = OperatorType.Division;
+          tokenLength = nextChar == '=' ? 2 : 1;
+
+        }
+        break;
+
+      case '+':
+
+        operator = nextChar == '+' ? OperatorType.Increment
+            : OperatorType.Addition;
+        tokenLength = nextChar == '+' || nextChar == '=' ? 2 : 1;
+        break;
+
+      case '-':
+
+        if (nextChar == '>')
+        {
+
+          // the arrow of a lambda expression
+          tokenLength = 2;
+
+        }
+        else
+        {
+
+          operator = nextChar == '-' ? OperatorType.Decrement
+              : OperatorType.Subtraction;
+          tokenLength = nextChar == '-' || nextChar == '=' ? 2 : 1;
+
+        }
+        break;
+
+      case '*':
+
+        operator = OperatorType.Multiplication;
+        tokenLength = nextChar == '=' ? 2 : 1;
+        break;
+
+      case '%':
+
+        operator = OperatorType.Modulus;
+        tokenLength = nextChar == '=' ? 2 : 1;
+        break;
+
+      case '&':
+
+        if (nextChar == '&')
+        {
+
+          operator = OperatorType.LogicalAnd;
+
+        }
+        tokenLength = nextChar == '&' || nextChar == '=' ? 2 : 1;
+        break;
+
+      case '|':
+
+        if (nextChar == '|')
+        {
+
+          operator = OperatorType.LogicalOr;
+
+        }
+        tokenLength = nextChar == '|' || nextChar == '=' ? 2 : 1;
+        break;
+
+      case '!':
+
+        operator = nextChar == '=' ? OperatorType.NotEqual
+            : OperatorType.LogicalNot;
+        tokenLength = nextChar == '=' ? 2 : 1;
+        break;
+
+      case '=':
+
+        if (nextChar == '=')
+        {
+
+          operator = OperatorType.Equal;
+          tokenLength = 2;
+
+        }
+        break;
+
+      case '<':
+
+        if (nextChar == '<')
+        {
+
+          // a left shift, possibly a compound assignment
+          tokenLength = matchAt(theLine, i + 2, '=') ? 3 : 2;
+
+        }
+        else
+        {
+
+          operator = nextChar == '=' ? OperatorType.LessThanOrEqual
+              : OperatorType.LessThan;
+          tokenLength = nextChar == '=' ? 2 : 1;
+
+        }
+        break;
+
+      case '>':
+
+        if (nextChar == '>')
+        {
+
+          // a right shift, signed or not, possibly a compound assignment
+          tokenLength = matchAt(theLine, i + 2, '>') ? 3 : 2;
+          tokenLength += matchAt(theLine, i + tokenLength, '=') ? 1 : 0;
+
+        }
+        else
+        {
+
+          operator = nextChar == '=' ? OperatorType.GreaterThanOrEqual
+              : OperatorType.GreaterThan;
+          tokenLength = nextChar == '=' ? 2 : 1;
+
+        }
+        break;
+
+      }
+
+      if (operator != null)
+      {
+
+        operatorCount++;
+
+        if (theCounts != null)
+        {
+
+          theCounts[operator.ordinal()]++;
+
+        }
+
+      }
+
+      i += tokenLength;
+
+    }
+
+    return operatorCount;
+
+  }
+
+  /**
+   * Method used to determine the type of a single operator read by a
+   * SourceTokenizer, so that the operators of tokenized code are counted as
+   * countOperators would count them.
+   * 
+   * @param theLine
+   *          A sequence of characters containing the operator
+   * @param theStart
+   *          The position of the first character of the operator
+   * @param theEnd
+   *          The position following the last character of the operator
+   * @return the type of the operator, or null if it is not counted
+   */
+  public static OperatorType getOperatorType(CharSequence theLine,
+      int theStart, int theEnd)
+  {
+
+    char currChar = theLine.charAt(theStart);
+    // the second character of the operator, or 0 if there is none
+    char nextChar = theEnd - theStart > 1 ? theLine.charAt(theStart + 1) : 0;
+
+    switch (currChar)
+    {
+
+    case '+':
+
+      return nextChar == '+' ? OperatorType.Increment : OperatorType.Addition;
+
+    case '-':
+
+      if (nextChar == '>')
+      {
+
+        // the arrow of a lambda expression
+        return null;
+
+      }
+
+      return nextChar == '-' ? OperatorType.Decrement
+          : OperatorType.Subtraction;
+
+    case '*':
+
+      return OperatorType.Multiplication;
+
+    case '/':
+
+      return OperatorType.Division;
+
+    case '%':
+
+      return OperatorType.Modulus;
+
+    case '&':
+
+      return nextChar == '&' ? OperatorType.LogicalAnd : null;
+
+    case '|':
+
+      return nextChar == '|' ? OperatorType.LogicalOr : null;
+
+    case '!':
+
+      return nextChar == '=' ? OperatorType.NotEqual : OperatorType.LogicalNot;
+
+    case '=':
+
+      return nextChar == '=' ? OperatorType.Equal : null;
+
+    case '<':
+
+      if (nextChar == '<')
+      {
+
+        // a left shift
+        return null;
+
+      }
+
+      return nextChar == '=' ? OperatorType.LessThanOrEqual
+          : OperatorType.LessThan;
+
+    case '>':
+
+      if (nextChar == '>')
+      {
+
+        // a right shift
+        return null;
+
+      }
+
+      return nextChar == '=' ? OperatorType.GreaterThanOrEqual
+          : OperatorType.GreaterThan;
+
+    default:
+
+      return null;
+
+    }
+
+  }
+
+  /**
+   * Method used to skip a string or character literal.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The index of the opening quote
+   * @return the index following the closing quote, or the length of the line
+   *         if the literal is not closed
+   */
+  private static int skipLiteral(CharSequence theLine, int theStart)
+  {
+
+    char quote = theLine.charAt(theStart);
+    int i = theStart + 1;
+
+    while (i < theLine.length())
+    {
+
+      char currChar = theLine.charAt(i);
+
+      if (currChar == '\\')
+      {
+
+        i += 2;
+
+      }
+      else if (currChar == quote)
+      {
+
+        return i + 1;
+
+      }
+      else
+      {
+
+        i++;
+
+      }
+
+    }
+
+    return theLine.length();
+
+  }
+
+  /**
+   * Method used to skip a comment opened by /* within the line.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The index of the opening /
+   * @return the index following the closing * /, or the length of the line
+   *         if the comment is not closed
+   */
+  private static int skipComment(CharSequence theLine, int theStart)
+  {
+
+    for (int i = theStart + 2; i + 1 < theLine.length(); i++)
+    {
+
+      if (theLine.charAt(i) == '*' && theLine.charAt(i + 1) == '/')
+      {
+
+        return i + 2;
+
+      }
+
+    }
+
+    return theLine.length();
+
+  }
+
+  /**
+   * Method used to determine whether a character is found at an index.
+   * 
+   * @param theLine
+   *          The line
+   * @param theIndex
+   *          The index, which may be past the end of the line
+   * @param theChar
+   *          The character
+   * @return true if the line holds the character at the index
+   */
+  private static boolean matchAt(CharSequence theLine, int theIndex,
+      char theChar)
+  {
+
+    return theIndex < theLine.length() && theLine.charAt(theIndex) == theChar;
+
+  }
+
+}
@@ -0,0 +1,547 @@
+package edu.monmouth.se.oopap.analyzer;
+
+import edu.monmouth.se.oopap.enumerator.TokenType;
+
+/**
+ * Class responsible for breaking Java source code into tokens, one line at a
+ * time. The tokenizer remembers whether the previous line ended within a
+ * block comment or a text block, so a file is tokenized by passing its lines
+ * in order, and the state reached at any line may be saved and restored to
+ * restart the tokenizer there.
+ * 
+ * Tokens are added to a TokenBuffer. White space is skipped, operators and
+ * separators are read longest first, and a comment or literal which is not
+ * closed on its line is added as a token reaching the end of the line. As a
+ * compiler would before parsing, the closing brackets of nested type
+ * arguments, as in List<List<String>>, are read as a shift operator. No
+ * objects are allocated while a line is tokenized.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class SourceTokenizer
+{
+
+  /**
+   * The state of a tokenizer between tokens of code.
+   */
+  public static final int STATE_CODE = 0;
+
+  /**
+   * The state of a tokenizer within a block comment.
+   */
+  public static final int STATE_BLOCK_COMMENT = 1;
+
+  /**
+   * The state of a tokenizer within a text block.
+   */
+  public static final int STATE_TEXT_BLOCK = 2;
+
+  /**
+   * The reserved words of the language, grouped by first letter.
+   */
+  private static final String[][] KEYWORDS =
+  {
+  { "abstract", "assert" },
+  { "boolean", "break", "byte" },
+  { "case", "catch", "char", "class", "const", "continue" },
+  { "default", "do", "double" },
+  { "else", "enum", "extends" },
+  { "false", "final", "finally", "float", "for" },
+  { "goto" },
+  {},
+  { "if", "implements", "import", "instanceof", "int", "interface" },
+  {},
+  {},
+  { "long" },
+  {},
+  { "native", "new", "null" },
+  {},
+  { "package", "private", "protected", "public" },
+  {},
+  { "return" },
+  { "short", "static", "strictfp", "super", "switch", "synchronized" },
+  { "this", "throw", "throws", "transient", "true", "try" },
+  {},
+  { "void", "volatile" },
+  { "while" } };
+
+  /**
+   * The operators and separators other than the braces, longest first so
+   * the first found at a position is the longest.
+   */
+  private static final String[] PUNCTUATORS =
+  { ">>>=", "<<=", ">>=", ">>>", "...", "->", "::", "==", "<=", ">=", "!=",
+      "&&", "||", "++", "--", "+=", "-=", "*=", "/=", "&=", "|=", "^=", "%=",
+      "<<", ">>", "(", ")", "[", "]", ";", ",", ".", "@", "=", ">", "<", "!",
+      "~", "?", ":", "+", "-", "*", "/", "&", "|", "^", "%" };
+
+  /**
+   * The punctuators which are separators rather than operators.
+   */
+  private static final String SEPARATOR_CHARS = "()[];,.@";
+
+  /**
+   * The delimiter of a text block.
+   */
+  private static final String TEXT_BLOCK_DELIMITER = "\"\"\"";
+
+  /**
+   * The state at the start of the next line.
+   */
+  private int state;
+
+  /**
+   * The index of the next line.
+   */
+  private int lineIndex;
+
+  /**
+   * Primary constructor. Creates a tokenizer ready for the first line of a
+   * file.
+   */
+  public SourceTokenizer()
+  {
+
+    this.reset();
+
+  }
+
+  /**
+   * Method used to ready the tokenizer for the first line of a file.
+   */
+  public void reset()
+  {
+
+    this.state = STATE_CODE;
+    this.lineIndex = 0;
+
+  }
+
+  /**
+   * Method used to retrieve the state at the start of the next line.
+   * 
+   * @return STATE_CODE, STATE_BLOCK_COMMENT or STATE_TEXT_BLOCK
+   */
+  public int getState()
+  {
+
+    return this.state;
+
+  }
+
+  /**
+   * Method used to restart the tokenizer at a line.
+   * 
+   * @param theState
+   *          The state at the start of the line, as returned by getState
+   *          once the previous line was tokenized
+   * @param theLineIndex
+   *          The index of the line
+   */
+  public void restart(int theState, int theLineIndex)
+  {
+
+    this.state = theState;
+    this.lineIndex = theLineIndex;
+
+  }
+
+  /**
+   * Method used to tokenize the next line of a file. The tokens are added to
+   * the end of the buffer, so the tokens of a whole file may be held by a
+   * single buffer.
+   * 
+   * @param theLine
+   *          A sequence of characters containing the line
+   * @param theBuffer
+   *          The buffer the tokens are added to
+   * @return the number of tokens added
+   */
+  public int tokenizeLine(CharSequence theLine, TokenBuffer theBuffer)
+  {
+
+    // the number of characters in the line
+    int length = theLine.length();
+    // the number of tokens before the line
+    int firstToken = theBuffer.getTokenCount();
+    // the index of the current character
+    int i = 0;
+
+    // finish the comment or text block left open by the previous line
+    if (state == STATE_BLOCK_COMMENT)
+    {
+
+      i = this.skipBlockComment(theLine, 0);
+      theBuffer.addToken(TokenType.Comment, lineIndex, 0, i);
+
+    }
+    else if (state == STATE_TEXT_BLOCK)
+    {
+
+      i = this.skipTextBlock(theLine, 0);
+      theBuffer.addToken(TokenType.StringLiteral, lineIndex, 0, i);
+
+    }
+
+    while (i < length)
+    {
+
+      char currChar = theLine.charAt(i);
+      char nextChar = i + 1 < length ? theLine.charAt(i + 1) : 0;
+      int start = i;
+      TokenType tokenType;
+
+      if (Character.isWhitespace(currChar))
+      {
+
+        i++;
+        continue;
+
+      }
+
+      if (currChar == '/' && nextChar == '/')
+      {
+
+        tokenType = TokenType.Comment;
+        i = length;
+
+      }
+      else if (currChar == '/' && nextChar == '*')
+      {
+
+        tokenType = TokenType.Comment;
+        state = STATE_BLOCK_COMMENT;
+        i = this.skipBlockComment(theLine, i + 2);
+
+      }
+      else if (LineClassifier.regionMatches(theLine, i, TEXT_BLOCK_DELIMITER))
+      {
+
+        tokenType = TokenType.StringLiteral;
+        state = STATE_TEXT_BLOCK;
+        i = this.skipTextBlock(theLine, i + 3);
+
+      }
+      else if (currChar == '"' || currChar == '\'')
+      {
+
+        tokenType = currChar == '"' ? TokenType.StringLiteral
+            : TokenType.CharacterLiteral;
+        i = skipQuoted(theLine, i);
+
+      }
+      else if (Character.isDigit(currChar)
+          || (currChar == '.' && Character.isDigit(nextChar)))
+      {
+
+        tokenType = TokenType.NumericLiteral;
+        i = skipNumber(theLine, i);
+
+      }
+      else if (Character.isJavaIdentifierStart(currChar))
+      {
+
+        i++;
+
+        while (i < length && Character.isJavaIdentifierPart(theLine.charAt(i)))
+        {
+
+          i++;
+
+        }
+
+        tokenType = isKeyword(theLine, start, i) ? TokenType.Keyword
+            : TokenType.Identifier;
+
+      }
+      else if (currChar == '{' || currChar == '}')
+      {
+
+        tokenType = currChar == '{' ? TokenType.OpenBrace
+            : TokenType.CloseBrace;
+        i++;
+
+      }
+      else
+      {
+
+        String punctuator = findPunctuator(theLine, i);
+
+        if (punctuator == null)
+        {
+
+          tokenType = TokenType.Unknown;
+          i++;
+
+        }
+        else
+        {
+
+          tokenType = punctuator.length() == 1
+              && SEPARATOR_CHARS.indexOf(currChar) >= 0
+              || punctuator.equals("...") || punctuator.equals("::")
+              ? TokenType.Separator : TokenType.Operator;
+          i += punctuator.length();
+
+        }
+
+      }
+
+      theBuffer.addToken(tokenType, lineIndex, start, i);
+
+    }
+
+    lineIndex++;
+
+    return theBuffer.getTokenCount() - firstToken;
+
+  }
+
+  /**
+   * Method used to skip to the end of a block comment. The state returns to
+   * STATE_CODE if the comment is closed on the line.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The position of the first character within the comment
+   * @return the position following the closing * /, or the length of the
+   *         line if the comment is not closed
+   */
+  private int skipBlockComment(CharSequence theLine, int theStart)
+  {
+
+    for (int i = theStart; i + 1 < theLine.length(); i++)
+    {
+
+      if (theLine.charAt(i) == '*' && theLine.charAt(i + 1) == '/')
+      {
+
+        state = STATE_CODE;
+
+        return i + 2;
+
+      }
+
+    }
+
+    return theLine.length();
+
+  }
+
+  /**
+   * Method used to skip to the end of a text block. The state returns to
+   * STATE_CODE if the text block is closed on the line.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The position of the first character within the text block
+   * @return the position following the closing delimiter, or the length of
+   *         the line if the text block is not closed
+   */
+  private int skipTextBlock(CharSequence theLine, int theStart)
+  {
+
+    int i = theStart;
+
+    while (i < theLine.length())
+    {
+
+      if (theLine.charAt(i) == '\\')
+      {
+
+        i += 2;
+
+      }
+      else if (LineClassifier.regionMatches(theLine, i, TEXT_BLOCK_DELIMITER))
+      {
+
+        state = STATE_CODE;
+
+        return i + 3;
+
+      }
+      else
+      {
+
+        i++;
+
+      }
+
+    }
+
+    return theLine.length();
+
+  }
+
+  /**
+   * Method used to skip a string or character literal, which cannot reach
+   * past the end of its line.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The position of the opening quote
+   * @return the position following the closing quote, or the length of the
+   *         line if the literal is not closed
+   */
+  private static int skipQuoted(CharSequence theLine, int theStart)
+  {
+
+    char quote = theLine.charAt(theStart);
+    int i = theStart + 1;
+
+    while (i < theLine.length())
+    {
+
+      char currChar = theLine.charAt(i);
+
+      if (currChar == '\\')
+      {
+
+        i += 2;
+
+      }
+      else if (currChar == quote)
+      {
+
+        return i + 1;
+
+      }
+      else
+      {
+
+        i++;
+
+      }
+
+    }
+
+    return theLine.length();
+
+  }
+
+  /**
+   * Method used to skip a numeric literal, along with its prefix, suffix,
+   * underscores and signed exponent.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The position of the first character of the literal
+   * @return the position following the literal
+   */
+  private static int skipNumber(CharSequence theLine, int theStart)
+  {
+
+    // hexadecimal literals have a p exponent, since e is a digit
+    boolean hexadecimal = LineClassifier.regionMatches(theLine, theStart,
+        "0x")
+        || LineClassifier.regionMatches(theLine, theStart, "0X");
+    int i = theStart + 1;
+
+    while (i < theLine.length())
+    {
+
+      char currChar = theLine.charAt(i);
+      char prevChar = Character.toLowerCase(theLine.charAt(i - 1));
+
+      if (Character.isLetterOrDigit(currChar) || currChar == '_'
+          || currChar == '.')
+      {
+
+        i++;
+
+      }
+      else if ((currChar == '+' || currChar == '-')
+          && prevChar == (hexadecimal ? 'p' : 'e'))
+      {
+
+        i++;
+
+      }
+      else
+      {
+
+        break;
+
+      }
+
+    }
+
+    return i;
+
+  }
+
+  /**
+   * Method used to determine whether a word is a reserved word.
+   * 
+   * @param theLine
+   *          The line holding the word
+   * @param theStart
+   *          The position of the first character of the word
+   * @param theEnd
+   *          The position following the last character of the word
+   * @return true if the word is a reserved word
+   */
+  private static boolean isKeyword(CharSequence theLine, int theStart,
+      int theEnd)
+  {
+
+    int group = theLine.charAt(theStart) - 'a';
+
+    if (group < 0 || group >= KEYWORDS.length)
+    {
+
+      return false;
+
+    }
+
+    for (String currKeyword : KEYWORDS[group])
+    {
+
+      if (currKeyword.length() == theEnd - theStart
+          && LineClassifier.regionMatches(theLine, theStart, currKeyword))
+      {
+
+        return true;
+
+      }
+
+    }
+
+    return false;
+
+  }
+
+  /**
+   * Method used to find the longest operator or separator at a position.
+   * 
+   * @param theLine
+   *          The line
+   * @param theStart
+   *          The position
+   * @return the operator or separator, or null if there is none
+   */
+  private static String findPunctuator(CharSequence theLine, int theStart)
+  {
+
+    for (String currPunctuator : PUNCTUATORS)
+    {
+
+      if (LineClassifier.regionMatches(theLine, theStart, currPunctuator))
+      {
+
+        return currPunctuator;
+
+      }
+
+    }
+
+    return null;
+
+  }
+
+}
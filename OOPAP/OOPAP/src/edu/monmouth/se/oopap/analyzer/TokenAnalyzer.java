@@ -4,7 +4,8 @@ import edu.monmouth.se.oopap.enumerator.TokenType;
 
 /**
  * Class responsible for performing various analysis on individual source code
- * tokens.
+ * tokens. Tokens are read by a SourceTokenizer, which may also be used
+ * directly to tokenize whole files.
  * 
  * @author Andrew Tasso
  * @version %I% %G%
@@ -12,18 +13,52 @@ import edu.monmouth.se.oopap.enumerator.TokenType;
 public class TokenAnalyzer
 {
 
+  /**
+   * The tokenizer reading the token analyzed.
+   */
+  private SourceTokenizer tokenizer;
+
+  /**
+   * The buffer holding the tokens read.
+   */
+  private TokenBuffer tokenBuffer;
+
+  /**
+   * Primary constructor.
+   */
+  public TokenAnalyzer()
+  {
+
+    this.tokenizer = new SourceTokenizer();
+    this.tokenBuffer = new TokenBuffer();
+
+  }
+
   /**
    * Method to analyze a token of source code to determine its type.
    * 
    * @param theToken
    *          The source code token.
-   * @return The classification of the token.
+   * @return The classification of the token, Unknown if the string is not a
+   *         single token.
    */
   public TokenType getTokenType(String theToken)
   {
 
     TokenType tokenType = TokenType.Unknown;
 
+    tokenizer.reset();
+    tokenBuffer.clear();
+
+    // surrounding white space is ignored, but the token must be whole
+    if (tokenizer.tokenizeLine(theToken, tokenBuffer) == 1
+        && tokenizer.getState() == SourceTokenizer.STATE_CODE)
+    {
+
+      tokenType = tokenBuffer.getTokenType(0);
+
+    }
+
     return tokenType;
 
   }
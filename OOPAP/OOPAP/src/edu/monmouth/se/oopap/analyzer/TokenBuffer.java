@@ -0,0 +1,248 @@
+package edu.monmouth.se.oopap.analyzer;
+
+import java.lang.reflect.Array;
+
+import edu.monmouth.se.oopap.enumerator.TokenType;
+
+/**
+ * Class responsible for holding the tokens produced by the SourceTokenizer.
+ * Each token is held as its type, the index of its line and the positions of
+ * its first and following characters within the line, in primitive arrays
+ * which are reused once the buffer is cleared, so filling a buffer which has
+ * already grown allocates no objects.
+ * 
+ * The text of a token is not copied; it is read back from the line holding
+ * it.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class TokenBuffer
+{
+
+  /**
+   * The number of tokens room is first made for.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Every token type, indexed by ordinal.
+   */
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
+  /**
+   * The ordinal of the type of each token.
+   */
+  private byte[] tokenTypes;
+
+  /**
+   * The index of the line holding each token.
+   */
+  private int[] tokenLines;
+
+  /**
+   * The position of the first character of each token within its line.
+   */
+  private int[] tokenStarts;
+
+  /**
+   * The position following the last character of each token within its line.
+   */
+  private int[] tokenEnds;
+
+  /**
+   * The number of tokens.
+   */
+  private int tokenCount;
+
+  /**
+   * Primary constructor. Creates an empty buffer.
+   */
+  public TokenBuffer()
+  {
+
+    this.tokenTypes = new byte[INITIAL_CAPACITY];
+    this.tokenLines = new int[INITIAL_CAPACITY];
+    this.tokenStarts = new int[INITIAL_CAPACITY];
+    this.tokenEnds = new int[INITIAL_CAPACITY];
+    this.tokenCount = 0;
+
+  }
+
+  /**
+   * Method used to remove every token, keeping the room made for them.
+   */
+  public void clear()
+  {
+
+    this.tokenCount = 0;
+
+  }
+
+  /**
+   * Method used to add a token to the end of the buffer.
+   * 
+   * @param theTokenType
+   *          The type of the token
+   * @param theLine
+   *          The index of the line holding the token
+   * @param theStart
+   *          The position of the first character of the token
+   * @param theEnd
+   *          The position following the last character of the token
+   */
+  public void addToken(TokenType theTokenType, int theLine, int theStart,
+      int theEnd)
+  {
+
+    if (tokenCount == tokenTypes.length)
+    {
+
+      int capacity = tokenCount * 2;
+
+      tokenTypes = (byte[]) grow(tokenTypes, capacity);
+      tokenLines = (int[]) grow(tokenLines, capacity);
+      tokenStarts = (int[]) grow(tokenStarts, capacity);
+      tokenEnds = (int[]) grow(tokenEnds, capacity);
+
+    }
+
+    tokenTypes[tokenCount] = (byte) theTokenType.ordinal();
+    tokenLines[tokenCount] = theLine;
+    tokenStarts[tokenCount] = theStart;
+    tokenEnds[tokenCount] = theEnd;
+    tokenCount++;
+
+  }
+
+  /**
+   * Method used to retrieve the number of tokens.
+   * 
+   * @return the number of tokens
+   */
+  public int getTokenCount()
+  {
+
+    return this.tokenCount;
+
+  }
+
+  /**
+   * Method used to retrieve the type of a token.
+   * 
+   * @param theToken
+   *          The index of the token
+   * @return the type of the token
+   */
+  public TokenType getTokenType(int theToken)
+  {
+
+    return TOKEN_TYPES[this.tokenTypes[theToken]];
+
+  }
+
+  /**
+   * Method used to retrieve the index of the line holding a token.
+   * 
+   * @param theToken
+   *          The index of the token
+   * @return the index of the line
+   */
+  public int getTokenLine(int theToken)
+  {
+
+    return this.tokenLines[theToken];
+
+  }
+
+  /**
+   * Method used to retrieve the position of the first character of a token
+   * within its line.
+   * 
+   * @param theToken
+   *          The index of the token
+   * @return the position of the first character
+   */
+  public int getTokenStart(int theToken)
+  {
+
+    return this.tokenStarts[theToken];
+
+  }
+
+  /**
+   * Method used to retrieve the position following the last character of a
+   * token within its line.
+   * 
+   * @param theToken
+   *          The index of the token
+   * @return the position following the last character
+   */
+  public int getTokenEnd(int theToken)
+  {
+
+    return this.tokenEnds[theToken];
+
+  }
+
+  /**
+   * Method used to determine whether the text of a token is the provided
+   * string, without copying the text of the token.
+   * 
+   * @param theToken
+   *          The index of the token
+   * @param theLine
+   *          The line holding the token
+   * @param theText
+   *          The text to be compared
+   * @return true if the token is the text
+   */
+  public boolean tokenEquals(int theToken, CharSequence theLine,
+      String theText)
+  {
+
+    return tokenEnds[theToken] - tokenStarts[theToken] == theText.length()
+        && LineClassifier.regionMatches(theLine, tokenStarts[theToken],
+            theText);
+
+  }
+
+  /**
+   * Method used to retrieve the text of a token.
+   * 
+   * @param theToken
+   *          The index of the token
+   * @param theLine
+   *          The line holding the token
+   * @return the text of the token
+   */
+  public String getTokenText(int theToken, CharSequence theLine)
+  {
+
+    return theLine.subSequence(tokenStarts[theToken], tokenEnds[theToken])
+        .toString();
+
+  }
+
+  /**
+   * Method used to copy an array into a longer array of the same type.
+   * 
+   * @param theArray
+   *          The array to be copied
+   * @param theLength
+   *          The length of the new array
+   * @return the new array
+   */
+  private static Object grow(Object theArray, int theLength)
+  {
+
+    Object newArray = Array.newInstance(theArray.getClass()
+        .getComponentType(), theLength);
+
+    System.arraycopy(theArray, 0, newArray, 0, Array.getLength(theArray));
+
+    return newArray;
+
+  }
+
+}
@@ -0,0 +1,509 @@
+package edu.monmouth.se.oopap.cohort;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.monmouth.se.oopap.enumerator.ResultLevel;
+import edu.monmouth.se.oopap.io.ResultsFile;
+import edu.monmouth.se.oopap.io.ResultsTable;
+import edu.monmouth.se.oopap.io.WorksheetWriter;
+
+/**
+ * Class responsible for aggregating the results of many submissions, each
+ * held in the ResultsFile written by its analysis, into a MetricSummary for
+ * every metric column of every report at every level. Every report found in
+ * the results files is aggregated, so the lines of code, PSP logical LOC,
+ * LCOM, RFC, DIT, NOC and comment ratios of a cohort are summarized alike.
+ * 
+ * The results files are read a batch at a time, so that however large the
+ * cohort only a batch of files and the summaries, which are of constant size,
+ * are held in memory. The files of a batch are read concurrently, and the
+ * summaries are then divided between the threads, each thread adding the
+ * values of its own summaries from every file of the batch. Each summary is
+ * given its values in the order the files were added, so the summaries are
+ * the same however many threads are used.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class CohortAggregator
+{
+
+  /**
+   * The number of results files held in memory at once.
+   */
+  private static final int BATCH_SIZE = 64;
+
+  /**
+   * The headings of the cohort report.
+   */
+  private static final String[] REPORT_HEADINGS = { "Report", "Metric",
+      "Level", "Count", "Mean", "Median", "Std Deviation", "Minimum",
+      "25th Percentile", "75th Percentile", "90th Percentile", "Maximum" };
+
+  /**
+   * The number of threads the results are aggregated on.
+   */
+  private int threadCount;
+
+  /**
+   * The number of submissions aggregated.
+   */
+  private int submissionCount;
+
+  /**
+   * Map to hold the key to summary association, in the order the metrics
+   * were first found.
+   */
+  private Map<String, MetricSummary> summaryMap;
+
+  /**
+   * Primary constructor. Aggregates on as many threads as there are
+   * processors available.
+   */
+  public CohortAggregator()
+  {
+
+    this.threadCount = Runtime.getRuntime().availableProcessors();
+    this.submissionCount = 0;
+    this.summaryMap = new LinkedHashMap<String, MetricSummary>();
+
+  }
+
+  /**
+   * Method used to set the number of threads the results are aggregated on.
+   * 
+   * @param theThreadCount
+   *          The number of threads, a count less than 1 is treated as 1
+   */
+  public void setThreadCount(int theThreadCount)
+  {
+
+    this.threadCount = Math.max(1, theThreadCount);
+
+  }
+
+  /**
+   * Method used to add the results of a number of submissions to the
+   * summaries.
+   * 
+   * @param theResultsFiles
+   *          The results file of each submission
+   * @throws IOException
+   *           If a results file can not be read.
+   */
+  public void addResultsFiles(List<File> theResultsFiles) throws IOException
+  {
+
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+
+    try
+    {
+
+      for (int i = 0; i < theResultsFiles.size(); i += BATCH_SIZE)
+      {
+
+        this.addBatch(executor, theResultsFiles.subList(i, Math.min(i
+            + BATCH_SIZE, theResultsFiles.size())));
+
+      }
+
+    }
+    finally
+    {
+
+      executor.shutdownNow();
+
+    }
+
+  }
+
+  /**
+   * Method used to retrieve the number of submissions aggregated.
+   * 
+   * @return the number of submissions
+   */
+  public int getSubmissionCount()
+  {
+
+    return this.submissionCount;
+
+  }
+
+  /**
+   * Method used to retrieve the summaries, in the order their metrics were
+   * first found.
+   * 
+   * @return the summaries
+   */
+  public List<MetricSummary> getSummaryList()
+  {
+
+    return new ArrayList<MetricSummary>(this.summaryMap.values());
+
+  }
+
+  /**
+   * Method used to find the summary of a metric.
+   * 
+   * @param theReportName
+   *          The name of the report the metric is taken from
+   * @param theColumnName
+   *          The name of the metric column
+   * @param theLevel
+   *          The level of the rows summarized
+   * @return the summary, or null if the metric was not found in any results
+   */
+  public MetricSummary getSummary(String theReportName, String theColumnName,
+      ResultLevel theLevel)
+  {
+
+    return this.summaryMap.get(getKey(theReportName, theColumnName,
+        theLevel));
+
+  }
+
+  /**
+   * Method used to write the cohort report, a row for each summary.
+   * 
+   * @param theWriter
+   *          The writer the report is written to
+   * @throws IOException
+   *           If the report can not be written.
+   */
+  public void writeWorksheetReport(WorksheetWriter theWriter)
+      throws IOException
+  {
+
+    DecimalFormat format = new DecimalFormat("0.00");
+
+    for (String currHeading : REPORT_HEADINGS)
+    {
+
+      theWriter.writeCell(currHeading);
+
+    }
+
+    theWriter.endRow();
+
+    for (MetricSummary currSummary : summaryMap.values())
+    {
+
+      theWriter.writeCell(currSummary.getReportName());
+      theWriter.writeCell(currSummary.getColumnName());
+      theWriter.writeCell(currSummary.getLevel().toString());
+      theWriter.writeCell(Long.toString(currSummary.getCount()));
+      theWriter.writeCell(formatValue(format, currSummary.getMean()));
+      theWriter.writeCell(formatValue(format, currSummary.getMedian()));
+      theWriter.writeCell(formatValue(format, currSummary
+          .getStandardDeviation()));
+      theWriter.writeCell(formatValue(format, currSummary.getMinimum()));
+
+      for (int i = 0; i < MetricSummary.PERCENTILES.length; i++)
+      {
+
+        theWriter.writeCell(formatValue(format, currSummary
+            .getPercentile(i)));
+
+      }
+
+      theWriter.writeCell(formatValue(format, currSummary.getMaximum()));
+      theWriter.endRow();
+
+    }
+
+  }
+
+  /**
+   * Method used to add the results of a single batch of submissions.
+   * 
+   * @param theExecutor
+   *          The executor the batch is read and aggregated on
+   * @param theBatch
+   *          The results file of each submission of the batch
+   * @throws IOException
+   *           If a results file can not be read.
+   */
+  private void addBatch(ExecutorService theExecutor, List<File> theBatch)
+      throws IOException
+  {
+
+    // List to hold the pending contents of each file, in order
+    List<Future<ResultsFile>> readList = new ArrayList<Future<ResultsFile>>();
+    // List to hold the contents of each file, in order
+    final List<ResultsFile> resultsList = new ArrayList<ResultsFile>();
+    // List to hold the pending aggregation of each group of summaries
+    List<Future<Object>> groupList = new ArrayList<Future<Object>>();
+    List<MetricSummary> summaryList;
+    int groupCount;
+
+    for (final File currFile : theBatch)
+    {
+
+      readList.add(theExecutor.submit(new Callable<ResultsFile>()
+      {
+
+        public ResultsFile call() throws IOException
+        {
+
+          return ResultsFile.read(currFile);
+
+        }
+
+      }));
+
+    }
+
+    for (Future<ResultsFile> currRead : readList)
+    {
+
+      ResultsFile currResults = waitFor(currRead);
+
+      // the summaries are found in file order, on this thread alone
+      this.addSummaries(currResults);
+      resultsList.add(currResults);
+
+    }
+
+    summaryList = this.getSummaryList();
+    groupCount = Math.min(threadCount, summaryList.size());
+
+    for (int i = 0; i < groupCount; i++)
+    {
+
+      final List<MetricSummary> currGroup = summaryList.subList(i
+          * summaryList.size() / groupCount, (i + 1) * summaryList.size()
+          / groupCount);
+
+      groupList.add(theExecutor.submit(new Callable<Object>()
+      {
+
+        public Object call()
+        {
+
+          for (MetricSummary currSummary : currGroup)
+          {
+
+            addValues(currSummary, resultsList);
+
+          }
+
+          return null;
+
+        }
+
+      }));
+
+    }
+
+    for (Future<Object> currGroup : groupList)
+    {
+
+      waitFor(currGroup);
+
+    }
+
+    this.submissionCount += theBatch.size();
+
+  }
+
+  /**
+   * Method used to add a summary for every metric of a submission that does
+   * not already have one.
+   * 
+   * @param theResults
+   *          The results of the submission
+   */
+  private void addSummaries(ResultsFile theResults)
+  {
+
+    for (int i = 0; i < theResults.getTableCount(); i++)
+    {
+
+      ResultsTable currTable = theResults.getTable(i);
+      // whether the table holds any rows of each level
+      boolean[] hasLevel = new boolean[ResultLevel.values().length];
+
+      for (int row = 0; row < currTable.getRowCount(); row++)
+      {
+
+        hasLevel[currTable.getLevel(row).ordinal()] = true;
+
+      }
+
+      for (int column = 0; column < currTable.getColumnCount(); column++)
+      {
+
+        for (ResultLevel currLevel : ResultLevel.values())
+        {
+
+          String currKey = getKey(currTable.getReportName(), currTable
+              .getColumnName(column), currLevel);
+
+          if (hasLevel[currLevel.ordinal()]
+              && !summaryMap.containsKey(currKey))
+          {
+
+            summaryMap.put(currKey, new MetricSummary(currTable
+                .getReportName(), currTable.getColumnName(column), currLevel));
+
+          }
+
+        }
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to add the values of the metric of a summary from the
+   * results of a number of submissions, in order.
+   * 
+   * @param theSummary
+   *          The summary
+   * @param theResultsList
+   *          The results of each submission
+   */
+  private static void addValues(MetricSummary theSummary,
+      List<ResultsFile> theResultsList)
+  {
+
+    for (ResultsFile currResults : theResultsList)
+    {
+
+      ResultsTable currTable = currResults.getTable(theSummary
+          .getReportName());
+      int column = currTable == null ? -1 : currTable
+          .getColumnIndex(theSummary.getColumnName());
+
+      if (column < 0)
+      {
+
+        continue;
+
+      }
+
+      for (int row = 0; row < currTable.getRowCount(); row++)
+      {
+
+        if (currTable.getLevel(row) == theSummary.getLevel()
+            && currTable.getValue(row, column) != ResultsTable.MISSING_VALUE)
+        {
+
+          theSummary.add(currTable.getDoubleValue(row, column));
+
+        }
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to format a statistic of a summary.
+   * 
+   * @param theFormat
+   *          The format of the statistics
+   * @param theValue
+   *          The statistic
+   * @return the formatted statistic, or an empty string if the summary has
+   *         no values
+   */
+  private static String formatValue(DecimalFormat theFormat, double theValue)
+  {
+
+    return Double.isNaN(theValue) ? "" : theFormat.format(theValue);
+
+  }
+
+  /**
+   * Method used to build the key of a summary.
+   * 
+   * @param theReportName
+   *          The name of the report the metric is taken from
+   * @param theColumnName
+   *          The name of the metric column
+   * @param theLevel
+   *          The level of the rows summarized
+   * @return the key
+   */
+  private static String getKey(String theReportName, String theColumnName,
+      ResultLevel theLevel)
+  {
+
+    return theReportName + '\0' + theColumnName + '\0' + theLevel;
+
+  }
+
+  /**
+   * Method used to wait for a task to complete. Any exception thrown by the
+   * task is thrown again on the calling thread.
+   * 
+   * @param theFuture
+   *          The pending result of the task
+   * @return the result of the task
+   * @throws IOException
+   *           If the task failed to read a results file.
+   */
+  private static <T> T waitFor(Future<T> theFuture) throws IOException
+  {
+
+    try
+    {
+
+      return theFuture.get();
+
+    }
+    catch (InterruptedException e)
+    {
+
+      Thread.currentThread().interrupt();
+
+      throw new IllegalStateException("Interrupted while aggregating results",
+          e);
+
+    }
+    catch (ExecutionException e)
+    {
+
+      Throwable cause = e.getCause();
+
+      if (cause instanceof IOException)
+      {
+
+        throw (IOException) cause;
+
+      }
+      if (cause instanceof RuntimeException)
+      {
+
+        throw (RuntimeException) cause;
+
+      }
+      if (cause instanceof Error)
+      {
+
+        throw (Error) cause;
+
+      }
+
+      throw new IllegalStateException(cause);
+
+    }
+
+  }
+
+}
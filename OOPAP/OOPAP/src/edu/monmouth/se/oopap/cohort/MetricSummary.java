@@ -0,0 +1,267 @@
+package edu.monmouth.se.oopap.cohort;
+
+import edu.monmouth.se.oopap.enumerator.ResultLevel;
+
+/**
+ * Summarizes the values of one metric column of one report, at one level,
+ * across every submission of a cohort. The values are summarized as they are
+ * added, in constant memory: the mean and standard deviation with Welford's
+ * method, and the median and other percentiles with P-square estimators.
+ * 
+ * A summary is not thread safe. The aggregator adds the values of each
+ * summary on a single thread.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class MetricSummary
+{
+
+  /**
+   * The percentiles estimated by every summary, besides the median.
+   */
+  public static final double[] PERCENTILES = { 0.25, 0.75, 0.90 };
+
+  /**
+   * The name of the report the metric is taken from.
+   */
+  private String reportName;
+
+  /**
+   * The name of the metric column.
+   */
+  private String columnName;
+
+  /**
+   * The level of the rows summarized.
+   */
+  private ResultLevel level;
+
+  /**
+   * The number of values added.
+   */
+  private long count;
+
+  /**
+   * The mean of the values added.
+   */
+  private double mean;
+
+  /**
+   * The sum of the squared differences of the values from their mean.
+   */
+  private double squaredDeviationSum;
+
+  /**
+   * The smallest value added.
+   */
+  private double minimum;
+
+  /**
+   * The largest value added.
+   */
+  private double maximum;
+
+  /**
+   * The estimator of the median.
+   */
+  private P2Quantile median;
+
+  /**
+   * The estimator of each of the PERCENTILES.
+   */
+  private P2Quantile[] percentiles;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theReportName
+   *          The name of the report the metric is taken from
+   * @param theColumnName
+   *          The name of the metric column
+   * @param theLevel
+   *          The level of the rows summarized
+   */
+  public MetricSummary(String theReportName, String theColumnName,
+      ResultLevel theLevel)
+  {
+
+    this.reportName = theReportName;
+    this.columnName = theColumnName;
+    this.level = theLevel;
+    this.minimum = Double.NaN;
+    this.maximum = Double.NaN;
+    this.median = new P2Quantile(0.5);
+    this.percentiles = new P2Quantile[PERCENTILES.length];
+
+    for (int i = 0; i < PERCENTILES.length; i++)
+    {
+
+      this.percentiles[i] = new P2Quantile(PERCENTILES[i]);
+
+    }
+
+  }
+
+  /**
+   * Method used to add a value to the summary.
+   * 
+   * @param theValue
+   *          The value
+   */
+  public void add(double theValue)
+  {
+
+    double delta = theValue - mean;
+
+    count++;
+    mean += delta / count;
+    squaredDeviationSum += delta * (theValue - mean);
+
+    if (count == 1 || theValue < minimum)
+    {
+
+      minimum = theValue;
+
+    }
+    if (count == 1 || theValue > maximum)
+    {
+
+      maximum = theValue;
+
+    }
+
+    median.add(theValue);
+
+    for (P2Quantile currPercentile : percentiles)
+    {
+
+      currPercentile.add(theValue);
+
+    }
+
+  }
+
+  /**
+   * Method used to retrieve the name of the report the metric is taken from.
+   * 
+   * @return the name of the report
+   */
+  public String getReportName()
+  {
+
+    return this.reportName;
+
+  }
+
+  /**
+   * Method used to retrieve the name of the metric column.
+   * 
+   * @return the name of the column
+   */
+  public String getColumnName()
+  {
+
+    return this.columnName;
+
+  }
+
+  /**
+   * Method used to retrieve the level of the rows summarized.
+   * 
+   * @return the level
+   */
+  public ResultLevel getLevel()
+  {
+
+    return this.level;
+
+  }
+
+  /**
+   * Method used to retrieve the number of values added.
+   * 
+   * @return the number of values
+   */
+  public long getCount()
+  {
+
+    return this.count;
+
+  }
+
+  /**
+   * Method used to retrieve the mean of the values.
+   * 
+   * @return the mean, or NaN if no values have been added
+   */
+  public double getMean()
+  {
+
+    return count == 0 ? Double.NaN : this.mean;
+
+  }
+
+  /**
+   * Method used to retrieve the sample standard deviation of the values.
+   * 
+   * @return the standard deviation, 0 if fewer than 2 values have been added
+   */
+  public double getStandardDeviation()
+  {
+
+    return count < 2 ? 0 : Math.sqrt(squaredDeviationSum / (count - 1));
+
+  }
+
+  /**
+   * Method used to retrieve the smallest value.
+   * 
+   * @return the smallest value, or NaN if no values have been added
+   */
+  public double getMinimum()
+  {
+
+    return this.minimum;
+
+  }
+
+  /**
+   * Method used to retrieve the largest value.
+   * 
+   * @return the largest value, or NaN if no values have been added
+   */
+  public double getMaximum()
+  {
+
+    return this.maximum;
+
+  }
+
+  /**
+   * Method used to retrieve the estimate of the median.
+   * 
+   * @return the median, or NaN if no values have been added
+   */
+  public double getMedian()
+  {
+
+    return this.median.getValue();
+
+  }
+
+  /**
+   * Method used to retrieve the estimate of one of the PERCENTILES.
+   * 
+   * @param thePercentile
+   *          The index of the percentile within PERCENTILES
+   * @return the percentile, or NaN if no values have been added
+   */
+  public double getPercentile(int thePercentile)
+  {
+
+    return this.percentiles[thePercentile].getValue();
+
+  }
+
+}
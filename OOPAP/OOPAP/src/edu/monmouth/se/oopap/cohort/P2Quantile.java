@@ -0,0 +1,352 @@
+package edu.monmouth.se.oopap.cohort;
+
+import java.util.Arrays;
+
+/**
+ * Estimates a single quantile of a stream of values in constant memory, using
+ * the P-square algorithm of Jain and Chlamtac. Five markers are kept: the
+ * minimum, the maximum, the quantile itself and one on either side of it. As
+ * each value is added the markers are moved towards their desired positions,
+ * their heights being adjusted by a piecewise parabolic prediction, so that
+ * the height of the middle marker estimates the quantile.
+ * 
+ * The estimate of a short stream is poor, so until EXACT_LIMIT values have
+ * been added the values themselves are held and the quantile is exact,
+ * interpolated between the two nearest values. The markers are then placed
+ * by adding the values held, in order, and the values are discarded.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class P2Quantile
+{
+
+  /**
+   * The number of values held before the quantile is estimated.
+   */
+  public static final int EXACT_LIMIT = 128;
+
+  /**
+   * The number of markers.
+   */
+  private static final int MARKER_COUNT = 5;
+
+  /**
+   * The quantile estimated, between 0 and 1.
+   */
+  private double quantile;
+
+  /**
+   * The number of values added.
+   */
+  private long count;
+
+  /**
+   * The values added, null once there are too many to be held.
+   */
+  private double[] values;
+
+  /**
+   * The number of values added to the markers.
+   */
+  private long markerCount;
+
+  /**
+   * The height of each marker. Until five values have been added to the
+   * markers, the values themselves.
+   */
+  private double[] heights;
+
+  /**
+   * The actual position of each marker, counted from 0.
+   */
+  private long[] positions;
+
+  /**
+   * The desired position of each marker.
+   */
+  private double[] desiredPositions;
+
+  /**
+   * The amount the desired position of each marker is moved by each value.
+   */
+  private double[] increments;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theQuantile
+   *          The quantile to be estimated, such as 0.5 for the median
+   * @throws IllegalArgumentException
+   *           If the quantile is not between 0 and 1.
+   */
+  public P2Quantile(double theQuantile)
+  {
+
+    if (!(theQuantile >= 0 && theQuantile <= 1))
+    {
+
+      throw new IllegalArgumentException("Quantile must be between 0 and 1: "
+          + theQuantile);
+
+    }
+
+    this.quantile = theQuantile;
+    this.count = 0;
+    this.values = new double[EXACT_LIMIT];
+    this.markerCount = 0;
+    this.heights = new double[MARKER_COUNT];
+    this.positions = new long[MARKER_COUNT];
+    this.desiredPositions = new double[] { 0, 2 * theQuantile,
+        4 * theQuantile, 2 + 2 * theQuantile, 4 };
+    this.increments = new double[] { 0, theQuantile / 2, theQuantile,
+        (1 + theQuantile) / 2, 1 };
+
+  }
+
+  /**
+   * Method used to add a value to the stream.
+   * 
+   * @param theValue
+   *          The value
+   */
+  public void add(double theValue)
+  {
+
+    if (count < EXACT_LIMIT)
+    {
+
+      values[(int) count++] = theValue;
+
+      return;
+
+    }
+
+    if (values != null)
+    {
+
+      // too many values to be held, so the markers are placed
+      for (double currValue : values)
+      {
+
+        this.addToMarkers(currValue);
+
+      }
+
+      values = null;
+
+    }
+
+    count++;
+    this.addToMarkers(theValue);
+
+  }
+
+  /**
+   * Method used to retrieve the estimate of the quantile.
+   * 
+   * @return the estimate, or NaN if no values have been added
+   */
+  public double getValue()
+  {
+
+    if (count == 0)
+    {
+
+      return Double.NaN;
+
+    }
+    if (values == null)
+    {
+
+      return heights[2];
+
+    }
+
+    double[] sortedValues = new double[(int) count];
+    double rank = quantile * (count - 1);
+    int lower = (int) Math.floor(rank);
+    int upper = (int) Math.ceil(rank);
+
+    System.arraycopy(values, 0, sortedValues, 0, sortedValues.length);
+    Arrays.sort(sortedValues);
+
+    return sortedValues[lower] + (rank - lower)
+        * (sortedValues[upper] - sortedValues[lower]);
+
+  }
+
+  /**
+   * Method used to retrieve the number of values added.
+   * 
+   * @return the number of values
+   */
+  public long getCount()
+  {
+
+    return this.count;
+
+  }
+
+  /**
+   * Method used to add a value to the markers, moving the markers as needed.
+   * 
+   * @param theValue
+   *          The value
+   */
+  private void addToMarkers(double theValue)
+  {
+
+    // the index of the marker cell the value falls in
+    int cell;
+
+    if (markerCount < MARKER_COUNT)
+    {
+
+      heights[(int) markerCount++] = theValue;
+
+      if (markerCount == MARKER_COUNT)
+      {
+
+        Arrays.sort(heights);
+
+        for (int i = 0; i < MARKER_COUNT; i++)
+        {
+
+          positions[i] = i;
+
+        }
+
+      }
+
+      return;
+
+    }
+
+    markerCount++;
+
+    if (theValue < heights[0])
+    {
+
+      heights[0] = theValue;
+      cell = 0;
+
+    }
+    else if (theValue >= heights[MARKER_COUNT - 1])
+    {
+
+      heights[MARKER_COUNT - 1] = theValue;
+      cell = MARKER_COUNT - 2;
+
+    }
+    else
+    {
+
+      cell = 0;
+
+      while (theValue >= heights[cell + 1])
+      {
+
+        cell++;
+
+      }
+
+    }
+
+    // every marker above the cell moves up by one
+    for (int i = cell + 1; i < MARKER_COUNT; i++)
+    {
+
+      positions[i]++;
+
+    }
+
+    for (int i = 0; i < MARKER_COUNT; i++)
+    {
+
+      desiredPositions[i] += increments[i];
+
+    }
+
+    // move each of the middle markers towards its desired position
+    for (int i = 1; i < MARKER_COUNT - 1; i++)
+    {
+
+      double offset = desiredPositions[i] - positions[i];
+
+      if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+          || (offset <= -1 && positions[i - 1] - positions[i] < -1))
+      {
+
+        int direction = offset > 0 ? 1 : -1;
+        double height = this.parabolic(i, direction);
+
+        if (heights[i - 1] < height && height < heights[i + 1])
+        {
+
+          heights[i] = height;
+
+        }
+        else
+        {
+
+          heights[i] = this.linear(i, direction);
+
+        }
+
+        positions[i] += direction;
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to predict the height of a marker moved by one position with
+   * the piecewise parabolic formula.
+   * 
+   * @param theMarker
+   *          The index of the marker
+   * @param theDirection
+   *          1 if the marker moves up, -1 if it moves down
+   * @return the predicted height
+   */
+  private double parabolic(int theMarker, int theDirection)
+  {
+
+    double below = positions[theMarker] - positions[theMarker - 1];
+    double above = positions[theMarker + 1] - positions[theMarker];
+    double span = positions[theMarker + 1] - positions[theMarker - 1];
+
+    double upperSlope = (heights[theMarker + 1] - heights[theMarker]) / above;
+    double lowerSlope = (heights[theMarker] - heights[theMarker - 1]) / below;
+
+    return heights[theMarker] + theDirection / span
+        * ((below + theDirection) * upperSlope + (above - theDirection)
+            * lowerSlope);
+
+  }
+
+  /**
+   * Method used to predict the height of a marker moved by one position
+   * linearly, towards the neighbouring marker it moves towards.
+   * 
+   * @param theMarker
+   *          The index of the marker
+   * @param theDirection
+   *          1 if the marker moves up, -1 if it moves down
+   * @return the predicted height
+   */
+  private double linear(int theMarker, int theDirection)
+  {
+
+    int neighbour = theMarker + theDirection;
+
+    return heights[theMarker] + theDirection
+        * (heights[neighbour] - heights[theMarker])
+        / (positions[neighbour] - positions[theMarker]);
+
+  }
+
+}
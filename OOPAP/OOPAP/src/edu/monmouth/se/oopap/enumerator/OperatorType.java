@@ -0,0 +1,16 @@
+package edu.monmouth.se.oopap.enumerator;
+
+/**
+ * Enumerator to represent the various operators counted as calculations.
+ * Compound assignments are counted as the operator they apply, so += is an
+ * Addition.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public enum OperatorType
+{
+
+  Addition, Subtraction, Multiplication, Division, Modulus, Increment, Decrement, LogicalAnd, LogicalOr, LogicalNot, Equal, NotEqual, LessThan, LessThanOrEqual, GreaterThan, GreaterThanOrEqual;
+
+}
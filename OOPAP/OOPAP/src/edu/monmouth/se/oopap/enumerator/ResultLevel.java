@@ -0,0 +1,15 @@
+package edu.monmouth.se.oopap.enumerator;
+
+/**
+ * Enumerator to represent the level of the program a row of results
+ * describes: a single operation, a whole class or the program as a whole.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public enum ResultLevel
+{
+
+  Operation, Class, Program;
+
+}
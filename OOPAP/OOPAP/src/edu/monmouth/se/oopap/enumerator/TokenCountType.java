@@ -0,0 +1,17 @@
+package edu.monmouth.se.oopap.enumerator;
+
+/**
+ * Enumerator to represent the various counts taken from the tokens of the
+ * source code. A Calculation is an operator counted by the OperatorCounter, a
+ * Decision an if, a case or a conditional operator, a Loop a for, a while or a
+ * do, an Operator any operator and a Call any method or constructor called.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public enum TokenCountType
+{
+
+  Calculation, Decision, Loop, Operator, Call;
+
+}
@@ -1,6 +1,9 @@
 package edu.monmouth.se.oopap.enumerator;
 
 /**
+ * Enumerator to represent the various types of source code tokens. The
+ * literals true, false and null are Keywords, and the braces are told apart
+ * from the other Separators.
  * 
  * @author Andrew Tasso
  * @version %I% %G%
@@ -8,6 +11,6 @@ package edu.monmouth.se.oopap.enumerator;
 public enum TokenType
 {
 
-  Unknown;
+  Unknown, Keyword, Identifier, Operator, Separator, OpenBrace, CloseBrace, NumericLiteral, CharacterLiteral, StringLiteral, Comment;
 
 }
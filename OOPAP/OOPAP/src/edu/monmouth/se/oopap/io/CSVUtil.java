@@ -5,10 +5,12 @@ import java.util.ArrayList;
 
 /**
  * CSV Helper class. This class is used to generate CSV formatted reports. 
+ * Reports written straight to disk are better written by a CSVWriter, 
+ * which does not hold the lines of the report in memory.
  * 
  * @author Andrew Tasso
  * @version %I% %G%
- *
+ * 
  */
 public class CSVUtil {
 
@@ -25,38 +27,115 @@ public class CSVUtil {
 	public static List<String> generateCSVReport(List<List<String>> theReportContents)
 	{
 		
-		List<String> csvReportContents = new ArrayList<String>();
+		List<String> csvReportContents = new ArrayList<String>(theReportContents.size());
+		//builder reused for every line
+		StringBuilder currLine = new StringBuilder();
 		
 		//iterate over the collection of lists
 		for(List<String> currLineContents : theReportContents)
 		{
 			
-		  
-			String currLine = "";
+			currLine.setLength(0);
 			
 			//iterate over the entire list of tokens to be inserted into the
 			//line. Separate each on by a comma.
 			for(int i = 0; i < currLineContents.size(); i++)
 			{
 				
-				//insert the token
-				currLine += currLineContents.get(i);
-				//insert a comma after the token, with the exception
-				//of the final token.
-				if(i < currLineContents.size() - 1) 
+				//insert a comma before the token, with the exception
+				//of the first token.
+				if(i > 0) 
 				{
 				
-					currLine += ",";
+					currLine.append(',');
 					
 				}
 				
+				//insert the token
+				appendCell(currLine, String.valueOf(currLineContents.get(i)));
+				
 			}
 						
-			csvReportContents.add(currLine);
+			csvReportContents.add(currLine.toString());
 			
 		}
 		
 		return csvReportContents;
 		
 	}
+	
+	/**
+	 * Method to append a single cell to a line of a CSV report. A cell 
+	 * holding a comma, a double quote or a line break is enclosed in double 
+	 * quotes, with each of its double quotes doubled, as described by 
+	 * RFC 4180.
+	 * 
+	 * @param theLine The line the cell is appended to.
+	 * @param theCell The contents of the cell.
+	 */
+	public static void appendCell(StringBuilder theLine, String theCell)
+	{
+		
+		if(needsQuotes(theCell))
+		{
+			
+			theLine.append('"');
+			
+			for(int i = 0; i < theCell.length(); i++)
+			{
+				
+				char currChar = theCell.charAt(i);
+				
+				//double each double quote
+				if(currChar == '"')
+				{
+					
+					theLine.append('"');
+					
+				}
+				
+				theLine.append(currChar);
+				
+			}
+			
+			theLine.append('"');
+			
+		}
+		else
+		{
+			
+			theLine.append(theCell);
+			
+		}
+		
+	}
+	
+	/**
+	 * Method to determine whether a cell must be enclosed in double quotes, 
+	 * that is whether it holds a comma, a double quote or a line break.
+	 * 
+	 * @param theCell The contents of the cell.
+	 * @return true if the cell must be enclosed in double quotes.
+	 */
+	static boolean needsQuotes(String theCell)
+	{
+		
+		for(int i = 0; i < theCell.length(); i++)
+		{
+			
+			char currChar = theCell.charAt(i);
+			
+			if(currChar == ',' || currChar == '"' || currChar == '\n' 
+					|| currChar == '\r')
+			{
+				
+				return true;
+				
+			}
+			
+		}
+		
+		return false;
+		
+	}
 }
@@ -0,0 +1,363 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Class responsible for writing a worksheet report as Comma Separated Values,
+ * a row at a time, straight to a stream. No line of the report is held in
+ * memory; the characters written are gathered in a buffer of the CSVWriter
+ * and handed to the stream a block at a time.
+ * 
+ * Cells are separated by commas and rows are ended by a newline character.
+ * A cell holding a comma, a double quote or a line break is enclosed in
+ * double quotes, with each of its double quotes doubled, as described by
+ * RFC 4180. Every other cell is written as is.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class CSVWriter implements WorksheetWriter
+{
+
+  /**
+   * The number of characters buffered before they are written to the stream.
+   */
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  /**
+   * The stream the report is written to.
+   */
+  private Writer out;
+
+  /**
+   * The characters not yet written to the stream.
+   */
+  private char[] buffer;
+
+  /**
+   * The number of characters in the buffer.
+   */
+  private int bufferCount;
+
+  /**
+   * The number of cells written to the current row.
+   */
+  private int cellCount;
+
+  /**
+   * The characters of a whole number being written, filled from the end.
+   */
+  private char[] digits;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theWriter
+   *          The stream the report is written to. The stream need not be
+   *          buffered.
+   */
+  public CSVWriter(Writer theWriter)
+  {
+
+    this.out = theWriter;
+    this.buffer = new char[BUFFER_SIZE];
+    this.bufferCount = 0;
+    this.cellCount = 0;
+    this.digits = new char[11];
+
+  }
+
+  /**
+   * Constructor used to write a report to a file, encoded with the default
+   * charset. Any existing file is replaced.
+   * 
+   * @param theFile
+   *          The file the report is written to
+   * @throws IOException
+   *           If the file can not be created.
+   */
+  public CSVWriter(File theFile) throws IOException
+  {
+
+    this(new FileWriter(theFile));
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row.
+   * 
+   * @param theCell
+   *          The contents of the cell. A null cell is written as "null".
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  public void writeCell(String theCell) throws IOException
+  {
+
+    String cell = String.valueOf(theCell);
+
+    this.beginCell();
+
+    if (CSVUtil.needsQuotes(cell))
+    {
+
+      int start = 0;
+
+      this.write('"');
+
+      // write the cell up to and including each double quote, then the
+      // double quote again
+      for (int i = 0; i < cell.length(); i++)
+      {
+
+        if (cell.charAt(i) == '"')
+        {
+
+          this.write(cell, start, i + 1);
+          this.write('"');
+          start = i + 1;
+
+        }
+
+      }
+
+      this.write(cell, start, cell.length());
+      this.write('"');
+
+    }
+    else
+    {
+
+      this.write(cell, 0, cell.length());
+
+    }
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row as a whole number.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  public void writeCell(int theCell) throws IOException
+  {
+
+    int pos = digits.length;
+    // the digits are taken from the negative value, which, unlike the
+    // positive value, can hold every int
+    int value = theCell < 0 ? theCell : -theCell;
+
+    this.beginCell();
+
+    if (bufferCount + digits.length > buffer.length)
+    {
+
+      this.flushBuffer();
+
+    }
+
+    do
+    {
+
+      digits[--pos] = (char) ('0' - value % 10);
+      value /= 10;
+
+    }
+    while (value != 0);
+
+    if (theCell < 0)
+    {
+
+      digits[--pos] = '-';
+
+    }
+
+    System.arraycopy(digits, pos, buffer, bufferCount, digits.length - pos);
+    bufferCount += digits.length - pos;
+
+  }
+
+  /**
+   * Method used to write every cell of a row and complete the row.
+   * 
+   * @param theRow
+   *          The cells of the row
+   * @throws IOException
+   *           If the row can not be written.
+   */
+  public void writeRow(List<String> theRow) throws IOException
+  {
+
+    for (String currCell : theRow)
+    {
+
+      this.writeCell(currCell);
+
+    }
+
+    this.endRow();
+
+  }
+
+  /**
+   * Method used to complete the current row.
+   * 
+   * @throws IOException
+   *           If the row can not be written.
+   */
+  public void endRow() throws IOException
+  {
+
+    this.write('\n');
+    cellCount = 0;
+
+  }
+
+  /**
+   * Method used to write any buffered rows to the underlying stream.
+   * 
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void flush() throws IOException
+  {
+
+    this.flushBuffer();
+    out.flush();
+
+  }
+
+  /**
+   * Method used to write any buffered rows and close the underlying stream.
+   * 
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void close() throws IOException
+  {
+
+    try
+    {
+
+      this.flushBuffer();
+
+    }
+    finally
+    {
+
+      out.close();
+
+    }
+
+  }
+
+  /**
+   * Method used to separate a new cell from the previous cell of the row.
+   * 
+   * @throws IOException
+   *           If the separator can not be written.
+   */
+  private void beginCell() throws IOException
+  {
+
+    if (cellCount++ > 0)
+    {
+
+      this.write(',');
+
+    }
+
+  }
+
+  /**
+   * Method used to add a single character to the buffer.
+   * 
+   * @param theChar
+   *          The character
+   * @throws IOException
+   *           If the buffer is full and can not be written.
+   */
+  private void write(char theChar) throws IOException
+  {
+
+    if (bufferCount == buffer.length)
+    {
+
+      this.flushBuffer();
+
+    }
+
+    buffer[bufferCount++] = theChar;
+
+  }
+
+  /**
+   * Method used to add part of a string to the buffer, writing the buffer
+   * each time it fills.
+   * 
+   * @param theString
+   *          The string
+   * @param theStart
+   *          The index of the first character added
+   * @param theEnd
+   *          The index following the last character added
+   * @throws IOException
+   *           If the buffer can not be written.
+   */
+  private void write(String theString, int theStart, int theEnd)
+      throws IOException
+  {
+
+    int start = theStart;
+
+    while (start < theEnd)
+    {
+
+      int length = Math.min(theEnd - start, buffer.length - bufferCount);
+
+      if (length == 0)
+      {
+
+        this.flushBuffer();
+
+      }
+      else
+      {
+
+        theString.getChars(start, start + length, buffer, bufferCount);
+        bufferCount += length;
+        start += length;
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used to hand the characters in the buffer to the stream.
+   * 
+   * @throws IOException
+   *           If the characters can not be written.
+   */
+  private void flushBuffer() throws IOException
+  {
+
+    if (bufferCount > 0)
+    {
+
+      out.write(buffer, 0, bufferCount);
+      bufferCount = 0;
+
+    }
+
+  }
+
+}
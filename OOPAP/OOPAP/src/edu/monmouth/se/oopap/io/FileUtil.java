@@ -4,10 +4,12 @@ import java.util.List;
 import java.util.ArrayList;
 import java.io.File;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.FileWriter;
+import java.nio.charset.Charset;
 
 /**
  * Class responsible for interacting with the file system.
@@ -19,89 +21,115 @@ public class FileUtil
 {
 
   /**
-   * x Method used to obtain the list of java source files at a specified path.
-   * It will only return files with an extension provided.
+   * Method used to obtain the list of java source files beneath a specified
+   * path. The path is walked recursively, and it will only return files with
+   * the extension provided.
    * 
    * @param thePathName
    *          The full absolute path for which files are to be listed
    * @param theSourceExtension
    *          The extension, including the period, for the extension.
-   * @return a List of File objects representing the java source files in the
-   *         specified path.
+   * @return a List of File objects representing the java source files beneath
+   *         the specified path.
    */
   public static List<File> getSourceFileList(String thePathName,
       String theSourceExtension)
   {
 
-    // File object to hold the path
-    File aPath = new File(thePathName);
-    // List of Files to hold the filtered files
-    List<File> pathList = new ArrayList<File>();
+    // Return the list of java source files
+    return new SourceFileFinder(new File(thePathName), theSourceExtension)
+        .findAll();
 
-    // Check to see if the current file object points to a single file or
-    // too a directory. If the object is a file add only it to the list
-    // and return. If not, iterate through the list of files in the directory
-    // and add only the files with the provided extension to the list
-    if (aPath.isFile())
-    {
+  }
 
-      pathList.add(aPath);
+  /**
+   * Method used to obtain the string contents of a file.
+   * 
+   * @param theSourcePath
+   *          The File representing the path to the file to be read.
+   * @return A list of strings containing the source contents
+   * @throws IOException
+   *           If the file cannot be read.
+   */
+  public static List<String> getSourceFileContents(File theSourceFile)
+      throws IOException
+  {
 
-    } else
+    // List to hold the contents of the source file
+    List<String> sourceContents = new ArrayList<String>();
+    // BufferedReader to read the elements in the file
+    BufferedReader in = new BufferedReader(new FileReader(theSourceFile
+        .toString()));
+    // String to hold the value of the current line
+    String currLine = "";
+
+    try
     {
 
-      // iterate through the list of files in the directory
-      for (File currFile : aPath.listFiles())
+      // read each line of the file until we hit the end
+      while ((currLine = in.readLine()) != null)
       {
 
-        // obtain the string value of the absolute path to the file
-        String tempName = currFile.getName();
+        sourceContents.add(currLine);
 
-        // ensure that the file has an extension of .java
-        if (tempName.endsWith(theSourceExtension) &&
-        	!tempName.startsWith("."))
-        {
+      }
 
-          // add it if it is a source file
-          pathList.add(currFile);
+    }
+    finally
+    {
 
-        }
-
-      }
+      // release the file handle
+      in.close();
 
     }
 
-    // Return the list of java source files
-    return pathList;
+    return sourceContents;
 
   }
 
   /**
-   * Method used to obtain the string contents of a file.
+   * Method used to obtain the string contents of a file decoded with the
+   * provided charset. The file is read in a single operation and closed
+   * before the method returns.
    * 
-   * @param theSourcePath
+   * @param theSourceFile
    *          The File representing the path to the file to be read.
+   * @param theCharset
+   *          The charset the file is encoded with.
    * @return A list of strings containing the source contents
    * @throws IOException
    *           If the file cannot be read.
    */
-  public static List<String> getSourceFileContents(File theSourceFile)
-      throws IOException
+  public static List<String> getSourceFileContents(File theSourceFile,
+      Charset theCharset) throws IOException
   {
 
     // List to hold the contents of the source file
     List<String> sourceContents = new ArrayList<String>();
-    // BufferedReader to read the elements in the file
-    BufferedReader in = new BufferedReader(new FileReader(theSourceFile
-        .toString()));
-    // String to hold the value of the current line
-    String currLine = "";
+    // reader used to read the lines of the file
+    SourceFileReader in = new SourceFileReader(theCharset);
+    // the current line of the file
+    CharSequence currLine;
+
+    try
+    {
+
+      in.open(theSourceFile);
+
+      // read each line of the file until we hit the end
+      while ((currLine = in.readLine()) != null)
+      {
+
+        sourceContents.add(currLine.toString());
+
+      }
 
-    // read each line of the file until we hit the end
-    while ((currLine = in.readLine()) != null)
+    }
+    finally
     {
 
-      sourceContents.add(currLine);
+      // release the contents of the file
+      in.close();
 
     }
 
@@ -114,6 +142,7 @@ public class FileUtil
    * to the specified path. This method will automatically insert a
    * newline character at the end of each string. There is no need to
    * insert such character at the end of the reports being generated.
+   * The lines are buffered and written to disk in large blocks.
    * 
    * @param theFilePath the path of the file to be written
    * @param theReportContents the contents of the report to be written
@@ -124,16 +153,27 @@ public class FileUtil
     throws IOException
   {
 
-	  FileWriter fout = new FileWriter(theFilePath);
+	  BufferedWriter fout = new BufferedWriter(new FileWriter(theFilePath));
 	  
-	  for(String currLine : theReportContents)
+	  try
 	  {
 		  
-		  fout.write(currLine + "\n");
+		  for(String currLine : theReportContents)
+		  {
+			  
+			  fout.write(currLine);
+			  fout.write('\n');
+			  
+		  }
+		  
+	  }
+	  finally
+	  {
+		  
+		  //release the file handle, even if a line could not be written
+		  fout.close();
 		  
 	  }
-	  
-	  fout.close();
 	  
   }
   
@@ -0,0 +1,565 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The results of every report of a single analysis, held in a compact binary
+ * file so that the results of many analyses may be read back without parsing
+ * any text. Each report is held as a ResultsTable, column by column, and the
+ * names of the classes and operations of every table are held once, in a
+ * dictionary shared by the tables.
+ * 
+ * The file holds, in order, with every number a big endian int and every
+ * string its length in bytes followed by its UTF-8 bytes:
+ * 
+ * <pre>
+ * magic "OOPR", version
+ * name count, names
+ * table count, then for each table:
+ *   report name, column count, then for each column its name and scale
+ *   row count, the level of each row as a byte, the class name index of
+ *   each row, the operation name index of each row, then the values of
+ *   each column
+ * </pre>
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class ResultsFile
+{
+
+  /**
+   * The extension of a results file.
+   */
+  public static final String FILE_EXTENSION = ".oopr";
+
+  /**
+   * The first four bytes of a results file, "OOPR".
+   */
+  private static final int MAGIC = 0x4F4F5052;
+
+  /**
+   * The version of the layout of the file.
+   */
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * The names referred to by the tables, in the order they were added.
+   */
+  private List<String> nameList;
+
+  /**
+   * Map to hold the name to name index association.
+   */
+  private Map<String, Integer> nameIdMap;
+
+  /**
+   * The tables, in the order they were added.
+   */
+  private List<ResultsTable> tableList;
+
+  /**
+   * Primary constructor. Creates a file without any tables.
+   */
+  public ResultsFile()
+  {
+
+    this.nameList = new ArrayList<String>();
+    this.nameIdMap = new HashMap<String, Integer>();
+    this.tableList = new ArrayList<ResultsTable>();
+
+  }
+
+  /**
+   * Method used to read a results file.
+   * 
+   * @param theFile
+   *          The file to be read
+   * @return the results held by the file
+   * @throws IOException
+   *           If the file can not be read or is not a results file.
+   */
+  public static ResultsFile read(File theFile) throws IOException
+  {
+
+    ByteBuffer in = ByteBuffer.wrap(readBytes(theFile));
+    ResultsFile resultsFile = new ResultsFile();
+
+    try
+    {
+
+      if (in.getInt() != MAGIC || in.getInt() != FORMAT_VERSION)
+      {
+
+        throw new IOException(theFile + " is not a results file");
+
+      }
+
+      for (int nameCount = in.getInt(); nameCount > 0; nameCount--)
+      {
+
+        resultsFile.getNameId(readString(in));
+
+      }
+
+      for (int tableCount = in.getInt(); tableCount > 0; tableCount--)
+      {
+
+        resultsFile.tableList.add(readTable(in, resultsFile.nameList));
+
+      }
+
+    }
+    catch (RuntimeException e)
+    {
+
+      // a count or a length running past the end of the file
+      throw new IOException(theFile + " is damaged: " + e);
+
+    }
+
+    return resultsFile;
+
+  }
+
+  /**
+   * Method used to write the results to a file. Any existing file is
+   * replaced.
+   * 
+   * @param theFile
+   *          The file the results are written to
+   * @throws IOException
+   *           If the file can not be written.
+   */
+  public void write(File theFile) throws IOException
+  {
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(theFile)));
+
+    try
+    {
+
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(nameList.size());
+
+      for (String currName : nameList)
+      {
+
+        writeString(out, currName);
+
+      }
+
+      out.writeInt(tableList.size());
+
+      for (ResultsTable currTable : tableList)
+      {
+
+        writeTable(out, currTable);
+
+      }
+
+    }
+    finally
+    {
+
+      out.close();
+
+    }
+
+  }
+
+  /**
+   * Method used to retrieve the number of tables.
+   * 
+   * @return the number of tables
+   */
+  public int getTableCount()
+  {
+
+    return this.tableList.size();
+
+  }
+
+  /**
+   * Method used to retrieve a table.
+   * 
+   * @param theTable
+   *          The index of the table
+   * @return the table
+   */
+  public ResultsTable getTable(int theTable)
+  {
+
+    return this.tableList.get(theTable);
+
+  }
+
+  /**
+   * Method used to find the table of a report.
+   * 
+   * @param theReportName
+   *          The name of the report
+   * @return the table, or null if the file holds no table of the report
+   */
+  public ResultsTable getTable(String theReportName)
+  {
+
+    for (ResultsTable currTable : tableList)
+    {
+
+      if (currTable.getReportName().equals(theReportName))
+      {
+
+        return currTable;
+
+      }
+
+    }
+
+    return null;
+
+  }
+
+  /**
+   * Method used to retrieve every name referred to by the tables.
+   * 
+   * @return the unmodifiable list of names, in order of their indexes
+   */
+  public List<String> getNameList()
+  {
+
+    return Collections.unmodifiableList(this.nameList);
+
+  }
+
+  /**
+   * Method used to find the index of a name, adding the name if it has not
+   * been added.
+   * 
+   * @param theName
+   *          The name
+   * @return the index of the name
+   */
+  int getNameId(String theName)
+  {
+
+    Integer nameId = nameIdMap.get(theName);
+
+    if (nameId == null)
+    {
+
+      nameId = nameList.size();
+      nameList.add(theName);
+      nameIdMap.put(theName, nameId);
+
+    }
+
+    return nameId;
+
+  }
+
+  /**
+   * Method used to add a new table without any rows.
+   * 
+   * @param theReportName
+   *          The name of the report the results are taken from
+   * @param theColumnNames
+   *          The names of the metric columns
+   * @param theColumnScales
+   *          The scale of each metric column
+   * @return the new table
+   */
+  ResultsTable addTable(String theReportName, String[] theColumnNames,
+      int[] theColumnScales)
+  {
+
+    ResultsTable newTable = new ResultsTable(theReportName, theColumnNames,
+        theColumnScales, nameList);
+
+    tableList.add(newTable);
+
+    return newTable;
+
+  }
+
+  /**
+   * Method used to write a single table.
+   * 
+   * @param theOut
+   *          The stream the table is written to
+   * @param theTable
+   *          The table
+   * @throws IOException
+   *           If the table can not be written.
+   */
+  private static void writeTable(DataOutputStream theOut,
+      ResultsTable theTable) throws IOException
+  {
+
+    int rowCount = theTable.getRowCount();
+
+    writeString(theOut, theTable.getReportName());
+    theOut.writeInt(theTable.getColumnCount());
+
+    for (int i = 0; i < theTable.getColumnCount(); i++)
+    {
+
+      writeString(theOut, theTable.getColumnName(i));
+      theOut.writeInt(theTable.getColumnScale(i));
+
+    }
+
+    theOut.writeInt(rowCount);
+    theOut.write(theTable.getLevels(), 0, rowCount);
+    writeInts(theOut, theTable.getClassIds(), rowCount);
+    writeInts(theOut, theTable.getOperationIds(), rowCount);
+
+    for (int i = 0; i < theTable.getColumnCount(); i++)
+    {
+
+      writeInts(theOut, theTable.getHeldValues(i), rowCount);
+
+    }
+
+  }
+
+  /**
+   * Method used to read a single table.
+   * 
+   * @param theIn
+   *          The buffer the table is read from
+   * @param theNameList
+   *          The names referred to by the table
+   * @return the table
+   */
+  private static ResultsTable readTable(ByteBuffer theIn,
+      List<String> theNameList)
+  {
+
+    String reportName = readString(theIn);
+    String[] columnNames = new String[theIn.getInt()];
+    int[] columnScales = new int[columnNames.length];
+    int[][] columnValues = new int[columnNames.length][];
+    byte[] levels;
+    int[] classIds;
+    int[] operationIds;
+
+    for (int i = 0; i < columnNames.length; i++)
+    {
+
+      columnNames[i] = readString(theIn);
+      columnScales[i] = theIn.getInt();
+
+    }
+
+    levels = new byte[checkRemaining(theIn, theIn.getInt(), 1)];
+    theIn.get(levels);
+    classIds = readInts(theIn, levels.length);
+    operationIds = readInts(theIn, levels.length);
+
+    for (int i = 0; i < columnNames.length; i++)
+    {
+
+      columnValues[i] = readInts(theIn, levels.length);
+
+    }
+
+    return new ResultsTable(reportName, columnNames, columnScales,
+        theNameList, levels, classIds, operationIds, columnValues);
+
+  }
+
+  /**
+   * Method used to write the first values of an array of ints in a single
+   * operation.
+   * 
+   * @param theOut
+   *          The stream the values are written to
+   * @param theValues
+   *          The values
+   * @param theCount
+   *          The number of values written
+   * @throws IOException
+   *           If the values can not be written.
+   */
+  private static void writeInts(DataOutputStream theOut, int[] theValues,
+      int theCount) throws IOException
+  {
+
+    ByteBuffer bytes = ByteBuffer.allocate(theCount * 4);
+
+    bytes.asIntBuffer().put(theValues, 0, theCount);
+    theOut.write(bytes.array());
+
+  }
+
+  /**
+   * Method used to read a number of ints in a single operation.
+   * 
+   * @param theIn
+   *          The buffer the values are read from
+   * @param theCount
+   *          The number of values read
+   * @return the values
+   */
+  private static int[] readInts(ByteBuffer theIn, int theCount)
+  {
+
+    int[] values = new int[checkRemaining(theIn, theCount, 4)];
+    IntBuffer ints = theIn.asIntBuffer();
+
+    ints.get(values);
+    theIn.position(theIn.position() + theCount * 4);
+
+    return values;
+
+  }
+
+  /**
+   * Method used to ensure a buffer holds a number of items, so that a damaged
+   * count is not used to size an array.
+   * 
+   * @param theIn
+   *          The buffer
+   * @param theCount
+   *          The number of items
+   * @param theItemSize
+   *          The number of bytes of each item
+   * @return the number of items
+   * @throws BufferUnderflowException
+   *           If the buffer does not hold the items.
+   */
+  private static int checkRemaining(ByteBuffer theIn, int theCount,
+      int theItemSize)
+  {
+
+    if (theCount < 0 || theCount > theIn.remaining() / theItemSize)
+    {
+
+      throw new BufferUnderflowException();
+
+    }
+
+    return theCount;
+
+  }
+
+  /**
+   * Method used to write a string as its length in bytes followed by its
+   * UTF-8 bytes.
+   * 
+   * @param theOut
+   *          The stream the string is written to
+   * @param theString
+   *          The string
+   * @throws IOException
+   *           If the string can not be written.
+   */
+  private static void writeString(DataOutputStream theOut, String theString)
+      throws IOException
+  {
+
+    byte[] bytes = theString.getBytes("UTF-8");
+
+    theOut.writeInt(bytes.length);
+    theOut.write(bytes);
+
+  }
+
+  /**
+   * Method used to read a string written by writeString.
+   * 
+   * @param theIn
+   *          The buffer the string is read from
+   * @return the string
+   */
+  private static String readString(ByteBuffer theIn)
+  {
+
+    int length = theIn.getInt();
+    String string;
+
+    try
+    {
+
+      string = new String(theIn.array(), theIn.position(), length, "UTF-8");
+
+    }
+    catch (IOException e)
+    {
+
+      // every Java platform supports UTF-8
+      throw new IllegalStateException(e.toString());
+
+    }
+
+    theIn.position(theIn.position() + length);
+
+    return string;
+
+  }
+
+  /**
+   * Method used to read the whole of a file.
+   * 
+   * @param theFile
+   *          The file to be read
+   * @return the bytes of the file
+   * @throws IOException
+   *           If the file can not be read.
+   */
+  private static byte[] readBytes(File theFile) throws IOException
+  {
+
+    InputStream in = new FileInputStream(theFile);
+    byte[] bytes = new byte[(int) theFile.length()];
+    int count = 0;
+
+    try
+    {
+
+      while (count < bytes.length)
+      {
+
+        int read = in.read(bytes, count, bytes.length - count);
+
+        if (read < 0)
+        {
+
+          throw new IOException(theFile + " was truncated while being read");
+
+        }
+
+        count += read;
+
+      }
+
+    }
+    finally
+    {
+
+      in.close();
+
+    }
+
+    return bytes;
+
+  }
+
+}
@@ -0,0 +1,390 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.monmouth.se.oopap.enumerator.ResultLevel;
+
+/**
+ * Class responsible for gathering the worksheet reports of an analysis into
+ * the tables of a ResultsFile, and writing the file once every report has
+ * been gathered.
+ * 
+ * Every worksheet report is laid out alike: a row of column headings, the
+ * first of which names the class column and the second of which, when it is
+ * "Operation Name", names the operation column, followed by the rows of the
+ * report, which may be separated by blank rows. Every other column holds a
+ * metric. A row naming an operation describes the operation, a row labeled
+ * "Program Total" or "Number of Classes" describes the program as a whole and
+ * any other row describes a class. Blank rows are dropped, as are the rows
+ * labeled "Top 5 Operations" or "Top 20% of Operations", which describe only
+ * part of the program in the columns of the program total.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class ResultsFileWriter implements WorksheetWriter
+{
+
+  /**
+   * The heading of the operation column.
+   */
+  private static final String OPERATION_HEADING = "Operation Name";
+
+  /**
+   * The labels of the rows describing the program as a whole.
+   */
+  private static final String[] PROGRAM_LABELS = { "Program Total",
+      "Number of Classes" };
+
+  /**
+   * The labels of the rows describing part of the program, which are not
+   * gathered. Their metrics are held in the columns of the program total, so
+   * the cohort would summarize them together with it.
+   */
+  private static final String[] PARTIAL_LABELS = { "Top 5 Operations",
+      "Top 20% of Operations" };
+
+  /**
+   * The file the results are written to.
+   */
+  private File file;
+
+  /**
+   * The results gathered.
+   */
+  private ResultsFile resultsFile;
+
+  /**
+   * The name of the report being gathered, null if none has been begun.
+   */
+  private String reportName;
+
+  /**
+   * The table of the report being gathered, null until its headings are
+   * written.
+   */
+  private ResultsTable currTable;
+
+  /**
+   * Whether the report being gathered has an operation column.
+   */
+  private boolean hasOperationColumn;
+
+  /**
+   * The scale of each metric column of the report being gathered, -1 until a
+   * value of the column is written.
+   */
+  private int[] columnScales;
+
+  /**
+   * The cells of the current row.
+   */
+  private List<String> currRow;
+
+  /**
+   * The values of the metric columns of the current row.
+   */
+  private int[] rowValues;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theFile
+   *          The file the results are written to, when the writer is closed
+   */
+  public ResultsFileWriter(File theFile)
+  {
+
+    this.file = theFile;
+    this.resultsFile = new ResultsFile();
+    this.currRow = new ArrayList<String>();
+
+  }
+
+  /**
+   * Method used to begin gathering a new report. The first row of the report
+   * holds its column headings.
+   * 
+   * @param theReportName
+   *          The name of the report
+   */
+  public void beginReport(String theReportName)
+  {
+
+    this.reportName = theReportName;
+    this.currTable = null;
+    this.currRow.clear();
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IllegalStateException
+   *           If no report has been begun.
+   */
+  public void writeCell(String theCell)
+  {
+
+    if (reportName == null)
+    {
+
+      throw new IllegalStateException("No report has been begun");
+
+    }
+
+    currRow.add(String.valueOf(theCell));
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row as a whole number.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IllegalStateException
+   *           If no report has been begun.
+   */
+  public void writeCell(int theCell)
+  {
+
+    this.writeCell(Integer.toString(theCell));
+
+  }
+
+  /**
+   * Method used to complete the current row, adding it to the table of the
+   * report.
+   * 
+   * @throws IllegalStateException
+   *           If no report has been begun.
+   */
+  public void endRow()
+  {
+
+    if (reportName == null)
+    {
+
+      throw new IllegalStateException("No report has been begun");
+
+    }
+
+    if (currRow.isEmpty())
+    {
+
+      // a blank row only separates the rows of the report
+
+    }
+    else if (currTable == null)
+    {
+
+      this.beginTable();
+
+    }
+    else
+    {
+
+      this.addRow();
+
+    }
+
+    currRow.clear();
+
+  }
+
+  /**
+   * Method used to write every report gathered to the file.
+   * 
+   * @throws IOException
+   *           If the file can not be written.
+   */
+  public void close() throws IOException
+  {
+
+    resultsFile.write(file);
+
+  }
+
+  /**
+   * Method used to discard every report gathered when the reports can not
+   * all be written. The file is deleted, whether it was written in part or
+   * left by an earlier analysis, so that no incomplete results remain.
+   */
+  public void abort()
+  {
+
+    this.resultsFile = new ResultsFile();
+    this.currTable = null;
+    this.currRow.clear();
+    file.delete();
+
+  }
+
+  /**
+   * Method used to retrieve the results gathered so far.
+   * 
+   * @return the results
+   */
+  public ResultsFile getResultsFile()
+  {
+
+    return this.resultsFile;
+
+  }
+
+  /**
+   * Method used to begin the table of the current report from the column
+   * headings in the current row.
+   */
+  private void beginTable()
+  {
+
+    int metricStart;
+    String[] columnNames;
+
+    hasOperationColumn = currRow.size() > 1
+        && currRow.get(1).equals(OPERATION_HEADING);
+    metricStart = hasOperationColumn ? 2 : 1;
+    columnNames = new String[Math.max(0, currRow.size() - metricStart)];
+    columnScales = new int[columnNames.length];
+    rowValues = new int[columnNames.length];
+
+    for (int i = 0; i < columnNames.length; i++)
+    {
+
+      columnNames[i] = currRow.get(metricStart + i);
+      columnScales[i] = -1;
+
+    }
+
+    currTable = resultsFile.addTable(reportName, columnNames, columnScales);
+
+  }
+
+  /**
+   * Method used to add the current row to the table of the current report,
+   * unless it describes only part of the program.
+   */
+  private void addRow()
+  {
+
+    String label = currRow.get(0);
+    int metricStart = hasOperationColumn ? 2 : 1;
+    int operationId = -1;
+    ResultLevel level = ResultLevel.Class;
+
+    if (hasOperationColumn && currRow.size() > 1
+        && currRow.get(1).length() > 0)
+    {
+
+      level = ResultLevel.Operation;
+      operationId = resultsFile.getNameId(currRow.get(1));
+
+    }
+    else
+    {
+
+      for (String currLabel : PARTIAL_LABELS)
+      {
+
+        if (label.equals(currLabel))
+        {
+
+          return;
+
+        }
+
+      }
+
+      for (String currLabel : PROGRAM_LABELS)
+      {
+
+        if (label.equals(currLabel))
+        {
+
+          level = ResultLevel.Program;
+
+        }
+
+      }
+
+    }
+
+    for (int i = 0; i < rowValues.length; i++)
+    {
+
+      rowValues[i] = metricStart + i < currRow.size() ? this.parseValue(
+          currRow.get(metricStart + i), i) : ResultsTable.MISSING_VALUE;
+
+    }
+
+    currTable.addRow(level, resultsFile.getNameId(label), operationId,
+        rowValues);
+
+  }
+
+  /**
+   * Method used to read the value of a cell of a metric column. The scale of
+   * the column is set by the first number found in it.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @param theColumn
+   *          The index of the metric column
+   * @return the value, multiplied by 10 to the power of the scale of the
+   *         column, or MISSING_VALUE if the cell is not a number
+   */
+  private int parseValue(String theCell, int theColumn)
+  {
+
+    int pointPos = theCell.indexOf('.');
+    double value;
+
+    try
+    {
+
+      value = Double.parseDouble(theCell);
+
+    }
+    catch (NumberFormatException e)
+    {
+
+      return ResultsTable.MISSING_VALUE;
+
+    }
+
+    if (Double.isNaN(value) || Double.isInfinite(value))
+    {
+
+      return ResultsTable.MISSING_VALUE;
+
+    }
+
+    if (columnScales[theColumn] < 0)
+    {
+
+      columnScales[theColumn] = pointPos < 0 ? 0 : theCell.length()
+          - pointPos - 1;
+
+    }
+
+    value = Math.round(value * Math.pow(10, columnScales[theColumn]));
+
+    // a value too large to be held is as good as missing
+    if (value <= ResultsTable.MISSING_VALUE || value > Integer.MAX_VALUE)
+    {
+
+      return ResultsTable.MISSING_VALUE;
+
+    }
+
+    return (int) value;
+
+  }
+
+}
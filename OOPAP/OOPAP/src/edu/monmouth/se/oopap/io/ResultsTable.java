@@ -0,0 +1,504 @@
+package edu.monmouth.se.oopap.io;
+
+import java.util.List;
+
+import edu.monmouth.se.oopap.enumerator.ResultLevel;
+
+/**
+ * The results of a single report held column by column. Each row describes
+ * an operation, a class or the program as a whole, and holds a value for
+ * each metric column of the report.
+ * 
+ * The names of the classes and operations are not held by the table but by
+ * the ResultsFile holding it, each table row referring to a name by its
+ * index. Every value is a whole number. A column of decimal values, such as a
+ * percentage, holds each value multiplied by 10 to the power of the scale of
+ * the column, so that "57.1" is held as 571 in a column of scale 1. A value
+ * that was not a number is held as MISSING_VALUE.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class ResultsTable
+{
+
+  /**
+   * The value held for a cell that was not a number.
+   */
+  public static final int MISSING_VALUE = Integer.MIN_VALUE;
+
+  /**
+   * The number of rows room is first made for.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * The levels, by ordinal, held once rather than copied for every row read.
+   */
+  private static final ResultLevel[] LEVELS = ResultLevel.values();
+
+  /**
+   * The name of the report the results are taken from.
+   */
+  private String reportName;
+
+  /**
+   * The names of the metric columns.
+   */
+  private String[] columnNames;
+
+  /**
+   * The scale of each metric column.
+   */
+  private int[] columnScales;
+
+  /**
+   * The names referred to by the rows, held by the file holding the table.
+   */
+  private List<String> nameList;
+
+  /**
+   * The number of rows.
+   */
+  private int rowCount;
+
+  /**
+   * The ordinal of the level of each row.
+   */
+  private byte[] levels;
+
+  /**
+   * The index of the class name of each row.
+   */
+  private int[] classIds;
+
+  /**
+   * The index of the operation name of each row, -1 if the row does not
+   * describe an operation.
+   */
+  private int[] operationIds;
+
+  /**
+   * The values of each metric column, column by column.
+   */
+  private int[][] columnValues;
+
+  /**
+   * Primary constructor. Creates a table without any rows.
+   * 
+   * @param theReportName
+   *          The name of the report the results are taken from
+   * @param theColumnNames
+   *          The names of the metric columns
+   * @param theColumnScales
+   *          The scale of each metric column
+   * @param theNameList
+   *          The names referred to by the rows
+   */
+  ResultsTable(String theReportName, String[] theColumnNames,
+      int[] theColumnScales, List<String> theNameList)
+  {
+
+    this.reportName = theReportName;
+    this.columnNames = theColumnNames;
+    this.columnScales = theColumnScales;
+    this.nameList = theNameList;
+    this.rowCount = 0;
+    this.levels = new byte[INITIAL_CAPACITY];
+    this.classIds = new int[INITIAL_CAPACITY];
+    this.operationIds = new int[INITIAL_CAPACITY];
+    this.columnValues = new int[theColumnNames.length][INITIAL_CAPACITY];
+
+  }
+
+  /**
+   * Constructor used to create a table from columns already read.
+   * 
+   * @param theReportName
+   *          The name of the report the results are taken from
+   * @param theColumnNames
+   *          The names of the metric columns
+   * @param theColumnScales
+   *          The scale of each metric column
+   * @param theNameList
+   *          The names referred to by the rows
+   * @param theLevels
+   *          The ordinal of the level of each row
+   * @param theClassIds
+   *          The index of the class name of each row
+   * @param theOperationIds
+   *          The index of the operation name of each row
+   * @param theColumnValues
+   *          The values of each metric column
+   */
+  ResultsTable(String theReportName, String[] theColumnNames,
+      int[] theColumnScales, List<String> theNameList, byte[] theLevels,
+      int[] theClassIds, int[] theOperationIds, int[][] theColumnValues)
+  {
+
+    this.reportName = theReportName;
+    this.columnNames = theColumnNames;
+    this.columnScales = theColumnScales;
+    this.nameList = theNameList;
+    this.rowCount = theLevels.length;
+    this.levels = theLevels;
+    this.classIds = theClassIds;
+    this.operationIds = theOperationIds;
+    this.columnValues = theColumnValues;
+
+  }
+
+  /**
+   * Method used to retrieve the name of the report the results are taken
+   * from.
+   * 
+   * @return the name of the report
+   */
+  public String getReportName()
+  {
+
+    return this.reportName;
+
+  }
+
+  /**
+   * Method used to retrieve the number of rows.
+   * 
+   * @return the number of rows
+   */
+  public int getRowCount()
+  {
+
+    return this.rowCount;
+
+  }
+
+  /**
+   * Method used to retrieve the number of metric columns.
+   * 
+   * @return the number of metric columns
+   */
+  public int getColumnCount()
+  {
+
+    return this.columnNames.length;
+
+  }
+
+  /**
+   * Method used to retrieve the name of a metric column.
+   * 
+   * @param theColumn
+   *          The index of the column
+   * @return the name of the column
+   */
+  public String getColumnName(int theColumn)
+  {
+
+    return this.columnNames[theColumn];
+
+  }
+
+  /**
+   * Method used to find a metric column by name.
+   * 
+   * @param theColumnName
+   *          The name of the column
+   * @return the index of the column, or -1 if there is no such column
+   */
+  public int getColumnIndex(String theColumnName)
+  {
+
+    for (int i = 0; i < columnNames.length; i++)
+    {
+
+      if (columnNames[i].equals(theColumnName))
+      {
+
+        return i;
+
+      }
+
+    }
+
+    return -1;
+
+  }
+
+  /**
+   * Method used to retrieve the scale of a metric column, the number of
+   * decimal places its values were given with.
+   * 
+   * @param theColumn
+   *          The index of the column
+   * @return the scale of the column
+   */
+  public int getColumnScale(int theColumn)
+  {
+
+    // a column without any values has no scale of its own
+    return Math.max(0, this.columnScales[theColumn]);
+
+  }
+
+  /**
+   * Method used to retrieve the level of the program a row describes.
+   * 
+   * @param theRow
+   *          The index of the row
+   * @return the level of the row
+   */
+  public ResultLevel getLevel(int theRow)
+  {
+
+    return LEVELS[levels[theRow]];
+
+  }
+
+  /**
+   * Method used to retrieve the index of the class name of a row, within the
+   * names of the file holding the table. The row of the program as a whole
+   * refers to the label it was given, such as "Program Total".
+   * 
+   * @param theRow
+   *          The index of the row
+   * @return the index of the class name
+   */
+  public int getClassId(int theRow)
+  {
+
+    return this.classIds[theRow];
+
+  }
+
+  /**
+   * Method used to retrieve the class name of a row.
+   * 
+   * @param theRow
+   *          The index of the row
+   * @return the class name
+   */
+  public String getClassName(int theRow)
+  {
+
+    return this.nameList.get(classIds[theRow]);
+
+  }
+
+  /**
+   * Method used to retrieve the index of the operation name of a row, within
+   * the names of the file holding the table.
+   * 
+   * @param theRow
+   *          The index of the row
+   * @return the index of the operation name, or -1 if the row does not
+   *         describe an operation
+   */
+  public int getOperationId(int theRow)
+  {
+
+    return this.operationIds[theRow];
+
+  }
+
+  /**
+   * Method used to retrieve the operation name of a row.
+   * 
+   * @param theRow
+   *          The index of the row
+   * @return the operation name, or null if the row does not describe an
+   *         operation
+   */
+  public String getOperationName(int theRow)
+  {
+
+    return operationIds[theRow] < 0 ? null : nameList
+        .get(operationIds[theRow]);
+
+  }
+
+  /**
+   * Method used to retrieve a value as held, multiplied by 10 to the power of
+   * the scale of its column.
+   * 
+   * @param theRow
+   *          The index of the row
+   * @param theColumn
+   *          The index of the metric column
+   * @return the value, or MISSING_VALUE if it was not a number
+   */
+  public int getValue(int theRow, int theColumn)
+  {
+
+    return this.columnValues[theColumn][theRow];
+
+  }
+
+  /**
+   * Method used to retrieve a value as it was reported, divided by 10 to the
+   * power of the scale of its column.
+   * 
+   * @param theRow
+   *          The index of the row
+   * @param theColumn
+   *          The index of the metric column
+   * @return the value, or NaN if it was not a number
+   */
+  public double getDoubleValue(int theRow, int theColumn)
+  {
+
+    int value = columnValues[theColumn][theRow];
+
+    if (value == MISSING_VALUE)
+    {
+
+      return Double.NaN;
+
+    }
+
+    return value / Math.pow(10, this.getColumnScale(theColumn));
+
+  }
+
+  /**
+   * Method used to retrieve every value of a metric column, as held.
+   * 
+   * @param theColumn
+   *          The index of the column
+   * @return a copy of the values of the column, one for each row
+   */
+  public int[] getColumnValues(int theColumn)
+  {
+
+    int[] values = new int[rowCount];
+
+    System.arraycopy(columnValues[theColumn], 0, values, 0, rowCount);
+
+    return values;
+
+  }
+
+  /**
+   * Method used to add a row to the table.
+   * 
+   * @param theLevel
+   *          The level of the row
+   * @param theClassId
+   *          The index of the class name of the row
+   * @param theOperationId
+   *          The index of the operation name of the row, -1 if none
+   * @param theValues
+   *          The value of each metric column
+   */
+  void addRow(ResultLevel theLevel, int theClassId, int theOperationId,
+      int[] theValues)
+  {
+
+    if (rowCount == levels.length)
+    {
+
+      int capacity = rowCount * 2;
+      byte[] newLevels = new byte[capacity];
+
+      System.arraycopy(levels, 0, newLevels, 0, rowCount);
+      levels = newLevels;
+      classIds = grow(classIds, capacity);
+      operationIds = grow(operationIds, capacity);
+
+      for (int i = 0; i < columnValues.length; i++)
+      {
+
+        columnValues[i] = grow(columnValues[i], capacity);
+
+      }
+
+    }
+
+    levels[rowCount] = (byte) theLevel.ordinal();
+    classIds[rowCount] = theClassId;
+    operationIds[rowCount] = theOperationId;
+
+    for (int i = 0; i < columnValues.length; i++)
+    {
+
+      columnValues[i][rowCount] = theValues[i];
+
+    }
+
+    rowCount++;
+
+  }
+
+  /**
+   * Method used to retrieve the ordinals of the levels of the rows, as held.
+   * 
+   * @return the levels, of which the first getRowCount are used
+   */
+  byte[] getLevels()
+  {
+
+    return this.levels;
+
+  }
+
+  /**
+   * Method used to retrieve the indexes of the class names of the rows, as
+   * held.
+   * 
+   * @return the indexes, of which the first getRowCount are used
+   */
+  int[] getClassIds()
+  {
+
+    return this.classIds;
+
+  }
+
+  /**
+   * Method used to retrieve the indexes of the operation names of the rows,
+   * as held.
+   * 
+   * @return the indexes, of which the first getRowCount are used
+   */
+  int[] getOperationIds()
+  {
+
+    return this.operationIds;
+
+  }
+
+  /**
+   * Method used to retrieve the values of a metric column, as held.
+   * 
+   * @param theColumn
+   *          The index of the column
+   * @return the values, of which the first getRowCount are used
+   */
+  int[] getHeldValues(int theColumn)
+  {
+
+    return this.columnValues[theColumn];
+
+  }
+
+  /**
+   * Method used to copy an array into a longer array.
+   * 
+   * @param theArray
+   *          The array to be copied
+   * @param theLength
+   *          The length of the new array
+   * @return the new array
+   */
+  private static int[] grow(int[] theArray, int theLength)
+  {
+
+    int[] newArray = new int[theLength];
+
+    System.arraycopy(theArray, 0, newArray, 0, theArray.length);
+
+    return newArray;
+
+  }
+
+}
@@ -0,0 +1,475 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Class responsible for finding the source files beneath a path. The path is
+ * walked recursively, and the files are provided by the iterator of the finder
+ * as they are found, so that they may be read before the walk is complete.
+ * 
+ * A file is found when its name ends with the source extension, it matches
+ * one of the include patterns, or there are none, and it matches none of the
+ * exclude patterns. Directories matching an exclude pattern are not walked.
+ * Files and directories whose names begin with a period are skipped.
+ * 
+ * Patterns are globs. A '*' matches any characters other than '/', a '**'
+ * matches any characters including '/', and a '?' matches a single character
+ * other than '/'. A pattern containing a '/' is matched against the path of
+ * the file relative to the path being walked, using '/' as the separator,
+ * otherwise it is matched against the name of the file or directory alone. A
+ * trailing '/' is ignored, so "build/" excludes every directory named build.
+ * 
+ * Symbolic links are followed, but every directory and file is visited only
+ * once, by its canonical path, so links that form a cycle or that lead to a
+ * part of the tree that has already been visited are skipped.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class SourceFileFinder implements Iterable<File>
+{
+
+  /**
+   * The path to be walked.
+   */
+  private File sourcePath;
+
+  /**
+   * The extension, including the period, of the source files.
+   */
+  private String sourceExtension;
+
+  /**
+   * The patterns a file must match one of to be found.
+   */
+  private List<Pattern> includeList;
+
+  /**
+   * The patterns of the files and directories to be skipped.
+   */
+  private List<Pattern> excludeList;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theSourcePath
+   *          The path to be walked, either a directory or a single file
+   * @param theSourceExtension
+   *          The extension, including the period, of the source files
+   */
+  public SourceFileFinder(File theSourcePath, String theSourceExtension)
+  {
+
+    this.sourcePath = theSourcePath;
+    this.sourceExtension = theSourceExtension;
+    this.includeList = new ArrayList<Pattern>();
+    this.excludeList = new ArrayList<Pattern>();
+
+  }
+
+  /**
+   * Method used to add a pattern to the patterns a file must match one of to
+   * be found.
+   * 
+   * @param theGlob
+   *          The glob to be matched
+   */
+  public void addInclude(String theGlob)
+  {
+
+    this.includeList.add(toPattern(theGlob));
+
+  }
+
+  /**
+   * Method used to add a pattern of the files and directories to be skipped.
+   * 
+   * @param theGlob
+   *          The glob to be matched
+   */
+  public void addExclude(String theGlob)
+  {
+
+    this.excludeList.add(toPattern(theGlob));
+
+  }
+
+  /**
+   * Method used to retrieve the path of a file found by the finder relative
+   * to the path being walked, using '/' as the separator. A single file being
+   * walked is named by its name.
+   * 
+   * @param theSourceFile
+   *          The file found by the finder
+   * @return the relative path of the file
+   */
+  public String getRelativePath(File theSourceFile)
+  {
+
+    if (theSourceFile.equals(sourcePath))
+    {
+
+      return theSourceFile.getName();
+
+    }
+
+    String relativePath = theSourceFile.getPath().substring(
+        sourcePath.getPath().length());
+
+    // remove the separator between the path being walked and the file
+    if (relativePath.startsWith(File.separator))
+    {
+
+      relativePath = relativePath.substring(1);
+
+    }
+
+    return relativePath.replace(File.separatorChar, '/');
+
+  }
+
+  /**
+   * Method used to find every source file at once.
+   * 
+   * @return the list of source files in the order they are found
+   */
+  public List<File> findAll()
+  {
+
+    List<File> sourceFileList = new ArrayList<File>();
+
+    for (File currFile : this)
+    {
+
+      sourceFileList.add(currFile);
+
+    }
+
+    return sourceFileList;
+
+  }
+
+  /**
+   * Method used to walk the path. The walk is performed lazily, each call to
+   * next walking only as far as the next source file. The files of a
+   * directory are found, in the order the directory lists them, before its
+   * subdirectories are walked.
+   * 
+   * @return an iterator over the source files
+   */
+  public Iterator<File> iterator()
+  {
+
+    return new SourceFileIterator();
+
+  }
+
+  /**
+   * Method used to determine whether a file or directory matches any of a
+   * list of patterns.
+   * 
+   * @param thePatternList
+   *          The patterns to be matched
+   * @param theRelativePath
+   *          The path of the file relative to the path being walked
+   * @return true if any of the patterns match
+   */
+  private static boolean matches(List<Pattern> thePatternList,
+      String theRelativePath)
+  {
+
+    for (Pattern currPattern : thePatternList)
+    {
+
+      if (currPattern.matcher(theRelativePath).matches())
+      {
+
+        return true;
+
+      }
+
+    }
+
+    return false;
+
+  }
+
+  /**
+   * Method used to convert a glob to a regular expression matched against
+   * relative paths.
+   * 
+   * @param theGlob
+   *          The glob to be converted
+   * @return the pattern matching the same paths as the glob
+   */
+  static Pattern toPattern(String theGlob)
+  {
+
+    StringBuilder regex = new StringBuilder();
+    String glob = theGlob.replace('\\', '/');
+
+    // a trailing separator only marks the pattern as a directory
+    while (glob.length() > 1 && glob.endsWith("/"))
+    {
+
+      glob = glob.substring(0, glob.length() - 1);
+
+    }
+
+    // a glob without a separator matches the name in any directory
+    if (glob.indexOf('/') < 0)
+    {
+
+      regex.append("(?:.*/)?");
+
+    }
+
+    for (int i = 0; i < glob.length(); i++)
+    {
+
+      char currChar = glob.charAt(i);
+
+      if (currChar == '*' && i + 1 < glob.length()
+          && glob.charAt(i + 1) == '*')
+      {
+
+        i++;
+
+        // "**/" also matches no directories at all
+        if (i + 1 < glob.length() && glob.charAt(i + 1) == '/')
+        {
+
+          i++;
+          regex.append("(?:.*/)?");
+
+        }
+        else
+        {
+
+          regex.append(".*");
+
+        }
+
+      }
+      else if (currChar == '*')
+      {
+
+        regex.append("[^/]*");
+
+      }
+      else if (currChar == '?')
+      {
+
+        regex.append("[^/]");
+
+      }
+      else if (Character.isLetterOrDigit(currChar) || currChar == '/')
+      {
+
+        regex.append(currChar);
+
+      }
+      else
+      {
+
+        regex.append('\\').append(currChar);
+
+      }
+
+    }
+
+    return Pattern.compile(regex.toString());
+
+  }
+
+  /**
+   * Iterator performing the walk. Directories waiting to be walked are held on
+   * a stack so that the walk is depth first.
+   */
+  private class SourceFileIterator implements Iterator<File>
+  {
+
+    /**
+     * The directories waiting to be walked, the next on top.
+     */
+    private LinkedList<File> directoryStack;
+
+    /**
+     * The source files found but not yet returned.
+     */
+    private LinkedList<File> foundList;
+
+    /**
+     * The canonical paths of every directory and file visited.
+     */
+    private Set<String> visitedSet;
+
+    /**
+     * Primary constructor. Begins the walk at the path of the finder.
+     */
+    SourceFileIterator()
+    {
+
+      this.directoryStack = new LinkedList<File>();
+      this.foundList = new LinkedList<File>();
+      this.visitedSet = new HashSet<String>();
+
+      // a single file is found regardless of its name
+      if (sourcePath.isFile())
+      {
+
+        foundList.add(sourcePath);
+
+      }
+      else if (sourcePath.isDirectory() && this.visit(sourcePath))
+      {
+
+        directoryStack.add(sourcePath);
+
+      }
+
+    }
+
+    /**
+     * Method used to record a file or directory as visited.
+     * 
+     * @param theFile
+     *          The file or directory being visited
+     * @return true if it had not been visited before
+     */
+    private boolean visit(File theFile)
+    {
+
+      String canonicalPath;
+
+      try
+      {
+
+        canonicalPath = theFile.getCanonicalPath();
+
+      }
+      catch (IOException e)
+      {
+
+        // a path that cannot be resolved is skipped
+        return false;
+
+      }
+
+      return visitedSet.add(canonicalPath);
+
+    }
+
+    /**
+     * Method used to walk directories until a source file is found or there
+     * are no directories left.
+     */
+    private void walk()
+    {
+
+      while (foundList.isEmpty() && !directoryStack.isEmpty())
+      {
+
+        File currDirectory = directoryStack.removeLast();
+        File[] currFiles = currDirectory.listFiles();
+        // the subdirectories of the current directory
+        List<File> subdirectoryList = new ArrayList<File>();
+
+        // a directory that cannot be listed is skipped
+        if (currFiles == null)
+        {
+
+          continue;
+
+        }
+
+        for (File currFile : currFiles)
+        {
+
+          String currName = currFile.getName();
+          String currRelativePath = getRelativePath(currFile);
+
+          if (currName.startsWith(".")
+              || matches(excludeList, currRelativePath))
+          {
+
+            continue;
+
+          }
+
+          if (currFile.isDirectory())
+          {
+
+            if (this.visit(currFile))
+            {
+
+              subdirectoryList.add(currFile);
+
+            }
+
+          }
+          else if (currFile.isFile() && currName.endsWith(sourceExtension)
+              && (includeList.isEmpty() || matches(includeList,
+                  currRelativePath)) && this.visit(currFile))
+          {
+
+            foundList.add(currFile);
+
+          }
+
+        }
+
+        // push the subdirectories so that the first is walked first
+        for (int i = subdirectoryList.size() - 1; i >= 0; i--)
+        {
+
+          directoryStack.add(subdirectoryList.get(i));
+
+        }
+
+      }
+
+    }
+
+    public boolean hasNext()
+    {
+
+      this.walk();
+
+      return !foundList.isEmpty();
+
+    }
+
+    public File next()
+    {
+
+      if (!this.hasNext())
+      {
+
+        throw new NoSuchElementException();
+
+      }
+
+      return foundList.removeFirst();
+
+    }
+
+    public void remove()
+    {
+
+      throw new UnsupportedOperationException();
+
+    }
+
+  }
+
+}
@@ -0,0 +1,378 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Class responsible for reading the lines of source files. The contents of a
+ * file are read in one operation, memory mapping files larger than
+ * MAP_THRESHOLD and reading smaller files into a buffer kept between files,
+ * and are decoded with an explicit charset into a single character buffer
+ * which is also kept between files. Each line is then provided as a
+ * CharSequence view over that buffer, so no copy of the line is made unless
+ * the caller asks for one.
+ * 
+ * Lines are split exactly as BufferedReader.readLine splits them: a line ends
+ * at a line feed, a carriage return or a carriage return followed by a line
+ * feed. Malformed input is replaced, as InputStreamReader replaces it.
+ * 
+ * The file is closed as soon as its contents have been read. A reader is not
+ * thread safe, but may be used to read any number of files one after the
+ * other.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class SourceFileReader
+{
+
+  /**
+   * The size in bytes above which files are memory mapped rather than read.
+   */
+  public static final int MAP_THRESHOLD = 1024 * 1024;
+
+  /**
+   * The charset used to decode the files.
+   */
+  private Charset charset;
+
+  /**
+   * The decoder for the charset.
+   */
+  private CharsetDecoder decoder;
+
+  /**
+   * Buffer the contents of small files are read into. Kept between files.
+   */
+  private ByteBuffer byteBuffer;
+
+  /**
+   * Buffer holding the decoded contents of the current file. Kept between
+   * files.
+   */
+  private CharBuffer charBuffer;
+
+  /**
+   * The position of the start of the next line within the character buffer.
+   */
+  private int position;
+
+  /**
+   * The view of the current line.
+   */
+  private LineView lineView;
+
+  /**
+   * Primary constructor. Files are decoded with the platform charset, the
+   * same charset FileReader uses.
+   */
+  public SourceFileReader()
+  {
+
+    this(Charset.defaultCharset());
+
+  }
+
+  /**
+   * Constructor used to set the charset the files are decoded with.
+   * 
+   * @param theCharset
+   *          The charset of the files to be read
+   */
+  public SourceFileReader(Charset theCharset)
+  {
+
+    this.charset = theCharset;
+    this.decoder = theCharset.newDecoder().onMalformedInput(
+        CodingErrorAction.REPLACE).onUnmappableCharacter(
+        CodingErrorAction.REPLACE);
+    this.charBuffer = CharBuffer.allocate(0);
+    this.lineView = new LineView();
+
+  }
+
+  /**
+   * Method used to retrieve the charset the files are decoded with.
+   * 
+   * @return the charset
+   */
+  public Charset getCharset()
+  {
+
+    return this.charset;
+
+  }
+
+  /**
+   * Method used to read the contents of a file. Any previous file is
+   * discarded. The file is closed before the method returns.
+   * 
+   * @param theSourceFile
+   *          The file to be read
+   * @throws IOException
+   *           If the file cannot be read.
+   */
+  public void open(File theSourceFile) throws IOException
+  {
+
+    FileInputStream in = new FileInputStream(theSourceFile);
+
+    try
+    {
+
+      FileChannel channel = in.getChannel();
+      long size = channel.size();
+      ByteBuffer contents;
+
+      if (size > Integer.MAX_VALUE)
+      {
+
+        throw new IOException(theSourceFile + " is too large to be read");
+
+      }
+
+      if (size > MAP_THRESHOLD)
+      {
+
+        contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+      }
+      else
+      {
+
+        // grow the buffer kept between files if the file will not fit
+        if (byteBuffer == null || byteBuffer.capacity() < size)
+        {
+
+          byteBuffer = ByteBuffer.allocateDirect(Math.max((int) size, 8192));
+
+        }
+
+        byteBuffer.clear();
+        byteBuffer.limit((int) size);
+
+        // the number of bytes read by the last read, -1 at the end of file
+        int bytesRead = 0;
+
+        // read until the buffer is full or the end of the file is reached
+        while (byteBuffer.hasRemaining() && bytesRead >= 0)
+        {
+
+          bytesRead = channel.read(byteBuffer);
+
+        }
+
+        byteBuffer.flip();
+        contents = byteBuffer;
+
+      }
+
+      this.decode(contents);
+
+    }
+    finally
+    {
+
+      in.close();
+
+    }
+
+  }
+
+  /**
+   * Method used to decode the contents of a file into the character buffer.
+   * 
+   * @param theContents
+   *          The contents of the file
+   * @throws CharacterCodingException
+   *           If the contents cannot be decoded.
+   */
+  private void decode(ByteBuffer theContents) throws CharacterCodingException
+  {
+
+    // the largest number of characters the contents may decode to
+    int maxChars = (int) (theContents.remaining() * (double) decoder
+        .maxCharsPerByte()) + 1;
+
+    if (charBuffer.capacity() < maxChars)
+    {
+
+      charBuffer = CharBuffer.allocate(maxChars);
+
+    }
+
+    charBuffer.clear();
+    decoder.reset();
+
+    CoderResult result = decoder.decode(theContents, charBuffer, true);
+
+    if (!result.isUnderflow())
+    {
+
+      result.throwException();
+
+    }
+
+    result = decoder.flush(charBuffer);
+
+    if (!result.isUnderflow())
+    {
+
+      result.throwException();
+
+    }
+
+    charBuffer.flip();
+    position = 0;
+
+  }
+
+  /**
+   * Method used to read the next line of the current file. The line returned
+   * is a view over the contents of the file which is only valid until the
+   * next call to readLine or open. Call toString on the line to keep it.
+   * 
+   * @return the next line, without its line terminator, or null if there are
+   *         no more lines
+   */
+  public CharSequence readLine()
+  {
+
+    int limit = charBuffer.limit();
+
+    if (position >= limit)
+    {
+
+      return null;
+
+    }
+
+    int start = position;
+    int end = start;
+
+    // find the end of the line
+    while (end < limit)
+    {
+
+      char currChar = charBuffer.get(end);
+
+      if (currChar == '\n' || currChar == '\r')
+      {
+
+        break;
+
+      }
+
+      end++;
+
+    }
+
+    // skip the line terminator, treating \r\n as a single terminator
+    position = end + 1;
+
+    if (end < limit && charBuffer.get(end) == '\r' && position < limit
+        && charBuffer.get(position) == '\n')
+    {
+
+      position++;
+
+    }
+
+    lineView.set(start, end);
+
+    return lineView;
+
+  }
+
+  /**
+   * Method used to release the buffers held by the reader.
+   */
+  public void close()
+  {
+
+    this.byteBuffer = null;
+    this.charBuffer = CharBuffer.allocate(0);
+    this.position = 0;
+
+  }
+
+  /**
+   * View of a single line of the character buffer.
+   */
+  private class LineView implements CharSequence
+  {
+
+    /**
+     * The position of the first character of the line.
+     */
+    private int start;
+
+    /**
+     * The position following the last character of the line.
+     */
+    private int end;
+
+    /**
+     * Method used to set the line the view covers.
+     * 
+     * @param theStart
+     *          The position of the first character of the line
+     * @param theEnd
+     *          The position following the last character of the line
+     */
+    void set(int theStart, int theEnd)
+    {
+
+      this.start = theStart;
+      this.end = theEnd;
+
+    }
+
+    public int length()
+    {
+
+      return end - start;
+
+    }
+
+    public char charAt(int theIndex)
+    {
+
+      if (theIndex < 0 || theIndex >= end - start)
+      {
+
+        throw new IndexOutOfBoundsException("" + theIndex);
+
+      }
+
+      return charBuffer.get(start + theIndex);
+
+    }
+
+    public CharSequence subSequence(int theStart, int theEnd)
+    {
+
+      return this.toString().subSequence(theStart, theEnd);
+
+    }
+
+    public String toString()
+    {
+
+      return new String(charBuffer.array(), charBuffer.arrayOffset() + start,
+          end - start);
+
+    }
+
+  }
+
+}
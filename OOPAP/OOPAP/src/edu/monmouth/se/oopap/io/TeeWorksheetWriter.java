@@ -0,0 +1,92 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.IOException;
+
+/**
+ * Writes a worksheet report to a number of writers at once, so that a report
+ * generated once may be written in a number of formats.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class TeeWorksheetWriter implements WorksheetWriter
+{
+
+  /**
+   * The writers each cell is written to, in order.
+   */
+  private WorksheetWriter[] writers;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theWriters
+   *          The writers each cell is written to, in order
+   */
+  public TeeWorksheetWriter(WorksheetWriter... theWriters)
+  {
+
+    this.writers = theWriters.clone();
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row to every writer.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  public void writeCell(String theCell) throws IOException
+  {
+
+    for (WorksheetWriter currWriter : writers)
+    {
+
+      currWriter.writeCell(theCell);
+
+    }
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row to every writer as
+   * a whole number.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  public void writeCell(int theCell) throws IOException
+  {
+
+    for (WorksheetWriter currWriter : writers)
+    {
+
+      currWriter.writeCell(theCell);
+
+    }
+
+  }
+
+  /**
+   * Method used to complete the current row of every writer.
+   * 
+   * @throws IOException
+   *           If the row can not be written.
+   */
+  public void endRow() throws IOException
+  {
+
+    for (WorksheetWriter currWriter : writers)
+    {
+
+      currWriter.endRow();
+
+    }
+
+  }
+
+}
@@ -0,0 +1,45 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.IOException;
+
+/**
+ * Receives a worksheet report one cell at a time, row by row, so that a
+ * report may be written out as it is generated rather than first being held
+ * as a 2 dimensional array of strings.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public interface WorksheetWriter
+{
+
+  /**
+   * Method used to write the next cell of the current row.
+   * 
+   * @param theCell
+   *          The contents of the cell. A null cell is written as "null".
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  void writeCell(String theCell) throws IOException;
+
+  /**
+   * Method used to write the next cell of the current row as a whole number.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  void writeCell(int theCell) throws IOException;
+
+  /**
+   * Method used to complete the current row. A row completed without any
+   * cells is a blank row.
+   * 
+   * @throws IOException
+   *           If the row can not be written.
+   */
+  void endRow() throws IOException;
+
+}
@@ -0,0 +1,763 @@
+package edu.monmouth.se.oopap.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Class responsible for writing a number of worksheet reports as the sheets
+ * of a single Office Open XML workbook, a .xlsx file, a row at a time.
+ * 
+ * Each sheet is written to the workbook as its rows are written, so that
+ * memory use does not grow with the size of a sheet. Only the names of the
+ * sheets are held until the workbook is closed. Cells are written inline
+ * rather than through a table of shared strings, which would have to be held
+ * in memory. A cell holding a plain decimal number, such as "12" or "25.0",
+ * is written as a number so that it may be calculated with.
+ * 
+ * Sheets are written one after the other: beginSheet completes the previous
+ * sheet, if any, and close completes the last sheet and the workbook.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class XLSXWriter implements WorksheetWriter
+{
+
+  /**
+   * The number of characters buffered before they are compressed.
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The longest name a sheet may have.
+   */
+  private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+  /**
+   * The characters a sheet name may not hold.
+   */
+  private static final String INVALID_SHEET_NAME_CHARS = "[]:*?/\\";
+
+  /**
+   * The most digits a number may have and still be written as a number, the
+   * precision of a number within a workbook.
+   */
+  private static final int MAX_NUMBER_DIGITS = 15;
+
+  /**
+   * The namespace of the workbook and its sheets.
+   */
+  private static final String MAIN_NAMESPACE =
+      "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+  /**
+   * The namespace of the relationships from the workbook to its sheets.
+   */
+  private static final String RELATIONSHIP_NAMESPACE =
+      "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+  /**
+   * The namespace of the relationship parts.
+   */
+  private static final String PACKAGE_RELATIONSHIP_NAMESPACE =
+      "http://schemas.openxmlformats.org/package/2006/relationships";
+
+  /**
+   * The declaration beginning every part.
+   */
+  private static final String XML_DECLARATION =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+  /**
+   * The archive the workbook is written to.
+   */
+  private ZipOutputStream zipOut;
+
+  /**
+   * The stream the current part of the archive is written to.
+   */
+  private Writer out;
+
+  /**
+   * The names of the sheets written, in order.
+   */
+  private List<String> sheetNameList;
+
+  /**
+   * The names of the sheets written, in upper case, as sheet names may not
+   * differ only by case.
+   */
+  private Set<String> sheetNameSet;
+
+  /**
+   * Whether a sheet is being written.
+   */
+  private boolean sheetOpen;
+
+  /**
+   * The number of rows of the current sheet completed.
+   */
+  private int rowCount;
+
+  /**
+   * The number of cells written to the current row.
+   */
+  private int cellCount;
+
+  /**
+   * Whether the current row has been begun, which it is by its first cell
+   * which is not empty.
+   */
+  private boolean rowOpen;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theOutputStream
+   *          The stream the workbook is written to. The stream is closed
+   *          along with the workbook.
+   */
+  public XLSXWriter(OutputStream theOutputStream)
+  {
+
+    this.zipOut = new ZipOutputStream(theOutputStream);
+    // the sheets are highly repetitive, so the fastest compression loses
+    // little
+    this.zipOut.setLevel(Deflater.BEST_SPEED);
+    this.out = new BufferedWriter(new OutputStreamWriter(zipOut, Charset
+        .forName("UTF-8")), BUFFER_SIZE);
+    this.sheetNameList = new ArrayList<String>();
+    this.sheetNameSet = new HashSet<String>();
+    this.sheetOpen = false;
+
+  }
+
+  /**
+   * Constructor used to write a workbook to a file. Any existing file is
+   * replaced.
+   * 
+   * @param theFile
+   *          The file the workbook is written to
+   * @throws IOException
+   *           If the file can not be created.
+   */
+  public XLSXWriter(File theFile) throws IOException
+  {
+
+    this(new FileOutputStream(theFile));
+
+  }
+
+  /**
+   * Method used to begin a new sheet, completing the current sheet. A name
+   * which is not valid for a sheet, or which is already taken, is altered to
+   * make it so.
+   * 
+   * @param theSheetName
+   *          The name of the sheet
+   * @throws IOException
+   *           If the sheet can not be begun.
+   */
+  public void beginSheet(String theSheetName) throws IOException
+  {
+
+    this.endSheet();
+
+    sheetNameList.add(this.newSheetName(theSheetName));
+
+    this.beginPart("xl/worksheets/sheet" + sheetNameList.size() + ".xml");
+    out.write("<worksheet xmlns=\"" + MAIN_NAMESPACE + "\"><sheetData>");
+
+    sheetOpen = true;
+    rowCount = 0;
+    cellCount = 0;
+    rowOpen = false;
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row. An empty cell is
+   * left blank.
+   * 
+   * @param theCell
+   *          The contents of the cell. A null cell is written as "null".
+   * @throws IOException
+   *           If the cell can not be written.
+   * @throws IllegalStateException
+   *           If no sheet has been begun.
+   */
+  public void writeCell(String theCell) throws IOException
+  {
+
+    String cell = String.valueOf(theCell);
+
+    if (cell.length() == 0)
+    {
+
+      this.skipCell();
+
+    }
+    else if (isNumber(cell))
+    {
+
+      this.beginCell(null);
+      out.write("<v>");
+      out.write(cell);
+      out.write("</v></c>");
+
+    }
+    else
+    {
+
+      this.beginCell("inlineStr");
+
+      // whitespace at either end is dropped unless asked to be preserved
+      if (Character.isWhitespace(cell.charAt(0))
+          || Character.isWhitespace(cell.charAt(cell.length() - 1)))
+      {
+
+        out.write("<is><t xml:space=\"preserve\">");
+
+      }
+      else
+      {
+
+        out.write("<is><t>");
+
+      }
+
+      this.writeText(cell);
+      out.write("</t></is></c>");
+
+    }
+
+  }
+
+  /**
+   * Method used to write the next cell of the current row as a whole number.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @throws IOException
+   *           If the cell can not be written.
+   * @throws IllegalStateException
+   *           If no sheet has been begun.
+   */
+  public void writeCell(int theCell) throws IOException
+  {
+
+    this.beginCell(null);
+    out.write("<v>");
+    out.write(Integer.toString(theCell));
+    out.write("</v></c>");
+
+  }
+
+  /**
+   * Method used to complete the current row.
+   * 
+   * @throws IOException
+   *           If the row can not be written.
+   * @throws IllegalStateException
+   *           If no sheet has been begun.
+   */
+  public void endRow() throws IOException
+  {
+
+    this.checkSheetOpen();
+
+    if (rowOpen)
+    {
+
+      out.write("</row>");
+      rowOpen = false;
+
+    }
+
+    rowCount++;
+    cellCount = 0;
+
+  }
+
+  /**
+   * Method used to complete the last sheet and the workbook and close the
+   * stream it is written to. A workbook must hold a sheet, so an empty sheet
+   * is written if none has been.
+   * 
+   * @throws IOException
+   *           If the workbook can not be written.
+   */
+  public void close() throws IOException
+  {
+
+    try
+    {
+
+      if (sheetNameList.isEmpty())
+      {
+
+        this.beginSheet("Sheet1");
+
+      }
+
+      this.endSheet();
+      this.writeContentTypes();
+      this.writeRelationships();
+      this.writeWorkbook();
+      this.writeWorkbookRelationships();
+
+    }
+    finally
+    {
+
+      out.close();
+
+    }
+
+  }
+
+  /**
+   * Method used to complete the current sheet, if any.
+   * 
+   * @throws IOException
+   *           If the sheet can not be written.
+   */
+  private void endSheet() throws IOException
+  {
+
+    if (sheetOpen)
+    {
+
+      if (rowOpen)
+      {
+
+        out.write("</row>");
+        rowOpen = false;
+
+      }
+
+      out.write("</sheetData></worksheet>");
+      this.endPart();
+      sheetOpen = false;
+
+    }
+
+  }
+
+  /**
+   * Method used to begin a cell of the current row, beginning the row if it
+   * has not been.
+   * 
+   * @param theType
+   *          The type of the cell, or null for a number
+   * @throws IOException
+   *           If the cell can not be written.
+   */
+  private void beginCell(String theType) throws IOException
+  {
+
+    this.checkSheetOpen();
+
+    if (!rowOpen)
+    {
+
+      out.write("<row r=\"");
+      out.write(Integer.toString(rowCount + 1));
+      out.write("\">");
+      rowOpen = true;
+
+    }
+
+    out.write("<c r=\"");
+    out.write(getColumnName(cellCount++));
+    out.write(Integer.toString(rowCount + 1));
+
+    if (theType != null)
+    {
+
+      out.write("\" t=\"");
+      out.write(theType);
+
+    }
+
+    out.write("\">");
+
+  }
+
+  /**
+   * Method used to leave the next cell of the current row blank.
+   */
+  private void skipCell()
+  {
+
+    this.checkSheetOpen();
+
+    cellCount++;
+
+  }
+
+  /**
+   * Method used to ensure a sheet is being written.
+   * 
+   * @throws IllegalStateException
+   *           If no sheet has been begun.
+   */
+  private void checkSheetOpen()
+  {
+
+    if (!sheetOpen)
+    {
+
+      throw new IllegalStateException("No sheet has been begun");
+
+    }
+
+  }
+
+  /**
+   * Method used to write text escaped for XML. Characters which may not
+   * appear in XML at all are dropped.
+   * 
+   * @param theText
+   *          The text
+   * @throws IOException
+   *           If the text can not be written.
+   */
+  private void writeText(String theText) throws IOException
+  {
+
+    // the index of the first character not yet written
+    int start = 0;
+
+    for (int i = 0; i < theText.length(); i++)
+    {
+
+      char currChar = theText.charAt(i);
+      String replacement;
+
+      if (currChar == '&')
+      {
+
+        replacement = "&amp;";
+
+      }
+      else if (currChar == '<')
+      {
+
+        replacement = "&lt;";
+
+      }
+      else if (currChar == '>')
+      {
+
+        replacement = "&gt;";
+
+      }
+      else if (currChar == '"')
+      {
+
+        replacement = "&quot;";
+
+      }
+      else if ((currChar < 0x20 && currChar != '\t' && currChar != '\n'
+          && currChar != '\r') || currChar == 0xFFFE || currChar == 0xFFFF)
+      {
+
+        replacement = "";
+
+      }
+      else
+      {
+
+        continue;
+
+      }
+
+      out.write(theText, start, i - start);
+      out.write(replacement);
+      start = i + 1;
+
+    }
+
+    out.write(theText, start, theText.length() - start);
+
+  }
+
+  /**
+   * Method used to make a sheet name valid and distinct from the names of
+   * the sheets already written.
+   * 
+   * @param theSheetName
+   *          The name asked for
+   * @return the name given to the sheet
+   */
+  private String newSheetName(String theSheetName)
+  {
+
+    StringBuilder sheetName = new StringBuilder();
+    String uniqueName;
+
+    for (int i = 0; i < theSheetName.length(); i++)
+    {
+
+      char currChar = theSheetName.charAt(i);
+
+      sheetName.append(INVALID_SHEET_NAME_CHARS.indexOf(currChar) >= 0
+          || currChar < 0x20 ? '_' : currChar);
+
+    }
+
+    if (sheetName.length() == 0)
+    {
+
+      sheetName.append("Sheet").append(sheetNameList.size() + 1);
+
+    }
+
+    sheetName.setLength(Math.min(sheetName.length(), MAX_SHEET_NAME_LENGTH));
+    uniqueName = sheetName.toString();
+
+    // number the name until it is distinct, keeping within the longest name
+    for (int suffix = 2; sheetNameSet.contains(uniqueName.toUpperCase());
+        suffix++)
+    {
+
+      String suffixText = " (" + suffix + ")";
+
+      uniqueName = sheetName.substring(0, Math.min(sheetName.length(),
+          MAX_SHEET_NAME_LENGTH - suffixText.length()))
+          + suffixText;
+
+    }
+
+    sheetNameSet.add(uniqueName.toUpperCase());
+
+    return uniqueName;
+
+  }
+
+  /**
+   * Method used to write the part declaring the type of every other part.
+   * 
+   * @throws IOException
+   *           If the part can not be written.
+   */
+  private void writeContentTypes() throws IOException
+  {
+
+    this.beginPart("[Content_Types].xml");
+    out.write("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/"
+        + "content-types\">"
+        + "<Default Extension=\"rels\" ContentType=\"application/"
+        + "vnd.openxmlformats-package.relationships+xml\"/>"
+        + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+        + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/"
+        + "vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+
+    for (int i = 1; i <= sheetNameList.size(); i++)
+    {
+
+      out.write("<Override PartName=\"/xl/worksheets/sheet" + i
+          + ".xml\" ContentType=\"application/"
+          + "vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+
+    }
+
+    out.write("</Types>");
+    this.endPart();
+
+  }
+
+  /**
+   * Method used to write the part relating the package to the workbook.
+   * 
+   * @throws IOException
+   *           If the part can not be written.
+   */
+  private void writeRelationships() throws IOException
+  {
+
+    this.beginPart("_rels/.rels");
+    out.write("<Relationships xmlns=\"" + PACKAGE_RELATIONSHIP_NAMESPACE
+        + "\"><Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP_NAMESPACE
+        + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+    this.endPart();
+
+  }
+
+  /**
+   * Method used to write the workbook part, naming every sheet.
+   * 
+   * @throws IOException
+   *           If the part can not be written.
+   */
+  private void writeWorkbook() throws IOException
+  {
+
+    this.beginPart("xl/workbook.xml");
+    out.write("<workbook xmlns=\"" + MAIN_NAMESPACE + "\" xmlns:r=\""
+        + RELATIONSHIP_NAMESPACE + "\"><sheets>");
+
+    for (int i = 1; i <= sheetNameList.size(); i++)
+    {
+
+      out.write("<sheet name=\"");
+      this.writeText(sheetNameList.get(i - 1));
+      out.write("\" sheetId=\"" + i + "\" r:id=\"rId" + i + "\"/>");
+
+    }
+
+    out.write("</sheets></workbook>");
+    this.endPart();
+
+  }
+
+  /**
+   * Method used to write the part relating the workbook to its sheets.
+   * 
+   * @throws IOException
+   *           If the part can not be written.
+   */
+  private void writeWorkbookRelationships() throws IOException
+  {
+
+    this.beginPart("xl/_rels/workbook.xml.rels");
+    out.write("<Relationships xmlns=\"" + PACKAGE_RELATIONSHIP_NAMESPACE
+        + "\">");
+
+    for (int i = 1; i <= sheetNameList.size(); i++)
+    {
+
+      out.write("<Relationship Id=\"rId" + i + "\" Type=\""
+          + RELATIONSHIP_NAMESPACE + "/worksheet\" Target=\"worksheets/sheet"
+          + i + ".xml\"/>");
+
+    }
+
+    out.write("</Relationships>");
+    this.endPart();
+
+  }
+
+  /**
+   * Method used to begin a new part of the archive.
+   * 
+   * @param thePartName
+   *          The name of the part
+   * @throws IOException
+   *           If the part can not be begun.
+   */
+  private void beginPart(String thePartName) throws IOException
+  {
+
+    zipOut.putNextEntry(new ZipEntry(thePartName));
+    out.write(XML_DECLARATION);
+
+  }
+
+  /**
+   * Method used to complete the current part of the archive.
+   * 
+   * @throws IOException
+   *           If the part can not be written.
+   */
+  private void endPart() throws IOException
+  {
+
+    out.flush();
+    zipOut.closeEntry();
+
+  }
+
+  /**
+   * Method used to find the name of a column, "A" to "Z", then "AA" and so
+   * on.
+   * 
+   * @param theColumn
+   *          The index of the column, 0 for the first
+   * @return the name of the column
+   */
+  static String getColumnName(int theColumn)
+  {
+
+    StringBuilder columnName = new StringBuilder();
+
+    for (int column = theColumn + 1; column > 0; column = (column - 1) / 26)
+    {
+
+      columnName.insert(0, (char) ('A' + (column - 1) % 26));
+
+    }
+
+    return columnName.toString();
+
+  }
+
+  /**
+   * Method used to determine whether a cell holds a plain decimal number: an
+   * optional minus sign, digits without a leading zero and an optional
+   * fraction, in all no more digits than a number within a workbook holds.
+   * 
+   * @param theCell
+   *          The contents of the cell
+   * @return true if the cell is written as a number
+   */
+  static boolean isNumber(String theCell)
+  {
+
+    int start = theCell.startsWith("-") ? 1 : 0;
+    int integerDigits = 0;
+    int fractionDigits = -1;
+
+    for (int i = start; i < theCell.length(); i++)
+    {
+
+      char currChar = theCell.charAt(i);
+
+      if (currChar == '.' && fractionDigits < 0 && integerDigits > 0)
+      {
+
+        fractionDigits = 0;
+
+      }
+      else if (currChar < '0' || currChar > '9')
+      {
+
+        return false;
+
+      }
+      else if (fractionDigits >= 0)
+      {
+
+        fractionDigits++;
+
+      }
+      else
+      {
+
+        integerDigits++;
+
+      }
+
+    }
+
+    return integerDigits > 0 && fractionDigits != 0
+        && integerDigits + Math.max(0, fractionDigits) <= MAX_NUMBER_DIGITS
+        && (integerDigits == 1 || theCell.charAt(start) != '0');
+
+  }
+
+}
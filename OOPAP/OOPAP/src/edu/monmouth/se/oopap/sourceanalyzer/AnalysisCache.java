@@ -0,0 +1,812 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.monmouth.se.oopap.ClassHierarchy;
+import edu.monmouth.se.oopap.ClassStructureNode;
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.LineClassifier;
+import edu.monmouth.se.oopap.analyzer.MultiStringMatcher;
+import edu.monmouth.se.oopap.analyzer.OperatorCounter;
+import edu.monmouth.se.oopap.analyzer.SourceTokenizer;
+import edu.monmouth.se.oopap.analyzer.TokenAnalyzer;
+import edu.monmouth.se.oopap.analyzer.TokenBuffer;
+import edu.monmouth.se.oopap.enumerator.LineType;
+import edu.monmouth.se.oopap.enumerator.OperatorType;
+import edu.monmouth.se.oopap.enumerator.TokenCountType;
+import edu.monmouth.se.oopap.enumerator.TokenType;
+
+/**
+ * Class responsible for keeping the partial results of the files analyzed on
+ * disk, so that a file analyzed again, unchanged, by the same analyzers is
+ * not analyzed at all. Each file has an entry of its own in the cache
+ * directory holding the partial result of every analyzer, along with the
+ * classification of the file, written with Java serialization. Only the
+ * merging of the partial results, and so the results spanning files such as
+ * the inheritance hierarchy and the program totals, is done again.
+ * 
+ * An entry is found by a key digested from the name and the lines of the
+ * file, along with a fingerprint of the analyzers. The fingerprint is
+ * digested from the compiled classes of the analyzers and of the rules they
+ * depend on, such as those of the LineAnalyzer, so that a change to any of
+ * them leaves every entry behind rather than reading results the changed
+ * code would not produce. Should a class not be found the fingerprint, and so
+ * the cache, is not used.
+ * 
+ * The maps of the partial results are written as their entries, in order,
+ * and put back one at a time, in the same order, when read. A HashMap read
+ * by its own readObject is given a table sized for its entries rather than
+ * grown to them, listing its entries in another order than the map written,
+ * and so the reports would list them in another order than a file analyzed
+ * again.
+ * 
+ * Each entry is written to a temporary file and then renamed, so that an
+ * entry is never read while half written. An entry which can not be read is
+ * treated as missing.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class AnalysisCache
+{
+
+  /**
+   * The version of the layout of the entries. Changing it leaves every entry
+   * behind.
+   */
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * The classes the results of every analyzer depend on.
+   */
+  private static final Class<?>[] RULE_CLASSES =
+  { LineAnalyzer.class, LineClassifier.class, OperatorCounter.class,
+      MultiStringMatcher.class, SourceTokenizer.class, TokenBuffer.class,
+      TokenAnalyzer.class, LineType.class, TokenType.class,
+      OperatorType.class, TokenCountType.class, ClassHierarchy.class,
+      ClassStructureNode.class, ClassifiedFile.class, TokenMetrics.class,
+      BraceDepth.class, AnalysisCache.class };
+
+  /**
+   * The extension of the file of each entry.
+   */
+  private static final String ENTRY_EXTENSION = ".ser";
+
+  /**
+   * The digits used to write a digest.
+   */
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * The directory holding the entries.
+   */
+  private File cacheDirectory;
+
+  /**
+   * The number of entries found.
+   */
+  private AtomicInteger hitCount;
+
+  /**
+   * The number of entries looked for and not found.
+   */
+  private AtomicInteger missCount;
+
+  /**
+   * Primary constructor. The directory is created when the first entry is
+   * written.
+   * 
+   * @param theCacheDirectory
+   *          The directory holding the entries
+   */
+  public AnalysisCache(File theCacheDirectory)
+  {
+
+    this.cacheDirectory = theCacheDirectory;
+    this.hitCount = new AtomicInteger();
+    this.missCount = new AtomicInteger();
+
+  }
+
+  /**
+   * Method used to retrieve the directory holding the entries.
+   * 
+   * @return the directory
+   */
+  public File getCacheDirectory()
+  {
+
+    return this.cacheDirectory;
+
+  }
+
+  /**
+   * Method used to retrieve the number of entries found since the cache was
+   * created.
+   * 
+   * @return the number of entries found
+   */
+  public int getHitCount()
+  {
+
+    return this.hitCount.get();
+
+  }
+
+  /**
+   * Method used to retrieve the number of entries looked for and not found
+   * since the cache was created.
+   * 
+   * @return the number of entries not found
+   */
+  public int getMissCount()
+  {
+
+    return this.missCount.get();
+
+  }
+
+  /**
+   * Method used to digest the fingerprint of a list of analyzers. The
+   * fingerprint changes whenever the order or the type of the analyzers
+   * changes, or whenever the compiled class of any of them, of any class they
+   * extend or nest, or of any of the rules they depend on changes.
+   * 
+   * @param theAnalyzerList
+   *          The analyzers, in the order they are run
+   * @return the fingerprint, or null if a class could not be read
+   */
+  String getFingerprint(List<SourceAnalyzer> theAnalyzerList)
+  {
+
+    MessageDigest digest = newDigest();
+
+    try
+    {
+
+      update(digest, "format " + FORMAT_VERSION);
+
+      for (Class<?> currClass : RULE_CLASSES)
+      {
+
+        updateClass(digest, currClass);
+
+      }
+
+      for (SourceAnalyzer currAnalyzer : theAnalyzerList)
+      {
+
+        Class<?> currClass = currAnalyzer.getClass();
+
+        // the analyzer along with every class it extends
+        while (currClass != Object.class)
+        {
+
+          updateClass(digest, currClass);
+          currClass = currClass.getSuperclass();
+
+        }
+
+      }
+
+    }
+    catch (IOException e)
+    {
+
+      // a class that can not be read can not be told apart from a changed
+      // one
+      return null;
+
+    }
+
+    return toHex(digest.digest());
+
+  }
+
+  /**
+   * Method used to digest the key of the entry of a file.
+   * 
+   * @param theFingerprint
+   *          The fingerprint of the analyzers
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theFileContents
+   *          The lines of the file
+   * @return the key
+   */
+  String getKey(String theFingerprint, String theSourceFileName,
+      List<String> theFileContents)
+  {
+
+    MessageDigest digest = newDigest();
+
+    update(digest, theFingerprint);
+    update(digest, theSourceFileName);
+
+    for (String currLine : theFileContents)
+    {
+
+      update(digest, currLine);
+
+    }
+
+    return toHex(digest.digest());
+
+  }
+
+  /**
+   * Method used to read the entry of a file.
+   * 
+   * @param theKey
+   *          The key of the entry
+   * @return the entry, or null if there is no entry which can be read
+   */
+  Entry read(String theKey)
+  {
+
+    File entryFile = this.getEntryFile(theKey);
+
+    if (entryFile.isFile())
+    {
+
+      try
+      {
+
+        ObjectInputStream in = new EntryInputStream(new BufferedInputStream(
+            new FileInputStream(entryFile)));
+
+        try
+        {
+
+          Entry entry = (Entry) in.readObject();
+
+          hitCount.incrementAndGet();
+
+          return entry;
+
+        }
+        finally
+        {
+
+          in.close();
+
+        }
+
+      }
+      catch (IOException e)
+      {
+
+        // a damaged or incompatible entry is analyzed again and replaced
+
+      }
+      catch (ClassNotFoundException e)
+      {
+
+        // an entry written by classes no longer present
+
+      }
+      catch (ClassCastException e)
+      {
+
+        // an entry written in another layout
+
+      }
+
+    }
+
+    missCount.incrementAndGet();
+
+    return null;
+
+  }
+
+  /**
+   * Method used to write the entry of a file, replacing any entry of the same
+   * key.
+   * 
+   * @param theKey
+   *          The key of the entry
+   * @param theEntry
+   *          The entry
+   * @throws IOException
+   *           If the entry can not be written.
+   */
+  void write(String theKey, Entry theEntry) throws IOException
+  {
+
+    File entryFile = this.getEntryFile(theKey);
+    File entryDirectory = entryFile.getParentFile();
+
+    if (!entryDirectory.isDirectory() && !entryDirectory.mkdirs()
+        && !entryDirectory.isDirectory())
+    {
+
+      throw new IOException("Unable to create " + entryDirectory);
+
+    }
+
+    File tempFile = File.createTempFile(theKey, ".tmp", entryDirectory);
+
+    try
+    {
+
+      ObjectOutputStream out = new EntryOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tempFile)));
+
+      try
+      {
+
+        out.writeObject(theEntry);
+
+      }
+      finally
+      {
+
+        out.close();
+
+      }
+
+      // an entry written meanwhile by another run holds the same result
+      if (!tempFile.renameTo(entryFile))
+      {
+
+        entryFile.delete();
+
+        if (!tempFile.renameTo(entryFile) && !entryFile.isFile())
+        {
+
+          throw new IOException("Unable to write " + entryFile);
+
+        }
+
+      }
+
+    }
+    finally
+    {
+
+      tempFile.delete();
+
+    }
+
+  }
+
+  /**
+   * Method used to find the file of an entry. The entries are spread over
+   * directories named by the first two digits of their keys.
+   * 
+   * @param theKey
+   *          The key of the entry
+   * @return the file of the entry
+   */
+  private File getEntryFile(String theKey)
+  {
+
+    return new File(new File(cacheDirectory, theKey.substring(0, 2)), theKey
+        + ENTRY_EXTENSION);
+
+  }
+
+  /**
+   * Method used to add the compiled class, along with its nested classes, to
+   * a digest.
+   * 
+   * @param theDigest
+   *          The digest
+   * @param theClass
+   *          The class
+   * @throws IOException
+   *           If the class can not be read.
+   */
+  private static void updateClass(MessageDigest theDigest, Class<?> theClass)
+      throws IOException
+  {
+
+    String resourceName = "/" + theClass.getName().replace('.', '/');
+    // the anonymous classes are numbered from 1
+    int anonymousIndex = 1;
+
+    update(theDigest, theClass.getName());
+    updateResource(theDigest, theClass, resourceName + ".class", true);
+
+    while (updateResource(theDigest, theClass, resourceName + "$"
+        + anonymousIndex + ".class", false))
+    {
+
+      anonymousIndex++;
+
+    }
+
+    for (Class<?> currClass : theClass.getDeclaredClasses())
+    {
+
+      updateClass(theDigest, currClass);
+
+    }
+
+  }
+
+  /**
+   * Method used to add the contents of a resource to a digest.
+   * 
+   * @param theDigest
+   *          The digest
+   * @param theClass
+   *          The class the resource is loaded by
+   * @param theResourceName
+   *          The name of the resource
+   * @param theRequired
+   *          Whether the resource must be found
+   * @return true if the resource was found
+   * @throws IOException
+   *           If a required resource is not found or a resource can not be
+   *           read.
+   */
+  private static boolean updateResource(MessageDigest theDigest,
+      Class<?> theClass, String theResourceName, boolean theRequired)
+      throws IOException
+  {
+
+    InputStream in = theClass.getResourceAsStream(theResourceName);
+    byte[] buffer = new byte[8192];
+    int count;
+
+    if (in == null)
+    {
+
+      if (theRequired)
+      {
+
+        throw new IOException("Unable to read " + theResourceName);
+
+      }
+
+      return false;
+
+    }
+
+    try
+    {
+
+      while ((count = in.read(buffer)) > 0)
+      {
+
+        theDigest.update(buffer, 0, count);
+
+      }
+
+    }
+    finally
+    {
+
+      in.close();
+
+    }
+
+    return true;
+
+  }
+
+  /**
+   * Method used to add a string, followed by a separator no string holds, to
+   * a digest.
+   * 
+   * @param theDigest
+   *          The digest
+   * @param theString
+   *          The string
+   */
+  private static void update(MessageDigest theDigest, String theString)
+  {
+
+    try
+    {
+
+      theDigest.update(theString.getBytes("UTF-8"));
+      theDigest.update((byte) 0xff);
+
+    }
+    catch (UnsupportedEncodingException e)
+    {
+
+      // every platform supports UTF-8
+      throw new IllegalStateException(e);
+
+    }
+
+  }
+
+  /**
+   * Method used to create a new digest.
+   * 
+   * @return the digest
+   */
+  private static MessageDigest newDigest()
+  {
+
+    try
+    {
+
+      return MessageDigest.getInstance("SHA-1");
+
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+
+      // every platform supports SHA-1
+      throw new IllegalStateException(e);
+
+    }
+
+  }
+
+  /**
+   * Method used to write a digest as hexadecimal digits.
+   * 
+   * @param theBytes
+   *          The digest
+   * @return the digits
+   */
+  private static String toHex(byte[] theBytes)
+  {
+
+    char[] digits = new char[theBytes.length * 2];
+
+    for (int i = 0; i < theBytes.length; i++)
+    {
+
+      digits[i * 2] = HEX_DIGITS[(theBytes[i] >> 4) & 0xf];
+      digits[i * 2 + 1] = HEX_DIGITS[theBytes[i] & 0xf];
+
+    }
+
+    return new String(digits);
+
+  }
+
+  /**
+   * The entry of a single file, the classification of the file, without its
+   * lines, and the partial result of each analyzer.
+   */
+  static class Entry implements Serializable
+  {
+
+    /**
+     * The version of the layout of the entry.
+     */
+    private static final long serialVersionUID = FORMAT_VERSION;
+
+    /**
+     * The classification of the file.
+     */
+    private ClassifiedFile classification;
+
+    /**
+     * The partial result of each analyzer, in the order they are run.
+     */
+    private List<SourceAnalyzer> partialList;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theClassification
+     *          The classification of the file, without its lines
+     * @param thePartialList
+     *          The partial result of each analyzer
+     */
+    Entry(ClassifiedFile theClassification,
+        List<SourceAnalyzer> thePartialList)
+    {
+
+      this.classification = theClassification;
+      this.partialList = thePartialList;
+
+    }
+
+    /**
+     * Method used to retrieve the classification of the file.
+     * 
+     * @return the classification, without the lines of the file
+     */
+    ClassifiedFile getClassification()
+    {
+
+      return this.classification;
+
+    }
+
+    /**
+     * Method used to retrieve the partial result of each analyzer.
+     * 
+     * @return the partial results, in the order the analyzers are run
+     */
+    List<SourceAnalyzer> getPartialList()
+    {
+
+      return this.partialList;
+
+    }
+
+  }
+
+  /**
+   * The entries of a HashMap, in the order the map lists them.
+   */
+  private static class OrderedEntries implements Serializable
+  {
+
+    /**
+     * The version of the layout of the entries.
+     */
+    private static final long serialVersionUID = FORMAT_VERSION;
+
+    /**
+     * The keys of the map, in order.
+     */
+    private Object[] keys;
+
+    /**
+     * The values of the map, in the order of their keys.
+     */
+    private Object[] values;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theMap
+     *          The map
+     */
+    OrderedEntries(Map<?, ?> theMap)
+    {
+
+      int entryIndex = 0;
+
+      this.keys = new Object[theMap.size()];
+      this.values = new Object[theMap.size()];
+
+      for (Map.Entry<?, ?> currEntry : theMap.entrySet())
+      {
+
+        this.keys[entryIndex] = currEntry.getKey();
+        this.values[entryIndex] = currEntry.getValue();
+        entryIndex++;
+
+      }
+
+    }
+
+    /**
+     * Method used to build the map again, putting the entries one at a time,
+     * in order, as the analyzers build their maps.
+     * 
+     * @return the map
+     */
+    Map<Object, Object> toMap()
+    {
+
+      Map<Object, Object> map = new HashMap<Object, Object>();
+
+      for (int i = 0; i < this.keys.length; i++)
+      {
+
+        map.put(this.keys[i], this.values[i]);
+
+      }
+
+      return map;
+
+    }
+
+  }
+
+  /**
+   * Stream writing an entry, with each HashMap written as its entries.
+   */
+  private static class EntryOutputStream extends ObjectOutputStream
+  {
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theOutputStream
+     *          The stream the entry is written to
+     * @throws IOException
+     *           If the stream header can not be written.
+     */
+    EntryOutputStream(OutputStream theOutputStream) throws IOException
+    {
+
+      super(theOutputStream);
+
+      this.enableReplaceObject(true);
+
+    }
+
+    /**
+     * Method used to replace each HashMap written by its entries. Maps of
+     * other classes keep their own order and are written as they are.
+     * 
+     * @param theObject
+     *          The object written
+     * @return the object to write in its place
+     */
+    protected Object replaceObject(Object theObject)
+    {
+
+      if (theObject != null && theObject.getClass() == HashMap.class)
+      {
+
+        return new OrderedEntries((Map<?, ?>) theObject);
+
+      }
+
+      return theObject;
+
+    }
+
+  }
+
+  /**
+   * Stream reading an entry, building each HashMap again from its entries.
+   */
+  private static class EntryInputStream extends ObjectInputStream
+  {
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theInputStream
+     *          The stream the entry is read from
+     * @throws IOException
+     *           If the stream header can not be read.
+     */
+    EntryInputStream(InputStream theInputStream) throws IOException
+    {
+
+      super(theInputStream);
+
+      this.enableResolveObject(true);
+
+    }
+
+    /**
+     * Method used to build each HashMap again from the entries written.
+     * 
+     * @param theObject
+     *          The object read
+     * @return the object to use in its place
+     */
+    protected Object resolveObject(Object theObject)
+    {
+
+      if (theObject instanceof OrderedEntries)
+      {
+
+        return ((OrderedEntries) theObject).toMap();
+
+      }
+
+      return theObject;
+
+    }
+
+  }
+
+}
@@ -0,0 +1,325 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class responsible for keeping the depth of the braces of the operations
+ * counted by the line analyzers. An opening brace is counted once an operation
+ * has been declared, and an operation ends at the closing brace bringing the
+ * depth back to 0. A closing brace found at a depth of 0, such as the closing
+ * brace of a class, is not counted.
+ * 
+ * The depth is carried from one file to the next, so the operations of a file
+ * analyzed on its own, as a partial result beginning at a depth of 0, may end
+ * at other braces than when the file begins within an operation left open by
+ * the previous file. Once the first closing brace not counted is found, that
+ * brace and every brace after it which is not counted or which ends an
+ * operation is kept, along with the operation and the counts it would end
+ * with, so that the operations of the file may be found again for any depth
+ * the file begins at when the partial result is merged. Before that brace no
+ * operation of a file beginning within an operation ends at all, and no
+ * other brace may end one.
+ * 
+ * @param <V>
+ *          The type of the counts of an operation
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+class BraceDepth<V> implements Serializable
+{
+
+  /**
+   * The version of the serialized form of the depth.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The number of opening braces counted and not yet closed.
+   */
+  private int depth;
+
+  /**
+   * The number of closing braces of the current file found at a depth of 0.
+   */
+  private int unmatchedCount;
+
+  /**
+   * The closing braces of the current file kept, in order.
+   */
+  private List<ClosingBrace<V>> closingBraceList;
+
+  /**
+   * Whether the last closing brace counted was kept.
+   */
+  private boolean lastBraceKept;
+
+  /**
+   * Default constructor. The depth begins at 0.
+   */
+  BraceDepth()
+  {
+
+    this.closingBraceList = new ArrayList<ClosingBrace<V>>();
+
+  }
+
+  /**
+   * Method used to begin a new file. The depth is carried from the previous
+   * file.
+   */
+  void beginFile()
+  {
+
+    this.unmatchedCount = 0;
+    this.closingBraceList = new ArrayList<ClosingBrace<V>>();
+
+  }
+
+  /**
+   * Method used to count an opening brace of an operation.
+   */
+  void open()
+  {
+
+    this.depth++;
+
+  }
+
+  /**
+   * Method used to count a closing brace.
+   * 
+   * @param theOperationName
+   *          The name of the current operation
+   * @param theCounts
+   *          The counts the current operation ends with at this brace
+   * @return true if the brace brings the depth back to 0, ending the
+   *         operation
+   */
+  boolean close(String theOperationName, V theCounts)
+  {
+
+    boolean unmatched = this.depth == 0;
+    boolean operationEnded;
+
+    if (unmatched)
+    {
+
+      this.unmatchedCount++;
+
+    }
+    else
+    {
+
+      this.depth--;
+
+    }
+
+    operationEnded = !unmatched && this.depth == 0;
+    this.lastBraceKept = this.unmatchedCount > 0
+        && (unmatched || operationEnded);
+
+    if (this.lastBraceKept)
+    {
+
+      this.closingBraceList.add(new ClosingBrace<V>(this.unmatchedCount,
+          unmatched, theOperationName, theCounts));
+
+    }
+
+    return operationEnded;
+
+  }
+
+  /**
+   * Method used to determine whether the last closing brace counted was kept.
+   * 
+   * @return true if the brace was kept
+   */
+  boolean isLastBraceKept()
+  {
+
+    return this.lastBraceKept;
+
+  }
+
+  /**
+   * Method used to retrieve the depth.
+   * 
+   * @return the number of opening braces counted and not yet closed
+   */
+  int getDepth()
+  {
+
+    return this.depth;
+
+  }
+
+  /**
+   * Method used to retrieve the closing braces kept of the current file, or
+   * of the file of a partial result.
+   * 
+   * @return the closing braces kept, in order
+   */
+  List<ClosingBrace<V>> getClosingBraces()
+  {
+
+    return this.closingBraceList;
+
+  }
+
+  /**
+   * Method used to find the operations of the file of a partial result, along
+   * with the counts they end with, when the file begins at a depth other than
+   * 0. The operations are put in the order they end, as the analyzers put
+   * them.
+   * 
+   * @param theBeginDepth
+   *          The depth the file begins at, greater than 0
+   * @return the counts of each operation, by the name of the operation
+   */
+  Map<String, V> getOperationMap(int theBeginDepth)
+  {
+
+    Map<String, V> operationMap = new HashMap<String, V>();
+
+    for (ClosingBrace<V> currBrace : this.closingBraceList)
+    {
+
+      if (currBrace.endsOperation(theBeginDepth))
+      {
+
+        operationMap.put(currBrace.operationName, currBrace.counts);
+
+      }
+
+    }
+
+    return operationMap;
+
+  }
+
+  /**
+   * Method used to carry the depth past the file of a partial result. The
+   * closing braces the file finds at a depth of 0 close the braces left open
+   * before it.
+   * 
+   * @param thePartialDepth
+   *          The depth of the partial result
+   */
+  void merge(BraceDepth<V> thePartialDepth)
+  {
+
+    this.depth = thePartialDepth.depth
+        + Math.max(0, this.depth - thePartialDepth.unmatchedCount);
+
+  }
+
+  /**
+   * A closing brace of a file, kept along with the operation it would end.
+   * 
+   * @param <V>
+   *          The type of the counts of an operation
+   */
+  static class ClosingBrace<V> implements Serializable
+  {
+
+    /**
+     * The version of the serialized form of the brace.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of closing braces of the file found at a depth of 0 up to
+     * and including this one.
+     */
+    private int unmatchedCount;
+
+    /**
+     * Whether this brace was found at a depth of 0.
+     */
+    private boolean unmatched;
+
+    /**
+     * The name of the operation the brace would end.
+     */
+    private String operationName;
+
+    /**
+     * The counts the operation would end with.
+     */
+    private V counts;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theUnmatchedCount
+     *          The number of closing braces found at a depth of 0 so far
+     * @param theUnmatched
+     *          Whether this brace was found at a depth of 0
+     * @param theOperationName
+     *          The name of the operation the brace would end
+     * @param theCounts
+     *          The counts the operation would end with
+     */
+    ClosingBrace(int theUnmatchedCount, boolean theUnmatched,
+        String theOperationName, V theCounts)
+    {
+
+      this.unmatchedCount = theUnmatchedCount;
+      this.unmatched = theUnmatched;
+      this.operationName = theOperationName;
+      this.counts = theCounts;
+
+    }
+
+    /**
+     * Method used to determine whether the brace ends an operation when its
+     * file begins at a depth other than 0. The n-th closing brace found at a
+     * depth of 0 closes the last of the braces left open, ending the
+     * operation if n is the depth the file begins at, and a brace that ends an
+     * operation in the partial result only does so once that many braces have
+     * been found.
+     * 
+     * @param theBeginDepth
+     *          The depth the file begins at, greater than 0
+     * @return true if the brace ends an operation
+     */
+    boolean endsOperation(int theBeginDepth)
+    {
+
+      return this.unmatched ? this.unmatchedCount == theBeginDepth
+          : this.unmatchedCount >= theBeginDepth;
+
+    }
+
+    /**
+     * Method used to retrieve the name of the operation the brace ends.
+     * 
+     * @return the name of the operation
+     */
+    String getOperationName()
+    {
+
+      return this.operationName;
+
+    }
+
+    /**
+     * Method used to retrieve the counts the operation ends with.
+     * 
+     * @return the counts
+     */
+    V getCounts()
+    {
+
+      return this.counts;
+
+    }
+
+  }
+
+}
@@ -0,0 +1,232 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.io.WorksheetWriter;
+
+/**
+ * This class is responsible for finding the mean, median and standard
+ * deviation of the calculation counts of the operations of each class of a
+ * program, and of every operation of the program. The standard deviation is
+ * that of the operations counted, not an estimate for a larger population.
+ * The statistics of a class without operations are not available.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class CalculationStatisticsSourceAnalyzer extends
+    CalculationSourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The text given for a statistic of a class without operations.
+   */
+  private static final String NOT_AVAILABLE = "N/A";
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected String getReportTitle()
+  {
+
+    return "Mean, Median and Standard Deviation of Calculation Count";
+
+  }
+
+  /**
+   * Generates the console report, listing the statistics of each class and of
+   * the program.
+   * 
+   * @return a List of String containing the console output.
+   */
+  public List<String> generateConsoleReport()
+  {
+
+    List<String> consoleReport = new ArrayList<String>();
+    List<int[]> programCounts = new ArrayList<int[]>();
+
+    // add the title to the report
+    consoleReport.add(this.getReportTitle() + ":\n");
+
+    for (Map.Entry<String, Map<String, int[]>> currClass : this
+        .getClassOperationCountsMap().entrySet())
+    {
+
+      consoleReport.add("    " + currClass.getKey() + ": "
+          + formatStatistics(currClass.getValue().values()));
+      programCounts.addAll(currClass.getValue().values());
+
+    }
+
+    consoleReport.add("");
+    // Add the program total to the output
+    consoleReport.add("Program Total: " + formatStatistics(programCounts));
+
+    return consoleReport;
+
+  }
+
+  /**
+   * Method responsible for writing the worksheet report a row at a time.
+   * 
+   * The first column in the output represents the name of the classes being
+   * analyzed. The second column contains the number of operations of each
+   * class, and the remaining columns the mean, median and standard deviation
+   * of the calculation counts of those operations. The classes are followed
+   * by the statistics of every operation of the program.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the rows are written to
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void writeWorksheetReport(WorksheetWriter theWorksheetWriter)
+      throws IOException
+  {
+
+    List<int[]> programCounts = new ArrayList<int[]>();
+
+    // add the column headings to the topmost row
+    theWorksheetWriter.writeCell("Class Name");
+    theWorksheetWriter.writeCell("Operation Count");
+    theWorksheetWriter.writeCell("Mean");
+    theWorksheetWriter.writeCell("Median");
+    theWorksheetWriter.writeCell("Std Deviation");
+    theWorksheetWriter.endRow();
+
+    // add a blank row
+    theWorksheetWriter.endRow();
+
+    for (Map.Entry<String, Map<String, int[]>> currClass : this
+        .getClassOperationCountsMap().entrySet())
+    {
+
+      theWorksheetWriter.writeCell(currClass.getKey());
+      writeStatistics(theWorksheetWriter, currClass.getValue().values());
+      programCounts.addAll(currClass.getValue().values());
+
+    }
+
+    // add a blank row
+    theWorksheetWriter.endRow();
+
+    // add the program total to the work sheet
+    theWorksheetWriter.writeCell("Program Total");
+    writeStatistics(theWorksheetWriter, programCounts);
+
+  }
+
+  /**
+   * Method used to write the statistics of a number of operations as the
+   * remaining cells of a row, completing the row.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the cells are written to
+   * @param theOperationCounts
+   *          The counts of each operation
+   * @throws IOException
+   *           If the cells can not be written.
+   */
+  private static void writeStatistics(WorksheetWriter theWorksheetWriter,
+      Collection<int[]> theOperationCounts) throws IOException
+  {
+
+    String[] statistics = getStatistics(theOperationCounts);
+
+    theWorksheetWriter.writeCell(theOperationCounts.size());
+
+    for (String currStatistic : statistics)
+    {
+
+      theWorksheetWriter.writeCell(currStatistic);
+
+    }
+
+    theWorksheetWriter.endRow();
+
+  }
+
+  /**
+   * Method used to format the statistics of a number of operations for the
+   * console report.
+   * 
+   * @param theOperationCounts
+   *          The counts of each operation
+   * @return the formatted statistics
+   */
+  private static String formatStatistics(Collection<int[]> theOperationCounts)
+  {
+
+    String[] statistics = getStatistics(theOperationCounts);
+
+    return theOperationCounts.size() + " operations, mean " + statistics[0]
+        + ", median " + statistics[1] + ", std deviation " + statistics[2];
+
+  }
+
+  /**
+   * Method used to find the mean, median and standard deviation of the
+   * calculation counts of a number of operations.
+   * 
+   * @param theOperationCounts
+   *          The counts of each operation
+   * @return the mean, median and standard deviation, formatted, or
+   *         NOT_AVAILABLE for each if there are no operations
+   */
+  private static String[] getStatistics(Collection<int[]> theOperationCounts)
+  {
+
+    DecimalFormat df = new DecimalFormat("0.00");
+    int[] calculations = new int[theOperationCounts.size()];
+    int count = 0;
+    double mean = 0;
+    double squares = 0;
+    double median;
+
+    if (calculations.length == 0)
+    {
+
+      return new String[] { NOT_AVAILABLE, NOT_AVAILABLE, NOT_AVAILABLE };
+
+    }
+
+    for (int[] currCounts : theOperationCounts)
+    {
+
+      calculations[count++] = currCounts[0];
+      mean += currCounts[0];
+
+    }
+
+    mean /= count;
+
+    for (int currCalculations : calculations)
+    {
+
+      squares += (currCalculations - mean) * (currCalculations - mean);
+
+    }
+
+    Arrays.sort(calculations);
+    median = count % 2 == 1 ? calculations[count / 2]
+        : (calculations[count / 2 - 1] + calculations[count / 2]) / 2.0;
+
+    return new String[] { df.format(mean), df.format(median),
+        df.format(Math.sqrt(squares / count)) };
+
+  }
+
+}
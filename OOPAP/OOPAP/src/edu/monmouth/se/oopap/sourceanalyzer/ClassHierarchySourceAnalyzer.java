@@ -0,0 +1,151 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.monmouth.se.oopap.ClassHierarchy;
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.enumerator.LineType;
+
+/**
+ * This class is responsible for building the inheritance hierarchy of the
+ * classes analyzed from their class declarations. It produces no report of
+ * its own; the hierarchy is read by the inheritance analyzers once the
+ * analysis is complete.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class ClassHierarchySourceAnalyzer extends SourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The hierarchy of the classes analyzed.
+   */
+  private ClassHierarchy classHierarchy;
+
+  /**
+   * Primary constructor.
+   */
+  public ClassHierarchySourceAnalyzer()
+  {
+
+    this.classHierarchy = new ClassHierarchy();
+
+  }
+
+  /**
+   * Method used to retrieve the hierarchy of the classes analyzed.
+   * 
+   * @return the class hierarchy
+   */
+  public ClassHierarchy getClassHierarchy()
+  {
+
+    return this.classHierarchy;
+
+  }
+
+  /**
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
+   */
+  public void beginAnalysis()
+  {
+
+    this.classHierarchy = new ClassHierarchy();
+
+  }
+
+  /**
+   * Method responsible for beginning the analysis of a single file. Nothing
+   * is tracked on a per file basis.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
+
+  }
+
+  /**
+   * Method responsible for analyzing a single line of the current file. Every
+   * class declaration adds the inheritance relationship it declares to the
+   * hierarchy.
+   * 
+   * @param theLine
+   *          The current line of the file
+   * @param theLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String theLine, LineType theLineType)
+  {
+
+    if (theLineType == LineType.ClassDeclaration)
+    {
+
+      classHierarchy.addDeclaration(LineAnalyzer.getSuperclassName(theLine),
+          LineAnalyzer.getClassName(theLine));
+
+    }
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   * Nothing is tracked on a per file basis.
+   */
+  public void endFile()
+  {
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The class declarations of the file are added in the order
+   * they were encountered.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    classHierarchy.merge(((ClassHierarchySourceAnalyzer) thePartialResult)
+        .getClassHierarchy());
+
+  }
+
+  /**
+   * Method responsible for generating a report ready to be output to the
+   * console. The hierarchy is not reported on its own.
+   * 
+   * @return an empty List
+   */
+  public List<String> generateConsoleReport()
+  {
+
+    return new ArrayList<String>();
+
+  }
+
+  /**
+   * Method responsible for generating a 2 dimensional array of strings ready to
+   * be written to a work sheet. The hierarchy is not reported on its own.
+   * 
+   * @return an empty 2 dimensional array
+   */
+  public List<List<String>> generateWorksheetReport()
+  {
+
+    return new ArrayList<List<String>>();
+
+  }
+
+}
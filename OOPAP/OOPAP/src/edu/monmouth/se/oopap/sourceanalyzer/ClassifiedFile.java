@@ -0,0 +1,392 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.Serializable;
+import java.util.List;
+
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.enumerator.LineType;
+
+/**
+ * The lines of a single source file along with the classification of each
+ * line. Every line is classified once, when the file is created, and the
+ * type of each line is held as the ordinal of its LineType in a byte array
+ * next to the lines, so a file may be read by any number of analyzers, or by
+ * the same analyzer more than once, without classifying a line again.
+ * 
+ * The boundaries of the classes and operations of the file are found at the
+ * same time. A class begins at its declaration. An operation begins at its
+ * declaration and ends at the closing brace matching the first opening brace
+ * following it, counting only the lines holding a lone brace, as the
+ * analyzers do. The braces of a file are counted on their own, from the first
+ * line of the file.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class ClassifiedFile implements Serializable
+{
+
+  /**
+   * The version of the serialized form of the classification.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Every line type, indexed by ordinal.
+   */
+  private static final LineType[] LINE_TYPES = LineType.values();
+
+  /**
+   * The name of the file.
+   */
+  private String sourceFileName;
+
+  /**
+   * The lines of the file, null once they have been let go by withoutLines.
+   * The lines are never written with the classification.
+   */
+  private transient List<String> fileContents;
+
+  /**
+   * The ordinal of the type of each line.
+   */
+  private byte[] lineTypes;
+
+  /**
+   * The index of the line declaring each class, in order.
+   */
+  private int[] classLines;
+
+  /**
+   * The index of the line declaring each operation, in order.
+   */
+  private int[] operationStartLines;
+
+  /**
+   * The index of the line closing each operation, or the index of the last
+   * line of the file if the operation is not closed.
+   */
+  private int[] operationEndLines;
+
+  /**
+   * The counts taken from the tokens of the file, null until first asked for.
+   * The counts are never written with the classification.
+   */
+  private transient TokenMetrics tokenMetrics;
+
+  /**
+   * Primary constructor. Classifies every line of the file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theFileContents
+   *          The lines of the file
+   */
+  public ClassifiedFile(String theSourceFileName, List<String> theFileContents)
+  {
+
+    // the number of classes and operations found so far
+    int classCount = 0;
+    int operationCount = 0;
+    // the depth of the braces of the current operation, -1 until the first
+    // operation is declared
+    int braceDepth = -1;
+
+    this.sourceFileName = theSourceFileName;
+    this.fileContents = theFileContents;
+    this.lineTypes = new byte[theFileContents.size()];
+
+    // no more classes or operations than lines
+    int[] classBuffer = new int[lineTypes.length];
+    int[] startBuffer = new int[lineTypes.length];
+    int[] endBuffer = new int[lineTypes.length];
+
+    for (int i = 0; i < lineTypes.length; i++)
+    {
+
+      LineType currLineType = LineAnalyzer.getLineType(theFileContents.get(i));
+
+      lineTypes[i] = (byte) currLineType.ordinal();
+
+      switch (currLineType)
+      {
+
+      case ClassDeclaration:
+
+        classBuffer[classCount++] = i;
+
+        break;
+
+      case MethodDeclaration:
+
+        // an operation not yet closed ends where the next begins
+        if (operationCount > 0
+            && endBuffer[operationCount - 1] == Integer.MAX_VALUE)
+        {
+
+          endBuffer[operationCount - 1] = i - 1;
+
+        }
+
+        startBuffer[operationCount] = i;
+        endBuffer[operationCount] = Integer.MAX_VALUE;
+        operationCount++;
+        braceDepth = 0;
+
+        break;
+
+      case OpeningBrace:
+
+        if (braceDepth >= 0)
+        {
+
+          braceDepth++;
+
+        }
+
+        break;
+
+      case ClosingBrace:
+
+        if (braceDepth > 0 && --braceDepth == 0
+            && endBuffer[operationCount - 1] == Integer.MAX_VALUE)
+        {
+
+          endBuffer[operationCount - 1] = i;
+
+        }
+
+        break;
+
+      }
+
+    }
+
+    if (operationCount > 0
+        && endBuffer[operationCount - 1] == Integer.MAX_VALUE)
+    {
+
+      endBuffer[operationCount - 1] = lineTypes.length - 1;
+
+    }
+
+    this.classLines = new int[classCount];
+    this.operationStartLines = new int[operationCount];
+    this.operationEndLines = new int[operationCount];
+
+    System.arraycopy(classBuffer, 0, classLines, 0, classCount);
+    System.arraycopy(startBuffer, 0, operationStartLines, 0, operationCount);
+    System.arraycopy(endBuffer, 0, operationEndLines, 0, operationCount);
+
+  }
+
+  /**
+   * Constructor used to share the classification of another file.
+   * 
+   * @param theClassifiedFile
+   *          The file whose classification is shared
+   * @param theFileContents
+   *          The lines of the file, or null
+   */
+  private ClassifiedFile(ClassifiedFile theClassifiedFile,
+      List<String> theFileContents)
+  {
+
+    this.sourceFileName = theClassifiedFile.sourceFileName;
+    this.fileContents = theFileContents;
+    this.lineTypes = theClassifiedFile.lineTypes;
+    this.classLines = theClassifiedFile.classLines;
+    this.operationStartLines = theClassifiedFile.operationStartLines;
+    this.operationEndLines = theClassifiedFile.operationEndLines;
+
+  }
+
+  /**
+   * Method used to retrieve the classification of the file without its lines,
+   * so that the lines may be let go while the classification is kept.
+   * 
+   * @return a file sharing the classification of this file, without lines
+   */
+  ClassifiedFile withoutLines()
+  {
+
+    return new ClassifiedFile(this, null);
+
+  }
+
+  /**
+   * Method used to attach the lines of the file, read again, to the
+   * classification of the file. The lines are classified again only if they
+   * are not the lines that were classified, which can only be told by their
+   * number.
+   * 
+   * @param theFileContents
+   *          The lines of the file
+   * @return a file holding the lines and the classification
+   */
+  ClassifiedFile withLines(List<String> theFileContents)
+  {
+
+    if (theFileContents.size() != lineTypes.length)
+    {
+
+      return new ClassifiedFile(sourceFileName, theFileContents);
+
+    }
+
+    return new ClassifiedFile(this, theFileContents);
+
+  }
+
+  /**
+   * Method used to retrieve the name of the file.
+   * 
+   * @return the name of the file
+   */
+  public String getSourceFileName()
+  {
+
+    return this.sourceFileName;
+
+  }
+
+  /**
+   * Method used to retrieve the number of lines of the file.
+   * 
+   * @return the number of lines
+   */
+  public int getLineCount()
+  {
+
+    return this.lineTypes.length;
+
+  }
+
+  /**
+   * Method used to retrieve a line of the file.
+   * 
+   * @param theLineIndex
+   *          The index of the line
+   * @return the line
+   */
+  public String getLine(int theLineIndex)
+  {
+
+    return this.fileContents.get(theLineIndex);
+
+  }
+
+  /**
+   * Method used to retrieve the type of a line of the file.
+   * 
+   * @param theLineIndex
+   *          The index of the line
+   * @return the type of the line
+   */
+  public LineType getLineType(int theLineIndex)
+  {
+
+    return LINE_TYPES[this.lineTypes[theLineIndex]];
+
+  }
+
+  /**
+   * Method used to retrieve the number of classes declared by the file.
+   * 
+   * @return the number of classes
+   */
+  public int getClassCount()
+  {
+
+    return this.classLines.length;
+
+  }
+
+  /**
+   * Method used to retrieve the line declaring a class.
+   * 
+   * @param theClassIndex
+   *          The index of the class, in the order declared
+   * @return the index of the line
+   */
+  public int getClassLine(int theClassIndex)
+  {
+
+    return this.classLines[theClassIndex];
+
+  }
+
+  /**
+   * Method used to retrieve the number of operations declared by the file.
+   * 
+   * @return the number of operations
+   */
+  public int getOperationCount()
+  {
+
+    return this.operationStartLines.length;
+
+  }
+
+  /**
+   * Method used to retrieve the line declaring an operation.
+   * 
+   * @param theOperationIndex
+   *          The index of the operation, in the order declared
+   * @return the index of the line
+   */
+  public int getOperationStartLine(int theOperationIndex)
+  {
+
+    return this.operationStartLines[theOperationIndex];
+
+  }
+
+  /**
+   * Method used to retrieve the line closing an operation. An operation which
+   * is not closed ends on the line before the next operation is declared, or
+   * on the last line of the file.
+   * 
+   * @param theOperationIndex
+   *          The index of the operation, in the order declared
+   * @return the index of the line
+   */
+  public int getOperationEndLine(int theOperationIndex)
+  {
+
+    return this.operationEndLines[theOperationIndex];
+
+  }
+
+  /**
+   * Method used to retrieve the counts taken from the tokens of the file. The
+   * file is tokenized the first time the counts are asked for, and every
+   * later request, by any analyzer, shares the same counts.
+   * 
+   * @return the counts of the file
+   * @throws IllegalStateException
+   *           If the lines of the file have been let go.
+   */
+  public synchronized TokenMetrics getTokenMetrics()
+  {
+
+    if (tokenMetrics == null)
+    {
+
+      if (fileContents == null)
+      {
+
+        throw new IllegalStateException("The lines of " + sourceFileName
+            + " have been let go");
+
+      }
+
+      tokenMetrics = new TokenMetrics(this);
+
+    }
+
+    return this.tokenMetrics;
+
+  }
+
+}
@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 import edu.monmouth.se.oopap.enumerator.LineType;
@@ -21,6 +20,11 @@ import edu.monmouth.se.oopap.enumerator.LineType;
  */
 public class CodingViolationSourceAnalyzer extends SourceAnalyzer
 {
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
   // stores logical LOC for a given program
   private int programLines;
   // stores class to operation association
@@ -28,6 +32,37 @@ public class CodingViolationSourceAnalyzer extends SourceAnalyzer
   // stores operation to line count association
   private Map<String, Integer> classLinesMap;
 
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * Integer to hold the current physical LOC for the current class.
+   */
+  private int currClassLines;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<Integer> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current coding violation for the current operation.
+   */
+  private int codingViolation;
+
+  /**
+   * Map to hold the operation to line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
   /**
    * default constructor. Runs the resetAnalysis operation to initialize the
    * object
@@ -49,181 +84,208 @@ public class CodingViolationSourceAnalyzer extends SourceAnalyzer
   }
 
   /**
-   * analyzes a given source for logical LOC. reads in line types and classifies
-   * them as valid logical LOC as required.
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
+
     // reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the current physical LOC for the current class
-    int currClassLines = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    //integer to hold coding violation
-    //int codingViolation =0;
-    // Iterate through the entire list of files in the program
-    // The algorithm for counting is as follows. For every line in the file
-    // both the class and program count are incremented. Every time a new
-    // class is analyzed the class line counter is reset. When a operation
-    // declaration is encountered the operation count begins. As the counter
-    // iterates through the operation, it pushes a opening braces onto the
-    // brace stack and pops when a closing brace is encountered. When the
-    // stack is empty again, we know we've reached the end of the method and
-    // the count can stop.
-    for (String currSourceFileName : sourceKeySet)
+    this.currClassLines = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<Integer>();
+
+  }
+
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
+
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current coding violation for the current operation
+    this.codingViolation = 0;
+    // Reset the ClassLOC
+    currClassLines = 0;
+    // Map to hold the operation to line count association
+    this.operationCountMap = new HashMap<String, Integer>();
+
+  }
+
+  /**
+   * Method responsible for analyzing a single line of the current file,
+   * incrementing the proper counter when appropriate.
+   * 
+   * The algorithm for counting is as follows. For every line in the file both
+   * the class and program count are incremented. Every time a new class is
+   * analyzed the class line counter is reset. When a operation declaration is
+   * encountered the operation count begins. As the counter iterates through the
+   * operation, it counts the depth of the opening braces, which each closing
+   * brace brings back down. When the depth is back to 0, we know we've reached
+   * the end of the method and the count can stop.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
+
+    // Check the current line type. With this analysis we are concerned with
+    // class declarations so the name may be retrieved, method declarations
+    // for the purpose of resetting the LOC count by operation and getting
+    // the name
+    switch (currLineType)
     {
 
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
-
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current coding violation for the current operation
-      int codingViolation = 0;
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the ClassLOC
-      currClassLines = 0;
-      // Map to hold the operation to line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
-
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
-
-      for (int i = 0; i < currFileContents.size(); i++)
+    case MethodDeclaration:
+
+      // get the name of the method being declared
+      currOperationName = LineAnalyzer.getOperationName(currLine);
+
+      // reset the coding violation for the operation
+      codingViolation = 0;
+      // this check to see if there is { on the same line as declaration. 
+      //if there is bracket on same line it increment the count.
+     // if(currLine.contains("{")|| currLine.contains("}"))
+      //{
+        //currOperationLines++;
+      //}
+
+      break;
+
+    case OpeningBrace:
+
+      // only count a brace if we have encountered an operation
+      // declaration. If the current operation name is "" it means that
+      // it has not been set since no operations have been encountered yet
+      if (!currOperationName.equals(""))
       {
 
-        // get the current line
-        currLine = currFileContents.get(i);
-
-        // determine the current line type
-        currLineType = LineAnalyzer.getLineType(currLine);
-
-        // Check the current line type. With this analysis we are concerned with
-        // class declarations so the name may be retrieved, method declarations
-        // for the purpose of resetting the LOC count by operation and getting
-        // the name
-        switch (currLineType)
-        {
-
-        case MethodDeclaration:
-
-          // get the name of the method being declared
-          currOperationName = LineAnalyzer.getOperationName(currLine);
-
-          // reset the coding violation for the operation
-          codingViolation = 0;
-          // this check to see if there is { on the same line as declaration. 
-          //if there is bracket on same line it increment the count.
-         // if(currLine.contains("{")|| currLine.contains("}"))
-          //{
-            //currOperationLines++;
-          //}
-
-          break;
-
-        case OpeningBrace:
-
-          // only add a brace to the stack if we have encountered an operation
-          // declaration. If the current operation name is "" it means that
-          // it has not been set since no operations have been encountered yet
-          if (!currOperationName.equals(""))
-          {
-
-            braceStack.push(currLineType);
-
-          }
-
-          break;
-
-        case ClosingBrace:
-
-          // pop the opening brace from the stack only if there are items
-          // left on the stack. This is to ensure that no exception is thrown
-          // when the last brace in a class is encountered.
-          if (!braceStack.empty())
-          {
-
-            // pop the previous brace from the stack
-            braceStack.pop();
-
-            // check to see if the stack is now empty. If it is the end of
-            // the operation has been encountered. Add the operation and
-            // count to the map.
-            if (braceStack.empty())
-            {
-
-              operationCountMap.put(currOperationName, codingViolation);
-
-            }
-
-          }
-
-          break;
-
-        }
-
-        // determine whether the current line is a logical LOC
-        switch (currLineType)
-        {
-
-        // in the case of a comment, opening brace, closing brace, 
-        // beginning of multi-line logical.
-        case OpeningBrace:
-          break;
-        case ClosingBrace:
-          break;
-        case Comment:
-          break;
-        // if there is multiline logical that has opening or closing brace
-        // variable codingViolation will be incremented.
-        case MultiLineLogical:
-          if(currLine.contains("{")|| currLine.contains("}"))
-          {
-            codingViolation++;
-          }
-          break;
-          // if there is SingleLine logical that has opening or closing brace
-          // variable codingViolation will be incremented.
-         
-        case SingleLineLogical:
-          if(currLine.contains("{")|| currLine.contains("}"))
-          {
-            codingViolation++;
-          }
-          // currOperationLines++;
- 
-          break;
-
-         
-        // in the case of package declarations and import statements, increment
-        // program count
-        // only because these statements occur at the header of a file and not
-        // inside a class
-       case PackageDeclaration:
-       case ImportStatement:
-         this.programLines++;
-         currClassLines++;
-         break;
+        braceDepth.open();
+
+      }
+
+      break;
+
+    case ClosingBrace:
+
+      // count the closing brace. When the depth is back to 0 the end of the
+      // operation has been encountered. Add the operation and count to the
+      // map.
+      if (braceDepth.close(currOperationName, codingViolation))
+      {
+
+        operationCountMap.put(currOperationName, codingViolation);
+
+      }
+
+      break;
+
+    }
+
+    // determine whether the current line is a logical LOC
+    switch (currLineType)
+    {
+
+    // in the case of a comment, opening brace, closing brace, 
+    // beginning of multi-line logical.
+    case OpeningBrace:
+      break;
+    case ClosingBrace:
+      break;
+    case Comment:
+      break;
+    // if there is multiline logical that has opening or closing brace
+    // variable codingViolation will be incremented.
+    case MultiLineLogical:
+      if(currLine.contains("{")|| currLine.contains("}"))
+      {
+        codingViolation++;
+      }
+      break;
+      // if there is SingleLine logical that has opening or closing brace
+      // variable codingViolation will be incremented.
+     
+    case SingleLineLogical:
+      if(currLine.contains("{")|| currLine.contains("}"))
+      {
+        codingViolation++;
+      }
+      // currOperationLines++;
+
+      break;
+
      
-        }
+    // in the case of package declarations and import statements, increment
+    // program count
+    // only because these statements occur at the header of a file and not
+    // inside a class
+    case PackageDeclaration:
+    case ImportStatement:
+      this.programLines++;
+      currClassLines++;
+      break;
 
-       }
+    }
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
+
+    // add the map of operation to line count association to the class to
+    // line count association map
+    classOperationLinesMap.put(currSourceFileName, operationCountMap);
+    classLinesMap.put(currSourceFileName, currClassLines);
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The totals are added and the counts of the file are added
+   * to the maps. The depth of the braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    CodingViolationSourceAnalyzer partialResult =
+        (CodingViolationSourceAnalyzer) thePartialResult;
+
+    this.programLines += partialResult.programLines;
+    mergeMap(this.classOperationLinesMap, partialResult.classOperationLinesMap);
+    mergeMap(this.classLinesMap, partialResult.classLinesMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces
+    if (this.braceDepth.getDepth() > 0)
+    {
+
+      this.classOperationLinesMap.put(partialResult.currSourceFileName,
+          partialResult.braceDepth.getOperationMap(this.braceDepth
+              .getDepth()));
 
-      // add the map of operation to line count association to the class to
-      // line count association map
-      classOperationLinesMap.put(currSourceFileName, operationCountMap);
-      classLinesMap.put(currSourceFileName, currClassLines);
     }
-   
+
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
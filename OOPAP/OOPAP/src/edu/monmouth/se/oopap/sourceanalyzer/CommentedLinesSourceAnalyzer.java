@@ -1,15 +1,16 @@
 package edu.monmouth.se.oopap.sourceanalyzer;
 
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import edu.monmouth.se.oopap.enumerator.LineType;
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.io.WorksheetWriter;
 
 /**
  * This class is responsible for counting the total number of commented lines of a 
@@ -30,6 +31,11 @@ import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 public class CommentedLinesSourceAnalyzer extends SourceAnalyzer
 {
 
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
   /**
    * Integer to hold the number of commented lines within the program.
    */
@@ -55,6 +61,52 @@ public class CommentedLinesSourceAnalyzer extends SourceAnalyzer
   // stores operation to line count association
   private Map<String, Integer> classLogicalLinesMap;
 
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * Integer to hold the current comment line count for the current class.
+   */
+  private int currClassCommentLines;
+
+  /**
+   * Integer to hold the current logical line count for the current class.
+   */
+  private int currClassLogicalLines;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<int[]> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current comment lines for the current operation.
+   */
+  private int currOperationLines;
+
+  /**
+   * Integer to hold the current logical LOC for the current operation.
+   */
+  private int currOperationLogicalLines;
+
+  /**
+   * Map to hold the operation to comment line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
+  /**
+   * Map to hold the operation to logical line count association.
+   */
+  private Map<String, Integer> operationCountMapLogical;
+
   /**
    * Default constructor for the line count analyzer.
    */
@@ -82,197 +134,247 @@ public class CommentedLinesSourceAnalyzer extends SourceAnalyzer
   }
 
   /**
-   * Method responsible to analyzing the source code. After the report is run
-   * the report methods must be used to obtain the results of the report.
-   * 
-   * @param theSourceMap
-   *          The classname to class contents assocation map. The key is the
-   *          class name. The value is a List of Strings representing the
-   *          contents of the class.
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
 
     // reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the current comment line count for the current class
-    int currClassCommentLines = 0;
+    this.currClassCommentLines = 0;
     // integer to hold the current logical line count for the current class
-    int currClassLogicalLines = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    // Iterate through the entire list of files in the program
-    // The algorithm for counting is as follows. For every line in the file
-    // both the class and program count are incremented. Every time a new
-    // class is analyzed the class line counter is reset. When a operation
-    // declaration is encountered the operation count begins. As the counter
-    // iterates through the operation, it pushes a opening braces onto the
-    // brace stack and pops when a closing brace is encountered. When the
-    // stack is empty again, we know we've reached the end of the method and
-    // the count can stop.
-    for (String currSourceFileName : sourceKeySet)
+    this.currClassLogicalLines = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<int[]>();
+
+  }
+
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
+
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current comment lines for the current operation
+    this.currOperationLines = 0;
+    // integer to hold the current logical LOC for the current operation
+    this.currOperationLogicalLines = 0;
+    // Reset the Class comment line count
+    currClassCommentLines = 0;
+    // Reset the Class logical line count
+    currClassLogicalLines = 0;
+    // Map to hold the operation to comment line count association
+    this.operationCountMap = new HashMap<String, Integer>();
+    // Map to hold the operation to logical line count association
+    this.operationCountMapLogical = new HashMap<String, Integer>();
+
+  }
+
+  /**
+   * Method responsible for analyzing a single line of the current file,
+   * incrementing the proper counter when appropriate.
+   * 
+   * The algorithm for counting is as follows. For every line in the file both
+   * the class and program count are incremented. Every time a new class is
+   * analyzed the class line counter is reset. When a operation declaration is
+   * encountered the operation count begins. As the counter iterates through the
+   * operation, it counts the depth of the opening braces, which each closing
+   * brace brings back down. When the depth is back to 0, we know we've reached
+   * the end of the method and the count can stop.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
+
+    // Check the current line type. With this analysis we are concerned with
+    // class declarations so the name may be retrieved, method declarations
+    // for the purpose of resetting the LOC count by operation and getting
+    // the name
+    switch (currLineType)
     {
 
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
-
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current comment lines for the current operation
-      int currOperationLines = 0;
-      // integer to hold the current logical LOC for the current operation
-      int currOperationLogicalLines = 0;
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the Class comment line count
-      currClassCommentLines = 0;
-      // Reset the Class logical line count
-      currClassLogicalLines = 0;
-      // Map to hold the operation to comment line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
-      // Map to hold the operation to logical line count association
-      Map<String, Integer> operationCountMapLogical = new HashMap<String, Integer>();
-
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
-
-      for (int i = 0; i < currFileContents.size(); i++)
-      {
+    case MethodDeclaration:
 
-        // get the current line
-        currLine = currFileContents.get(i);
+      // get the name of the method being declared
+      currOperationName = LineAnalyzer.getOperationName(currLine);
 
-        // determine the current line type
-        currLineType = LineAnalyzer.getLineType(currLine);
+      // reset the comment LOC for the operation
+      currOperationLines = 0;
+      //reset logical LOC for the operation
+      currOperationLogicalLines = 1;
 
-        // Check the current line type. With this analysis we are concerned with
-        // class declarations so the name may be retrieved, method declarations
-        // for the purpose of resetting the LOC count by operation and getting
-        // the name
-        switch (currLineType)
-        {
+      break;
+
+    case OpeningBrace:
 
-        case MethodDeclaration:
+      // only count a brace if we have encountered an operation
+      // declaration. If the current operation name is "" it means that
+      // it has not been set since no operations have been encountered yet
+      if (!currOperationName.equals(""))
+      {
 
-          // get the name of the method being declared
-          currOperationName = LineAnalyzer.getOperationName(currLine);
+        braceDepth.open();
 
-          // reset the comment LOC for the operation
-          currOperationLines = 0;
-          //reset logical LOC for the operation
-          currOperationLogicalLines = 1;
+      }
 
-          break;
+      break;
 
-        case OpeningBrace:
+    case ClosingBrace:
 
-          // only add a brace to the stack if we have encountered an operation
-          // declaration. If the current operation name is "" it means that
-          // it has not been set since no operations have been encountered yet
-          if (!currOperationName.equals(""))
-          {
+      // count the closing brace. When the depth is back to 0 the end of the
+      // operation has been encountered. Add the operation and count to the
+      // map.
+      if (braceDepth.close(currOperationName, new int[] { currOperationLines,
+          currOperationLogicalLines }))
+      {
 
-            braceStack.push(currLineType);
+        operationCountMap.put(currOperationName, currOperationLines);
+        operationCountMapLogical.put(currOperationName, currOperationLogicalLines);
 
-          }
+      }
 
-          break;
+      break;
+
+    case Comment:
+      if(!currLine.trim().startsWith("//") && !(currLine.contains(".matches(") || currLine.contains(".startsWith(")))
+      {
+        this.commentLines++;
+        currClassCommentLines++;
+        currOperationLines++;
+      }
+      break;
+      
+    }
+    
+ // determine whether the current line is a logical LOC
+    switch (currLineType)
+    {
+
+    // in the case of a comment, open comment, close comment, blank line,
+    // beginning of multi-line logical
+    // or unknown line type, do not increment logical loc count for
+    // operation or method.
+    case Comment:
+    case OpenComment:
+    case CloseComment:
+    case Blank:
+    case MultiLineLogical:
+    case Unknown:
+      break;
+
+    // in the case of Class and method declarations, as well as open/close
+    // braces and
+    // single lines of logical code, increment the class, method, and
+    // program line count
+    case ClassDeclaration:
+    case MethodDeclaration:
+    case OpeningBrace:
+    case ClosingBrace:
+    case SingleLineLogical:
+      this.programLogicalLOC++;
+      currClassLogicalLines++;
+      currOperationLogicalLines++;
+      break;
+
+    // in the case of package declarations and import statements, increment
+    // program count
+    // only because these statements occur at the header of a file and not
+    // inside a class
+    case PackageDeclaration:
+    case ImportStatement:
+      this.programLogicalLOC++;
+    }
 
-        case ClosingBrace:
+  }
 
-          // pop the opening brace from the stack only if there are items
-          // left on the stack. This is to ensure that no exception is thrown
-          // when the last brace in a class is encountered.
-          if (!braceStack.empty())
-          {
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
 
-            // pop the previous brace from the stack
-            braceStack.pop();
+    // add the map of operation to comment line count association to the class to
+    // comment line count association map
+    classOperationCommentLinesMap.put(currSourceFileName, operationCountMap);
+    classCommentLinesMap.put(currSourceFileName, currClassCommentLines);
+    // add the map of operation to logical line count association to the class to
+    // logical line count association map
+    classLogicalOperationLinesMap.put(currSourceFileName, operationCountMapLogical);
+    classLogicalLinesMap.put(currSourceFileName, currClassLogicalLines);
 
-            // check to see if the stack is now empty. If it is the end of
-            // the operation has been encountered. Add the operation and
-            // count to the map.
-            if (braceStack.empty())
-            {
+  }
 
-              operationCountMap.put(currOperationName, currOperationLines);
-              operationCountMapLogical.put(currOperationName, currOperationLogicalLines);
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The totals are added and the counts of the file are added
+   * to the maps. The depth of the braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
 
-            }
+    CommentedLinesSourceAnalyzer partialResult =
+        (CommentedLinesSourceAnalyzer) thePartialResult;
+
+    this.commentLines += partialResult.commentLines;
+    this.programLogicalLOC += partialResult.programLogicalLOC;
+    mergeMap(this.classOperationCommentLinesMap,
+        partialResult.classOperationCommentLinesMap);
+    mergeMap(this.classCommentLinesMap, partialResult.classCommentLinesMap);
+    mergeMap(this.classLogicalOperationLinesMap,
+        partialResult.classLogicalOperationLinesMap);
+    mergeMap(this.classLogicalLinesMap, partialResult.classLogicalLinesMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces
+    if (this.braceDepth.getDepth() > 0)
+    {
 
-          }
+      Map<String, Integer> operationMap = new HashMap<String, Integer>();
+      Map<String, Integer> operationMapLogical =
+          new HashMap<String, Integer>();
 
-          break;
+      for (BraceDepth.ClosingBrace<int[]> currBrace : partialResult.braceDepth
+          .getClosingBraces())
+      {
 
-        case Comment:
-          if(!currLine.trim().startsWith("//") && !(currLine.contains(".matches(") || currLine.contains(".startsWith(")))
-          {
-            this.commentLines++;
-            currClassCommentLines++;
-            currOperationLines++;
-          }
-          break;
-          
-        }
-        
-     // determine whether the current line is a logical LOC
-        switch (currLineType)
+        if (currBrace.endsOperation(this.braceDepth.getDepth()))
         {
 
-        // in the case of a comment, open comment, close comment, blank line,
-        // beginning of multi-line logical
-        // or unknown line type, do not increment logical loc count for
-        // operation or method.
-        case Comment:
-        case OpenComment:
-        case CloseComment:
-        case Blank:
-        case MultiLineLogical:
-        case Unknown:
-          break;
-
-        // in the case of Class and method declarations, as well as open/close
-        // braces and
-        // single lines of logical code, increment the class, method, and
-        // program line count
-        case ClassDeclaration:
-        case MethodDeclaration:
-        case OpeningBrace:
-        case ClosingBrace:
-        case SingleLineLogical:
-          this.programLogicalLOC++;
-          currClassLogicalLines++;
-          currOperationLogicalLines++;
-          break;
-
-        // in the case of package declarations and import statements, increment
-        // program count
-        // only because these statements occur at the header of a file and not
-        // inside a class
-        case PackageDeclaration:
-        case ImportStatement:
-          this.programLogicalLOC++;
+          operationMap.put(currBrace.getOperationName(), currBrace
+              .getCounts()[0]);
+          operationMapLogical.put(currBrace.getOperationName(), currBrace
+              .getCounts()[1]);
+
         }
+
       }
 
-      // add the map of operation to comment line count association to the class to
-      // comment line count association map
-      classOperationCommentLinesMap.put(currSourceFileName, operationCountMap);
-      classCommentLinesMap.put(currSourceFileName, currClassCommentLines);
-      // add the map of operation to logical line count association to the class to
-      // logical line count association map
-      classLogicalOperationLinesMap.put(currSourceFileName, operationCountMapLogical);
-      classLogicalLinesMap.put(currSourceFileName, currClassLogicalLines);
+      this.classOperationCommentLinesMap.put(partialResult.currSourceFileName,
+          operationMap);
+      this.classLogicalOperationLinesMap.put(partialResult.currSourceFileName,
+          operationMapLogical);
 
     }
 
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
@@ -366,28 +468,38 @@ public class CommentedLinesSourceAnalyzer extends SourceAnalyzer
    */
   public List<List<String>> generateWorksheetReport()
   {
+
+    return this.collectWorksheetReport();
+
+  }
+
+  /**
+   * Method responsible for writing the worksheet report a row at a time, in
+   * the layout described by generateWorksheetReport. No row is held in
+   * memory.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the rows are written to
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void writeWorksheetReport(WorksheetWriter theWorksheetWriter)
+      throws IOException
+  {
+
     //set decimal format for percentages
     DecimalFormat df = new DecimalFormat("0.0");
-    // the 2 dimensional array containing the output of the method
-    List<List<String>> worksheetReport = new ArrayList<List<String>>();
     // Set of strings to hold all of the keys (class names) in the map so that
     // it may be iterated through.
     Set<String> classKeySet = this.classOperationCommentLinesMap.keySet();
 
-    // list containing the contents of the current row
-    List<String> currRow = new ArrayList<String>();
-
     // add the column headings to the topmost row
-    currRow.add("Class Name");
-    currRow.add("Operation Name");
-    currRow.add("Commented Line Count");
-    currRow.add("Logical Line Count");
-    currRow.add("% Commented to Logical LOC");
-    // add the row to the work sheet
-    worksheetReport.add(currRow);
-
-    // reset the row
-    currRow = new ArrayList<String>();
+    theWorksheetWriter.writeCell("Class Name");
+    theWorksheetWriter.writeCell("Operation Name");
+    theWorksheetWriter.writeCell("Commented Line Count");
+    theWorksheetWriter.writeCell("Logical Line Count");
+    theWorksheetWriter.writeCell("% Commented to Logical LOC");
+    theWorksheetWriter.endRow();
 
     // Iterate over the entire class to operation association map.
     for (String currClassKey : classKeySet)
@@ -399,80 +511,63 @@ public class CommentedLinesSourceAnalyzer extends SourceAnalyzer
       // Map to hold the list of operations for the current class (logical count)
       Map<String, Integer> operationLinesMapLogical = this.classLogicalOperationLinesMap
           .get(currClassKey);
-      // Set of strings to hold all of the keys (operation names) in the map
-      // so that it may be iterated through.
-      Set<String> operationKeySet = operationLinesMap.keySet();
 
       // Iterate of the entire set of operations.
-      for (String currOperationName : operationKeySet)
+      for (Map.Entry<String, Integer> currOperation : operationLinesMap
+          .entrySet())
       {
 
-        // reset the row
-        currRow = new ArrayList<String>();
+        int operationLines = currOperation.getValue();
+        int operationLogicalLines = operationLinesMapLogical.get(currOperation
+            .getKey());
 
-        // add the elements to the current row
-        currRow.add(currClassKey);
-        currRow.add(currOperationName);
-        currRow.add(operationLinesMap.get(currOperationName).toString());
-        currRow.add(operationLinesMapLogical.get(currOperationName).toString());
-
-        //calculate the percentage of commented lines to Logical LOC in the operation
-        Double rowPercentage = (double)operationLinesMap.get(currOperationName)/operationLinesMapLogical.get(currOperationName);
-        rowPercentage = rowPercentage*100;
-        //add percentage to the current row
-        currRow.add(df.format(rowPercentage));
-        // add the row to the work sheet
-        worksheetReport.add(currRow);
+        // write the elements of the current row
+        theWorksheetWriter.writeCell(currClassKey);
+        theWorksheetWriter.writeCell(currOperation.getKey());
+        theWorksheetWriter.writeCell(operationLines);
+        theWorksheetWriter.writeCell(operationLogicalLines);
+        //the percentage of commented lines to Logical LOC in the operation
+        theWorksheetWriter.writeCell(df.format((double) operationLines
+            / operationLogicalLines * 100));
+        theWorksheetWriter.endRow();
 
       }
 
-      // reset the current row
-      currRow = new ArrayList<String>();
-
     }
 
     // add a blank row
-    worksheetReport.add(new ArrayList<String>());
+    theWorksheetWriter.endRow();
 
     // Iterate of the entire set of operations.
     for (String currClassKey : classKeySet)
     {
 
-      // add the class name, a empty cell and the class count to the output
-      currRow.add(currClassKey);
-      currRow.add("");
-      currRow.add(this.classCommentLinesMap.get(currClassKey).toString());
-      currRow.add(this.classLogicalLinesMap.get(currClassKey).toString());
-      
-      //calculate the percentage of commented lines to Logical LOC in the class
-      Double rowPercentage = (double)this.classCommentLinesMap.get(currClassKey)/this.classLogicalLinesMap.get(currClassKey);
-      rowPercentage = rowPercentage*100;
-      //add percentage to the current row
-      currRow.add(df.format(rowPercentage));
-      
-      
-      // add the row to the work sheet
-      worksheetReport.add(currRow);
+      int classLines = this.classCommentLinesMap.get(currClassKey);
+      int classLogicalLines = this.classLogicalLinesMap.get(currClassKey);
 
-      // reset the current row
-      currRow = new ArrayList<String>();
+      // add the class name, a empty cell and the class count to the output
+      theWorksheetWriter.writeCell(currClassKey);
+      theWorksheetWriter.writeCell("");
+      theWorksheetWriter.writeCell(classLines);
+      theWorksheetWriter.writeCell(classLogicalLines);
+      //the percentage of commented lines to Logical LOC in the class
+      theWorksheetWriter.writeCell(df.format((double) classLines
+          / classLogicalLines * 100));
+      theWorksheetWriter.endRow();
 
     }
 
     // add a blank row
-    worksheetReport.add(new ArrayList<String>());
+    theWorksheetWriter.endRow();
 
     // add the program total to the work sheet
-    currRow.add("Program Total");
-    currRow.add("");
-    currRow.add(this.commentLines + "");
-    currRow.add(this.programLogicalLOC + "");
-    
-    double programPercentage = (double)this.commentLines/this.programLogicalLOC*100;
-    currRow.add(df.format(programPercentage));
-    worksheetReport.add(currRow);
-
-    return worksheetReport;
+    theWorksheetWriter.writeCell("Program Total");
+    theWorksheetWriter.writeCell("");
+    theWorksheetWriter.writeCell(this.commentLines);
+    theWorksheetWriter.writeCell(this.programLogicalLOC);
+    theWorksheetWriter.writeCell(df.format((double) this.commentLines
+        / this.programLogicalLOC * 100));
+    theWorksheetWriter.endRow();
 
   }
 
@@ -0,0 +1,82 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import edu.monmouth.se.oopap.enumerator.TokenCountType;
+
+/**
+ * This class is responsible for counting the decisions and loops of each
+ * operation and class of a program, as well as a total count. A decision is
+ * an if, a case or a conditional operator; a loop is a for, a while or a do,
+ * the while closing a do being part of its loop.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class DecisionAndLoopCountSourceAnalyzer extends
+    TokenMetricsSourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The headings of the counts reported.
+   */
+  private static final String[] COUNT_HEADINGS = { "Decision Count",
+      "Loop Count" };
+
+  /**
+   * Method used to retrieve the heading of each count reported.
+   * 
+   * @return the headings of the counts
+   */
+  protected String[] getCountHeadings()
+  {
+
+    return COUNT_HEADINGS;
+
+  }
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected String getReportTitle()
+  {
+
+    return "Decision and Loop Count";
+
+  }
+
+  /**
+   * Method responsible for adding the decisions and loops of each operation
+   * of a file and of the file as a whole.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theTokenMetrics
+   *          The counts taken from the tokens of the file
+   */
+  protected void analyzeTokenMetrics(String theSourceFileName,
+      TokenMetrics theTokenMetrics)
+  {
+
+    for (int i = 0; i < theTokenMetrics.getOperationCount(); i++)
+    {
+
+      this.addOperationCounts(theSourceFileName, theTokenMetrics
+          .getOperationName(i), theTokenMetrics.getOperationCount(
+          TokenCountType.Decision, i), theTokenMetrics.getOperationCount(
+          TokenCountType.Loop, i));
+
+    }
+
+    this.addClassCounts(theSourceFileName, theTokenMetrics
+        .getFileCount(TokenCountType.Decision), theTokenMetrics
+        .getFileCount(TokenCountType.Loop));
+
+  }
+
+}
@@ -0,0 +1,82 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+/**
+ * This class finds the number of global variables of each class of a
+ * program. Java has no global variables as such; a static field, which is
+ * shared by the whole program rather than held by an object, is counted as
+ * one. Each variable of a declaration declaring several is counted, and the
+ * static fields of nested classes are counted with the class holding them.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class GlobalVarCountSourceAnalyzer extends TokenMetricsSourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The headings of the counts reported.
+   */
+  private static final String[] COUNT_HEADINGS =
+      { "Number of Global Variables" };
+
+  /**
+   * Method used to retrieve the heading of each count reported.
+   * 
+   * @return the headings of the counts
+   */
+  protected String[] getCountHeadings()
+  {
+
+    return COUNT_HEADINGS;
+
+  }
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected String getReportTitle()
+  {
+
+    return "Number of Global Variables";
+
+  }
+
+  /**
+   * Method used to determine whether the report lists the counts of each
+   * operation. A variable declared by an operation is never global, so it
+   * does not.
+   * 
+   * @return false
+   */
+  protected boolean isOperationReport()
+  {
+
+    return false;
+
+  }
+
+  /**
+   * Method responsible for adding the static fields of a file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theTokenMetrics
+   *          The counts taken from the tokens of the file
+   */
+  protected void analyzeTokenMetrics(String theSourceFileName,
+      TokenMetrics theTokenMetrics)
+  {
+
+    this.addClassCounts(theSourceFileName, theTokenMetrics
+        .getStaticFieldCount());
+
+  }
+
+}
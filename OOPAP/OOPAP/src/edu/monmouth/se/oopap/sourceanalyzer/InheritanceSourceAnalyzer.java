@@ -0,0 +1,228 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import edu.monmouth.se.oopap.ClassHierarchy;
+import edu.monmouth.se.oopap.enumerator.LineType;
+
+/**
+ * Abstract representation of an analyzer whose results are calculated from
+ * the inheritance hierarchy of the classes analyzed. The hierarchy is
+ * complete only once every file has been analyzed, so the results are
+ * calculated by endAnalysis.
+ * 
+ * Run on its own, the analyzer builds the hierarchy itself. When run by a
+ * SourceAnalysisEngine, the hierarchy is built once by the engine and shared
+ * by every inheritance analyzer it runs, which then ignore the lines they are
+ * given.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public abstract class InheritanceSourceAnalyzer extends SourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The analyzer building the hierarchy read by this analyzer. A shared
+   * hierarchy is not part of the result of this analyzer, so it is only
+   * written when it is not shared.
+   */
+  private transient ClassHierarchySourceAnalyzer hierarchyAnalyzer;
+
+  /**
+   * Whether the hierarchy is built by another, in which case this analyzer
+   * leaves it alone.
+   */
+  private boolean sharedHierarchy;
+
+  /**
+   * Primary constructor. The analyzer builds its own hierarchy.
+   */
+  public InheritanceSourceAnalyzer()
+  {
+
+    this.hierarchyAnalyzer = new ClassHierarchySourceAnalyzer();
+    this.sharedHierarchy = false;
+
+  }
+
+  /**
+   * Method used to have the analyzer read the hierarchy built by another
+   * analyzer rather than build its own. The hierarchy must be complete before
+   * endAnalysis is called on this analyzer.
+   * 
+   * @param theHierarchyAnalyzer
+   *          The analyzer building the hierarchy
+   */
+  void shareClassHierarchy(ClassHierarchySourceAnalyzer theHierarchyAnalyzer)
+  {
+
+    this.hierarchyAnalyzer = theHierarchyAnalyzer;
+    this.sharedHierarchy = true;
+
+  }
+
+  /**
+   * Method used to retrieve the hierarchy of the classes analyzed.
+   * 
+   * @return the class hierarchy
+   */
+  public ClassHierarchy getClassHierarchy()
+  {
+
+    return this.hierarchyAnalyzer.getClassHierarchy();
+
+  }
+
+  /**
+   * Method responsible for beginning a new analysis. Resets the hierarchy,
+   * unless it is shared. Subclasses resetting their own results must call
+   * this method.
+   */
+  public void beginAnalysis()
+  {
+
+    if (!sharedHierarchy)
+    {
+
+      hierarchyAnalyzer.beginAnalysis();
+
+    }
+
+  }
+
+  /**
+   * Method responsible for beginning the analysis of a single file. Nothing
+   * is tracked on a per file basis.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
+
+  }
+
+  /**
+   * Method responsible for analyzing a single line of the current file. Every
+   * class declaration is added to the hierarchy, unless it is shared.
+   * 
+   * @param theLine
+   *          The current line of the file
+   * @param theLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String theLine, LineType theLineType)
+  {
+
+    if (!sharedHierarchy)
+    {
+
+      hierarchyAnalyzer.analyzeLine(theLine, theLineType);
+
+    }
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   * Nothing is tracked on a per file basis.
+   */
+  public void endFile()
+  {
+
+  }
+
+  /**
+   * Method responsible for creating a new analyzer of the same type as this
+   * analyzer. The new analyzer shares the hierarchy of this analyzer when it
+   * is shared, so that files are not analyzed for a hierarchy that is never
+   * merged.
+   * 
+   * @return the new analyzer
+   */
+  public SourceAnalyzer newPartialAnalyzer()
+  {
+
+    InheritanceSourceAnalyzer partialAnalyzer =
+        (InheritanceSourceAnalyzer) super.newPartialAnalyzer();
+
+    if (sharedHierarchy)
+    {
+
+      partialAnalyzer.shareClassHierarchy(hierarchyAnalyzer);
+
+    }
+
+    return partialAnalyzer;
+
+  }
+
+  /**
+   * Method used to write the analyzer, along with its hierarchy unless the
+   * hierarchy is shared.
+   * 
+   * @param theOut
+   *          The stream the analyzer is written to
+   * @throws IOException
+   *           If the analyzer can not be written.
+   */
+  private void writeObject(ObjectOutputStream theOut) throws IOException
+  {
+
+    theOut.defaultWriteObject();
+    theOut.writeObject(sharedHierarchy ? null : hierarchyAnalyzer);
+
+  }
+
+  /**
+   * Method used to read the analyzer, along with its hierarchy unless the
+   * hierarchy was shared.
+   * 
+   * @param theIn
+   *          The stream the analyzer is read from
+   * @throws IOException
+   *           If the analyzer can not be read.
+   * @throws ClassNotFoundException
+   *           If a class of the analyzer can not be found.
+   */
+  private void readObject(ObjectInputStream theIn) throws IOException,
+      ClassNotFoundException
+  {
+
+    theIn.defaultReadObject();
+    hierarchyAnalyzer = (ClassHierarchySourceAnalyzer) theIn.readObject();
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The class declarations of the file are added to the
+   * hierarchy, unless it is shared.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    if (!sharedHierarchy)
+    {
+
+      InheritanceSourceAnalyzer partialResult =
+          (InheritanceSourceAnalyzer) thePartialResult;
+
+      hierarchyAnalyzer.mergePartialResult(partialResult.hierarchyAnalyzer);
+
+    }
+
+  }
+
+}
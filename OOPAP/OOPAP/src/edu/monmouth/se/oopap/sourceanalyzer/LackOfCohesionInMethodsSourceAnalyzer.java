@@ -1,14 +1,17 @@
 package edu.monmouth.se.oopap.sourceanalyzer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import edu.monmouth.se.oopap.enumerator.LineType;
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.MultiStringMatcher;
 
 /**
 
@@ -18,6 +21,11 @@ import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
  * methods in a class that don't have at least one field in common minus 
  * the number of pairs of methods in the class that do share at least one 
  * field. When this value is negative, the metric value is set to 0.
+ * 
+ * The fields of a class are found in the lines of its methods by a single
+ * MultiStringMatcher scan per line, and the methods using each field are
+ * kept as a bit set so that the pairs of methods sharing fields are counted
+ * a word of methods at a time.
  * @author Jaidev Kochunni (with some source code from 
  * LineCountSourceAnalyzer by Andrew Tasso
  * @version %I% %G%
@@ -25,10 +33,133 @@ import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 public class LackOfCohesionInMethodsSourceAnalyzer extends SourceAnalyzer
 {
 
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
   private Map<String, Map<String, Integer>> classOperationLinesMap;
   private Map<String, Integer> classLinesMap;
   private Map<String, Integer> classLCOMValMap;
   
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * Integer to hold the current physical LOC for the current class.
+   */
+  private int currClassLines;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<Integer> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current physical LOC for the current operation.
+   */
+  private int currOperationLines;
+
+  /**
+   * Map to hold the operation to line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
+  /**
+   * Matcher holding the fields declared by the current class. The index of
+   * each field is the order it was first declared in.
+   */
+  private transient MultiStringMatcher fieldMatcher;
+
+  /**
+   * Map to hold the field to operations using the field association. The
+   * operations are held as a set of operation indexes.
+   */
+  private transient Map<String, BitSet> fieldsToMethodsMap;
+
+  /**
+   * Map to hold the operation to operation index association, for the
+   * operations using any field of the current class.
+   */
+  private transient Map<String, Integer> methodIndexMap;
+
+  /**
+   * Set of the operations of the current class sharing a field with another
+   * operation, or null if the class has no fields. It is kept with the
+   * partial result of a file so that the LCOM value may be found again when
+   * the file ends its operations at other braces once merged.
+   */
+  private Set<String> sharingOperationSet;
+
+  /**
+   * The number of pairs of operations of the current class sharing a field.
+   */
+  private int sharingPairCount;
+
+  /**
+   * Set of the fields already found in the current line.
+   */
+  private transient BitSet lineFieldSet;
+
+  /**
+   * The fields used by the current line, in the order found.
+   */
+  private transient int[] lineFields;
+
+  /**
+   * The number of fields used by the current line.
+   */
+  private transient int lineFieldCount;
+
+  /**
+   * Listener adding the fields found in the current line to lineFields.
+   */
+  private transient MultiStringMatcher.MatchListener fieldListener =
+      new MultiStringMatcher.MatchListener()
+      {
+
+        public void patternFound(int thePattern, int theStart, int theEnd)
+        {
+
+          // only the first occurrence of a field counts, and only if it does
+          // not begin the line
+          if (!lineFieldSet.get(thePattern))
+          {
+
+            lineFieldSet.set(thePattern);
+
+            if (theStart > 0)
+            {
+
+              if (lineFieldCount == lineFields.length)
+              {
+
+                int[] newLineFields = new int[lineFieldCount * 2];
+
+                System.arraycopy(lineFields, 0, newLineFields, 0,
+                    lineFieldCount);
+                lineFields = newLineFields;
+
+              }
+
+              lineFields[lineFieldCount++] = thePattern;
+
+            }
+
+          }
+
+        }
+
+      };
+
   /**
    * Default constructor which calls the init method called resetAnalysis. 
    */
@@ -49,192 +180,227 @@ public class LackOfCohesionInMethodsSourceAnalyzer extends SourceAnalyzer
   }
   
   /**
-   * Analyzes the source going line by line.  When finding the first method declaration,
-   * in our coding standards, that being a constructor, we have found all the class fields and
-   * stored them in a list.  Also during the normal count of operations of the class, we also
-   * check if the class fields that we have stored exists in the lines of the current operation
-   * that we are counting.
-   * -- Finally with the map of fields to operations, get the LCOM value.
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
 
     //reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the current physical LOC for the current class
-    int currClassLines = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    for (String currSourceFileName : sourceKeySet)
-    {
+    this.currClassLines = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<Integer>();
 
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
-
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current physical LOC for the current operation
-      int currOperationLines = 0;
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the ClassLOC
-      currClassLines = 0;
-      // Map to hold the operation to line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
-      Map<String, List<String>> operationToLinesMap = new HashMap<String, List<String>>();
-      
-      List<String>  fieldsInClassList =  new ArrayList<String> ();
-      List<String>  linesInMethodList  =  new ArrayList<String> ();
-      
-      Map<String, List<String>> fieldsToMethodsMap  = new HashMap <String, List<String>>();
-      
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
+  }
 
-      for (int i = 0; i < currFileContents.size(); i++)
-      {
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
 
-        // get the current line
-        currLine = currFileContents.get(i);
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current physical LOC for the current operation
+    this.currOperationLines = 0;
+    // Reset the ClassLOC
+    currClassLines = 0;
+    // Map to hold the operation to line count association
+    this.operationCountMap = new HashMap<String, Integer>();
+    this.fieldMatcher = new MultiStringMatcher();
+    this.fieldsToMethodsMap = new HashMap <String, BitSet>();
+    this.methodIndexMap = new HashMap<String, Integer>();
+    this.lineFieldSet = new BitSet();
+    this.lineFields = new int[8];
 
-        // determine the current line type
-        currLineType = LineAnalyzer.getLineType(currLine);
+  }
 
-        // Check the current line type. With this analysis we are concerned with
-        // class declarations so the name may be retrieved, method declarations
-        // for the purpose of resetting the LOC count by operation and getting
-        // the name
-        switch (currLineType)
+  /**
+   * Method responsible for analyzing a single line of the current file.
+   * When finding the first method declaration, in our coding standards, that
+   * being a constructor, we have found all the class fields and stored them
+   * in a list. Also during the normal count of operations of the class, we
+   * also check if the class fields that we have stored exists in the lines of
+   * the current operation that we are counting.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
+
+    // Check the current line type. With this analysis we are concerned with
+    // class declarations so the name may be retrieved, method declarations
+    // for the purpose of resetting the LOC count by operation and getting
+    // the name
+    switch (currLineType)
+    {
+
+      case SingleLineLogical:
+      {
+        
+        if (currOperationName.length() == 0)
         {
+          // This must be an instance variable declaration since we have
+          // not hit the constructor yet.
+          String fieldName = LineAnalyzer.getInstanceVariableName (currLine);
+          fieldMatcher.addPattern(fieldName);
+          
+        }
+        else
+        {
+          // Find every field this line contains in a single scan
+          lineFieldSet.clear();
+          lineFieldCount = 0;
+          fieldMatcher.findAll(currLine, fieldListener);
+
+          // Add the fields to the map in the order they were declared
+          Arrays.sort(lineFields, 0, lineFieldCount);
 
-          case SingleLineLogical:
+          for (int fieldsIndex = 0; fieldsIndex < lineFieldCount; fieldsIndex ++)
           {
+            String fieldName = fieldMatcher.getPattern(lineFields[fieldsIndex]);
+            BitSet opIndexSet = fieldsToMethodsMap.get(fieldName);
             
-            if (currOperationName.length() == 0)
+            if (null == opIndexSet)
             {
-              // This must be an instance variable declaration since we have
-              // not hit the constructor yet.
-              String fieldName = LineAnalyzer.getInstanceVariableName (currLine);
-              fieldsInClassList.add(fieldName);
-              
-            }
-            else
-            {
-              linesInMethodList.add(currLine);
-              
-              // Check if this line contains any of the fields, if so add it to the map.
-              for (int fieldsIndex = 0; fieldsIndex < fieldsInClassList.size(); fieldsIndex ++)
-              {
-                String fieldName = fieldsInClassList.get(fieldsIndex);
-                
-                if (currLine.indexOf(fieldName) > 0)
-                {
-                  List<String> opNamesList  = (ArrayList<String>) fieldsToMethodsMap.get(fieldName);
-                  if (null == opNamesList)
-                  {
-                    opNamesList = new ArrayList<String>();
-                  }
-                  
-                  if (!opNamesList.contains(currOperationName))
-                  {
-                    opNamesList.add(currOperationName);                    
-                  }
-                  
-                  fieldsToMethodsMap.put(fieldName, opNamesList);
-                }
-              }
+              opIndexSet = new BitSet();
+              fieldsToMethodsMap.put(fieldName, opIndexSet);
             }
             
+            opIndexSet.set(this.getMethodIndex(currOperationName));
           }
-          break;
+        }
         
-          case MethodDeclaration:
-          {
-            // get the name of the method being declared
-            currOperationName = LineAnalyzer.getOperationName(currLine);
-  
-            // reset the LOC for the operation
-            currOperationLines = 1;
-            linesInMethodList.clear();
-          }
-          break;
+      }
+      break;
+    
+      case MethodDeclaration:
+      {
+        // get the name of the method being declared
+        currOperationName = LineAnalyzer.getOperationName(currLine);
 
-          case OpeningBrace:
-          {
-            // only add a brace to the stack if we have encountered an operation
-            // declaration. If the current operation name is "" it means that
-            // it has not been set since no operations have been encountered yet
-            if (!currOperationName.equals(""))
-            {
-  
-              braceStack.push(currLineType);
-              
-  
-            }
-          }
-          break;
+        // reset the LOC for the operation
+        currOperationLines = 1;
+      }
+      break;
 
-          case ClosingBrace:
-          {
-            // pop the opening brace from the stack only if there are items
-            // left on the stack. This is to ensure that no exception is thrown
-            // when the last brace in a class is encountered.
-            if (!braceStack.empty())
-            {
-  
-              //pop the previous brace from the stack
-              braceStack.pop();
-  
-              // check to see if the stack is now empty. If it is the end of
-              // the operation has been encountered. Add the operation and
-              // count to the map.
-              if (braceStack.empty())
-              {
-  
-                operationCountMap.put(currOperationName, currOperationLines);
-                
-                operationToLinesMap.put(currOperationName, linesInMethodList);
-                linesInMethodList.clear();
-  
-              }
-  
-            }
-          }
-          break;
+      case OpeningBrace:
+      {
+        // only count a brace if we have encountered an operation
+        // declaration. If the current operation name is "" it means that
+        // it has not been set since no operations have been encountered yet
+        if (!currOperationName.equals(""))
+        {
+
+          braceDepth.open();
+          
 
         }
+      }
+      break;
 
-        currClassLines++;
-        currOperationLines++;
+      case ClosingBrace:
+      {
+        // count the closing brace. When the depth is back to 0 the end of the
+        // operation has been encountered. Add the operation and count to the
+        // map.
+        if (braceDepth.close(currOperationName, currOperationLines))
+        {
 
+          operationCountMap.put(currOperationName, currOperationLines);
+
+        }
       }
+      break;
 
-      
-      // add the map of operation to line count association to the class to
-      // line count association map
-      classOperationLinesMap.put(currSourceFileName, operationCountMap);
-      classLinesMap.put(currSourceFileName, currClassLines);
-
-      Integer lcomVal = 0;
-      //
-      // If there are no fields for the class, then no need to calculat the LCOM stats,
-      // just set the value to 0 in the map.
-      //
-      if (fieldsToMethodsMap.size() > 0)
+    }
+
+    currClassLines++;
+    currOperationLines++;
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
+
+    
+    // add the map of operation to line count association to the class to
+    // line count association map
+    classOperationLinesMap.put(currSourceFileName, operationCountMap);
+    classLinesMap.put(currSourceFileName, currClassLines);
+
+    Integer lcomVal = 0;
+    //
+    // If there are no fields for the class, then no need to calculat the LCOM stats,
+    // just set the value to 0 in the map.
+    //
+    sharingOperationSet = null;
+    
+    if (fieldsToMethodsMap.size() > 0)
+    {
+      findSharingOperations (fieldsToMethodsMap);
+      lcomVal = getLCOMStat (operationCountMap);
+    }
+    
+    classLCOMValMap.put (currSourceFileName, lcomVal);
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into the
+   * analysis. The counts of the file are added to the maps. The depth of the
+   * braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    LackOfCohesionInMethodsSourceAnalyzer partialResult =
+        (LackOfCohesionInMethodsSourceAnalyzer) thePartialResult;
+
+    mergeMap(this.classOperationLinesMap, partialResult.classOperationLinesMap);
+    mergeMap(this.classLinesMap, partialResult.classLinesMap);
+    mergeMap(this.classLCOMValMap, partialResult.classLCOMValMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces
+    if (this.braceDepth.getDepth() > 0)
+    {
+
+      Map<String, Integer> operationMap = partialResult.braceDepth
+          .getOperationMap(this.braceDepth.getDepth());
+
+      this.classOperationLinesMap.put(partialResult.currSourceFileName,
+          operationMap);
+
+      if (partialResult.sharingOperationSet != null)
       {
-        lcomVal = getLCOMStat (currSourceFileName, fieldsToMethodsMap);
+
+        this.classLCOMValMap.put(partialResult.currSourceFileName,
+            partialResult.getLCOMStat(operationMap));
+
       }
-      
-      classLCOMValMap.put (currSourceFileName, lcomVal);
-      
+
     }
+
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
@@ -319,10 +485,37 @@ public class LackOfCohesionInMethodsSourceAnalyzer extends SourceAnalyzer
   }
  
 
-  private Integer getLCOMStat (String currSourceFile, Map<String, List<String>> fieldsToMethodsMap)
+  /**
+   * Method used to retrieve the index of an operation using a field of the
+   * current class, giving the operation the next index if it has none.
+   * 
+   * @param theOperationName
+   *          The name of the operation
+   * @return the index of the operation
+   */
+  private int getMethodIndex(String theOperationName)
   {
-    int lcomVal = 0;
+    Integer methodIndex = methodIndexMap.get(theOperationName);
+    
+    if (null == methodIndex)
+    {
+      methodIndex = methodIndexMap.size();
+      methodIndexMap.put(theOperationName, methodIndex);
+    }
     
+    return methodIndex;
+  }
+
+  /**
+   * Method used to find the operations of the current class sharing a field
+   * with another operation, and the number of pairs of operations sharing a
+   * field.
+   * 
+   * @param fieldsToMethodsMap
+   *          The operations using each field of the class
+   */
+  private void findSharingOperations (Map<String, BitSet> fieldsToMethodsMap)
+  {
     int numPairsSharing = 0;
    
     //
@@ -330,44 +523,75 @@ public class LackOfCohesionInMethodsSourceAnalyzer extends SourceAnalyzer
     //
     Set<String> fieldKeySet = fieldsToMethodsMap.keySet();
 
-    List<String> currMethodsList = new ArrayList <String>();
+    BitSet currMethodsSet = new BitSet();
     
     for (String currField : fieldKeySet)
     {
-      List<String>  methodsSharingThisFieldList = fieldsToMethodsMap.get(currField);
+      BitSet methodsSharingThisFieldSet = fieldsToMethodsMap.get(currField);
+      
+      methodsSharingThisFieldSet.andNot(currMethodsSet);
       
-      methodsSharingThisFieldList.removeAll(currMethodsList);
+      int numMethodsSharing = methodsSharingThisFieldSet.cardinality();
       
-      if ( (null != methodsSharingThisFieldList) && (methodsSharingThisFieldList.size() > 0) )
+      if (numMethodsSharing > 0)
       {
         //
         // This calculation is for getting the 'number of pairs' that share this field.
         // -- It's done via the 'combination' formula described in the following site:
         // http://www.themathpage.com/aPreCalc/permutations-combinations-2.htm
         // -- In this case, it's "number of ways to take 2 things from" the num of elements
-        // in the list.
+        // in the set.
         //
         
-        numPairsSharing += (methodsSharingThisFieldList.size() * (methodsSharingThisFieldList.size()-1) ) / 2;   
+        numPairsSharing += (numMethodsSharing * (numMethodsSharing-1) ) / 2;   
       
         if (numPairsSharing > 0)
         {
-          currMethodsList.addAll(methodsSharingThisFieldList);
+          currMethodsSet.or(methodsSharingThisFieldSet);
         }
       }
     }
     
-    Map<String, Integer> opsToLineMap = classOperationLinesMap.get(currSourceFile);
+    sharingPairCount = numPairsSharing;
+    sharingOperationSet = new HashSet<String>();
     
-    Set<String> operationsSet = opsToLineMap.keySet();
+    for (Map.Entry<String, Integer> currMethod : methodIndexMap.entrySet())
+    {
+      if (currMethodsSet.get(currMethod.getValue()))
+      {
+        sharingOperationSet.add(currMethod.getKey());
+      }
+    }
+  }
+
+  /**
+   * Method used to find the LCOM value of the current class from the
+   * operations it ends.
+   * 
+   * @param opsToLineMap
+   *          The line count of each operation of the class
+   * @return the LCOM value
+   */
+  private Integer getLCOMStat (Map<String, Integer> opsToLineMap)
+  {
+    int lcomVal = 0;
+    
+    // count the operations not already counted as sharing a field
+    int numOperations = 0;
     
-    operationsSet.removeAll(currMethodsList);
+    for (String currOperation : opsToLineMap.keySet())
+    {
+      if (!sharingOperationSet.contains(currOperation))
+      {
+        numOperations++;
+      }
+    }
     
     // According to the definition: 
     // LCOM is the number of pairs of methods in a class that don't have at least one field 
     // in common minus the number of pairs of methods in the class that do share at least 
     // one field. When this value is negative, the metric value is set to 0.
-    lcomVal = ((operationsSet.size() * (operationsSet.size()-1)) / 2) - numPairsSharing;
+    lcomVal = ((numOperations * (numOperations-1)) / 2) - sharingPairCount;
     
     if (lcomVal < 0)
     {
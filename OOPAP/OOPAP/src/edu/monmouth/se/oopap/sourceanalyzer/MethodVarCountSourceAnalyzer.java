@@ -5,15 +5,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import edu.monmouth.se.oopap.enumerator.LineType;
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 
 /**
- *
+ * 
  * This class finds the number of variables in all the methods.
- *
+ * 
  * @author Jaidev Kochunni (with some source code from 
  * LineCountSourceAnalyzer by Andrew Tasso
  * @version %I% %G%
@@ -21,9 +20,68 @@ import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 public class MethodVarCountSourceAnalyzer extends SourceAnalyzer
 {
 
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
   private Map<String, Map<String, Integer>> classOperationLinesMap;
   private Map<String, Integer> classLinesMap;
   
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * Integer to hold the current physical LOC for the current class.
+   */
+  private int currClassLines;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<int[]> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current physical LOC for the current operation.
+   */
+  private int currOperationLines;
+
+  /**
+   * Integer to hold the number of variables in the current operation.
+   */
+  private int currVariableCount;
+
+  /**
+   * Integer to hold the number of variables since the current operation was
+   * declared or since the last closing brace kept by the brace depth,
+   * whichever is later.
+   */
+  private int keptVariableCount;
+
+  /**
+   * Whether an operation has been declared since the last closing brace kept
+   * by the brace depth.
+   */
+  private boolean keptOperationDeclared;
+
+  /**
+   * Map to hold the operation to line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
+  /**
+   * Map to hold the operation to variable count association.
+   */
+  private Map<String, Integer> operationToVariablesMap;
+
   /**
    * Default constructor which calls the init method called resetAnalysis. 
    */
@@ -43,154 +101,218 @@ public class MethodVarCountSourceAnalyzer extends SourceAnalyzer
   }
   
   /**
-   * Analyzes the source going line by line.  
-   * For each method LOC we find, check if that line is a variable declaration by calling
-   * the appropriate LinAnalyzer method.  If so, increment the count of the variables for this method.
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
 
     //reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the current physical LOC for the current class
-    int currClassLines = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    for (String currSourceFileName : sourceKeySet)
-    {
+    this.currClassLines = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<int[]>();
 
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
+  }
 
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current physical LOC for the current operation
-      int currOperationLines = 0;
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
 
-	  // integer to hold the number of variables in the current operation.
-      int currVariableCount = 0;
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current physical LOC for the current operation
+    this.currOperationLines = 0;
+    // integer to hold the number of variables in the current operation.
+    this.currVariableCount = 0;
+    this.keptVariableCount = 0;
+    this.keptOperationDeclared = false;
+    // Reset the ClassLOC
+    currClassLines = 0;
+    // Map to hold the operation to line count association
+    this.operationCountMap = new HashMap<String, Integer>();
+    this.operationToVariablesMap = new HashMap<String, Integer>();
 
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the ClassLOC
-      currClassLines = 0;
-	  
-      // Map to hold the operation to line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
+  }
 
-      Map<String, Integer> operationToVariablesMap = new HashMap<String, Integer>();
-      
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
+  /**
+   * Method responsible for analyzing a single line of the current file,
+   * incrementing the proper counter when appropriate.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
 
-      for (int i = 0; i < currFileContents.size(); i++)
+    // Check the current line type. With this analysis we are concerned with
+    // class declarations so the name may be retrieved, method declarations
+    // for the purpose of resetting the LOC count by operation and getting
+    // the name
+    switch (currLineType)
+    {
+
+      case SingleLineLogical:
       {
+        
+        //  If we're in a method, then check if this line is actually a variable declaration.
+        if (currOperationName.length() != 0)
+        {
+          if (LineAnalyzer.isVariableDeclaration(currLine))
+          {
+            currVariableCount ++;
+            keptVariableCount++;
+          }
+        }
+        
+      }
+      break;
+    
+      case MethodDeclaration:
+      {
+        // get the name of the method being declared
+        currOperationName = LineAnalyzer.getOperationName(currLine);
+
+        // reset the LOC for the operation
+        currOperationLines = 1;
+        currVariableCount = 0;
+        keptVariableCount = 0;
+        keptOperationDeclared = true;
+      }
+      break;
 
-        // get the current line
-        currLine = currFileContents.get(i);
+      case OpeningBrace:
+      {
+        // only count a brace if we have encountered an operation
+        // declaration. If the current operation name is "" it means that
+        // it has not been set since no operations have been encountered yet
+        if (!currOperationName.equals(""))
+        {
 
-        // determine the current line type
-        currLineType = LineAnalyzer.getLineType(currLine);
+          braceDepth.open();
+          
 
-        // Check the current line type. With this analysis we are concerned with
-        // class declarations so the name may be retrieved, method declarations
-        // for the purpose of resetting the LOC count by operation and getting
-        // the name
-        switch (currLineType)
+        }
+      }
+      break;
+
+      case ClosingBrace:
+      {
+        // count the closing brace. When the depth is back to 0 the end of the
+        // operation has been encountered. Add the operation and count to the
+        // map.
+        if (braceDepth.close(currOperationName, new int[] {
+            keptVariableCount, keptOperationDeclared ? 1 : 0 }))
         {
 
-          case SingleLineLogical:
-          {
-            
-            //  If we're in a method, then check if this line is actually a variable declaration.
-            if (currOperationName.length() != 0)
-            {
-              if (LineAnalyzer.isVariableDeclaration(currLine))
-              {
-                currVariableCount ++;
-              }
-            }
-            
-          }
-          break;
-        
-          case MethodDeclaration:
-          {
-            // get the name of the method being declared
-            currOperationName = LineAnalyzer.getOperationName(currLine);
-  
-            // reset the LOC for the operation
-            currOperationLines = 1;
-            currVariableCount = 0;
-          }
-          break;
+          operationCountMap.put(currOperationName, currOperationLines);
+          operationToVariablesMap.put(currOperationName, currVariableCount);
+          currVariableCount = 0;
 
-          case OpeningBrace:
-          {
-            // only add a brace to the stack if we have encountered an operation
-            // declaration. If the current operation name is "" it means that
-            // it has not been set since no operations have been encountered yet
-            if (!currOperationName.equals(""))
-            {
-  
-              braceStack.push(currLineType);
-              
-  
-            }
-          }
-          break;
+        }
 
-          case ClosingBrace:
-          {
-            // pop the opening brace from the stack only if there are items
-            // left on the stack. This is to ensure that no exception is thrown
-            // when the last brace in a class is encountered.
-            if (!braceStack.empty())
-            {
-  
-              //pop the previous brace from the stack
-              braceStack.pop();
-  
-              // check to see if the stack is now empty. If it is the end of
-              // the operation has been encountered. Add the operation and
-              // count to the map.
-              if (braceStack.empty())
-              {
-  
-                operationCountMap.put(currOperationName, currOperationLines);
-                
-                operationToVariablesMap.put(currOperationName, currVariableCount);
-                currVariableCount = 0;
-  
-              }
-  
-            }
-          }
-          break;
+        // the variables of the next closing brace kept are counted from this
+        // brace on, as it may end the operation when the file is merged
+        if (braceDepth.isLastBraceKept())
+        {
+
+          keptVariableCount = 0;
+          keptOperationDeclared = false;
 
         }
+      }
+      break;
 
-        currClassLines++;
-        currOperationLines++;
+    }
+
+    currClassLines++;
+    currOperationLines++;
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
+
+    
+    // add the map of operation to line count association to the class to
+    // line count association map
+    //classOperationLinesMap.put(currSourceFileName, operationCountMap);
+    classOperationLinesMap.put(currSourceFileName, operationToVariablesMap);
+    classLinesMap.put(currSourceFileName, currClassLines);
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The counts of the file are added to the maps. The depth of
+   * the braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    MethodVarCountSourceAnalyzer partialResult =
+        (MethodVarCountSourceAnalyzer) thePartialResult;
+
+    mergeMap(this.classOperationLinesMap, partialResult.classOperationLinesMap);
+    mergeMap(this.classLinesMap, partialResult.classLinesMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces, and so counts their variables
+    // from other braces
+    if (this.braceDepth.getDepth() > 0)
+    {
+
+      Map<String, Integer> operationMap = new HashMap<String, Integer>();
+      int variableCount = 0;
+
+      for (BraceDepth.ClosingBrace<int[]> currBrace : partialResult.braceDepth
+          .getClosingBraces())
+      {
+
+        // the count restarts at the declaration of an operation
+        if (currBrace.getCounts()[1] == 1)
+        {
+
+          variableCount = 0;
+
+        }
+
+        variableCount += currBrace.getCounts()[0];
+
+        if (currBrace.endsOperation(this.braceDepth.getDepth()))
+        {
+
+          operationMap.put(currBrace.getOperationName(), variableCount);
+          variableCount = 0;
+
+        }
 
       }
 
-      
-      // add the map of operation to line count association to the class to
-      // line count association map
-      //classOperationLinesMap.put(currSourceFileName, operationCountMap);
-      classOperationLinesMap.put(currSourceFileName, operationToVariablesMap);
-      classLinesMap.put(currSourceFileName, currClassLines);
+      this.classOperationLinesMap.put(partialResult.currSourceFileName,
+          operationMap);
 
-     
     }
+
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 import edu.monmouth.se.oopap.enumerator.LineType;
@@ -20,6 +19,11 @@ import edu.monmouth.se.oopap.enumerator.LineType;
  */
 public class PSPPhysicalLOCSourceAnalyzer extends SourceAnalyzer
 {
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
   //stores logical LOC for a given program
   private int numProgramPhysicalLOC=0;
   //stores class to operation association
@@ -27,6 +31,37 @@ public class PSPPhysicalLOCSourceAnalyzer extends SourceAnalyzer
   //stores operation to line count association
   private Map<String, Integer> classLinesMap;
   
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * Integer to hold the current physical LOC for the current class.
+   */
+  private int currClassLines;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<Integer> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current physical LOC for the current operation.
+   */
+  private int currOperationLines;
+
+  /**
+   * Map to hold the operation to line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
   /**
    * default constructor. Runs the resetAnalysis operation to initialize the object 
    */
@@ -47,144 +82,179 @@ public class PSPPhysicalLOCSourceAnalyzer extends SourceAnalyzer
   }  
   
   /**
-   * analyzes a given source for logical LOC. reads in line types and classifies them
-   * as valid logical LOC as required.
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
+
     //reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the current physical LOC for the current class
-    int currClassLines = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    // Iterate through the entire list of files in the program
-    // The algorithm for counting is as follows. For every line in the file
-    // both the class and program count are incremented. Every time a new
-    // class is analyzed the class line counter is reset. When a operation
-    // declaration is encountered the operation count begins. As the counter
-    // iterates through the operation, it pushes a opening braces onto the
-    // brace stack and pops when a closing brace is encountered. When the
-    // stack is empty again, we know we've reached the end of the method and
-    // the count can stop.
-    for (String currSourceFileName : sourceKeySet)
-    {
+    this.currClassLines = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<Integer>();
 
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
-
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current physical LOC for the current operation
-      int currOperationLines = 0;
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the ClassLOC
-      currClassLines = 0;
-      
-      // Map to hold the operation to line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
+  }
 
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
 
-      for (int i = 0; i < currFileContents.size(); i++)
-      {
-        currLine = currFileContents.get(i);
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current physical LOC for the current operation
+    this.currOperationLines = 0;
+    // Reset the ClassLOC
+    currClassLines = 0;
+    // Map to hold the operation to line count association
+    this.operationCountMap = new HashMap<String, Integer>();
 
-          // determine the current line type
-          currLineType = LineAnalyzer.getLineType(currLine);
-        switch (currLineType)
-          {
+  }
 
-          case MethodDeclaration:
+  /**
+   * Method responsible for analyzing a single line of the current file,
+   * incrementing the proper counter when appropriate.
+   * 
+   * The algorithm for counting is as follows. For every line in the file both
+   * the class and program count are incremented. Every time a new class is
+   * analyzed the class line counter is reset. When a operation declaration is
+   * encountered the operation count begins. As the counter iterates through the
+   * operation, it counts the depth of the opening braces, which each closing
+   * brace brings back down. When the depth is back to 0, we know we've reached
+   * the end of the method and the count can stop.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
 
-            // get the name of the method being declared
-            currOperationName = LineAnalyzer.getOperationName(currLine);
-            // reset the LOC for the operation
-            currOperationLines = 1;
-            //blankLine = 0;
-            //openComment = 0;
-            ///closeComment = 0;
-            //comment =0;
+    switch (currLineType)
+      {
 
-            break;
+      case MethodDeclaration:
 
-          case OpeningBrace:
+        // get the name of the method being declared
+        currOperationName = LineAnalyzer.getOperationName(currLine);
+        // reset the LOC for the operation
+        currOperationLines = 1;
+        //blankLine = 0;
+        //openComment = 0;
+        ///closeComment = 0;
+        //comment =0;
 
-            // only add a brace to the stack if we have encountered an operation
-            // declaration. If the current operation name is "" it means that
-            // it has not been set since no operations have been encountered yet
-            if (!currOperationName.equals(""))
-            {
+        break;
 
-              braceStack.push(currLineType);
+      case OpeningBrace:
 
-            }
+        // only count a brace if we have encountered an operation
+        // declaration. If the current operation name is "" it means that
+        // it has not been set since no operations have been encountered yet
+        if (!currOperationName.equals(""))
+        {
 
-            break;
+          braceDepth.open();
 
-          case ClosingBrace:
+        }
 
-            // pop the opening brace from the stack only if there are items
-            // left on the stack. This is to ensure that no exception is thrown
-            // when the last brace in a class is encountered.
-            if (!braceStack.empty())
-            {
+        break;
 
-              //pop the previous brace from the stack
-              braceStack.pop();
+      case ClosingBrace:
 
-              // check to see if the stack is now empty. If it is the end of
-              // the operation has been encountered. Add the operation and
-              // count to the map.
-              if (braceStack.empty())
-              {
+        // count the closing brace. When the depth is back to 0 the end of the
+        // operation has been encountered. Add the operation and count to the
+        // map.
+        if (braceDepth.close(currOperationName, currOperationLines))
+        {
 
-                operationCountMap.put(currOperationName, currOperationLines);
+          operationCountMap.put(currOperationName, currOperationLines);
 
-              }
-              }
+        }
 
-            break;
-            
-          }
-        // get the current line
+        break;
         
-        // Check the current line type. With this analysis we are concerned with
-        // class declarations so the name may be retrieved, method declarations
-        // for the purpose of resetting the LOC count by operation and getting
-        // the name
+      }
+    
+    // Check the current line type. With this analysis we are concerned with
+    // class declarations so the name may be retrieved, method declarations
+    // for the purpose of resetting the LOC count by operation and getting
+    // the name
 
+    
+    //determine whether the current line is a Physical LOC
+    switch (currLineType)
+    {
+    case ClassDeclaration:
+    case Blank:
+    case Comment:
+    case OpenComment:
+    case CloseComment:
+        this.numProgramPhysicalLOC++;
+        currClassLines++;
+        currOperationLines++;
+        break;
         
-        //determine whether the current line is a Physical LOC
-        switch (currLineType)
-        {
-        case ClassDeclaration:
-        case Blank:
-        case Comment:
-        case OpenComment:
-        case CloseComment:
-            this.numProgramPhysicalLOC++;
-            currClassLines++;
-            currOperationLines++;
-            break;
-            
-        } 
-      }
-       
-      // add the map of operation to line count association to the class to
-      // line count association map
-      classOperationPhysicalLOCMap.put(currSourceFileName, operationCountMap);
-      classLinesMap.put(currSourceFileName, currClassLines);
     }
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
+
+     
+    // add the map of operation to line count association to the class to
+    // line count association map
+    classOperationPhysicalLOCMap.put(currSourceFileName, operationCountMap);
+    classLinesMap.put(currSourceFileName, currClassLines);
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The totals are added and the counts of the file are added
+   * to the maps. The depth of the braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    PSPPhysicalLOCSourceAnalyzer partialResult =
+        (PSPPhysicalLOCSourceAnalyzer) thePartialResult;
+
+    this.numProgramPhysicalLOC += partialResult.numProgramPhysicalLOC;
+    mergeMap(this.classOperationPhysicalLOCMap,
+        partialResult.classOperationPhysicalLOCMap);
+    mergeMap(this.classLinesMap, partialResult.classLinesMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces
+    if (this.braceDepth.getDepth() > 0)
+    {
+
+      this.classOperationPhysicalLOCMap.put(partialResult.currSourceFileName,
+          partialResult.braceDepth.getOperationMap(this.braceDepth
+              .getDepth()));
+
+    }
+
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
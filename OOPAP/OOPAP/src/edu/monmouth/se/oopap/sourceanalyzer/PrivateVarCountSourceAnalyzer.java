@@ -5,15 +5,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
 
 import edu.monmouth.se.oopap.enumerator.LineType;
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 
 /**
- *
+ * 
  * This class finds the number of private variables in the class..
- *
+ * 
  * @author Jaidev Kochunni (with some source code from 
  * LineCountSourceAnalyzer by Andrew Tasso
  * @version %I% %G%
@@ -21,9 +20,50 @@ import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
 public class PrivateVarCountSourceAnalyzer extends SourceAnalyzer
 {
 
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
   private Map<String, Map<String, Integer>> classOperationLinesMap;
   private Map<String, Integer> classLinesMap;
   
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * Integer to hold the current physical LOC for the current class.
+   */
+  private int currClassLines;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<Integer> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current physical LOC for the current operation.
+   */
+  private int currOperationLines;
+
+  /**
+   * Integer to hold the number of variables in the current operation.
+   */
+  private int currVariableCount;
+
+  /**
+   * Map to hold the operation to line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
   /**
    * Default constructor which calls the init method called resetAnalysis. 
    */
@@ -43,145 +83,167 @@ public class PrivateVarCountSourceAnalyzer extends SourceAnalyzer
   }
   
   /**
-   * Analyzes the source going line by line.  
-   * Read till we fine the first method (constructor) - those are the instance variables
-   * then find the key word private in there and we've got the private variable for the class.
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
 
     //reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the current physical LOC for the current class
-    int currClassLines = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    for (String currSourceFileName : sourceKeySet)
-    {
-
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
-
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current physical LOC for the current operation
-      int currOperationLines = 0;
+    this.currClassLines = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<Integer>();
 
-	  // integer to hold the number of variables in the current operation.
-      int currVariableCount = 0;
+  }
 
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the ClassLOC
-      currClassLines = 0;
-	  
-      // Map to hold the operation to line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
 
-      
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current physical LOC for the current operation
+    this.currOperationLines = 0;
+    // integer to hold the number of variables in the current operation.
+    this.currVariableCount = 0;
+    // Reset the ClassLOC
+    currClassLines = 0;
+    // Map to hold the operation to line count association
+    this.operationCountMap = new HashMap<String, Integer>();
 
-      for (int i = 0; i < currFileContents.size(); i++)
-      {
+  }
 
-        // get the current line
-        currLine = currFileContents.get(i);
+  /**
+   * Method responsible for analyzing a single line of the current file,
+   * incrementing the proper counter when appropriate.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
 
-        // determine the current line type
-        currLineType = LineAnalyzer.getLineType(currLine);
+    switch (currLineType)
+    {
 
-        switch (currLineType)
+      case SingleLineLogical:
+      {
+        
+        if (currOperationName.length() == 0)
         {
-
-          case SingleLineLogical:
-          {
-            
-            if (currOperationName.length() == 0)
-            {
 			  // This must be an instance variable, check if it's private.
-              if (currLine.contains ("private "))
-              {
-                currVariableCount ++;
-              }
-            }
-            
-          }
-          break;
-        
-          case MethodDeclaration:
+          if (currLine.contains ("private "))
           {
-            // get the name of the method being declared
-            currOperationName = LineAnalyzer.getOperationName(currLine);
-  
-            // reset the LOC for the operation
-            currOperationLines = 1;
+            currVariableCount ++;
           }
-          break;
+        }
+        
+      }
+      break;
+    
+      case MethodDeclaration:
+      {
+        // get the name of the method being declared
+        currOperationName = LineAnalyzer.getOperationName(currLine);
 
-          case OpeningBrace:
-          {
-            // only add a brace to the stack if we have encountered an operation
-            // declaration. If the current operation name is "" it means that
-            // it has not been set since no operations have been encountered yet
-            if (!currOperationName.equals(""))
-            {
-  
-              braceStack.push(currLineType);
-              
-  
-            }
-          }
-          break;
+        // reset the LOC for the operation
+        currOperationLines = 1;
+      }
+      break;
 
-          case ClosingBrace:
-          {
-            // pop the opening brace from the stack only if there are items
-            // left on the stack. This is to ensure that no exception is thrown
-            // when the last brace in a class is encountered.
-            if (!braceStack.empty())
-            {
-  
-              //pop the previous brace from the stack
-              braceStack.pop();
-  
-              // check to see if the stack is now empty. If it is the end of
-              // the operation has been encountered. Add the operation and
-              // count to the map.
-              if (braceStack.empty())
-              {
-  
-                operationCountMap.put(currOperationName, currOperationLines);
-                  
-              }
-  
-            }
-          }
-          break;
+      case OpeningBrace:
+      {
+        // only count a brace if we have encountered an operation
+        // declaration. If the current operation name is "" it means that
+        // it has not been set since no operations have been encountered yet
+        if (!currOperationName.equals(""))
+        {
+
+          braceDepth.open();
+          
 
         }
+      }
+      break;
+
+      case ClosingBrace:
+      {
+        // count the closing brace. When the depth is back to 0 the end of the
+        // operation has been encountered. Add the operation and count to the
+        // map.
+        if (braceDepth.close(currOperationName, currOperationLines))
+        {
 
-        currClassLines++;
-        currOperationLines++;
+          operationCountMap.put(currOperationName, currOperationLines);
 
+        }
       }
+      break;
 
-      
-      // add the map of operation to line count association to the class to
-      // line count association map
-      classOperationLinesMap.put(currSourceFileName, operationCountMap);
-      //classLinesMap.put(currSourceFileName, currClassLines);
-      classLinesMap.put(currSourceFileName, currVariableCount);
+    }
+
+    currClassLines++;
+    currOperationLines++;
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
+
+    
+    // add the map of operation to line count association to the class to
+    // line count association map
+    classOperationLinesMap.put(currSourceFileName, operationCountMap);
+    //classLinesMap.put(currSourceFileName, currClassLines);
+    classLinesMap.put(currSourceFileName, currVariableCount);
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into the
+   * analysis. The counts of the file are added to the maps. The depth of the
+   * braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    PrivateVarCountSourceAnalyzer partialResult =
+        (PrivateVarCountSourceAnalyzer) thePartialResult;
+
+    mergeMap(this.classOperationLinesMap, partialResult.classOperationLinesMap);
+    mergeMap(this.classLinesMap, partialResult.classLinesMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces
+    if (this.braceDepth.getDepth() > 0)
+    {
+
+      this.classOperationLinesMap.put(partialResult.currSourceFileName,
+          partialResult.braceDepth.getOperationMap(this.braceDepth
+              .getDepth()));
 
-     
     }
+
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
@@ -1,14 +1,17 @@
 package edu.monmouth.se.oopap.sourceanalyzer;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Map;
 import java.util.Set;
-import java.util.Stack;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.MultiStringMatcher;
 import edu.monmouth.se.oopap.enumerator.LineType;
 
 /**
@@ -16,17 +19,69 @@ import edu.monmouth.se.oopap.enumerator.LineType;
  * producing the "response for a class" (RFC). RFC is equal to the number of methods in a class plus
  * the number of methods called in that class, regardless of what the call is to.
  * 
+ * Calls to the methods of the class itself are counted in a second pass over
+ * the class. The names of the methods are searched for together, by a
+ * MultiStringMatcher built once per class, so each line is scanned once
+ * however many methods the class has.
+ * 
  * @author Kevin Gajdzis (with some source code from LineCountSourceAnalyzer by
  *         Andrew Tasso
  * @version %I% %G%
  */
 public class ResponseForAClassSourceAnalyzer extends SourceAnalyzer
 {
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
   // stores class to operation association
   private Map<String, Map<String, Integer>> classOperationLinesMap;
   // stores operation to line count association
   private Map<String, Integer> classLinesMap;
 
+  /**
+   * The name of the file currently being analyzed.
+   */
+  private String currSourceFileName;
+
+  /**
+   * The lines of the file currently being analyzed. The lines are needed for
+   * the second pass over the file once every operation name is known.
+   */
+  private transient List<String> currFileContents;
+
+  /**
+   * The names of the operations declared in the current file.
+   */
+  private transient List<String> operationNames;
+
+  /**
+   * Integer to hold the RFC for the current class.
+   */
+  private int currClassResponse;
+
+  /**
+   * The depth of the braces of the current operation, carried from one file
+   * to the next.
+   */
+  private BraceDepth<Integer> braceDepth;
+
+  /**
+   * String to hold the name of the current method being analyzed.
+   */
+  private String currOperationName;
+
+  /**
+   * Integer to hold the current number of operation lines.
+   */
+  private int currOperationLines;
+
+  /**
+   * Map to hold the operation to line count association.
+   */
+  private Map<String, Integer> operationCountMap;
+
   /**
    * default constructor. Runs the resetAnalysis operation to initialize the
    * object
@@ -47,152 +102,452 @@ public class ResponseForAClassSourceAnalyzer extends SourceAnalyzer
   }
 
   /**
-   * analyzes a given source for RFC. 
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
    */
-  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  public void beginAnalysis()
   {
+
     // reset the previous analysis
     this.resetAnalysis();
-
     // integer to hold the RFC for the current class
-    int currClassResponse = 0;
-    // Set to hold the list of key values (source file names) for the current
-    // map of source files.
-    Set<String> sourceKeySet = theSourceMap.keySet();
-    // Stack to store braces
-    Stack<LineType> braceStack = new Stack<LineType>();
-
-    // Iterate through the entire list of files in the program
-    // The algorithm for counting is as follows. For every line in the file
-    // both the class and program count are incremented. Every time a new
-    // class is analyzed the class line counter is reset. When a operation
-    // declaration is encountered the operation count begins. As the counter
-    // iterates through the operation, it pushes a opening braces onto the
-    // brace stack and pops when a closing brace is encountered. When the
-    // stack is empty again, we know we've reached the end of the method and
-    // the count can stop.
-    for (String currSourceFileName : sourceKeySet)
+    this.currClassResponse = 0;
+    // the depth of the braces
+    this.braceDepth = new BraceDepth<Integer>();
+
+  }
+
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
+
+    // the depth of the braces is carried from the previous file
+    this.braceDepth.beginFile();
+    this.currSourceFileName = theSourceFileName;
+    this.currFileContents = new ArrayList<String>();
+    this.operationNames = new LinkedList<String>();
+    // String to hold the name of the current method being analyzed
+    this.currOperationName = "";
+    // integer to hold the current number of operation lines
+    this.currOperationLines = 0;
+    // Reset the RFC
+    this.currClassResponse = 0;
+    // Map to hold the operation to line count association
+    this.operationCountMap = new HashMap<String, Integer>();
+
+  }
+
+  /**
+   * Method responsible for analyzing a single line of the current file.
+   * 
+   * The algorithm for counting is as follows. Every operation declaration and
+   * every method call increments the response of the class. When a operation
+   * declaration is encountered, it counts the depth of the opening braces,
+   * which each closing brace brings back down. When the depth is back to 0, we
+   * know we've reached the end of the method.
+   * 
+   * @param currLine
+   *          The current line of the file
+   * @param currLineType
+   *          The line type of the current line
+   */
+  public void analyzeLine(String currLine, LineType currLineType)
+  {
+
+    // keep the line for the second pass over the file
+    currFileContents.add(currLine);
+
+    // Check the current line type. With this analysis we are concerned with
+    // class declarations so the name may be retrieved, method declarations
+    // for the purpose of getting the name
+
+    switch (currLineType)
     {
 
-      // get the contents of the current file
-      List<String> currFileContents = theSourceMap.get(currSourceFileName);
-      
-      List<String> operationNames = new LinkedList<String>();
-
-      // String to hold the current line of the file
-      String currLine = "";
-      // String to hold the name of the current method being analyzed
-      String currOperationName = "";
-      // integer to hold the current number of operation lines
-      int currOperationLines = 0;
-      // LineType for the current line
-      LineType currLineType = LineType.Unknown;
-      // Reset the RFC
-      currClassResponse = 0;
-      // Map to hold the operation to line count association
-      Map<String, Integer> operationCountMap = new HashMap<String, Integer>();
-
-      // iterate over the entire content of the file, analyzing each line
-      // and incrementing the proper counter when appropriate.
-
-      for (int i = 0; i < currFileContents.size(); i++)
+    case MethodDeclaration:
+
+      // get the name of the method being declared
+      currOperationName = LineAnalyzer.getOperationName(currLine);
+      operationNames.add(currOperationName);
+      // reset the LOC for the operation
+      currOperationLines = 1;
+
+      //increment response for a class
+      currClassResponse++;
+
+      break;
+
+    case OpeningBrace:
+
+      // only count a brace if we have encountered an operation
+      // declaration. If the current operation name is "" it means that
+      // it has not been set since no operations have been encountered yet
+      if (!currOperationName.equals(""))
       {
 
-        // get the current line
-        currLine = currFileContents.get(i);
+        braceDepth.open();
 
-        // determine the current line type
-        currLineType = LineAnalyzer.getLineType(currLine);
+      }
 
-        // Check the current line type. With this analysis we are concerned with
-        // class declarations so the name may be retrieved, method declarations
-        // for the purpose of getting the name
-       
-        switch (currLineType)
-        {
+      break;
 
-        case MethodDeclaration:
+    case ClosingBrace:
 
-          // get the name of the method being declared
-          currOperationName = LineAnalyzer.getOperationName(currLine);
-          operationNames.add(currOperationName);
-          // reset the LOC for the operation
-          currOperationLines = 1;
-          
-          //increment response for a class
-          currClassResponse++;
+      // count the closing brace. When the depth is back to 0 the end of the
+      // operation has been encountered. Add the operation and count to the
+      // map.
+      if (braceDepth.close(currOperationName, currOperationLines))
+      {
 
-          break;
+        operationCountMap.put(currOperationName, currOperationLines);
 
-        case OpeningBrace:
+      }
 
-          // only add a brace to the stack if we have encountered an operation
-          // declaration. If the current operation name is "" it means that
-          // it has not been set since no operations have been encountered yet
-          if (!currOperationName.equals(""))
-          {
+      break;
 
-            braceStack.push(currLineType);
+    }
 
-          }
+    //increment response for this class for every method call
+    if(LineAnalyzer.isMethodCall(currLine))
+    {
+      currClassResponse++;
+    }
 
-          break;
+  }
 
-        case ClosingBrace:
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public void endFile()
+  {
 
-          // pop the opening brace from the stack only if there are items
-          // left on the stack. This is to ensure that no exception is thrown
-          // when the last brace in a class is encountered.
-          if (!braceStack.empty())
-          {
+    // a file without any lines is not added to the maps
+    if (currFileContents.size() == 0)
+    {
 
-            // pop the previous brace from the stack
-            braceStack.pop();
+      return;
 
-            // check to see if the stack is now empty. If it is the end of
-            // the operation has been encountered. Add the operation and
-            // count to the map.
-            if (braceStack.empty())
-            {
+    }
 
-              operationCountMap.put(currOperationName, currOperationLines);
+    // add the map of operation to line count association to the class to
+    // line count association map
+    classOperationLinesMap.put(currSourceFileName, operationCountMap);
+    classLinesMap.put(currSourceFileName, currClassResponse);
 
-            }
+    //reiterate through the program and increment RFC for any instances of class methods that
+    //were not capture by isMethodCall (which is external methods)
+    currClassResponse += countOperationCalls(currFileContents, operationNames);
+    classLinesMap.put(currSourceFileName, currClassResponse);
 
-          }
+    // release the lines of the file
+    currFileContents = null;
 
-          break;
+  }
 
-        }
-        
-        //increment response for this class for every method call
-        if(LineAnalyzer.isMethodCall(currLine))
-        {
-          currClassResponse++;
-        }
+  /**
+   * Method used to count the calls to the operations of a file in its lines,
+   * adding 1 for each operation declaration whose name is called by a line,
+   * except on lines declaring a method.
+   * 
+   * An operation is called by a line if the line matches the regular
+   * expression .*name\s*\(.* and the lines are searched for every name at
+   * once by the operationMatcher. A name that is itself a regular expression
+   * rather than a literal, and any line holding a character '.' does not
+   * match, are still matched against the regular expression. A name that is
+   * not a valid regular expression is matched as a literal.
+   * 
+   * @param theFileContents
+   *          The lines of the file
+   * @param theOperationNames
+   *          The name of each operation declared by the file
+   * @return the number of calls
+   */
+  public static int countOperationCalls(List<String> theFileContents,
+      List<String> theOperationNames)
+  {
+
+    int callCount = 0;
+
+    // the number of declarations with an empty name, which are called by
+    // every line with a '('
+    int emptyNameCount = 0;
+    // the expressions of the names which are not literals, with a
+    // declaration each
+    List<Pattern> callPatternList = new ArrayList<Pattern>();
+
+    // the matcher holding the literal names, and the number of times each
+    // was declared
+    MultiStringMatcher operationMatcher = new MultiStringMatcher();
+    int[] operationNameCounts = new int[theOperationNames.size()];
+    CallListener callListener = new CallListener();
+
+    for (String currOperationName : theOperationNames)
+    {
+
+      if (currOperationName.length() == 0)
+      {
+
+        emptyNameCount++;
+
+      }
+      else if (isLiteral(currOperationName))
+      {
+
+        operationNameCounts[operationMatcher.addPattern(currOperationName)]++;
+
+      }
+      else
+      {
+
+        callPatternList.add(getCallPattern(currOperationName));
+
+      }
+
+    }
+
+    for (String currLine : theFileContents)
+    {
+
+      // lines declaring a method are not calls
+      if (currLine.contains("public") || currLine.contains("private")
+          || currLine.contains("protected"))
+      {
+
+        continue;
 
-      // add the map of operation to line count association to the class to
-      // line count association map
-      classOperationLinesMap.put(currSourceFileName, operationCountMap);
-      classLinesMap.put(currSourceFileName, currClassResponse);
       }
-      //reiterate through the program and increment RFC for any instances of class methods that
-      //were not capture by isMethodCall (which is external methods)
-      for (int i = 0; i < currFileContents.size(); i++)
+
+      if (hasLineTerminator(currLine))
       {
-        currLine = currFileContents.get(i);
-        currLineType = LineAnalyzer.getLineType(currLine);
-        for(int j=0; j < operationNames.size(); j++)
+
+        // every name is matched against the regular expression
+        for (String currOperationName : theOperationNames)
         {
-          if (currLine.matches(".*" + operationNames.get(j) + "\\s*\\(.*") && !currLine.contains("public")
-              && !currLine.contains("private") && !currLine.contains("protected"))
+
+          if (isCall(currLine, currOperationName))
           {
-            currClassResponse++;
-            classLinesMap.put(currSourceFileName, currClassResponse);
+
+            callCount++;
+
           }
+
         }
+
+        continue;
+
       }
+
+      callListener.beginLine(currLine);
+      operationMatcher.findAll(currLine, callListener);
+
+      for (int i = callListener.calledOperationSet.nextSetBit(0); i >= 0; i =
+          callListener.calledOperationSet.nextSetBit(i + 1))
+      {
+
+        callCount += operationNameCounts[i];
+
+      }
+
+      if (emptyNameCount > 0 && currLine.indexOf('(') >= 0)
+      {
+
+        callCount += emptyNameCount;
+
+      }
+
+      for (Pattern currCallPattern : callPatternList)
+      {
+
+        if (currCallPattern.matcher(currLine).matches())
+        {
+
+          callCount++;
+
+        }
+
+      }
+
+    }
+
+    return callCount;
+
+  }
+
+  /**
+   * Method used to determine whether a line calls an operation, by matching
+   * it against the regular expression .*name\s*\(.*
+   * 
+   * @param theLine
+   *          The line
+   * @param theOperationName
+   *          The name of the operation
+   * @return true if the line calls the operation
+   */
+  private static boolean isCall(String theLine, String theOperationName)
+  {
+
+    return getCallPattern(theOperationName).matcher(theLine).matches();
+
+  }
+
+  /**
+   * Method used to build the regular expression .*name\s*\(.* matching the
+   * lines calling an operation. A literal name is quoted, as is a name that
+   * is not a valid regular expression, which is then matched as written
+   * rather than failing the analysis.
+   * 
+   * @param theOperationName
+   *          The name of the operation
+   * @return the regular expression
+   */
+  private static Pattern getCallPattern(String theOperationName)
+  {
+
+    if (!isLiteral(theOperationName))
+    {
+
+      try
+      {
+
+        return Pattern.compile(".*" + theOperationName + "\\s*\\(.*");
+
+      }
+      catch (PatternSyntaxException e)
+      {
+
+        // the name is matched as a literal below
+
+      }
+
+    }
+
+    return Pattern.compile(".*" + Pattern.quote(theOperationName)
+        + "\\s*\\(.*");
+
+  }
+
+  /**
+   * Method used to determine whether a name matches only itself as a regular
+   * expression.
+   * 
+   * @param theOperationName
+   *          The name of the operation
+   * @return true if the name holds no regular expression meta character
+   */
+  private static boolean isLiteral(String theOperationName)
+  {
+
+    for (int i = 0; i < theOperationName.length(); i++)
+    {
+
+      if ("\\^$.|?*+()[]{}".indexOf(theOperationName.charAt(i)) >= 0)
+      {
+
+        return false;
+
+      }
+
+    }
+
+    return true;
+
+  }
+
+  /**
+   * Method used to determine whether a line holds a character the regular
+   * expression '.' does not match.
+   * 
+   * @param theLine
+   *          The line
+   * @return true if the line holds a line terminator
+   */
+  private static boolean hasLineTerminator(String theLine)
+  {
+
+    for (int i = 0; i < theLine.length(); i++)
+    {
+
+      char currChar = theLine.charAt(i);
+
+      if (currChar == '\n' || currChar == '\r' || currChar == '\u0085'
+          || currChar == '\u2028' || currChar == '\u2029')
+      {
+
+        return true;
+
+      }
+
+    }
+
+    return false;
+
+  }
+
+  /**
+   * Method used to determine whether the characters of a line from an index
+   * on begin with optional white space and a '(', as matched by the regular
+   * expression \s*\(
+   * 
+   * @param theLine
+   *          The line
+   * @param theIndex
+   *          The index to begin at
+   * @return true if a '(' follows the index
+   */
+  private static boolean isFollowedByParen(String theLine, int theIndex)
+  {
+
+    int currIndex = theIndex;
+
+    while (currIndex < theLine.length()
+        && " \t\n\u000B\f\r".indexOf(theLine.charAt(currIndex)) >= 0)
+    {
+
+      currIndex++;
+
+    }
+
+    return currIndex < theLine.length() && theLine.charAt(currIndex) == '(';
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into the
+   * analysis. The counts of the file are added to the maps. The depth of the
+   * braces is carried past the file.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    ResponseForAClassSourceAnalyzer partialResult =
+        (ResponseForAClassSourceAnalyzer) thePartialResult;
+
+    mergeMap(this.classOperationLinesMap, partialResult.classOperationLinesMap);
+    mergeMap(this.classLinesMap, partialResult.classLinesMap);
+
+    // a file beginning within an operation left open by the previous file
+    // ends its operations at other braces
+    if (this.braceDepth.getDepth() > 0
+        && partialResult.classOperationLinesMap
+            .containsKey(partialResult.currSourceFileName))
+    {
+
+      this.classOperationLinesMap.put(partialResult.currSourceFileName,
+          partialResult.braceDepth.getOperationMap(this.braceDepth
+              .getDepth()));
+
     }
+
+    this.braceDepth.merge(partialResult.braceDepth);
+
   }
 
   /**
@@ -287,4 +642,52 @@ public class ResponseForAClassSourceAnalyzer extends SourceAnalyzer
 
   }
 
+  /**
+   * Listener adding the operation names called by a line to
+   * calledOperationSet. A name is called if it is followed by optional white
+   * space and a '('.
+   */
+  private static class CallListener implements
+      MultiStringMatcher.MatchListener
+  {
+
+    /**
+     * The line being searched.
+     */
+    private String currLine;
+
+    /**
+     * Set of the operation names called by the line.
+     */
+    private BitSet calledOperationSet = new BitSet();
+
+    /**
+     * Method used to begin searching a line.
+     * 
+     * @param theLine
+     *          The line
+     */
+    void beginLine(String theLine)
+    {
+
+      this.currLine = theLine;
+      this.calledOperationSet.clear();
+
+    }
+
+    public void patternFound(int thePattern, int theStart, int theEnd)
+    {
+
+      if (!calledOperationSet.get(thePattern)
+          && isFollowedByParen(currLine, theEnd))
+      {
+
+        calledOperationSet.set(thePattern);
+
+      }
+
+    }
+
+  }
+
 }
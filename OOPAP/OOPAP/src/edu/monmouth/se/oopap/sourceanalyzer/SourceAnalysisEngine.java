@@ -0,0 +1,976 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.monmouth.se.oopap.io.SourceFileReader;
+
+/**
+ * Class responsible for running a number of source analyzers over the source
+ * in a single pass. Every line of every file is read and classified once, and
+ * the file, as a ClassifiedFile, is then handed to each of the analyzers in
+ * the order they were added. The results of each analyzer are identical to
+ * running the analyzers one at a time.
+ * 
+ * When the engine is given more than one thread the work is spread over a
+ * fixed size pool in one of two ways. When there are more files than
+ * analyzers the files are analyzed concurrently, each file producing a
+ * partial result for every analyzer, and the partial results are merged in
+ * file order. Otherwise each analyzer is run on its own thread. In both cases
+ * lines are still classified only once, every analyzer holds its own state
+ * and the source is never modified, so the results are the same as those of
+ * a sequential run.
+ * 
+ * The source may be provided either as the contents of every file, or as the
+ * files themselves. In the latter case each file is read with a
+ * SourceFileReader, decoded with the charset of the engine, as it is analyzed
+ * and closed before its lines are analyzed, so that the contents of the whole
+ * program are never held in memory at once. Should a file have to be read
+ * again, its lines are not classified again; the line types of each file are
+ * kept, without the lines, for the rest of the analysis.
+ * 
+ * The inheritance hierarchy of the classes is built once per analysis, by an
+ * analyzer run ahead of the others, and shared by every
+ * InheritanceSourceAnalyzer held by the engine.
+ * 
+ * When the engine is given an AnalysisCache the files are always analyzed one
+ * file per task, even on a single thread. The partial results of a file found
+ * in the cache are merged without the file being classified or analyzed, and
+ * those of every other file are written to the cache once analyzed.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class SourceAnalysisEngine
+{
+
+  /**
+   * List of the analyzers to be run by the engine.
+   */
+  private List<SourceAnalyzer> analyzerList;
+
+  /**
+   * List of the analyzers actually run by the engine, the analyzer building
+   * the class hierarchy, if any, followed by the analyzers of analyzerList.
+   */
+  private List<SourceAnalyzer> runList;
+
+  /**
+   * The analyzer building the class hierarchy shared by the inheritance
+   * analyzers. Null until an inheritance analyzer is added.
+   */
+  private ClassHierarchySourceAnalyzer hierarchyAnalyzer;
+
+  /**
+   * The number of threads used to run the analyzers. A count of 1 runs every
+   * analyzer on the calling thread.
+   */
+  private int threadCount;
+
+  /**
+   * The charset the source files are decoded with.
+   */
+  private Charset charset;
+
+  /**
+   * The cache holding the partial results of the files already analyzed.
+   * Null if the results are not cached.
+   */
+  private AnalysisCache analysisCache;
+
+  /**
+   * The reader used by each thread to read the source files. A reader keeps
+   * its buffers between files, so each thread reuses its own.
+   */
+  private ThreadLocal<SourceFileReader> sourceFileReader;
+
+  /**
+   * Primary constructor. The analyzers are run on the calling thread.
+   */
+  public SourceAnalysisEngine()
+  {
+
+    this(1);
+
+  }
+
+  /**
+   * Constructor used to set the number of threads the analyzers are run on.
+   * 
+   * @param theThreadCount
+   *          The number of threads used to run the analyzers
+   */
+  public SourceAnalysisEngine(int theThreadCount)
+  {
+
+    this.analyzerList = new ArrayList<SourceAnalyzer>();
+    this.runList = new ArrayList<SourceAnalyzer>();
+    this.setThreadCount(theThreadCount);
+    this.setCharset(Charset.defaultCharset());
+
+  }
+
+  /**
+   * Method used to set the number of threads used to run the analyzers.
+   * 
+   * @param theThreadCount
+   *          The number of threads, a count less than 1 is treated as 1
+   */
+  public void setThreadCount(int theThreadCount)
+  {
+
+    this.threadCount = Math.max(1, theThreadCount);
+
+  }
+
+  /**
+   * Method used to retrieve the number of threads used to run the analyzers.
+   * 
+   * @return the number of threads
+   */
+  public int getThreadCount()
+  {
+
+    return this.threadCount;
+
+  }
+
+  /**
+   * Method used to set the charset the source files are decoded with. The
+   * platform charset is used unless another is set.
+   * 
+   * @param theCharset
+   *          The charset of the source files
+   */
+  public void setCharset(final Charset theCharset)
+  {
+
+    this.charset = theCharset;
+    this.sourceFileReader = new ThreadLocal<SourceFileReader>()
+    {
+
+      protected SourceFileReader initialValue()
+      {
+
+        return new SourceFileReader(theCharset);
+
+      }
+
+    };
+
+  }
+
+  /**
+   * Method used to retrieve the charset the source files are decoded with.
+   * 
+   * @return the charset
+   */
+  public Charset getCharset()
+  {
+
+    return this.charset;
+
+  }
+
+  /**
+   * Method used to set the cache holding the partial results of the files
+   * already analyzed.
+   * 
+   * @param theAnalysisCache
+   *          The cache, or null if the results are not to be cached
+   */
+  public void setAnalysisCache(AnalysisCache theAnalysisCache)
+  {
+
+    this.analysisCache = theAnalysisCache;
+
+  }
+
+  /**
+   * Method used to retrieve the cache holding the partial results of the files
+   * already analyzed.
+   * 
+   * @return the cache, or null if the results are not cached
+   */
+  public AnalysisCache getAnalysisCache()
+  {
+
+    return this.analysisCache;
+
+  }
+
+  /**
+   * Method used to add an analyzer to the list of analyzers run by the engine.
+   * An inheritance analyzer is given the class hierarchy built by the engine,
+   * which it reads from then on rather than building its own.
+   * 
+   * @param theSourceAnalyzer
+   *          The analyzer to be added
+   */
+  public void addAnalyzer(SourceAnalyzer theSourceAnalyzer)
+  {
+
+    if (theSourceAnalyzer instanceof InheritanceSourceAnalyzer)
+    {
+
+      // the hierarchy is built ahead of every analyzer reading it
+      if (hierarchyAnalyzer == null)
+      {
+
+        hierarchyAnalyzer = new ClassHierarchySourceAnalyzer();
+        runList.add(0, hierarchyAnalyzer);
+
+      }
+
+      ((InheritanceSourceAnalyzer) theSourceAnalyzer)
+          .shareClassHierarchy(hierarchyAnalyzer);
+
+    }
+
+    this.analyzerList.add(theSourceAnalyzer);
+    this.runList.add(theSourceAnalyzer);
+
+  }
+
+  /**
+   * Method used to retrieve the list of analyzers run by the engine.
+   * 
+   * @return the list of analyzers in the order they were added
+   */
+  public List<SourceAnalyzer> getAnalyzerList()
+  {
+
+    return this.analyzerList;
+
+  }
+
+  /**
+   * Method used to retrieve the list of analyzers actually run by the engine,
+   * including the analyzer building the class hierarchy.
+   * 
+   * @return the list of analyzers in the order they are run
+   */
+  List<SourceAnalyzer> getRunList()
+  {
+
+    return this.runList;
+
+  }
+
+  /**
+   * Method responsible for analyzing the source code with every analyzer held
+   * by the engine. After the analysis is run the report methods of each
+   * analyzer must be used to obtain the results.
+   * 
+   * @param theSourceMap
+   *          The class name to class contents association map. The key is the
+   *          class name. The value is a List of Strings representing the
+   *          contents of the class.
+   */
+  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  {
+
+    // Map to hold the lines of each file, in the order of the source map
+    Map<String, LineSource> lineSourceMap =
+        new LinkedHashMap<String, LineSource>();
+
+    for (String currSourceFileName : theSourceMap.keySet())
+    {
+
+      lineSourceMap.put(currSourceFileName, newLineSource(currSourceFileName,
+          theSourceMap.get(currSourceFileName)));
+
+    }
+
+    try
+    {
+
+      // the analyzers can only be run concurrently over the contents of the
+      // files when there are more analyzers than files
+      if (threadCount > 1 && theSourceMap.size() <= analyzerList.size()
+          && analyzerList.size() > 1 && analysisCache == null)
+      {
+
+        this.analyzeSourceConcurrently(lineSourceMap);
+
+      }
+      else
+      {
+
+        this.analyzeLineSources(lineSourceMap);
+
+      }
+
+    }
+    catch (IOException e)
+    {
+
+      // the contents are already in memory, nothing is read
+      throw new IllegalStateException(e);
+
+    }
+
+  }
+
+  /**
+   * Method responsible for analyzing the source files with every analyzer held
+   * by the engine. Each file is read one line at a time as it is analyzed and
+   * is closed once it has been analyzed. After the analysis is run the report
+   * methods of each analyzer must be used to obtain the results.
+   * 
+   * @param theSourceFileMap
+   *          The class name to file association map. The key is the class
+   *          name, the value is the file containing the class. The files are
+   *          analyzed in the iteration order of the map.
+   * @throws IOException
+   *           If there are any problems reading data from the files.
+   */
+  public void analyzeSourceFiles(Map<String, File> theSourceFileMap)
+      throws IOException
+  {
+
+    // Map to hold the lines of each file, in the order of the file map
+    Map<String, LineSource> lineSourceMap =
+        new LinkedHashMap<String, LineSource>();
+
+    for (String currSourceFileName : theSourceFileMap.keySet())
+    {
+
+      lineSourceMap.put(currSourceFileName, newLineSource(currSourceFileName,
+          theSourceFileMap.get(currSourceFileName), null));
+
+    }
+
+    // the analyzers can only be run concurrently over the contents of the
+    // files when there are more analyzers than files. With so few files they
+    // are read into memory.
+    if (threadCount > 1 && theSourceFileMap.size() <= analyzerList.size()
+        && analyzerList.size() > 1 && analysisCache == null)
+    {
+
+      this.analyzeSourceConcurrently(lineSourceMap);
+
+    }
+    else
+    {
+
+      this.analyzeLineSources(lineSourceMap);
+
+    }
+
+  }
+
+  /**
+   * Method responsible for analyzing the lines of every file with every
+   * analyzer held by the engine, either on the calling thread or, when the
+   * engine has more than one thread or a cache, one file per task.
+   * 
+   * @param theLineSourceMap
+   *          The class name to lines association map.
+   * @throws IOException
+   *           If there are any problems reading the lines.
+   */
+  private void analyzeLineSources(Map<String, LineSource> theLineSourceMap)
+      throws IOException
+  {
+
+    if (threadCount > 1 || analysisCache != null)
+    {
+
+      this.analyzeSourceByFile(theLineSourceMap);
+
+      return;
+
+    }
+
+    for (SourceAnalyzer currAnalyzer : runList)
+    {
+
+      currAnalyzer.beginAnalysis();
+
+    }
+
+    // Iterate through the entire list of files in the program. Each line is
+    // classified once and the classified file passed to every analyzer.
+    for (LineSource currLineSource : theLineSourceMap.values())
+    {
+
+      ClassifiedFile currClassifiedFile = currLineSource.getClassifiedFile();
+
+      for (SourceAnalyzer currAnalyzer : runList)
+      {
+
+        currAnalyzer.analyzeClassifiedFile(currClassifiedFile);
+
+      }
+
+    }
+
+    for (SourceAnalyzer currAnalyzer : runList)
+    {
+
+      currAnalyzer.endAnalysis();
+
+    }
+
+  }
+
+  /**
+   * Method responsible for analyzing the source code with every analyzer held
+   * by the engine, each analyzer running on a thread of its own. Every file
+   * is read and classified before the analyzers are started and the
+   * classified files are shared between them.
+   * 
+   * @param theLineSourceMap
+   *          The class name to lines association map.
+   * @throws IOException
+   *           If there are any problems reading the lines.
+   */
+  private void analyzeSourceConcurrently(
+      Map<String, LineSource> theLineSourceMap) throws IOException
+  {
+
+    // List to hold the classified files, in the order of the map
+    final List<ClassifiedFile> classifiedFileList =
+        new ArrayList<ClassifiedFile>();
+
+    for (LineSource currLineSource : theLineSourceMap.values())
+    {
+
+      classifiedFileList.add(currLineSource.getClassifiedFile());
+
+    }
+
+    // the class hierarchy must be complete before it is read
+    if (hierarchyAnalyzer != null)
+    {
+
+      runAnalyzer(hierarchyAnalyzer, classifiedFileList);
+
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(
+        threadCount, analyzerList.size()));
+
+    try
+    {
+
+      // List to hold the pending result of each analyzer, in the order the
+      // analyzers were added
+      List<Future<Object>> futureList = new ArrayList<Future<Object>>();
+
+      for (final SourceAnalyzer currAnalyzer : analyzerList)
+      {
+
+        futureList.add(executor.submit(new Callable<Object>()
+        {
+
+          public Object call()
+          {
+
+            runAnalyzer(currAnalyzer, classifiedFileList);
+
+            return null;
+
+          }
+
+        }));
+
+      }
+
+      // wait for every analyzer to complete. The failure of the first
+      // analyzer in the list is reported, as it would be when run in order.
+      for (Future<Object> currFuture : futureList)
+      {
+
+        waitFor(currFuture);
+
+      }
+
+    }
+    finally
+    {
+
+      executor.shutdownNow();
+
+    }
+
+  }
+
+  /**
+   * Method responsible for analyzing the source code one file per task. Each
+   * file is analyzed by new analyzers of the same types as those held by the
+   * engine and the partial results are merged into the analyzers in the order
+   * of the files.
+   * 
+   * @param theLineSourceMap
+   *          The class name to lines association map.
+   * @throws IOException
+   *           If there are any problems reading the lines.
+   */
+  private void analyzeSourceByFile(Map<String, LineSource> theLineSourceMap)
+      throws IOException
+  {
+
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    // the fingerprint of the analyzers, null if the results are not cached
+    final String fingerprint = analysisCache == null ? null : analysisCache
+        .getFingerprint(runList);
+
+    try
+    {
+
+      // List to hold the names of the files in the order they are analyzed
+      List<String> fileNameList = new ArrayList<String>(theLineSourceMap
+          .keySet());
+      // List to hold the pending partial results of each file, in file order
+      List<Future<List<SourceAnalyzer>>> futureList =
+          new ArrayList<Future<List<SourceAnalyzer>>>();
+
+      for (String currSourceFileName : fileNameList)
+      {
+
+        final LineSource currLineSource = theLineSourceMap
+            .get(currSourceFileName);
+
+        futureList.add(executor.submit(new Callable<List<SourceAnalyzer>>()
+        {
+
+          public List<SourceAnalyzer> call() throws IOException
+          {
+
+            return analyzeFile(currLineSource, fingerprint);
+
+          }
+
+        }));
+
+      }
+
+      for (SourceAnalyzer currAnalyzer : runList)
+      {
+
+        currAnalyzer.beginAnalysis();
+
+      }
+
+      // merge the partial results in file order as they become available
+      for (int i = 0; i < fileNameList.size(); i++)
+      {
+
+        this.mergeFile(waitFor(futureList.get(i)));
+
+        // the partial results are no longer needed once merged
+        futureList.set(i, null);
+
+      }
+
+      for (SourceAnalyzer currAnalyzer : runList)
+      {
+
+        currAnalyzer.endAnalysis();
+
+      }
+
+    }
+    finally
+    {
+
+      executor.shutdownNow();
+
+    }
+
+  }
+
+  /**
+   * Method used to merge the partial results of a single file into the
+   * analyzers held by the engine.
+   * 
+   * @param thePartialList
+   *          The partial results of the file, in the order of the analyzers
+   */
+  void mergeFile(List<SourceAnalyzer> thePartialList)
+  {
+
+    for (int i = 0; i < runList.size(); i++)
+    {
+
+      runList.get(i).mergePartialResult(thePartialList.get(i));
+
+    }
+
+  }
+
+  /**
+   * Method used to find the partial results of a single file in the cache of
+   * the engine or, failing that, to analyze the file and write its partial
+   * results to the cache. The lines of the file found in the cache are not
+   * classified; its classification is taken from the cache.
+   * 
+   * @param theLineSource
+   *          The lines of the file
+   * @param theFingerprint
+   *          The fingerprint of the analyzers, or null if the results are not
+   *          cached
+   * @return the partial results of the file, in the order of the analyzers
+   * @throws IOException
+   *           If there are any problems reading the lines or writing the
+   *           cache.
+   */
+  List<SourceAnalyzer> analyzeFile(LineSource theLineSource,
+      String theFingerprint) throws IOException
+  {
+
+    if (theFingerprint == null)
+    {
+
+      return this.analyzeFile(theLineSource.getClassifiedFile());
+
+    }
+
+    List<String> fileContents = theLineSource.readLines();
+    String key = analysisCache.getKey(theFingerprint, theLineSource
+        .getSourceFileName(), fileContents);
+    AnalysisCache.Entry entry = analysisCache.read(key);
+
+    if (entry != null)
+    {
+
+      theLineSource.setClassification(entry.getClassification());
+
+      return entry.getPartialList();
+
+    }
+
+    ClassifiedFile classifiedFile = theLineSource.classify(fileContents);
+    List<SourceAnalyzer> partialList = this.analyzeFile(classifiedFile);
+
+    // written before the partial results are merged and may be changed
+    analysisCache.write(key, new AnalysisCache.Entry(classifiedFile
+        .withoutLines(), partialList));
+
+    return partialList;
+
+  }
+
+  /**
+   * Method used to analyze a single file with a new analyzer of the type of
+   * each analyzer held by the engine.
+   * 
+   * @param theClassifiedFile
+   *          The file to be analyzed
+   * @return the partial results of the file, in the order of the analyzers
+   */
+  List<SourceAnalyzer> analyzeFile(ClassifiedFile theClassifiedFile)
+  {
+
+    List<SourceAnalyzer> partialList = new ArrayList<SourceAnalyzer>();
+
+    for (SourceAnalyzer currAnalyzer : runList)
+    {
+
+      SourceAnalyzer partialAnalyzer = currAnalyzer.newPartialAnalyzer();
+
+      partialAnalyzer.beginAnalysis();
+      partialAnalyzer.analyzeClassifiedFile(theClassifiedFile);
+
+      partialList.add(partialAnalyzer);
+
+    }
+
+    return partialList;
+
+  }
+
+  /**
+   * Method used to run a single analyzer over files that have already been
+   * classified.
+   * 
+   * @param theSourceAnalyzer
+   *          The analyzer to be run
+   * @param theClassifiedFileList
+   *          The classified files, in the order they are analyzed
+   */
+  private static void runAnalyzer(SourceAnalyzer theSourceAnalyzer,
+      List<ClassifiedFile> theClassifiedFileList)
+  {
+
+    theSourceAnalyzer.beginAnalysis();
+
+    for (ClassifiedFile currClassifiedFile : theClassifiedFileList)
+    {
+
+      theSourceAnalyzer.analyzeClassifiedFile(currClassifiedFile);
+
+    }
+
+    theSourceAnalyzer.endAnalysis();
+
+  }
+
+  /**
+   * Method used to create the source of the lines of a file whose contents are
+   * held in memory.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theFileContents
+   *          The lines of the file
+   * @return the source of the lines
+   */
+  private static LineSource newLineSource(String theSourceFileName,
+      final List<String> theFileContents)
+  {
+
+    return new LineSource(theSourceFileName, null)
+    {
+
+      List<String> readLines()
+      {
+
+        return theFileContents;
+
+      }
+
+    };
+
+  }
+
+  /**
+   * Method used to create the source of the lines of a file which is read
+   * each time its lines are needed. The file is read by the reader of the
+   * calling thread and closed as soon as it has been read, before its lines
+   * are analyzed.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theSourceFile
+   *          The file to be read
+   * @param theClassification
+   *          The classification of the file, without its lines, or null if
+   *          the file has not been classified
+   * @return the source of the lines
+   */
+  LineSource newLineSource(String theSourceFileName,
+      final File theSourceFile, ClassifiedFile theClassification)
+  {
+
+    return new LineSource(theSourceFileName, theClassification)
+    {
+
+      List<String> readLines() throws IOException
+      {
+
+        SourceFileReader in = sourceFileReader.get();
+        // List to hold the lines of the file
+        List<String> fileContents = new ArrayList<String>();
+        // the view of the current line
+        CharSequence currLine;
+
+        in.open(theSourceFile);
+
+        // read each line of the file until we hit the end. The analyzers are
+        // given Strings, so each line is copied out of the reader once.
+        while ((currLine = in.readLine()) != null)
+        {
+
+          fileContents.add(currLine.toString());
+
+        }
+
+        return fileContents;
+
+      }
+
+    };
+
+  }
+
+  /**
+   * Method used to wait for a task to complete. Any exception thrown by the
+   * task is thrown again on the calling thread.
+   * 
+   * @param theFuture
+   *          The pending result of the task
+   * @return the result of the task
+   * @throws IOException
+   *           If the task failed to read the source.
+   */
+  static <T> T waitFor(Future<T> theFuture) throws IOException
+  {
+
+    try
+    {
+
+      return theFuture.get();
+
+    }
+    catch (InterruptedException e)
+    {
+
+      Thread.currentThread().interrupt();
+
+      throw new IllegalStateException("Interrupted while analyzing source", e);
+
+    }
+    catch (ExecutionException e)
+    {
+
+      Throwable cause = e.getCause();
+
+      if (cause instanceof IOException)
+      {
+
+        throw (IOException) cause;
+
+      }
+      if (cause instanceof RuntimeException)
+      {
+
+        throw (RuntimeException) cause;
+
+      }
+      if (cause instanceof Error)
+      {
+
+        throw (Error) cause;
+
+      }
+
+      throw new IllegalStateException(cause);
+
+    }
+
+  }
+
+  /**
+   * The lines of a single file. The lines may be analyzed more than once, but
+   * are classified only once. The classification is kept, without the lines,
+   * from the first time the file is classified.
+   */
+  static abstract class LineSource
+  {
+
+    /**
+     * The name of the file.
+     */
+    private String sourceFileName;
+
+    /**
+     * The classification of the file, without its lines, or null until the
+     * file is classified.
+     */
+    private ClassifiedFile classification;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theSourceFileName
+     *          The name of the file
+     * @param theClassification
+     *          The classification of the file, without its lines, or null if
+     *          the file has not been classified
+     */
+    LineSource(String theSourceFileName, ClassifiedFile theClassification)
+    {
+
+      this.sourceFileName = theSourceFileName;
+      this.classification = theClassification;
+
+    }
+
+    /**
+     * Method used to retrieve the name of the file.
+     * 
+     * @return the name of the file
+     */
+    String getSourceFileName()
+    {
+
+      return this.sourceFileName;
+
+    }
+
+    /**
+     * Method used to set the classification of the file, when it is known
+     * without the file being classified.
+     * 
+     * @param theClassification
+     *          The classification of the file, without its lines
+     */
+    void setClassification(ClassifiedFile theClassification)
+    {
+
+      this.classification = theClassification;
+
+    }
+
+    /**
+     * Method used to read the lines of the file.
+     * 
+     * @return the lines of the file
+     * @throws IOException
+     *           If there are any problems reading the lines.
+     */
+    abstract List<String> readLines() throws IOException;
+
+    /**
+     * Method used to attach the lines of the file to its classification,
+     * classifying the lines only if the file has not been classified.
+     * 
+     * @param theFileContents
+     *          The lines of the file, as read by readLines
+     * @return the classified file
+     */
+    ClassifiedFile classify(List<String> theFileContents)
+    {
+
+      ClassifiedFile classifiedFile;
+
+      if (classification == null)
+      {
+
+        classifiedFile = new ClassifiedFile(sourceFileName, theFileContents);
+
+      }
+      else
+      {
+
+        classifiedFile = classification.withLines(theFileContents);
+
+      }
+
+      classification = classifiedFile.withoutLines();
+
+      return classifiedFile;
+
+    }
+
+    /**
+     * Method used to retrieve the lines of the file along with their
+     * classification.
+     * 
+     * @return the classified file
+     * @throws IOException
+     *           If there are any problems reading the lines.
+     */
+    ClassifiedFile getClassifiedFile() throws IOException
+    {
+
+      return this.classify(this.readLines());
+
+    }
+
+  }
+
+}
@@ -0,0 +1,448 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.monmouth.se.oopap.io.SourceFileFinder;
+import edu.monmouth.se.oopap.io.SourceFileReader;
+
+/**
+ * Class responsible for running the analyzers of an engine over a source tree
+ * as a pipeline. Discovery of the files, reading of the files, classification
+ * of the lines and collection of the metrics each run as a stage on threads of
+ * their own, joined by bounded queues. A stage that gets ahead of the next
+ * blocks once the queue between them is full, so at most a few files are held
+ * in memory at once, while reading from disk overlaps with the analysis of the
+ * files already read.
+ * 
+ * The metrics of each file are collected as partial results, the metric stage
+ * running on as many threads as the engine has. When the engine has an
+ * AnalysisCache the partial results of a file are looked for in the cache
+ * once the file is read, and a file found there is neither classified nor
+ * analyzed. The order in which the files
+ * are analyzed is the iteration order of the map of files, which is only
+ * known once every file has been found, so the partial results are merged
+ * into the analyzers of the engine once the pipeline has drained. The results
+ * are the same as those of analyzing the same map of files with the engine.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class SourceAnalysisPipeline
+{
+
+  /**
+   * The number of files each queue between the stages may hold.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+  /**
+   * Marker placed on a queue after the last file.
+   */
+  private static final SourceFile END_OF_FILES = new SourceFile(null, null);
+
+  /**
+   * The engine holding the analyzers.
+   */
+  private SourceAnalysisEngine analysisEngine;
+
+  /**
+   * The number of files each queue between the stages may hold.
+   */
+  private int queueCapacity;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theAnalysisEngine
+   *          The engine holding the analyzers to be run
+   */
+  public SourceAnalysisPipeline(SourceAnalysisEngine theAnalysisEngine)
+  {
+
+    this.analysisEngine = theAnalysisEngine;
+    this.queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+  }
+
+  /**
+   * Method used to set the number of files each queue between the stages may
+   * hold.
+   * 
+   * @param theQueueCapacity
+   *          The capacity, a capacity less than 1 is treated as 1
+   */
+  public void setQueueCapacity(int theQueueCapacity)
+  {
+
+    this.queueCapacity = Math.max(1, theQueueCapacity);
+
+  }
+
+  /**
+   * Method used to retrieve the number of files each queue between the stages
+   * may hold.
+   * 
+   * @return the capacity
+   */
+  public int getQueueCapacity()
+  {
+
+    return this.queueCapacity;
+
+  }
+
+  /**
+   * Method responsible for analyzing every file found by a finder with every
+   * analyzer held by the engine. Each file is named by its path relative to
+   * the path walked by the finder. After the analysis is run the report
+   * methods of each analyzer must be used to obtain the results.
+   * 
+   * @param theSourceFileFinder
+   *          The finder walking the source tree
+   * @return the class name to file association map of the files analyzed, in
+   *         the order they were analyzed
+   * @throws IOException
+   *           If there are any problems reading data from the files.
+   */
+  public Map<String, File> analyzeSource(
+      final SourceFileFinder theSourceFileFinder) throws IOException
+  {
+
+    // the files found, in the order they are found. Only read once the
+    // discovery stage has completed.
+    final Map<String, File> sourceFileMap = new HashMap<String, File>();
+    // the partial results of each file, added by the metric stage
+    final Map<String, List<SourceAnalyzer>> partialResultMap =
+        new ConcurrentHashMap<String, List<SourceAnalyzer>>();
+    // the queues joining the stages
+    final BlockingQueue<SourceFile> discoveredQueue =
+        new ArrayBlockingQueue<SourceFile>(queueCapacity);
+    final BlockingQueue<SourceFile> readQueue =
+        new ArrayBlockingQueue<SourceFile>(queueCapacity);
+    final BlockingQueue<SourceFile> classifiedQueue =
+        new ArrayBlockingQueue<SourceFile>(queueCapacity);
+    // the number of threads collecting the metrics
+    final int metricThreadCount = analysisEngine.getThreadCount();
+    // the cache of partial results and the fingerprint of the analyzers,
+    // null if the results are not cached
+    final AnalysisCache analysisCache = analysisEngine.getAnalysisCache();
+    final String fingerprint = analysisCache == null ? null : analysisCache
+        .getFingerprint(analysisEngine.getRunList());
+    // the stages of the pipeline
+    List<Callable<Object>> stageList = new ArrayList<Callable<Object>>();
+
+    // discovery: walk the source tree
+    stageList.add(new Callable<Object>()
+    {
+
+      public Object call() throws InterruptedException
+      {
+
+        for (File currFile : theSourceFileFinder)
+        {
+
+          String currSourceFileName = theSourceFileFinder
+              .getRelativePath(currFile);
+
+          sourceFileMap.put(currSourceFileName, currFile);
+          discoveredQueue.put(new SourceFile(currSourceFileName, currFile));
+
+        }
+
+        discoveredQueue.put(END_OF_FILES);
+
+        return null;
+
+      }
+
+    });
+
+    // reading: read the lines of each file
+    stageList.add(new Callable<Object>()
+    {
+
+      public Object call() throws InterruptedException, IOException
+      {
+
+        SourceFileReader in = new SourceFileReader(analysisEngine.getCharset());
+        SourceFile currSourceFile;
+
+        while ((currSourceFile = discoveredQueue.take()) != END_OF_FILES)
+        {
+
+          // the view of the current line
+          CharSequence currLine;
+
+          currSourceFile.fileContents = new ArrayList<String>();
+          in.open(currSourceFile.file);
+
+          while ((currLine = in.readLine()) != null)
+          {
+
+            currSourceFile.fileContents.add(currLine.toString());
+
+          }
+
+          readQueue.put(currSourceFile);
+
+        }
+
+        readQueue.put(END_OF_FILES);
+
+        return null;
+
+      }
+
+    });
+
+    // classification: determine the type of each line, unless the partial
+    // results of the file are cached
+    stageList.add(new Callable<Object>()
+    {
+
+      public Object call() throws InterruptedException
+      {
+
+        SourceFile currSourceFile;
+
+        while ((currSourceFile = readQueue.take()) != END_OF_FILES)
+        {
+
+          AnalysisCache.Entry entry = null;
+
+          if (fingerprint != null)
+          {
+
+            currSourceFile.cacheKey = analysisCache.getKey(fingerprint,
+                currSourceFile.name, currSourceFile.fileContents);
+            entry = analysisCache.read(currSourceFile.cacheKey);
+
+          }
+
+          if (entry != null)
+          {
+
+            partialResultMap.put(currSourceFile.name, entry.getPartialList());
+
+          }
+          else
+          {
+
+            currSourceFile.classifiedFile = new ClassifiedFile(
+                currSourceFile.name, currSourceFile.fileContents);
+            currSourceFile.fileContents = null;
+            classifiedQueue.put(currSourceFile);
+
+          }
+
+        }
+
+        // every metric thread stops at its own marker
+        for (int i = 0; i < metricThreadCount; i++)
+        {
+
+          classifiedQueue.put(END_OF_FILES);
+
+        }
+
+        return null;
+
+      }
+
+    });
+
+    // metric collection: the partial results of each file
+    for (int i = 0; i < metricThreadCount; i++)
+    {
+
+      stageList.add(new Callable<Object>()
+      {
+
+        public Object call() throws InterruptedException, IOException
+        {
+
+          SourceFile currSourceFile;
+
+          while ((currSourceFile = classifiedQueue.take()) != END_OF_FILES)
+          {
+
+            List<SourceAnalyzer> partialList = analysisEngine
+                .analyzeFile(currSourceFile.classifiedFile);
+            ClassifiedFile classification = currSourceFile.classifiedFile
+                .withoutLines();
+
+            if (currSourceFile.cacheKey != null)
+            {
+
+              analysisCache.write(currSourceFile.cacheKey,
+                  new AnalysisCache.Entry(classification, partialList));
+
+            }
+
+            partialResultMap.put(currSourceFile.name, partialList);
+
+          }
+
+          return null;
+
+        }
+
+      });
+
+    }
+
+    this.runStages(stageList);
+
+    for (SourceAnalyzer currAnalyzer : analysisEngine.getRunList())
+    {
+
+      currAnalyzer.beginAnalysis();
+
+    }
+
+    // merge the partial results in the order of the map of files
+    for (String currSourceFileName : sourceFileMap.keySet())
+    {
+
+      analysisEngine.mergeFile(partialResultMap.remove(currSourceFileName));
+
+    }
+
+    for (SourceAnalyzer currAnalyzer : analysisEngine.getRunList())
+    {
+
+      currAnalyzer.endAnalysis();
+
+    }
+
+    return sourceFileMap;
+
+  }
+
+  /**
+   * Method used to run the stages of the pipeline, each on a thread of its
+   * own, and wait for them to complete. Should any stage fail the remaining
+   * stages are interrupted, so that none is left blocked on a queue, and the
+   * failure is thrown on the calling thread.
+   * 
+   * @param theStageList
+   *          The stages to be run
+   * @throws IOException
+   *           If a stage failed to read the source.
+   */
+  private void runStages(List<Callable<Object>> theStageList)
+      throws IOException
+  {
+
+    ExecutorService executor = Executors.newFixedThreadPool(theStageList
+        .size());
+    CompletionService<Object> completionService =
+        new ExecutorCompletionService<Object>(executor);
+
+    try
+    {
+
+      for (Callable<Object> currStage : theStageList)
+      {
+
+        completionService.submit(currStage);
+
+      }
+
+      // wait for the stages in the order they complete, so that the first
+      // failure is seen at once
+      for (int i = 0; i < theStageList.size(); i++)
+      {
+
+        try
+        {
+
+          SourceAnalysisEngine.waitFor(completionService.take());
+
+        }
+        catch (InterruptedException e)
+        {
+
+          Thread.currentThread().interrupt();
+
+          throw new IllegalStateException(
+              "Interrupted while analyzing source", e);
+
+        }
+
+      }
+
+    }
+    finally
+    {
+
+      executor.shutdownNow();
+
+    }
+
+  }
+
+  /**
+   * A single file passing through the pipeline.
+   */
+  private static class SourceFile
+  {
+
+    /**
+     * The name of the file.
+     */
+    private String name;
+
+    /**
+     * The file.
+     */
+    private File file;
+
+    /**
+     * The lines of the file, once read and until classified.
+     */
+    private List<String> fileContents;
+
+    /**
+     * The lines of the file along with their types, once classified.
+     */
+    private ClassifiedFile classifiedFile;
+
+    /**
+     * The key of the entry of the file in the cache, null if the results are
+     * not cached.
+     */
+    private String cacheKey;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theName
+     *          The name of the file
+     * @param theFile
+     *          The file
+     */
+    SourceFile(String theName, File theFile)
+    {
+
+      this.name = theName;
+      this.file = theFile;
+
+    }
+
+  }
+
+}
@@ -1,17 +1,56 @@
 package edu.monmouth.se.oopap.sourceanalyzer;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import edu.monmouth.se.oopap.enumerator.LineType;
+import edu.monmouth.se.oopap.io.WorksheetWriter;
+
 /**
  * Abstract representation of a source analyzer.
  * 
+ * An analyzer is driven line by line. For every analysis run beginAnalysis is
+ * called once, followed by beginFile, analyzeLine for each line of the file
+ * and endFile for every file, and finally endAnalysis. This allows a number of
+ * analyzers to be driven from a single pass over the source by the
+ * SourceAnalysisEngine, with each line classified only once.
+ * 
+ * The lines of a file are handed to the analyzer, classified, as a
+ * ClassifiedFile by analyzeClassifiedFile, which calls beginFile, analyzeLine
+ * and endFile in turn. An analyzer wishing to read the file as a whole, or
+ * the boundaries of its classes and operations, overrides that method.
+ * 
+ * The files of a program may also be analyzed independently of each other.
+ * analyzeFile produces the partial result of a single file, using a new
+ * analyzer of the same type, and the partial results are then merged, in the
+ * order the files would have been analyzed, by mergePartialResult. Once every
+ * partial result has been merged endAnalysis completes the analysis.
+ * 
+ * Partial results are serializable, so that they may be kept by an
+ * AnalysisCache. Fields only needed while a file is being analyzed, and
+ * which are not read by mergePartialResult, may be transient.
+ * 
+ * The worksheet report may be written out a row at a time to a
+ * WorksheetWriter by writeWorksheetReport. An analyzer whose report is large
+ * overrides that method to write the rows as they are generated, and
+ * implements generateWorksheetReport with collectWorksheetReport.
+ * 
  * @author Andrew Tasso
  * @version %I% %G%
  */
-public abstract class SourceAnalyzer
+public abstract class SourceAnalyzer implements Serializable
 {
 
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
   /**
    * Method responsible to analyzing the source code. After the report is run
    * the report methods must be used to obtain the results of the report.
@@ -21,7 +60,221 @@ public abstract class SourceAnalyzer
    *          class name. The value is a List of Strings representing the
    *          contents of the class.
    */
-  public abstract void analyzeSource(Map<String, List<String>> theSourceMap);
+  public void analyzeSource(Map<String, List<String>> theSourceMap)
+  {
+
+    this.beginAnalysis();
+
+    // Iterate through the entire list of files in the program, passing every
+    // line of every file to the analyzer along with its line type
+    for (String currSourceFileName : theSourceMap.keySet())
+    {
+
+      this.analyzeClassifiedFile(new ClassifiedFile(currSourceFileName,
+          theSourceMap.get(currSourceFileName)));
+
+    }
+
+    this.endAnalysis();
+
+  }
+
+  /**
+   * Method responsible to analyzing the source files. Each file is read one
+   * line at a time as it is analyzed, rather than held in memory. After the
+   * report is run the report methods must be used to obtain the results of
+   * the report.
+   * 
+   * @param theSourceFileMap
+   *          The class name to file association map. The key is the class
+   *          name, the value is the file containing the class.
+   * @throws IOException
+   *           If there are any problems reading data from the files.
+   */
+  public void analyzeSourceFiles(Map<String, File> theSourceFileMap)
+      throws IOException
+  {
+
+    SourceAnalysisEngine analysisEngine = new SourceAnalysisEngine();
+
+    analysisEngine.addAnalyzer(this);
+    analysisEngine.analyzeSourceFiles(theSourceFileMap);
+
+  }
+
+  /**
+   * Method responsible for beginning a new analysis. Any previous analysis is
+   * discarded.
+   */
+  public abstract void beginAnalysis();
+
+  /**
+   * Method responsible for beginning the analysis of a single file.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public abstract void beginFile(String theSourceFileName);
+
+  /**
+   * Method responsible for analyzing a single line of the current file. Lines
+   * are provided in the order they appear in the file.
+   * 
+   * @param theLine
+   *          The line of source
+   * @param theLineType
+   *          The classification of the line
+   */
+  public abstract void analyzeLine(String theLine, LineType theLineType);
+
+  /**
+   * Method responsible for completing the analysis of the current file.
+   */
+  public abstract void endFile();
+
+  /**
+   * Method responsible for analyzing a single classified file. The file is
+   * begun, each of its lines is analyzed along with its line type, in order,
+   * and the file is completed.
+   * 
+   * @param theClassifiedFile
+   *          The file to be analyzed
+   */
+  public void analyzeClassifiedFile(ClassifiedFile theClassifiedFile)
+  {
+
+    this.beginFile(theClassifiedFile.getSourceFileName());
+
+    for (int i = 0; i < theClassifiedFile.getLineCount(); i++)
+    {
+
+      this.analyzeLine(theClassifiedFile.getLine(i), theClassifiedFile
+          .getLineType(i));
+
+    }
+
+    this.endFile();
+
+  }
+
+  /**
+   * Method responsible for completing the analysis once every file has been
+   * analyzed. Analyzers whose results span files complete them here.
+   */
+  public void endAnalysis()
+  {
+
+  }
+
+  /**
+   * Method responsible for creating a new analyzer of the same type as this
+   * analyzer. The new analyzer is used to hold the partial result of a single
+   * file. The default implementation requires the analyzer to have a public
+   * constructor without arguments.
+   * 
+   * @return the new analyzer
+   */
+  public SourceAnalyzer newPartialAnalyzer()
+  {
+
+    try
+    {
+
+      return this.getClass().getDeclaredConstructor().newInstance();
+
+    }
+    catch (NoSuchMethodException e)
+    {
+
+      throw new IllegalStateException("Unable to create a "
+          + this.getClass().getName(), e);
+
+    }
+    catch (InstantiationException e)
+    {
+
+      throw new IllegalStateException("Unable to create a "
+          + this.getClass().getName(), e);
+
+    }
+    catch (IllegalAccessException e)
+    {
+
+      throw new IllegalStateException("Unable to create a "
+          + this.getClass().getName(), e);
+
+    }
+    catch (InvocationTargetException e)
+    {
+
+      throw new IllegalStateException("Unable to create a "
+          + this.getClass().getName(), e.getCause());
+
+    }
+
+  }
+
+  /**
+   * Method responsible for analyzing a single file independently of every
+   * other file. The file is analyzed by a new analyzer of the same type which
+   * is returned to be merged with mergePartialResult. The state of this
+   * analyzer is not changed.
+   * 
+   * @param theSourceFileName
+   *          The name of the file to be analyzed
+   * @param theFileContents
+   *          The lines of the file
+   * @return the analyzer holding the partial result of the file
+   */
+  public SourceAnalyzer analyzeFile(String theSourceFileName,
+      List<String> theFileContents)
+  {
+
+    SourceAnalyzer partialAnalyzer = this.newPartialAnalyzer();
+
+    partialAnalyzer.beginAnalysis();
+    partialAnalyzer.analyzeClassifiedFile(new ClassifiedFile(
+        theSourceFileName, theFileContents));
+
+    return partialAnalyzer;
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file, as
+   * produced by analyzeFile, into the analysis. Partial results must be merged
+   * in the order the files would have been analyzed and only after
+   * beginAnalysis has been called.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result, of the same type as
+   *          this analyzer
+   */
+  public abstract void mergePartialResult(SourceAnalyzer thePartialResult);
+
+  /**
+   * Method used to add every entry of the map of a partial result to a map of
+   * this analyzer. The entries are put one at a time, in order, as
+   * HashMap.putAll may size a new table differently, changing the order in
+   * which the reports list the entries.
+   * 
+   * @param theMap
+   *          The map of this analyzer
+   * @param thePartialMap
+   *          The map of the partial result
+   */
+  protected static <V> void mergeMap(Map<String, V> theMap,
+      Map<String, V> thePartialMap)
+  {
+
+    for (Map.Entry<String, V> currEntry : thePartialMap.entrySet())
+    {
+
+      theMap.put(currEntry.getKey(), currEntry.getValue());
+
+    }
+
+  }
 
   /**
    * Method responsible for generating a report ready to be output to the
@@ -34,11 +287,105 @@ public abstract class SourceAnalyzer
   /**
    * Method responsible for generating a 2 dimensional array of strings ready to
    * be written to a Comma Separate Value file. The contents of the 2
-   * dimensional array will directly reflect the contents of the CSV file. 
+   * dimensional array will directly reflect the contents of the CSV file.
    * 
    * @return the 2 dimensional array of strings ready to be written to the
    *         CSV file.
    */
   public abstract List<List<String>> generateWorksheetReport();
 
+  /**
+   * Method responsible for writing the worksheet report a row at a time. By
+   * default the rows of generateWorksheetReport are written; a null report
+   * writes no rows.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the rows are written to
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void writeWorksheetReport(WorksheetWriter theWorksheetWriter)
+      throws IOException
+  {
+
+    List<List<String>> worksheetReport = this.generateWorksheetReport();
+
+    if (worksheetReport != null)
+    {
+
+      for (List<String> currRow : worksheetReport)
+      {
+
+        for (String currCell : currRow)
+        {
+
+          theWorksheetWriter.writeCell(currCell);
+
+        }
+
+        theWorksheetWriter.endRow();
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Method used by an analyzer overriding writeWorksheetReport to generate the
+   * worksheet report from the rows written by that method.
+   * 
+   * @return the 2 dimensional array of strings written by
+   *         writeWorksheetReport
+   */
+  protected List<List<String>> collectWorksheetReport()
+  {
+
+    final List<List<String>> worksheetReport = new ArrayList<List<String>>();
+
+    try
+    {
+
+      this.writeWorksheetReport(new WorksheetWriter()
+      {
+
+        private List<String> currRow = new ArrayList<String>();
+
+        public void writeCell(String theCell)
+        {
+
+          currRow.add(theCell);
+
+        }
+
+        public void writeCell(int theCell)
+        {
+
+          currRow.add(Integer.toString(theCell));
+
+        }
+
+        public void endRow()
+        {
+
+          worksheetReport.add(currRow);
+          currRow = new ArrayList<String>();
+
+        }
+
+      });
+
+    }
+    catch (IOException e)
+    {
+
+      // the rows are only added to a list
+      throw new IllegalStateException(e.toString());
+
+    }
+
+    return worksheetReport;
+
+  }
+
 }
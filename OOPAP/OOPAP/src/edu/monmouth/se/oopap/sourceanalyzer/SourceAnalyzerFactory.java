@@ -89,6 +89,30 @@ public class SourceAnalyzerFactory
     	
       return new CodingViolationSourceAnalyzer();
       
+    case DecisionAndLoopCountByPCO:
+
+      return new DecisionAndLoopCountSourceAnalyzer();
+
+    case GlobalVarCountByPC:
+
+      return new GlobalVarCountSourceAnalyzer();
+
+    case TotalOperators:
+
+      return new TotalOperatorsSourceAnalyzer();
+
+    case TotalLibraryCalls:
+
+      return new TotalLibraryCallsSourceAnalyzer();
+
+    case Top5_20PercentOfCalculations:
+
+      return new TopCalculationsSourceAnalyzer();
+
+    case MeanMedStdDeviationOfCalcCount:
+
+      return new CalculationStatisticsSourceAnalyzer();
+
     default:
 
       throw new UnhandledReportTypeException("Unhandled Analyzer Encountered: "
@@ -0,0 +1,1063 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.OperatorCounter;
+import edu.monmouth.se.oopap.analyzer.SourceTokenizer;
+import edu.monmouth.se.oopap.analyzer.TokenBuffer;
+import edu.monmouth.se.oopap.enumerator.TokenCountType;
+import edu.monmouth.se.oopap.enumerator.TokenType;
+
+/**
+ * The counts taken from the tokens of a single classified file, for the file
+ * as a whole and for each of its operations. The file is tokenized once, by a
+ * SourceTokenizer, when the counts are created, and every analyzer reading
+ * the counts of the file shares them, so however many reports are taken from
+ * the tokens the file is only tokenized once.
+ * 
+ * The operations are those found by the ClassifiedFile, and a token belongs
+ * to the operation whose lines hold it. The tokens of comments are never
+ * counted. Besides the counts of each TokenCountType the calls are counted by
+ * the name called, the number of static fields declared outside of the
+ * operations of the file is counted, and the names of the classes and
+ * operations declared by the file are kept, so that calls to the program may
+ * be told from calls to a library.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class TokenMetrics
+{
+
+  /**
+   * Every token count type, indexed by ordinal.
+   */
+  private static final TokenCountType[] COUNT_TYPES = TokenCountType.values();
+
+  /**
+   * The keywords naming a type which may be returned by an operation, so that
+   * the declaration of an operation is not counted as a call.
+   */
+  private static final String[] TYPE_KEYWORDS = { "void", "boolean", "byte",
+      "char", "short", "int", "long", "float", "double" };
+
+  /**
+   * The keywords declaring a class.
+   */
+  private static final String[] CLASS_KEYWORDS = { "class", "interface",
+      "enum" };
+
+  /**
+   * The name of each operation, in the order declared.
+   */
+  private String[] operationNames;
+
+  /**
+   * The counts of each operation, indexed by the ordinal of the count type
+   * and then by operation.
+   */
+  private int[][] operationCounts;
+
+  /**
+   * The counts of the whole file, indexed by the ordinal of the count type.
+   */
+  private int[] fileCounts;
+
+  /**
+   * The number of times each name is called by each operation, in the order
+   * declared, null for an operation which calls nothing.
+   */
+  private List<Map<String, Integer>> operationCallMaps;
+
+  /**
+   * The number of times each name is called by the whole file.
+   */
+  private Map<String, Integer> fileCallMap;
+
+  /**
+   * The names of the classes and operations declared by the file.
+   */
+  private Set<String> declaredNames;
+
+  /**
+   * The number of static fields declared outside of the operations.
+   */
+  private int staticFieldCount;
+
+  /**
+   * Primary constructor. Tokenizes every line of the file and takes the
+   * counts.
+   * 
+   * @param theClassifiedFile
+   *          The file, holding its lines
+   */
+  TokenMetrics(ClassifiedFile theClassifiedFile)
+  {
+
+    int operationCount = theClassifiedFile.getOperationCount();
+
+    this.operationNames = new String[operationCount];
+    this.operationCounts = new int[COUNT_TYPES.length][operationCount];
+    this.fileCounts = new int[COUNT_TYPES.length];
+    this.operationCallMaps = new ArrayList<Map<String, Integer>>(
+        operationCount);
+    this.fileCallMap = new LinkedHashMap<String, Integer>();
+    this.declaredNames = new LinkedHashSet<String>();
+
+    for (int i = 0; i < operationCount; i++)
+    {
+
+      operationNames[i] = LineAnalyzer.getOperationName(theClassifiedFile
+          .getLine(theClassifiedFile.getOperationStartLine(i)));
+      declaredNames.add(operationNames[i]);
+      operationCallMaps.add(null);
+
+    }
+
+    new Scan(theClassifiedFile).run();
+
+  }
+
+  /**
+   * Method used to retrieve the number of operations of the file.
+   * 
+   * @return the number of operations
+   */
+  public int getOperationCount()
+  {
+
+    return this.operationNames.length;
+
+  }
+
+  /**
+   * Method used to retrieve the name of an operation.
+   * 
+   * @param theOperationIndex
+   *          The index of the operation, in the order declared
+   * @return the name of the operation
+   */
+  public String getOperationName(int theOperationIndex)
+  {
+
+    return this.operationNames[theOperationIndex];
+
+  }
+
+  /**
+   * Method used to retrieve a count of an operation.
+   * 
+   * @param theCountType
+   *          The type of the count
+   * @param theOperationIndex
+   *          The index of the operation, in the order declared
+   * @return the count
+   */
+  public int getOperationCount(TokenCountType theCountType,
+      int theOperationIndex)
+  {
+
+    return this.operationCounts[theCountType.ordinal()][theOperationIndex];
+
+  }
+
+  /**
+   * Method used to retrieve a count of the whole file, including the tokens
+   * outside of its operations.
+   * 
+   * @param theCountType
+   *          The type of the count
+   * @return the count
+   */
+  public int getFileCount(TokenCountType theCountType)
+  {
+
+    return this.fileCounts[theCountType.ordinal()];
+
+  }
+
+  /**
+   * Method used to retrieve the number of times each name is called by an
+   * operation.
+   * 
+   * @param theOperationIndex
+   *          The index of the operation, in the order declared
+   * @return the unmodifiable name to call count association map
+   */
+  public Map<String, Integer> getOperationCalls(int theOperationIndex)
+  {
+
+    Map<String, Integer> callMap = this.operationCallMaps
+        .get(theOperationIndex);
+
+    if (callMap == null)
+    {
+
+      return Collections.emptyMap();
+
+    }
+
+    return Collections.unmodifiableMap(callMap);
+
+  }
+
+  /**
+   * Method used to retrieve the number of times each name is called by the
+   * whole file.
+   * 
+   * @return the unmodifiable name to call count association map
+   */
+  public Map<String, Integer> getFileCalls()
+  {
+
+    return Collections.unmodifiableMap(this.fileCallMap);
+
+  }
+
+  /**
+   * Method used to retrieve the names of the classes and operations declared
+   * by the file.
+   * 
+   * @return the unmodifiable set of names
+   */
+  public Set<String> getDeclaredNames()
+  {
+
+    return Collections.unmodifiableSet(this.declaredNames);
+
+  }
+
+  /**
+   * Method used to retrieve the number of static fields declared outside of
+   * the operations of the file. Each variable of a declaration declaring
+   * several is counted.
+   * 
+   * @return the number of static fields
+   */
+  public int getStaticFieldCount()
+  {
+
+    return this.staticFieldCount;
+
+  }
+
+  /**
+   * Method used to add one to the count of a name called.
+   * 
+   * @param theCallMap
+   *          The name to call count association map
+   * @param theName
+   *          The name called
+   */
+  private static void addCall(Map<String, Integer> theCallMap, String theName)
+  {
+
+    Integer callCount = theCallMap.get(theName);
+
+    theCallMap.put(theName, callCount == null ? 1 : callCount + 1);
+
+  }
+
+  /**
+   * The single pass over the tokens of a file taking the counts. The state
+   * carried from one token to the next is held here rather than by the
+   * counts.
+   */
+  private class Scan
+  {
+
+    /**
+     * The file scanned.
+     */
+    private ClassifiedFile classifiedFile;
+
+    /**
+     * The tokens of the current line.
+     */
+    private TokenBuffer tokenBuffer;
+
+    /**
+     * The current line.
+     */
+    private String currLine;
+
+    /**
+     * The index of the current line.
+     */
+    private int currLineIndex;
+
+    /**
+     * The index of the operation holding the current line, -1 if the line is
+     * outside of every operation.
+     */
+    private int currOperation;
+
+    /**
+     * The depth of the braces at the current token.
+     */
+    private int braceDepth;
+
+    /**
+     * The number of type arguments opened by an angle bracket and not yet
+     * closed.
+     */
+    private int typeArgumentDepth;
+
+    /**
+     * The depth of the braces at each do whose while has not yet been read.
+     */
+    private int[] doDepths;
+
+    /**
+     * The number of do loops whose while has not yet been read.
+     */
+    private int doCount;
+
+    /**
+     * The type of the previous token, Unknown at the start of the file.
+     */
+    private TokenType prevType;
+
+    /**
+     * The first character of the previous token.
+     */
+    private char prevChar;
+
+    /**
+     * Whether the previous token is a keyword naming a type.
+     */
+    private boolean prevTypeKeyword;
+
+    /**
+     * Whether the previous token is a keyword declaring a class.
+     */
+    private boolean prevClassKeyword;
+
+    /**
+     * Whether the identifier last read, if followed by an opening
+     * parenthesis, is a call.
+     */
+    private boolean identifierCalled;
+
+    /**
+     * Whether the identifier last read names an annotation.
+     */
+    private boolean identifierAnnotation;
+
+    /**
+     * The name of the identifier last read, held only until the next token
+     * is read.
+     */
+    private String identifierName;
+
+    /**
+     * Whether the current statement outside of the operations is static.
+     */
+    private boolean fieldStatic;
+
+    /**
+     * Whether the current statement outside of the operations is an import or
+     * declares an operation, and so declares no field.
+     */
+    private boolean fieldExcluded;
+
+    /**
+     * Whether the current statement outside of the operations is an import,
+     * whose tokens are not counted.
+     */
+    private boolean fieldImport;
+
+    /**
+     * Whether an initializer has been read in the current statement outside
+     * of the operations.
+     */
+    private boolean fieldInitialized;
+
+    /**
+     * The number of variables declared by the current statement outside of
+     * the operations.
+     */
+    private int fieldCount;
+
+    /**
+     * The depth of the parentheses, braces and angle brackets within the
+     * current statement outside of the operations.
+     */
+    private int fieldNesting;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theClassifiedFile
+     *          The file to be scanned
+     */
+    Scan(ClassifiedFile theClassifiedFile)
+    {
+
+      this.classifiedFile = theClassifiedFile;
+      this.tokenBuffer = new TokenBuffer();
+      this.currOperation = -1;
+      this.braceDepth = 0;
+      this.typeArgumentDepth = 0;
+      this.doDepths = new int[8];
+      this.doCount = 0;
+      this.prevType = TokenType.Unknown;
+      this.endField();
+
+    }
+
+    /**
+     * Method used to scan every token of the file, in order.
+     */
+    void run()
+    {
+
+      SourceTokenizer tokenizer = new SourceTokenizer();
+      // the index of the next operation to begin
+      int nextOperation = 0;
+
+      for (int i = 0; i < classifiedFile.getLineCount(); i++)
+      {
+
+        // find the operation holding the line. The operations of a
+        // classified file never overlap.
+        if (nextOperation < operationNames.length
+            && classifiedFile.getOperationStartLine(nextOperation) == i)
+        {
+
+          currOperation = nextOperation++;
+          this.endField();
+
+        }
+        else if (currOperation >= 0
+            && i > classifiedFile.getOperationEndLine(currOperation))
+        {
+
+          currOperation = -1;
+
+        }
+
+        currLine = classifiedFile.getLine(i);
+        currLineIndex = i;
+        tokenBuffer.clear();
+        tokenizer.tokenizeLine(currLine, tokenBuffer);
+
+        for (int token = 0; token < tokenBuffer.getTokenCount(); token++)
+        {
+
+          if (tokenBuffer.getTokenType(token) != TokenType.Comment)
+          {
+
+            this.scanToken(token);
+
+          }
+
+        }
+
+      }
+
+    }
+
+    /**
+     * Method used to scan a single token of the current line.
+     * 
+     * @param theToken
+     *          The index of the token within the buffer
+     */
+    private void scanToken(int theToken)
+    {
+
+      TokenType tokenType = tokenBuffer.getTokenType(theToken);
+      int start = tokenBuffer.getTokenStart(theToken);
+      int end = tokenBuffer.getTokenEnd(theToken);
+      // the continuation of a text block may be empty
+      char firstChar = start < end ? currLine.charAt(start) : 0;
+      boolean typeKeyword = false;
+      boolean classKeyword = false;
+
+      switch (tokenType)
+      {
+
+      case Operator:
+
+        // the asterisk of an import on demand is not a multiplication
+        if (fieldImport)
+        {
+
+          break;
+
+        }
+
+        this.scanFieldOperator(firstChar, end - start);
+
+        // the angle brackets of type arguments are not operators
+        if (this.isTypeArgumentBracket(theToken, firstChar))
+        {
+
+          break;
+
+        }
+
+        this.count(TokenCountType.Operator);
+
+        if (OperatorCounter.getOperatorType(currLine, start, end) != null)
+        {
+
+          this.count(TokenCountType.Calculation);
+
+        }
+        // the question mark of a wildcard type argument is not a decision
+        if (firstChar == '?' && prevChar != '<' && prevChar != ',')
+        {
+
+          this.count(TokenCountType.Decision);
+
+        }
+
+        break;
+
+      case Keyword:
+
+        typeKeyword = this.tokenIn(theToken, TYPE_KEYWORDS);
+        classKeyword = prevChar != '.'
+            && this.tokenIn(theToken, CLASS_KEYWORDS);
+        this.scanKeyword(theToken);
+
+        break;
+
+      case Identifier:
+
+        // a name following a type is being declared, not called. Within the
+        // body of an operation only a call may follow a closing angle
+        // bracket, as a declaration begins an operation of its own.
+        identifierAnnotation = prevChar == '@';
+        identifierCalled = !identifierAnnotation
+            && prevType != TokenType.Identifier && !prevTypeKeyword
+            && prevChar != ']'
+            && (prevChar != '>' || this.inOperationBody());
+        identifierName = tokenBuffer.getTokenText(theToken, currLine);
+
+        if (prevClassKeyword)
+        {
+
+          declaredNames.add(identifierName);
+
+        }
+
+        break;
+
+      case Separator:
+
+        this.scanSeparator(firstChar);
+
+        break;
+
+      case OpenBrace:
+
+        typeArgumentDepth = 0;
+        braceDepth++;
+        this.scanFieldBrace(true);
+
+        break;
+
+      case CloseBrace:
+
+        typeArgumentDepth = 0;
+        braceDepth--;
+        this.scanFieldBrace(false);
+
+        break;
+
+      }
+
+      if (tokenType != TokenType.Identifier)
+      {
+
+        identifierName = null;
+
+      }
+
+      prevType = tokenType;
+      prevChar = firstChar;
+      prevTypeKeyword = typeKeyword;
+      prevClassKeyword = classKeyword;
+
+    }
+
+    /**
+     * Method used to scan a keyword, counting the decisions and loops.
+     * 
+     * @param theToken
+     *          The index of the token within the buffer
+     */
+    private void scanKeyword(int theToken)
+    {
+
+      if (this.tokenIs(theToken, "if") || this.tokenIs(theToken, "case"))
+      {
+
+        this.count(TokenCountType.Decision);
+
+      }
+      else if (this.tokenIs(theToken, "for"))
+      {
+
+        this.count(TokenCountType.Loop);
+
+      }
+      else if (this.tokenIs(theToken, "do"))
+      {
+
+        this.count(TokenCountType.Loop);
+
+        if (doCount == doDepths.length)
+        {
+
+          int[] newDepths = new int[doCount * 2];
+
+          System.arraycopy(doDepths, 0, newDepths, 0, doCount);
+          doDepths = newDepths;
+
+        }
+
+        doDepths[doCount++] = braceDepth;
+
+      }
+      else if (this.tokenIs(theToken, "while"))
+      {
+
+        // the while ending a do loop is part of the do loop
+        if (doCount > 0 && doDepths[doCount - 1] == braceDepth)
+        {
+
+          doCount--;
+
+        }
+        else
+        {
+
+          this.count(TokenCountType.Loop);
+
+        }
+
+      }
+      else if (this.tokenIs(theToken, "static"))
+      {
+
+        fieldStatic = true;
+
+      }
+      else if (this.tokenIs(theToken, "import"))
+      {
+
+        fieldExcluded = true;
+        fieldImport = true;
+
+      }
+
+    }
+
+    /**
+     * Method used to scan a separator, counting the calls and ending the
+     * statements outside of the operations.
+     * 
+     * @param theChar
+     *          The separator
+     */
+    private void scanSeparator(char theChar)
+    {
+
+      switch (theChar)
+      {
+
+      case '(':
+
+        // the name of a constructor is followed by a parenthesis where it
+        // is declared
+        if (identifierName != null && identifierCalled
+            && !this.isOperationDeclared(identifierName))
+        {
+
+          this.count(TokenCountType.Call);
+          addCall(fileCallMap, identifierName);
+
+          if (currOperation >= 0)
+          {
+
+            if (operationCallMaps.get(currOperation) == null)
+            {
+
+              operationCallMaps.set(currOperation,
+                  new LinkedHashMap<String, Integer>());
+
+            }
+
+            addCall(operationCallMaps.get(currOperation), identifierName);
+
+          }
+
+        }
+
+        // a parenthesis following a name before any initializer declares an
+        // operation rather than a field
+        if (identifierName != null && !identifierAnnotation
+            && !fieldInitialized)
+        {
+
+          fieldExcluded = true;
+
+        }
+
+        fieldNesting++;
+
+        break;
+
+      case ')':
+
+        fieldNesting--;
+
+        break;
+
+      case ',':
+
+        if (fieldNesting == 0)
+        {
+
+          fieldCount++;
+
+        }
+
+        break;
+
+      case ';':
+
+        typeArgumentDepth = 0;
+
+        if (currOperation < 0 && fieldNesting <= 0 && fieldStatic
+            && !fieldExcluded)
+        {
+
+          staticFieldCount += fieldCount;
+
+        }
+        if (fieldNesting <= 0)
+        {
+
+          this.endField();
+
+        }
+
+        break;
+
+      }
+
+    }
+
+    /**
+     * Method used to scan an operator within a statement outside of the
+     * operations, for the initializer of a field and the angle brackets of a
+     * type argument.
+     * 
+     * @param theChar
+     *          The first character of the operator
+     * @param theLength
+     *          The number of characters of the operator
+     */
+    private void scanFieldOperator(char theChar, int theLength)
+    {
+
+      if (fieldInitialized)
+      {
+
+        return;
+
+      }
+
+      if (theChar == '=' && theLength == 1)
+      {
+
+        fieldInitialized = true;
+
+      }
+      else if (theChar == '<' && theLength == 1)
+      {
+
+        fieldNesting++;
+
+      }
+      else if (theChar == '>' && theLength <= 3)
+      {
+
+        // the closing brackets of nested type arguments are read as a shift
+        fieldNesting -= theLength;
+
+      }
+
+    }
+
+    /**
+     * Method used to scan a brace within a statement outside of the
+     * operations. The braces of an initializer are part of the statement,
+     * any other brace ends it.
+     * 
+     * @param theOpening
+     *          true for an opening brace
+     */
+    private void scanFieldBrace(boolean theOpening)
+    {
+
+      if (!fieldInitialized)
+      {
+
+        this.endField();
+
+      }
+      else
+      {
+
+        fieldNesting += theOpening ? 1 : -1;
+
+      }
+
+    }
+
+    /**
+     * Method used to begin a new statement outside of the operations.
+     */
+    private void endField()
+    {
+
+      fieldStatic = false;
+      fieldExcluded = false;
+      fieldImport = false;
+      fieldInitialized = false;
+      fieldCount = 1;
+      fieldNesting = 0;
+
+    }
+
+    /**
+     * Method used to add one to a count of the file and of the current
+     * operation, if any.
+     * 
+     * @param theCountType
+     *          The type of the count
+     */
+    private void count(TokenCountType theCountType)
+    {
+
+      fileCounts[theCountType.ordinal()]++;
+
+      if (currOperation >= 0)
+      {
+
+        operationCounts[theCountType.ordinal()][currOperation]++;
+
+      }
+
+    }
+
+    /**
+     * Method used to determine whether the current line is within the body of
+     * an operation, rather than declaring it.
+     * 
+     * @return true if the line is within the body of an operation
+     */
+    private boolean inOperationBody()
+    {
+
+      return currOperation >= 0
+          && currLineIndex > classifiedFile
+              .getOperationStartLine(currOperation);
+
+    }
+
+    /**
+     * Method used to determine whether an operator is an angle bracket of a
+     * type argument. An opening bracket following the name of a type, such as
+     * List, and followed by another type, a wildcard or the closing bracket
+     * opens a type argument, and every closing bracket up to the number opened
+     * closes one, the brackets closing nested type arguments being read as a
+     * shift. A comparison of a variable, or of a constant, is never read as a
+     * type argument.
+     * 
+     * @param theToken
+     *          The index of the token within the buffer
+     * @param theChar
+     *          The first character of the operator
+     * @return true if the operator is an angle bracket of a type argument
+     */
+    private boolean isTypeArgumentBracket(int theToken, char theChar)
+    {
+
+      int start = tokenBuffer.getTokenStart(theToken);
+      int end = tokenBuffer.getTokenEnd(theToken);
+
+      if (theChar == '<' && end - start == 1)
+      {
+
+        if (identifierName != null && isTypeName(identifierName)
+            && this.isTypeArgumentStart(theToken + 1))
+        {
+
+          typeArgumentDepth++;
+
+          return true;
+
+        }
+
+      }
+      else if (theChar == '>' && typeArgumentDepth > 0
+          && currLine.charAt(end - 1) == '>')
+      {
+
+        typeArgumentDepth = Math.max(0, typeArgumentDepth - (end - start));
+
+        return true;
+
+      }
+
+      return false;
+
+    }
+
+    /**
+     * Method used to determine whether a token may begin a type argument: the
+     * name of a type, a wildcard or the closing bracket of an empty type
+     * argument.
+     * 
+     * @param theToken
+     *          The index of the token within the buffer
+     * @return true if the token may begin a type argument
+     */
+    private boolean isTypeArgumentStart(int theToken)
+    {
+
+      char firstChar;
+
+      if (theToken >= tokenBuffer.getTokenCount())
+      {
+
+        return false;
+
+      }
+
+      firstChar = currLine.charAt(tokenBuffer.getTokenStart(theToken));
+
+      if (tokenBuffer.getTokenType(theToken) == TokenType.Identifier)
+      {
+
+        return Character.isUpperCase(firstChar);
+
+      }
+
+      return firstChar == '?' || firstChar == '>';
+
+    }
+
+    /**
+     * Method used to determine whether a name is the name of a type rather
+     * than of a variable or a constant: it begins with an upper case letter
+     * and holds a lower case letter.
+     * 
+     * @param theName
+     *          The name
+     * @return true if the name is the name of a type
+     */
+    private boolean isTypeName(String theName)
+    {
+
+      if (!Character.isUpperCase(theName.charAt(0)))
+      {
+
+        return false;
+
+      }
+
+      for (int i = 1; i < theName.length(); i++)
+      {
+
+        if (Character.isLowerCase(theName.charAt(i)))
+        {
+
+          return true;
+
+        }
+
+      }
+
+      return false;
+
+    }
+
+    /**
+     * Method used to determine whether a name is the name of the current
+     * operation being declared.
+     * 
+     * @param theName
+     *          The name
+     * @return true if the current line declares an operation of the name
+     */
+    private boolean isOperationDeclared(String theName)
+    {
+
+      return currOperation >= 0 && !this.inOperationBody()
+          && theName.equals(operationNames[currOperation]);
+
+    }
+
+    /**
+     * Method used to determine whether the text of a token is a word.
+     * 
+     * @param theToken
+     *          The index of the token within the buffer
+     * @param theWord
+     *          The word
+     * @return true if the token is the word
+     */
+    private boolean tokenIs(int theToken, String theWord)
+    {
+
+      return tokenBuffer.tokenEquals(theToken, currLine, theWord);
+
+    }
+
+    /**
+     * Method used to determine whether the text of a token is one of a number
+     * of words.
+     * 
+     * @param theToken
+     *          The index of the token within the buffer
+     * @param theWords
+     *          The words
+     * @return true if the token is one of the words
+     */
+    private boolean tokenIn(int theToken, String[] theWords)
+    {
+
+      for (String currWord : theWords)
+      {
+
+        if (this.tokenIs(theToken, currWord))
+        {
+
+          return true;
+
+        }
+
+      }
+
+      return false;
+
+    }
+
+  }
+
+}
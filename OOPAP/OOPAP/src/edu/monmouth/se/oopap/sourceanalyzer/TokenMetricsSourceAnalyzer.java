@@ -0,0 +1,609 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.enumerator.LineType;
+import edu.monmouth.se.oopap.io.WorksheetWriter;
+
+/**
+ * Abstract representation of an analyzer whose counts are taken from the
+ * tokens of the source code rather than from the type of each line.
+ * 
+ * The tokens of a file are read once, by the TokenMetrics of its
+ * ClassifiedFile, and every analyzer of this type reads its counts from those
+ * metrics, so any number of these reports costs a single pass over the tokens
+ * of each file. An analyzer adds the counts of each operation and class it
+ * reports with addOperationCounts and addClassCounts; the counts of the
+ * classes are added to the program total.
+ * 
+ * An analyzer may report a number of counts side by side, one column for each
+ * heading returned by getCountHeadings. The report lists the counts of each
+ * operation of each class, then the counts of each class, then the program
+ * total, as the PSPLogicalLOCSourceAnalyzer report does, or, for an analyzer
+ * which does not report operations, only the counts of each class and the
+ * program total, as the PublicVarCountSourceAnalyzer report does. A class is
+ * named by its source file, as in every other report.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public abstract class TokenMetricsSourceAnalyzer extends SourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Map to store the class to operation association. The key is the class name
+   * the value is a map which contains the operation names as the key and the
+   * counts as the value.
+   */
+  private Map<String, Map<String, int[]>> classOperationCountsMap;
+
+  /**
+   * Map to store the class to count association. The key is the class name the
+   * value is the counts of that class.
+   */
+  private Map<String, int[]> classCountsMap;
+
+  /**
+   * The counts of the whole program.
+   */
+  private int[] programCounts;
+
+  /**
+   * The name of the file currently being analyzed a line at a time.
+   */
+  private transient String currSourceFileName;
+
+  /**
+   * The lines of the file currently being analyzed a line at a time.
+   */
+  private transient List<String> currFileContents;
+
+  /**
+   * Default constructor. Runs the resetAnalysis operation to initialize the
+   * object.
+   */
+  protected TokenMetricsSourceAnalyzer()
+  {
+
+    this.resetAnalysis();
+
+  }
+
+  /**
+   * Method used to retrieve the heading of each count reported, in the order
+   * the counts are added.
+   * 
+   * @return the headings of the counts
+   */
+  protected abstract String[] getCountHeadings();
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected abstract String getReportTitle();
+
+  /**
+   * Method responsible for adding the counts of a single file, taken from its
+   * token metrics.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theTokenMetrics
+   *          The counts taken from the tokens of the file
+   */
+  protected abstract void analyzeTokenMetrics(String theSourceFileName,
+      TokenMetrics theTokenMetrics);
+
+  /**
+   * Method used to determine whether the report lists the counts of each
+   * operation. By default it does.
+   * 
+   * @return true if the counts of each operation are reported
+   */
+  protected boolean isOperationReport()
+  {
+
+    return true;
+
+  }
+
+  /**
+   * Method used to reset the analysis of the analyzer. Resets the data members
+   * of the class.
+   */
+  private void resetAnalysis()
+  {
+
+    this.classOperationCountsMap = new HashMap<String, Map<String, int[]>>();
+    this.classCountsMap = new HashMap<String, int[]>();
+    this.programCounts = new int[this.getCountHeadings().length];
+
+  }
+
+  /**
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
+   */
+  public void beginAnalysis()
+  {
+
+    this.resetAnalysis();
+
+  }
+
+  /**
+   * Method responsible for analyzing a single classified file. The counts are
+   * read from the token metrics of the file, which are shared with every
+   * other analyzer of the file.
+   * 
+   * @param theClassifiedFile
+   *          The file to be analyzed
+   */
+  public void analyzeClassifiedFile(ClassifiedFile theClassifiedFile)
+  {
+
+    this.analyzeTokenMetrics(theClassifiedFile.getSourceFileName(),
+        theClassifiedFile.getTokenMetrics());
+
+  }
+
+  /**
+   * Method responsible for beginning the analysis of a single file a line at
+   * a time. The lines are held until the file is completed.
+   * 
+   * @param theSourceFileName
+   *          The name of the file about to be analyzed
+   */
+  public void beginFile(String theSourceFileName)
+  {
+
+    this.currSourceFileName = theSourceFileName;
+    this.currFileContents = new ArrayList<String>();
+
+  }
+
+  /**
+   * Method responsible for analyzing a single line of the current file. The
+   * tokens of a line can only be counted along with the lines around it, so
+   * the line is held until the file is completed.
+   * 
+   * @param theLine
+   *          The line of source
+   * @param theLineType
+   *          The classification of the line
+   */
+  public void analyzeLine(String theLine, LineType theLineType)
+  {
+
+    currFileContents.add(theLine);
+
+  }
+
+  /**
+   * Method responsible for completing the analysis of the current file. The
+   * lines held are classified and analyzed as a whole.
+   */
+  public void endFile()
+  {
+
+    this.analyzeClassifiedFile(new ClassifiedFile(currSourceFileName,
+        currFileContents));
+    this.currFileContents = null;
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The counts of the file are added to the maps and to the
+   * program total.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    TokenMetricsSourceAnalyzer partialResult =
+        (TokenMetricsSourceAnalyzer) thePartialResult;
+
+    mergeMap(this.classOperationCountsMap,
+        partialResult.classOperationCountsMap);
+    mergeMap(this.classCountsMap, partialResult.classCountsMap);
+
+    for (int i = 0; i < programCounts.length; i++)
+    {
+
+      this.programCounts[i] += partialResult.programCounts[i];
+
+    }
+
+  }
+
+  /**
+   * Method used to add the counts of an operation. The counts of operations
+   * of the same class sharing a name, such as overloaded operations, are
+   * added together.
+   * 
+   * @param theClassName
+   *          The name of the class
+   * @param theOperationName
+   *          The name of the operation
+   * @param theCounts
+   *          The counts, one for each heading
+   */
+  protected void addOperationCounts(String theClassName,
+      String theOperationName, int... theCounts)
+  {
+
+    Map<String, int[]> operationCountsMap = classOperationCountsMap
+        .get(theClassName);
+
+    if (operationCountsMap == null)
+    {
+
+      operationCountsMap = new HashMap<String, int[]>();
+      classOperationCountsMap.put(theClassName, operationCountsMap);
+
+    }
+
+    addCounts(operationCountsMap, theOperationName, theCounts);
+
+  }
+
+  /**
+   * Method used to add the counts of a class. The counts are also added to the
+   * program total.
+   * 
+   * @param theClassName
+   *          The name of the class
+   * @param theCounts
+   *          The counts, one for each heading
+   */
+  protected void addClassCounts(String theClassName, int... theCounts)
+  {
+
+    // a class without operations is still listed by the operation rows
+    if (!classOperationCountsMap.containsKey(theClassName))
+    {
+
+      classOperationCountsMap.put(theClassName, new HashMap<String, int[]>());
+
+    }
+
+    addCounts(classCountsMap, theClassName, theCounts);
+
+    for (int i = 0; i < programCounts.length; i++)
+    {
+
+      this.programCounts[i] += theCounts[i];
+
+    }
+
+  }
+
+  /**
+   * Method used to retrieve the counts of the operations of every class.
+   * 
+   * @return the class to operation to counts association map
+   */
+  protected Map<String, Map<String, int[]>> getClassOperationCountsMap()
+  {
+
+    return this.classOperationCountsMap;
+
+  }
+
+  /**
+   * Method used to retrieve the counts of every class.
+   * 
+   * @return the class to counts association map
+   */
+  protected Map<String, int[]> getClassCountsMap()
+  {
+
+    return this.classCountsMap;
+
+  }
+
+  /**
+   * Method used to retrieve the counts of the whole program.
+   * 
+   * @return the counts, one for each heading
+   */
+  protected int[] getProgramCounts()
+  {
+
+    return this.programCounts;
+
+  }
+
+  /**
+   * Method used to add counts to the counts held by a map under a name.
+   * 
+   * @param theCountsMap
+   *          The name to counts association map
+   * @param theName
+   *          The name
+   * @param theCounts
+   *          The counts to be added
+   */
+  private static void addCounts(Map<String, int[]> theCountsMap,
+      String theName, int[] theCounts)
+  {
+
+    int[] counts = theCountsMap.get(theName);
+
+    if (counts == null)
+    {
+
+      theCountsMap.put(theName, theCounts.clone());
+
+      return;
+
+    }
+
+    for (int i = 0; i < counts.length; i++)
+    {
+
+      counts[i] += theCounts[i];
+
+    }
+
+  }
+
+  /**
+   * Generates the console report, listing the counts of each operation when
+   * they are reported, of each class and of the program.
+   * 
+   * @return a List of String containing the console output.
+   */
+  public List<String> generateConsoleReport()
+  {
+
+    List<String> consoleReport = new ArrayList<String>();
+
+    // add the title to the report
+    consoleReport.add(this.getReportTitle() + ":\n");
+
+    for (String currClassKey : classOperationCountsMap.keySet())
+    {
+
+      if (this.isOperationReport())
+      {
+
+        Map<String, int[]> operationCountsMap = classOperationCountsMap
+            .get(currClassKey);
+
+        // add the class name to the output
+        consoleReport.add("    " + currClassKey);
+
+        for (Map.Entry<String, int[]> currOperation : operationCountsMap
+            .entrySet())
+        {
+
+          consoleReport.add("        " + currOperation.getKey() + ": "
+              + this.formatCounts(currOperation.getValue()));
+
+        }
+
+        // Add the class total to the output
+        consoleReport.add("    Class Total: "
+            + this.formatCounts(classCountsMap.get(currClassKey)) + "\n");
+
+      }
+      else
+      {
+
+        consoleReport.add("    " + currClassKey + ": "
+            + this.formatCounts(classCountsMap.get(currClassKey)));
+
+      }
+
+    }
+
+    if (!this.isOperationReport())
+    {
+
+      consoleReport.add("");
+
+    }
+
+    // Add the program total to the output
+    consoleReport.add("Program Total: " + this.formatCounts(programCounts));
+
+    return consoleReport;
+
+  }
+
+  /**
+   * Method used to format counts for the console report. A single count is
+   * given alone, a number of counts each along with its heading.
+   * 
+   * @param theCounts
+   *          The counts, one for each heading
+   * @return the formatted counts
+   */
+  private String formatCounts(int[] theCounts)
+  {
+
+    String[] countHeadings = this.getCountHeadings();
+    StringBuilder countText = new StringBuilder();
+
+    if (theCounts.length == 1)
+    {
+
+      return Integer.toString(theCounts[0]);
+
+    }
+
+    for (int i = 0; i < theCounts.length; i++)
+    {
+
+      if (i > 0)
+      {
+
+        countText.append(", ");
+
+      }
+
+      countText.append(countHeadings[i]).append(": ").append(theCounts[i]);
+
+    }
+
+    return countText.toString();
+
+  }
+
+  /**
+   * Method responsible for generating a 2 dimensional array of string ready to
+   * be written to a work sheet. The contents of the 2 dimensional array will
+   * directly reflect the contents of the workbook. Each nested array
+   * represents a line within the work sheet.
+   * 
+   * The first column in the output represents the name of the classes being
+   * analyzed. For a report of operations the second column represents the
+   * name of the operations within the class. The remaining columns contain
+   * the counts, one column for each heading, for each operation, each class
+   * and a final count for the current program.
+   * 
+   * @return the 2 dimensional array of strings ready to be written to the
+   *         workbook.
+   */
+  public List<List<String>> generateWorksheetReport()
+  {
+
+    return this.collectWorksheetReport();
+
+  }
+
+  /**
+   * Method responsible for writing the worksheet report a row at a time, in
+   * the layout described by generateWorksheetReport. No row is held in
+   * memory.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the rows are written to
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void writeWorksheetReport(WorksheetWriter theWorksheetWriter)
+      throws IOException
+  {
+
+    boolean operationReport = this.isOperationReport();
+
+    // add the column headings to the topmost row
+    theWorksheetWriter.writeCell("Class Name");
+
+    if (operationReport)
+    {
+
+      theWorksheetWriter.writeCell("Operation Name");
+
+    }
+
+    for (String currHeading : this.getCountHeadings())
+    {
+
+      theWorksheetWriter.writeCell(currHeading);
+
+    }
+
+    theWorksheetWriter.endRow();
+
+    if (operationReport)
+    {
+
+      // Iterate over the entire class to operation association map.
+      for (String currClassKey : classOperationCountsMap.keySet())
+      {
+
+        for (Map.Entry<String, int[]> currOperation : classOperationCountsMap
+            .get(currClassKey).entrySet())
+        {
+
+          theWorksheetWriter.writeCell(currClassKey);
+          theWorksheetWriter.writeCell(currOperation.getKey());
+          writeCounts(theWorksheetWriter, currOperation.getValue());
+
+        }
+
+      }
+
+    }
+
+    // add a blank row
+    theWorksheetWriter.endRow();
+
+    // Add the counts of each class
+    for (String currClassKey : classOperationCountsMap.keySet())
+    {
+
+      theWorksheetWriter.writeCell(currClassKey);
+
+      if (operationReport)
+      {
+
+        theWorksheetWriter.writeCell("");
+
+      }
+
+      writeCounts(theWorksheetWriter, classCountsMap.get(currClassKey));
+
+    }
+
+    // add a blank row
+    theWorksheetWriter.endRow();
+
+    // add the program total to the work sheet
+    theWorksheetWriter.writeCell("Program Total");
+
+    if (operationReport)
+    {
+
+      theWorksheetWriter.writeCell("");
+
+    }
+
+    writeCounts(theWorksheetWriter, programCounts);
+
+  }
+
+  /**
+   * Method used to write counts as the remaining cells of a row, completing
+   * the row.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the cells are written to
+   * @param theCounts
+   *          The counts
+   * @throws IOException
+   *           If the cells can not be written.
+   */
+  private static void writeCounts(WorksheetWriter theWorksheetWriter,
+      int[] theCounts) throws IOException
+  {
+
+    for (int currCount : theCounts)
+    {
+
+      theWorksheetWriter.writeCell(currCount);
+
+    }
+
+    theWorksheetWriter.endRow();
+
+  }
+
+}
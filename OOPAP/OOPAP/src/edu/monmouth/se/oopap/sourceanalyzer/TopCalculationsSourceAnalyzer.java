@@ -0,0 +1,344 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.io.WorksheetWriter;
+
+/**
+ * This class is responsible for finding the operations of a program holding
+ * the most calculations, and the share of the calculations of the program
+ * they hold. The top 5 operations and the top 20% of the operations are
+ * reported, whichever are more, in order of their calculation counts, along
+ * with the total calculations of the top 5 and of the top 20%. Operations with
+ * the same count are listed in the order they are found.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class TopCalculationsSourceAnalyzer extends CalculationSourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The number of top operations reported, at least.
+   */
+  private static final int TOP_COUNT = 5;
+
+  /**
+   * The share of the operations reported as the top operations.
+   */
+  private static final double TOP_SHARE = 0.20;
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected String getReportTitle()
+  {
+
+    return "Top 5 and Top 20% of Operations by Calculation Count";
+
+  }
+
+  /**
+   * Generates the console report, listing the top operations and the share of
+   * the calculations they hold.
+   * 
+   * @return a List of String containing the console output.
+   */
+  public List<String> generateConsoleReport()
+  {
+
+    DecimalFormat df = new DecimalFormat("0.0");
+    List<RankedOperation> operationList = this.getRankedOperations();
+    int programCalculations = this.getProgramCounts()[0];
+    int topShareCount = this.getTopShareCount(operationList.size());
+    List<String> consoleReport = new ArrayList<String>();
+
+    // add the title to the report
+    consoleReport.add(this.getReportTitle() + ":\n");
+
+    for (RankedOperation currOperation : this.getTopOperations(operationList))
+    {
+
+      consoleReport.add("    " + currOperation.className + " "
+          + currOperation.operationName + ": " + currOperation.calculations);
+
+    }
+
+    consoleReport.add("");
+    consoleReport.add("Top 5 Operations: "
+        + sumCalculations(operationList, TOP_COUNT) + " ("
+        + df.format(getShare(sumCalculations(operationList, TOP_COUNT),
+            programCalculations)) + "%)");
+    consoleReport.add("Top 20% of Operations (" + topShareCount + "): "
+        + sumCalculations(operationList, topShareCount) + " ("
+        + df.format(getShare(sumCalculations(operationList, topShareCount),
+            programCalculations)) + "%)");
+    consoleReport.add("Program Total: " + programCalculations);
+
+    return consoleReport;
+
+  }
+
+  /**
+   * Method responsible for writing the worksheet report a row at a time.
+   * 
+   * The first column in the output represents the name of the class of each
+   * top operation. The second column represents the name of the operation.
+   * The third column contains the calculation count of the operation and the
+   * fourth its share of the calculations of the program, as a percentage.
+   * The top operations are followed by the total calculations of the top 5
+   * operations, of the top 20% of the operations and of the program.
+   * 
+   * @param theWorksheetWriter
+   *          The writer the rows are written to
+   * @throws IOException
+   *           If the rows can not be written.
+   */
+  public void writeWorksheetReport(WorksheetWriter theWorksheetWriter)
+      throws IOException
+  {
+
+    DecimalFormat df = new DecimalFormat("0.0");
+    List<RankedOperation> operationList = this.getRankedOperations();
+    int programCalculations = this.getProgramCounts()[0];
+    int topShareCount = this.getTopShareCount(operationList.size());
+    int topCalculations;
+
+    // add the column headings to the topmost row
+    theWorksheetWriter.writeCell("Class Name");
+    theWorksheetWriter.writeCell("Operation Name");
+    theWorksheetWriter.writeCell("Calculation Count");
+    theWorksheetWriter.writeCell("% of Calculations");
+    theWorksheetWriter.endRow();
+
+    for (RankedOperation currOperation : this.getTopOperations(operationList))
+    {
+
+      theWorksheetWriter.writeCell(currOperation.className);
+      theWorksheetWriter.writeCell(currOperation.operationName);
+      theWorksheetWriter.writeCell(currOperation.calculations);
+      theWorksheetWriter.writeCell(df.format(getShare(
+          currOperation.calculations, programCalculations)));
+      theWorksheetWriter.endRow();
+
+    }
+
+    // add a blank row
+    theWorksheetWriter.endRow();
+
+    topCalculations = sumCalculations(operationList, TOP_COUNT);
+    theWorksheetWriter.writeCell("Top 5 Operations");
+    theWorksheetWriter.writeCell("");
+    theWorksheetWriter.writeCell(topCalculations);
+    theWorksheetWriter.writeCell(df.format(getShare(topCalculations,
+        programCalculations)));
+    theWorksheetWriter.endRow();
+
+    topCalculations = sumCalculations(operationList, topShareCount);
+    theWorksheetWriter.writeCell("Top 20% of Operations");
+    theWorksheetWriter.writeCell("");
+    theWorksheetWriter.writeCell(topCalculations);
+    theWorksheetWriter.writeCell(df.format(getShare(topCalculations,
+        programCalculations)));
+    theWorksheetWriter.endRow();
+
+    // add a blank row
+    theWorksheetWriter.endRow();
+
+    // add the program total to the work sheet
+    theWorksheetWriter.writeCell("Program Total");
+    theWorksheetWriter.writeCell("");
+    theWorksheetWriter.writeCell(programCalculations);
+    theWorksheetWriter.writeCell(df.format(getShare(programCalculations,
+        programCalculations)));
+    theWorksheetWriter.endRow();
+
+  }
+
+  /**
+   * Method used to retrieve every operation of the program, ordered from the
+   * most calculations to the fewest.
+   * 
+   * @return the operations
+   */
+  private List<RankedOperation> getRankedOperations()
+  {
+
+    List<RankedOperation> operationList = new ArrayList<RankedOperation>();
+
+    for (Map.Entry<String, Map<String, int[]>> currClass : this
+        .getClassOperationCountsMap().entrySet())
+    {
+
+      for (Map.Entry<String, int[]> currOperation : currClass.getValue()
+          .entrySet())
+      {
+
+        operationList.add(new RankedOperation(currClass.getKey(),
+            currOperation.getKey(), currOperation.getValue()[0]));
+
+      }
+
+    }
+
+    // the sort is stable, keeping operations with the same count in order
+    Collections.sort(operationList, new Comparator<RankedOperation>()
+    {
+
+      public int compare(RankedOperation theFirst, RankedOperation theSecond)
+      {
+
+        return theSecond.calculations - theFirst.calculations;
+
+      }
+
+    });
+
+    return operationList;
+
+  }
+
+  /**
+   * Method used to retrieve the operations reported, the top 5 or the top 20%,
+   * whichever are more.
+   * 
+   * @param theOperationList
+   *          Every operation, ordered from the most calculations to the fewest
+   * @return the operations reported
+   */
+  private List<RankedOperation> getTopOperations(
+      List<RankedOperation> theOperationList)
+  {
+
+    int reportedCount = Math.max(TOP_COUNT, this
+        .getTopShareCount(theOperationList.size()));
+
+    return theOperationList.subList(0, Math.min(reportedCount,
+        theOperationList.size()));
+
+  }
+
+  /**
+   * Method used to find the number of operations making up the top 20% of the
+   * operations. Any part of an operation is counted as a whole operation.
+   * 
+   * @param theOperationCount
+   *          The number of operations of the program
+   * @return the number of operations
+   */
+  private int getTopShareCount(int theOperationCount)
+  {
+
+    return (int) Math.ceil(theOperationCount * TOP_SHARE);
+
+  }
+
+  /**
+   * Method used to add up the calculations of the first operations of a list.
+   * 
+   * @param theOperationList
+   *          The operations, ordered from the most calculations to the fewest
+   * @param theCount
+   *          The number of operations added up
+   * @return the total calculations of the operations
+   */
+  private static int sumCalculations(
+      List<RankedOperation> theOperationList, int theCount)
+  {
+
+    int calculations = 0;
+
+    for (int i = 0; i < theCount && i < theOperationList.size(); i++)
+    {
+
+      calculations += theOperationList.get(i).calculations;
+
+    }
+
+    return calculations;
+
+  }
+
+  /**
+   * Method used to find the share of the calculations of the program held by
+   * a number of calculations.
+   * 
+   * @param theCalculations
+   *          The number of calculations
+   * @param theProgramCalculations
+   *          The number of calculations of the program
+   * @return the share, as a percentage, or 0 if the program has no
+   *         calculations
+   */
+  private static double getShare(int theCalculations,
+      int theProgramCalculations)
+  {
+
+    if (theProgramCalculations == 0)
+    {
+
+      return 0;
+
+    }
+
+    return (double) theCalculations / theProgramCalculations * 100;
+
+  }
+
+  /**
+   * A single operation of the program along with its calculation count.
+   */
+  private static class RankedOperation
+  {
+
+    /**
+     * The name of the class of the operation.
+     */
+    private String className;
+
+    /**
+     * The name of the operation.
+     */
+    private String operationName;
+
+    /**
+     * The number of calculations of the operation.
+     */
+    private int calculations;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theClassName
+     *          The name of the class of the operation
+     * @param theOperationName
+     *          The name of the operation
+     * @param theCalculations
+     *          The number of calculations of the operation
+     */
+    RankedOperation(String theClassName, String theOperationName,
+        int theCalculations)
+    {
+
+      this.className = theClassName;
+      this.operationName = theOperationName;
+      this.calculations = theCalculations;
+
+    }
+
+  }
+
+}
@@ -0,0 +1,268 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class is responsible for counting the calls made by each operation and
+ * class of a program, and how many of them are calls to a library, as well as
+ * a total count. A call is a library call when the name called is not the name
+ * of any class or operation declared by the program, so a call to a
+ * constructor or operation of the program is never a library call while a
+ * call to an operation of the Java API, or of any other library, is.
+ * 
+ * Whether a call is a library call can only be told once every file of the
+ * program has been read, so the names called by each operation and class are
+ * held until the analysis is completed.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class TotalLibraryCallsSourceAnalyzer extends
+    TokenMetricsSourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The headings of the counts reported.
+   */
+  private static final String[] COUNT_HEADINGS = { "Method Call Count",
+      "Library Call Count" };
+
+  /**
+   * Map to store the class to operation association. The key is the class name
+   * the value is a map which contains the operation names as the key and the
+   * name to call count association of the operation as the value.
+   */
+  private Map<String, Map<String, Map<String, Integer>>> classOperationCallsMap;
+
+  /**
+   * Map to store the class to call association. The key is the class name the
+   * value is the name to call count association of the class.
+   */
+  private Map<String, Map<String, Integer>> classCallsMap;
+
+  /**
+   * The names of the classes and operations declared by the program.
+   */
+  private Set<String> declaredNames;
+
+  /**
+   * Default constructor. Runs the resetCalls operation to initialize the
+   * object.
+   */
+  public TotalLibraryCallsSourceAnalyzer()
+  {
+
+    this.resetCalls();
+
+  }
+
+  /**
+   * Method used to reset the calls held by the analyzer.
+   */
+  private void resetCalls()
+  {
+
+    this.classOperationCallsMap =
+        new HashMap<String, Map<String, Map<String, Integer>>>();
+    this.classCallsMap = new HashMap<String, Map<String, Integer>>();
+    this.declaredNames = new HashSet<String>();
+
+  }
+
+  /**
+   * Method used to retrieve the heading of each count reported.
+   * 
+   * @return the headings of the counts
+   */
+  protected String[] getCountHeadings()
+  {
+
+    return COUNT_HEADINGS;
+
+  }
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected String getReportTitle()
+  {
+
+    return "Method and Library Call Count";
+
+  }
+
+  /**
+   * Method responsible for beginning a new analysis. Resets the previous
+   * analysis.
+   */
+  public void beginAnalysis()
+  {
+
+    super.beginAnalysis();
+    this.resetCalls();
+
+  }
+
+  /**
+   * Method responsible for holding the names called by each operation of a
+   * file and by the file as a whole, along with the names the file declares.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theTokenMetrics
+   *          The counts taken from the tokens of the file
+   */
+  protected void analyzeTokenMetrics(String theSourceFileName,
+      TokenMetrics theTokenMetrics)
+  {
+
+    Map<String, Map<String, Integer>> operationCallsMap =
+        new HashMap<String, Map<String, Integer>>();
+
+    for (int i = 0; i < theTokenMetrics.getOperationCount(); i++)
+    {
+
+      String operationName = theTokenMetrics.getOperationName(i);
+      Map<String, Integer> callMap = operationCallsMap.get(operationName);
+
+      // the calls of operations sharing a name are added together
+      if (callMap == null)
+      {
+
+        callMap = new HashMap<String, Integer>();
+        operationCallsMap.put(operationName, callMap);
+
+      }
+
+      addCalls(callMap, theTokenMetrics.getOperationCalls(i));
+
+    }
+
+    classOperationCallsMap.put(theSourceFileName, operationCallsMap);
+    classCallsMap.put(theSourceFileName, new HashMap<String, Integer>(
+        theTokenMetrics.getFileCalls()));
+    declaredNames.addAll(theTokenMetrics.getDeclaredNames());
+
+  }
+
+  /**
+   * Method responsible for merging the partial result of a single file into
+   * the analysis. The calls and declared names of the file are added to those
+   * held.
+   * 
+   * @param thePartialResult
+   *          The analyzer holding the partial result
+   */
+  public void mergePartialResult(SourceAnalyzer thePartialResult)
+  {
+
+    TotalLibraryCallsSourceAnalyzer partialResult =
+        (TotalLibraryCallsSourceAnalyzer) thePartialResult;
+
+    super.mergePartialResult(thePartialResult);
+    mergeMap(this.classOperationCallsMap,
+        partialResult.classOperationCallsMap);
+    mergeMap(this.classCallsMap, partialResult.classCallsMap);
+    this.declaredNames.addAll(partialResult.declaredNames);
+
+  }
+
+  /**
+   * Method responsible for completing the analysis once every name declared
+   * by the program is known. The calls and library calls of each operation
+   * and class are counted.
+   */
+  public void endAnalysis()
+  {
+
+    for (String currClassKey : classOperationCallsMap.keySet())
+    {
+
+      Map<String, Map<String, Integer>> operationCallsMap =
+          classOperationCallsMap.get(currClassKey);
+      Map<String, Integer> classCalls = classCallsMap.get(currClassKey);
+
+      for (Map.Entry<String, Map<String, Integer>> currOperation : operationCallsMap
+          .entrySet())
+      {
+
+        this.addOperationCounts(currClassKey, currOperation.getKey(), this
+            .countCalls(currOperation.getValue(), false), this.countCalls(
+            currOperation.getValue(), true));
+
+      }
+
+      this.addClassCounts(currClassKey, this.countCalls(classCalls, false),
+          this.countCalls(classCalls, true));
+
+    }
+
+  }
+
+  /**
+   * Method used to count calls.
+   * 
+   * @param theCallMap
+   *          The name to call count association map
+   * @param theLibraryOnly
+   *          true to count only the calls to names not declared by the
+   *          program
+   * @return the number of calls
+   */
+  private int countCalls(Map<String, Integer> theCallMap,
+      boolean theLibraryOnly)
+  {
+
+    int callCount = 0;
+
+    for (Map.Entry<String, Integer> currCall : theCallMap.entrySet())
+    {
+
+      if (!theLibraryOnly || !declaredNames.contains(currCall.getKey()))
+      {
+
+        callCount += currCall.getValue();
+
+      }
+
+    }
+
+    return callCount;
+
+  }
+
+  /**
+   * Method used to add calls to the calls held by a map.
+   * 
+   * @param theCallMap
+   *          The name to call count association map added to
+   * @param theCalls
+   *          The calls to be added
+   */
+  private static void addCalls(Map<String, Integer> theCallMap,
+      Map<String, Integer> theCalls)
+  {
+
+    for (Map.Entry<String, Integer> currCall : theCalls.entrySet())
+    {
+
+      Integer callCount = theCallMap.get(currCall.getKey());
+
+      theCallMap.put(currCall.getKey(), callCount == null ? currCall
+          .getValue() : callCount + currCall.getValue());
+
+    }
+
+  }
+
+}
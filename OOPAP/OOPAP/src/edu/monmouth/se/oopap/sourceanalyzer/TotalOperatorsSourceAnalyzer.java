@@ -0,0 +1,77 @@
+package edu.monmouth.se.oopap.sourceanalyzer;
+
+import edu.monmouth.se.oopap.enumerator.TokenCountType;
+
+/**
+ * This class is responsible for counting every operator of each operation and
+ * class of a program, as well as a total count. Every operator is counted,
+ * assignments and comparisons included, but not the separators.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class TotalOperatorsSourceAnalyzer extends TokenMetricsSourceAnalyzer
+{
+
+  /**
+   * The version of the serialized form of the analyzer.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The headings of the counts reported.
+   */
+  private static final String[] COUNT_HEADINGS = { "Total Operators" };
+
+  /**
+   * Method used to retrieve the heading of each count reported.
+   * 
+   * @return the headings of the counts
+   */
+  protected String[] getCountHeadings()
+  {
+
+    return COUNT_HEADINGS;
+
+  }
+
+  /**
+   * Method used to retrieve the title of the console report.
+   * 
+   * @return the title of the report
+   */
+  protected String getReportTitle()
+  {
+
+    return "Total Operators";
+
+  }
+
+  /**
+   * Method responsible for adding the operators of each operation of a file
+   * and of the file as a whole.
+   * 
+   * @param theSourceFileName
+   *          The name of the file
+   * @param theTokenMetrics
+   *          The counts taken from the tokens of the file
+   */
+  protected void analyzeTokenMetrics(String theSourceFileName,
+      TokenMetrics theTokenMetrics)
+  {
+
+    for (int i = 0; i < theTokenMetrics.getOperationCount(); i++)
+    {
+
+      this.addOperationCounts(theSourceFileName, theTokenMetrics
+          .getOperationName(i), theTokenMetrics.getOperationCount(
+          TokenCountType.Operator, i));
+
+    }
+
+    this.addClassCounts(theSourceFileName, theTokenMetrics
+        .getFileCount(TokenCountType.Operator));
+
+  }
+
+}
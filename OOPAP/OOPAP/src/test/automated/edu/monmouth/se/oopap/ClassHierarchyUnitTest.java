@@ -0,0 +1,110 @@
+package test.automated.edu.monmouth.se.oopap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.ClassHierarchy;
+import edu.monmouth.se.oopap.sourceanalyzer.DepthOfInheritanceTreeSourceAnalyzer;
+import edu.monmouth.se.oopap.sourceanalyzer.NumberOfChildrenSourceAnalyzer;
+import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalysisEngine;
+import junit.framework.TestCase;
+
+public class ClassHierarchyUnitTest extends TestCase
+{
+
+  public void testGetDepth()
+  {
+
+    ClassHierarchy hierarchy = new ClassHierarchy();
+
+    hierarchy.addDeclaration("", "Shape");
+    hierarchy.addDeclaration("Shape", "Square");
+    hierarchy.addDeclaration("Square", "Cube");
+    hierarchy.addDeclaration("Shape", "Circle");
+    hierarchy.addDeclaration("Shape", "Square");
+
+    assertEquals(2, hierarchy.getDepth("Shape"));
+    assertEquals(1, hierarchy.getDepth("Square"));
+    assertEquals(0, hierarchy.getDepth("Cube"));
+    assertEquals(0, hierarchy.getDepth("Circle"));
+    assertEquals(0, hierarchy.getDepth("Unknown"));
+    assertEquals(2, hierarchy.getNumberChildren("Shape"));
+    assertEquals(5, hierarchy.getClassNameList().size());
+
+    // the depths already calculated are updated by a new declaration
+    hierarchy.addDeclaration("Circle", "Sphere");
+    hierarchy.addDeclaration("Sphere", "Ball");
+
+    assertEquals(3, hierarchy.getDepth("Shape"));
+
+  }
+
+  public void testGetDepth_Cycle()
+  {
+
+    ClassHierarchy hierarchy = new ClassHierarchy();
+
+    hierarchy.addDeclaration("A", "B");
+    hierarchy.addDeclaration("B", "C");
+    hierarchy.addDeclaration("C", "A");
+    hierarchy.addDeclaration("D", "D");
+
+    // the relationship closing the cycle is ignored
+    assertEquals(2, hierarchy.getDepth("A"));
+    assertEquals(0, hierarchy.getDepth("D"));
+
+  }
+
+  public void testGetDepth_DeepHierarchy()
+  {
+
+    ClassHierarchy hierarchy = new ClassHierarchy();
+
+    // deep enough to overflow the stack of a recursive search
+    for (int i = 0; i < 100000; i++)
+    {
+
+      hierarchy.addDeclaration("C" + i, "C" + (i + 1));
+
+    }
+
+    assertEquals(100000, hierarchy.getDepth("C0"));
+    assertEquals(1, hierarchy.getDepth("C99999"));
+
+  }
+
+  public void testSharedHierarchy()
+  {
+
+    Map<String, List<String>> sourceMap = new HashMap<String, List<String>>();
+    DepthOfInheritanceTreeSourceAnalyzer depthAnalyzer =
+        new DepthOfInheritanceTreeSourceAnalyzer();
+    NumberOfChildrenSourceAnalyzer childrenAnalyzer =
+        new NumberOfChildrenSourceAnalyzer();
+    SourceAnalysisEngine analysisEngine = new SourceAnalysisEngine();
+
+    sourceMap.put("Shape.java", Arrays.asList("public class Shape", "{",
+        "}"));
+    sourceMap.put("Square.java", Arrays.asList(
+        "public class Square extends Shape", "{", "}"));
+    sourceMap.put("Cube.java", Arrays.asList(
+        "public class Cube extends Square", "{", "}"));
+
+    analysisEngine.addAnalyzer(depthAnalyzer);
+    analysisEngine.addAnalyzer(childrenAnalyzer);
+    analysisEngine.analyzeSource(sourceMap);
+
+    // both analyzers read the single hierarchy built by the engine
+    assertSame(depthAnalyzer.getClassHierarchy(), childrenAnalyzer
+        .getClassHierarchy());
+    assertEquals(3, depthAnalyzer.getClassHierarchy().getClassNameList()
+        .size());
+    assertTrue(depthAnalyzer.generateConsoleReport().contains("    Shape: 2"));
+    assertTrue(childrenAnalyzer.generateConsoleReport().contains(
+        "    Square: 1"));
+
+  }
+
+}
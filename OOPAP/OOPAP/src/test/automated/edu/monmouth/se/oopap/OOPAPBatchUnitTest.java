@@ -0,0 +1,287 @@
+package test.automated.edu.monmouth.se.oopap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.OOPAPBatch;
+import junit.framework.TestCase;
+
+public class OOPAPBatchUnitTest extends TestCase
+{
+
+  private static final String[] SOURCE = { "public class Shape", "{",
+      "  public int area()", "  {", "    return 1;", "  }", "}" };
+
+  private File root;
+
+  private File outputPath;
+
+  protected void setUp() throws IOException
+  {
+
+    root = File.createTempFile("oopap", "");
+    root.delete();
+    root.mkdirs();
+    outputPath = new File(root, "output");
+
+  }
+
+  protected void tearDown()
+  {
+
+    delete(root);
+
+  }
+
+  private void delete(File theFile)
+  {
+
+    File[] children = theFile.listFiles();
+
+    if (children != null)
+    {
+
+      for (File currChild : children)
+      {
+
+        delete(currChild);
+
+      }
+
+    }
+
+    theFile.delete();
+
+  }
+
+  private static void write(File theFile, String... theLines)
+      throws IOException
+  {
+
+    FileWriter fileWriter;
+
+    theFile.getParentFile().mkdirs();
+    fileWriter = new FileWriter(theFile);
+
+    try
+    {
+
+      for (String currLine : theLines)
+      {
+
+        fileWriter.write(currLine + "\n");
+
+      }
+
+    }
+    finally
+    {
+
+      fileWriter.close();
+
+    }
+
+  }
+
+  private File addSource(String thePath) throws IOException
+  {
+
+    File sourcePath = new File(root, thePath);
+
+    write(new File(sourcePath, "Shape.java"), SOURCE);
+
+    return sourcePath;
+
+  }
+
+  private File getReport(String theProjectName, String theStudentName)
+  {
+
+    return new File(new File(new File(outputPath, theProjectName),
+        theStudentName), theStudentName + "_" + theProjectName
+        + "_LineCountByPCO.csv");
+
+  }
+
+  public void testAddManifest() throws IOException
+  {
+
+    File manifest = new File(root, "manifests/batch.txt");
+    OOPAPBatch batch = new OOPAPBatch(outputPath.getPath());
+
+    addSource("manifests/alice");
+    addSource("bob");
+    write(manifest, "# project,student,path", "", "Shapes, Alice, alice",
+        "   ", "  # a comment after white space", "Shapes,Bob,"
+            + new File(root, "bob").getAbsolutePath());
+    batch.addManifest(manifest);
+
+    // the relative path is relative to the manifest
+    assertEquals(2, batch.getSubmissionCount());
+    assertEquals(0, OOPAPBatch.run(new String[] { "-threads", "2",
+        manifest.getPath(), outputPath.getPath() }));
+    assertTrue(getReport("Shapes", "Alice").isFile());
+    assertTrue(getReport("Shapes", "Bob").isFile());
+
+  }
+
+  public void testAddManifest_Malformed() throws IOException
+  {
+
+    File manifest = new File(root, "batch.txt");
+    OOPAPBatch batch = new OOPAPBatch(outputPath.getPath());
+
+    write(manifest, "Shapes,Alice,alice", "Shapes,Bob");
+
+    try
+    {
+
+      batch.addManifest(manifest);
+      fail("a line without a path is malformed");
+
+    }
+    catch (IOException e)
+    {
+
+      assertTrue(e.getMessage().endsWith(":2: expected project,student,path"));
+
+    }
+
+    assertEquals(2, OOPAPBatch.run(new String[] { manifest.getPath(),
+        outputPath.getPath() }));
+
+  }
+
+  public void testAddManifest_Charset() throws IOException
+  {
+
+    File manifest = new File(root, "batch.txt");
+    OOPAPBatch batch = new OOPAPBatch(outputPath.getPath());
+    FileOutputStream out = new FileOutputStream(manifest);
+    List<String> outcomeList;
+
+    try
+    {
+
+      out.write("Shapes,Zo\u00eb,missing\n".getBytes("UTF-8"));
+
+    }
+    finally
+    {
+
+      out.close();
+
+    }
+
+    batch.addManifest(manifest);
+    outcomeList = batch.runBatch();
+
+    // the manifest is read as UTF-8 whatever the platform charset
+    assertEquals(1, outcomeList.size());
+    assertTrue(outcomeList.get(0).startsWith("Shapes/Zo\u00eb: FAILED"));
+
+  }
+
+  public void testAddSubmissionDirectory() throws IOException
+  {
+
+    File submissions = new File(root, "submissions");
+    OOPAPBatch batch = new OOPAPBatch(outputPath.getPath());
+
+    addSource("submissions/Shapes/Carol");
+    addSource("submissions/Shapes/Dave");
+    addSource("submissions/Solids/Carol");
+    addSource("submissions/.git/Carol");
+    write(new File(submissions, "Shapes/notes.txt"), "not a student");
+    batch.addSubmissionDirectory(submissions);
+
+    // directories beginning with a period and files are skipped
+    assertEquals(3, batch.getSubmissionCount());
+    assertEquals(0, OOPAPBatch.run(new String[] { "-cohort", submissions
+        .getPath(), outputPath.getPath() }));
+    assertTrue(getReport("Shapes", "Carol").isFile());
+    assertTrue(getReport("Shapes", "Dave").isFile());
+    assertTrue(getReport("Solids", "Carol").isFile());
+    assertFalse(new File(outputPath, ".git").exists());
+    assertTrue(new File(outputPath, "Shapes/Shapes_Cohort.csv").isFile());
+
+  }
+
+  public void testRunBatch_FailedSubmission() throws IOException
+  {
+
+    OOPAPBatch batch = new OOPAPBatch(outputPath.getPath());
+    List<String> outcomeList;
+
+    batch.addSubmission("Shapes", "Alice", new File(root, "missing")
+        .getPath());
+    batch.addSubmission("Shapes", "Bob", addSource("bob").getPath());
+    outcomeList = batch.runBatch();
+
+    // the failure of one submission does not stop the others
+    assertEquals(2, outcomeList.size());
+    assertTrue(outcomeList.get(0).startsWith("Shapes/Alice: FAILED"));
+    assertEquals("Shapes/Bob: OK", outcomeList.get(1));
+    assertEquals(1, batch.getFailedCount());
+    assertTrue(getReport("Shapes", "Bob").isFile());
+
+  }
+
+  public void testRun_FailedSubmission() throws IOException
+  {
+
+    File manifest = new File(root, "batch.txt");
+
+    addSource("bob");
+    write(manifest, "Shapes,Alice,missing", "Shapes,Bob,bob");
+
+    assertEquals(1, OOPAPBatch.run(new String[] { manifest.getPath(),
+        outputPath.getPath() }));
+    assertTrue(getReport("Shapes", "Bob").isFile());
+
+  }
+
+  public void testRun_Cache() throws IOException
+  {
+
+    File manifest = new File(root, "batch.txt");
+    File cachePath = new File(root, "cache");
+    String[] args = { "-cache", cachePath.getPath(), manifest.getPath(),
+        outputPath.getPath() };
+    File reportPath = new File(outputPath, "Shapes/Alice");
+
+    addSource("alice");
+    addSource("bob");
+    write(manifest, "Shapes,Alice,alice", "Shapes,Bob,bob");
+
+    assertEquals(0, OOPAPBatch.run(args));
+    assertTrue(cachePath.list().length > 0);
+
+    // regrading the same submissions reads the cached results
+    Map<String, List<String>> reportMap = OOPAPCommandLineUnitTest
+        .readReports(reportPath);
+
+    delete(outputPath);
+    assertEquals(0, OOPAPBatch.run(args));
+    assertEquals(reportMap, OOPAPCommandLineUnitTest.readReports(reportPath));
+    assertTrue(getReport("Shapes", "Bob").isFile());
+
+  }
+
+  public void testRun_Usage()
+  {
+
+    assertEquals(2, OOPAPBatch.run(new String[] {}));
+    assertEquals(2, OOPAPBatch.run(new String[] { root.getPath() }));
+    assertEquals(2, OOPAPBatch.run(new String[] { "-threads", "many",
+        root.getPath(), outputPath.getPath() }));
+    assertEquals(2, OOPAPBatch.run(new String[] {
+        new File(root, "missing.txt").getPath(), outputPath.getPath() }));
+
+  }
+
+}
@@ -0,0 +1,200 @@
+package test.automated.edu.monmouth.se.oopap;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.monmouth.se.oopap.OOPAPCommandLine;
+import edu.monmouth.se.oopap.io.FileUtil;
+import junit.framework.TestCase;
+
+public class OOPAPCommandLineUnitTest extends TestCase
+{
+
+  private static final String[] SOURCE = { "public class Shape", "{",
+      "  public int area()", "  {", "    return 1;", "  }", "}" };
+
+  private File root;
+
+  private File sourcePath;
+
+  private File outputPath;
+
+  protected void setUp() throws IOException
+  {
+
+    root = File.createTempFile("oopap", "");
+    root.delete();
+    sourcePath = new File(root, "source");
+    outputPath = new File(root, "output");
+    sourcePath.mkdirs();
+
+    FileWriter fileWriter = new FileWriter(new File(sourcePath, "Shape.java"));
+
+    try
+    {
+
+      for (String currLine : SOURCE)
+      {
+
+        fileWriter.write(currLine + "\n");
+
+      }
+
+    }
+    finally
+    {
+
+      fileWriter.close();
+
+    }
+
+  }
+
+  protected void tearDown()
+  {
+
+    delete(root);
+
+  }
+
+  private void delete(File theFile)
+  {
+
+    File[] children = theFile.listFiles();
+
+    if (children != null)
+    {
+
+      for (File currChild : children)
+      {
+
+        delete(currChild);
+
+      }
+
+    }
+
+    theFile.delete();
+
+  }
+
+  private File getReportPath()
+  {
+
+    return new File(new File(outputPath, "Shapes"), "Alice");
+
+  }
+
+  public void testRun()
+  {
+
+    assertEquals(0, OOPAPCommandLine.run(new String[] { "-source",
+        sourcePath.getPath(), "-output", outputPath.getPath(), "-student",
+        "Alice", "-project", "Shapes", "-threads", "2", "-results",
+        "-quiet" }));
+    assertTrue(new File(getReportPath(), "Alice_Shapes_LineCountByPCO.csv")
+        .isFile());
+    assertTrue(new File(getReportPath(), "Alice_Shapes.oopr").isFile());
+
+  }
+
+  /**
+   * Reads every CSV report of a directory, by the name of the report.
+   */
+  static Map<String, List<String>> readReports(File theDirectory)
+      throws IOException
+  {
+
+    Map<String, List<String>> reportMap = new TreeMap<String, List<String>>();
+
+    for (File currFile : theDirectory.listFiles())
+    {
+
+      if (currFile.getName().endsWith(".csv"))
+      {
+
+        reportMap.put(currFile.getName(), FileUtil
+            .getSourceFileContents(currFile));
+
+      }
+
+    }
+
+    return reportMap;
+
+  }
+
+  public void testRun_Cache() throws IOException
+  {
+
+    File cachePath = new File(root, "cache");
+    String[] args = { "-source", sourcePath.getPath(), "-output",
+        outputPath.getPath(), "-student", "Alice", "-project", "Shapes",
+        "-cache", cachePath.getPath(), "-quiet" };
+    Map<String, List<String>> reportMap;
+
+    assertEquals(0, OOPAPCommandLine.run(args));
+    reportMap = readReports(getReportPath());
+    assertFalse(reportMap.isEmpty());
+    assertTrue(cachePath.list().length > 0);
+
+    // the second analysis reads the cached results
+    delete(outputPath);
+    assertEquals(0, OOPAPCommandLine.run(args));
+    assertEquals(reportMap, readReports(getReportPath()));
+
+  }
+
+  public void testRun_MissingSource()
+  {
+
+    // the missing source fails before any directory is created
+    assertEquals(1, OOPAPCommandLine.run(new String[] { "-source",
+        new File(root, "missing").getPath(), "-output", outputPath.getPath(),
+        "-student", "Alice", "-project", "Shapes", "-quiet" }));
+    assertFalse(getReportPath().exists());
+
+  }
+
+  public void testRun_FailedReport() throws IOException
+  {
+
+    File resultsFile = new File(getReportPath(), "Alice_Shapes.oopr");
+
+    // a directory in the place of a report fails the reports, and the results
+    // file left by an earlier analysis is removed
+    new File(getReportPath(), "Alice_Shapes_LineCountByPCO.csv").mkdirs();
+    resultsFile.createNewFile();
+
+    assertEquals(1, OOPAPCommandLine.run(new String[] { "-source",
+        sourcePath.getPath(), "-output", outputPath.getPath(), "-student",
+        "Alice", "-project", "Shapes", "-results", "-quiet" }));
+    assertFalse(resultsFile.exists());
+
+  }
+
+  public void testRun_Usage()
+  {
+
+    // a required option is missing
+    assertEquals(2, OOPAPCommandLine.run(new String[] { "-source",
+        sourcePath.getPath(), "-output", outputPath.getPath(), "-student",
+        "Alice" }));
+    // an option is missing its value
+    assertEquals(2, OOPAPCommandLine.run(new String[] { "-source",
+        sourcePath.getPath(), "-output" }));
+    assertEquals(2, OOPAPCommandLine.run(new String[] { "-verbose" }));
+    assertEquals(2, OOPAPCommandLine.run(new String[] { "-source",
+        sourcePath.getPath(), "-cache" }));
+    assertEquals(2, OOPAPCommandLine.run(new String[] { "-source",
+        sourcePath.getPath(), "-output", outputPath.getPath(), "-student",
+        "Alice", "-project", "Shapes", "-threads", "many" }));
+    assertFalse(outputPath.exists());
+
+  }
+
+}
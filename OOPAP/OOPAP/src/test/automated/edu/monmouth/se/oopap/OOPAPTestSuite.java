@@ -3,6 +3,7 @@ package test.automated.edu.monmouth.se.oopap;
 import test.automated.edu.monmouth.se.oopap.analyzer.*;
 import test.automated.edu.monmouth.se.oopap.sourceanalyzer.*;
 import test.automated.edu.monmouth.se.oopap.io.*;
+import test.automated.edu.monmouth.se.oopap.cohort.*;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -16,8 +17,26 @@ public class OOPAPTestSuite
     // $JUnit-BEGIN$
 
     suite.addTestSuite(LineAnalyzerUnitTest.class);
+    suite.addTestSuite(LineClassifierUnitTest.class);
+    suite.addTestSuite(MultiStringMatcherUnitTest.class);
+    suite.addTestSuite(OperatorCounterUnitTest.class);
+    suite.addTestSuite(SourceTokenizerUnitTest.class);
     suite.addTestSuite(SourceAnalyzerFactoryUnitTest.class);
+    suite.addTestSuite(SourceAnalysisEngineUnitTest.class);
+    suite.addTestSuite(ClassifiedFileUnitTest.class);
+    suite.addTestSuite(TokenMetricsUnitTest.class);
+    suite.addTestSuite(ResponseForAClassSourceAnalyzerUnitTest.class);
+    suite.addTestSuite(LackOfCohesionInMethodsSourceAnalyzerUnitTest.class);
+    suite.addTestSuite(ClassHierarchyUnitTest.class);
+    suite.addTestSuite(OOPAPBatchUnitTest.class);
+    suite.addTestSuite(OOPAPCommandLineUnitTest.class);
     suite.addTestSuite(FileUtilUnitTest.class);
+    suite.addTestSuite(CSVWriterUnitTest.class);
+    suite.addTestSuite(XLSXWriterUnitTest.class);
+    suite.addTestSuite(ResultsFileUnitTest.class);
+    suite.addTestSuite(CohortAggregatorUnitTest.class);
+    suite.addTestSuite(SourceFileReaderUnitTest.class);
+    suite.addTestSuite(SourceFileFinderUnitTest.class);
 
     // $JUnit-END$
     return suite;
@@ -0,0 +1,97 @@
+package test.automated.edu.monmouth.se.oopap.analyzer;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.LineClassifier;
+
+/**
+ * Conformance tests for the single scan line classifier. Every line must be
+ * classified exactly as the original regular expression rules classify it.
+ * 
+ * @author Andrew Tasso
+ */
+public class LineClassifierUnitTest extends TestCase
+{
+
+  /**
+   * Fragments used to assemble the generated corpus. They are chosen to hit
+   * every rule, every keyword boundary and every character the regular
+   * expressions treat specially.
+   */
+  private static final String[] FRAGMENTS = { "public", "private",
+      "protected", " class ", " enum ", "class", "enum", "import ",
+      "package ", "import", "package", "{", "}", "(", ")", ";", ":", "//",
+      "/*", "*/", "*", "/", ".matches(", ".*\\..*", ".", " ", "  ", "\t",
+      "\n", "\r", "\u000B", "\f", "\u0085", "\u2028", "\u2029", "x", "foo",
+      "p", "pub", "priv", "=", "\"", "return ", "void", "String", "extends",
+      "int i", "0", "++", "\u00e9" };
+
+  public void testGetLineType_HandWrittenCorpus()
+  {
+
+    String[] testLines = { "", " ", "\t", "\n", "\r\n", "\u000B\f",
+        "\u0085", "\u2028", "{", " { ", "{\n", "{\u0085", "}", "\t}\r",
+        "{}", "{{", "}}", "// x", "x // y\u2028", "/* x", "x */",
+        "*/ /*", "import a.b;", "import a.b;\u2028", "importa.b;",
+        "package a;", "package\ta;", "public class A", "public  class A",
+        "publicclass A", "class A public", "public enum E",
+        "private class A extends B", "protected class A",
+        "protected public class A", "public class A {", "public void a()",
+        "public void a() {", "protected int a(int b)", "a() public",
+        "public a.*\\..*()", "publi c()", "public (", "x.matches(\"y\");",
+        "x.matches(\"public void a()\")", "{ .matches(", "case a:",
+        "i++;", "i++", "a;\u2028", "String s = \"public class X\";" };
+
+    for (String currLine : testLines)
+    {
+
+      assertEquals(LineAnalyzer.getLegacyLineType(currLine), LineClassifier
+          .getLineType(currLine));
+
+    }
+
+  }
+
+  public void testGetLineType_GeneratedCorpus()
+  {
+
+    // seeded so any failure can be reproduced
+    Random random = new Random(20081018L);
+    StringBuilder currLine = new StringBuilder();
+
+    for (int i = 0; i < 200000; i++)
+    {
+
+      currLine.setLength(0);
+
+      int fragmentCount = random.nextInt(12);
+
+      for (int j = 0; j < fragmentCount; j++)
+      {
+
+        currLine.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+
+      }
+
+      String testLine = currLine.toString();
+
+      assertEquals(testLine, LineAnalyzer.getLegacyLineType(testLine),
+          LineClassifier.getLineType(testLine));
+
+    }
+
+  }
+
+  public void testGetLineType_CharSequence()
+  {
+
+    StringBuilder testLine = new StringBuilder("public void aMethod()");
+
+    assertEquals(LineAnalyzer.getLegacyLineType(testLine.toString()),
+        LineClassifier.getLineType(testLine));
+
+  }
+
+}
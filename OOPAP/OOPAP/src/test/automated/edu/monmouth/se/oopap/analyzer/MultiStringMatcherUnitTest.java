@@ -0,0 +1,77 @@
+package test.automated.edu.monmouth.se.oopap.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.monmouth.se.oopap.analyzer.MultiStringMatcher;
+import junit.framework.TestCase;
+
+public class MultiStringMatcherUnitTest extends TestCase
+{
+
+  /**
+   * Method used to find every occurrence of every pattern in a text.
+   * 
+   * @return each occurrence as pattern@start
+   */
+  private List<String> findAll(MultiStringMatcher theMatcher, String theText)
+  {
+
+    final List<String> matchList = new ArrayList<String>();
+
+    theMatcher.findAll(theText, new MultiStringMatcher.MatchListener()
+    {
+
+      public void patternFound(int thePattern, int theStart, int theEnd)
+      {
+
+        matchList.add(thePattern + "@" + theStart);
+
+      }
+
+    });
+
+    return matchList;
+
+  }
+
+  public void testFindAll()
+  {
+
+    MultiStringMatcher matcher = new MultiStringMatcher();
+
+    assertEquals(0, matcher.addPattern("he"));
+    assertEquals(1, matcher.addPattern("she"));
+    assertEquals(2, matcher.addPattern("his"));
+    assertEquals(3, matcher.addPattern("hers"));
+    assertEquals(1, matcher.addPattern("she"));
+    assertEquals(4, matcher.addPattern(""));
+
+    assertEquals("[1@1, 0@2, 3@2]", findAll(matcher, "ushers").toString());
+    assertEquals("[2@0, 1@2, 0@3]", findAll(matcher, "hishe").toString());
+    assertEquals("[]", findAll(matcher, "").toString());
+
+    // a pattern added after a search is found by the next search
+    matcher.addPattern("ers");
+
+    assertEquals("[1@1, 0@2, 3@2, 5@3]", findAll(matcher, "ushers")
+        .toString());
+    assertEquals(5, matcher.getPatternIndex("ers"));
+    assertEquals(-1, matcher.getPatternIndex("her"));
+
+  }
+
+  public void testFindAll_Overlapping()
+  {
+
+    MultiStringMatcher matcher = new MultiStringMatcher();
+
+    matcher.addPattern("aa");
+    matcher.addPattern("a");
+
+    assertEquals("[1@0, 0@0, 1@1, 0@1, 1@2]", findAll(matcher, "aaa")
+        .toString());
+
+  }
+
+}
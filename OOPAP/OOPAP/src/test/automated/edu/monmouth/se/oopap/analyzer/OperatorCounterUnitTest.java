@@ -0,0 +1,72 @@
+package test.automated.edu.monmouth.se.oopap.analyzer;
+
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.OperatorCounter;
+import edu.monmouth.se.oopap.enumerator.OperatorType;
+import junit.framework.TestCase;
+
+public class OperatorCounterUnitTest extends TestCase
+{
+
+  public void testCountOperators()
+  {
+
+    assertEquals(0, OperatorCounter.countOperators("int x = 5;"));
+    assertEquals(2, OperatorCounter.countOperators("x = a + b * c;"));
+    assertEquals(1, OperatorCounter.countOperators("x += 2;"));
+    assertEquals(1, OperatorCounter.countOperators("i++;"));
+    assertEquals(3, OperatorCounter.countOperators(
+        "if (a <= b && !done) {"));
+    assertEquals(2, OperatorCounter.countOperators("x = a >>> 2 > b - 1;"));
+
+    // literals and comments are skipped
+    assertEquals(1, OperatorCounter.countOperators(
+        "s = \"a+b\\\"-\" + '/'; // x * y"));
+    assertEquals(1, OperatorCounter.countOperators("a /* - */ / b"));
+
+  }
+
+  public void testCountOperators_ByType()
+  {
+
+    int[] counts = new int[OperatorType.values().length];
+
+    assertEquals(5, OperatorCounter.countOperators(
+        "while (i != n || j-- >= 0 % k)", counts));
+    assertEquals(2, OperatorCounter.countOperators("x = y == z ? -1 : 1;",
+        counts));
+
+    assertEquals(1, counts[OperatorType.NotEqual.ordinal()]);
+    assertEquals(1, counts[OperatorType.LogicalOr.ordinal()]);
+    assertEquals(1, counts[OperatorType.Decrement.ordinal()]);
+    assertEquals(1, counts[OperatorType.GreaterThanOrEqual.ordinal()]);
+    assertEquals(1, counts[OperatorType.Modulus.ordinal()]);
+    assertEquals(1, counts[OperatorType.Equal.ordinal()]);
+    assertEquals(1, counts[OperatorType.Subtraction.ordinal()]);
+    assertEquals(0, counts[OperatorType.GreaterThan.ordinal()]);
+
+  }
+
+  public void testCountOperators_TypeArguments()
+  {
+
+    int[] counts = new int[OperatorType.values().length];
+
+    // a single line can not tell a type argument from a comparison, so its
+    // angle brackets are counted as relational operators
+    assertEquals(4, OperatorCounter.countOperators(
+        "List<String> x = new ArrayList<String>();", counts));
+    assertEquals(2, counts[OperatorType.LessThan.ordinal()]);
+    assertEquals(2, counts[OperatorType.GreaterThan.ordinal()]);
+    assertEquals(4, LineAnalyzer.getNumOperators(
+        "List<String> x = new ArrayList<String>();"));
+
+    // the brackets closing nested type arguments are read as a shift
+    assertEquals(2, OperatorCounter.countOperators(
+        "Map<String, List<Integer>> m;"));
+    assertEquals(3, OperatorCounter.countOperators(
+        "Map<String, List<List<Integer>>> m;"));
+
+  }
+
+}
@@ -0,0 +1,109 @@
+package test.automated.edu.monmouth.se.oopap.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.monmouth.se.oopap.analyzer.SourceTokenizer;
+import edu.monmouth.se.oopap.analyzer.TokenAnalyzer;
+import edu.monmouth.se.oopap.analyzer.TokenBuffer;
+import edu.monmouth.se.oopap.enumerator.TokenType;
+import junit.framework.TestCase;
+
+public class SourceTokenizerUnitTest extends TestCase
+{
+
+  /**
+   * Method used to tokenize lines in order.
+   * 
+   * @return each token as line:type:text
+   */
+  private List<String> tokenize(SourceTokenizer theTokenizer,
+      String... theLines)
+  {
+
+    TokenBuffer tokenBuffer = new TokenBuffer();
+    List<String> tokenList = new ArrayList<String>();
+    int firstLine = -1;
+
+    for (String currLine : theLines)
+    {
+
+      theTokenizer.tokenizeLine(currLine, tokenBuffer);
+
+    }
+
+    for (int i = 0; i < tokenBuffer.getTokenCount(); i++)
+    {
+
+      if (firstLine < 0)
+      {
+
+        firstLine = tokenBuffer.getTokenLine(i);
+
+      }
+
+      tokenList.add((tokenBuffer.getTokenLine(i) - firstLine) + ":"
+          + tokenBuffer.getTokenType(i) + ":"
+          + tokenBuffer.getTokenText(i, theLines[tokenBuffer.getTokenLine(i)
+              - firstLine]));
+
+    }
+
+    return tokenList;
+
+  }
+
+  public void testTokenizeLine()
+  {
+
+    assertEquals("[0:Keyword:public, 0:Keyword:class, 0:Identifier:Foo, "
+        + "0:Keyword:extends, 0:Identifier:Bar, 0:OpenBrace:{]", tokenize(
+        new SourceTokenizer(), "public class Foo extends Bar {").toString());
+    assertEquals("[0:Identifier:x, 0:Operator:>>>=, 0:NumericLiteral:0x1F, "
+        + "0:Operator:+, 0:NumericLiteral:1.5e-3f, 0:Separator:;, "
+        + "0:Comment:// done]", tokenize(new SourceTokenizer(),
+        "x >>>= 0x1F + 1.5e-3f; // done").toString());
+    assertEquals("[0:Identifier:s, 0:Operator:=, 0:StringLiteral:\"a\\\"}\", "
+        + "0:Operator:+, 0:CharacterLiteral:'{', 0:Separator:;, "
+        + "0:CloseBrace:}]", tokenize(new SourceTokenizer(),
+        "s = \"a\\\"}\" + '{'; }").toString());
+
+  }
+
+  public void testTokenizeLine_AcrossLines()
+  {
+
+    SourceTokenizer tokenizer = new SourceTokenizer();
+
+    assertEquals("[0:Identifier:a, 0:Comment:/* one, 1:Comment:two */, "
+        + "1:Identifier:b, 2:Comment:/** three */]", tokenize(tokenizer,
+        "a /* one", "two */ b", "/** three */").toString());
+    assertEquals(SourceTokenizer.STATE_CODE, tokenizer.getState());
+
+    assertEquals("[0:Identifier:s, 0:Operator:=, 0:StringLiteral:\"\"\", "
+        + "1:StringLiteral:  x */ \"\"\", 1:Separator:;]", tokenize(
+        new SourceTokenizer(), "s = \"\"\"", "  x */ \"\"\";").toString());
+
+    // a tokenizer restarted at a line continues the comment it was in
+    tokenizer.restart(SourceTokenizer.STATE_BLOCK_COMMENT, 5);
+
+    assertEquals("[0:Comment:end */, 0:Identifier:x]", tokenize(tokenizer,
+        "end */ x").toString());
+
+  }
+
+  public void testGetTokenType()
+  {
+
+    TokenAnalyzer tokenAnalyzer = new TokenAnalyzer();
+
+    assertEquals(TokenType.Keyword, tokenAnalyzer.getTokenType("while"));
+    assertEquals(TokenType.Identifier, tokenAnalyzer.getTokenType(" whiles "));
+    assertEquals(TokenType.Operator, tokenAnalyzer.getTokenType("&&"));
+    assertEquals(TokenType.NumericLiteral, tokenAnalyzer.getTokenType("42L"));
+    assertEquals(TokenType.Unknown, tokenAnalyzer.getTokenType("a b"));
+    assertEquals(TokenType.Unknown, tokenAnalyzer.getTokenType("/* a"));
+
+  }
+
+}
@@ -0,0 +1,231 @@
+package test.automated.edu.monmouth.se.oopap.cohort;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.monmouth.se.oopap.cohort.CohortAggregator;
+import edu.monmouth.se.oopap.cohort.MetricSummary;
+import edu.monmouth.se.oopap.cohort.P2Quantile;
+import edu.monmouth.se.oopap.enumerator.ResultLevel;
+import edu.monmouth.se.oopap.io.CSVWriter;
+import edu.monmouth.se.oopap.io.ResultsFile;
+import edu.monmouth.se.oopap.io.ResultsFileWriter;
+import edu.monmouth.se.oopap.sourceanalyzer.TopCalculationsSourceAnalyzer;
+import junit.framework.TestCase;
+
+public class CohortAggregatorUnitTest extends TestCase
+{
+
+  public void testP2Quantile_Exact()
+  {
+
+    P2Quantile median = new P2Quantile(0.5);
+
+    assertTrue(Double.isNaN(median.getValue()));
+
+    median.add(4);
+    median.add(1);
+    median.add(3);
+    median.add(2);
+
+    assertEquals(2.5, median.getValue(), 0);
+
+  }
+
+  public void testP2Quantile_Estimated()
+  {
+
+    Random random = new Random(1);
+    P2Quantile percentile = new P2Quantile(0.9);
+    double[] values = new double[100000];
+
+    for (int i = 0; i < values.length; i++)
+    {
+
+      values[i] = random.nextGaussian();
+      percentile.add(values[i]);
+
+    }
+
+    Arrays.sort(values);
+
+    assertEquals(values[(int) (0.9 * (values.length - 1))], percentile
+        .getValue(), 0.01);
+
+  }
+
+  public void testAddResultsFiles() throws Exception
+  {
+
+    List<File> fileList = new ArrayList<File>();
+    CohortAggregator aggregator = new CohortAggregator();
+    MetricSummary summary;
+
+    fileList.add(writeResults("10", "20"));
+    fileList.add(writeResults("30", "n/a"));
+    fileList.add(writeResults("50", "60"));
+
+    aggregator.setThreadCount(2);
+    aggregator.addResultsFiles(fileList);
+
+    assertEquals(3, aggregator.getSubmissionCount());
+
+    summary = aggregator.getSummary("LineCountByPCO", "Line Count",
+        ResultLevel.Class);
+    assertEquals(5, summary.getCount());
+    assertEquals(34.0, summary.getMean(), 0.0001);
+    assertEquals(30.0, summary.getMedian(), 0.0001);
+    assertEquals(10.0, summary.getMinimum(), 0);
+    assertEquals(60.0, summary.getMaximum(), 0);
+
+    summary = aggregator.getSummary("LineCountByPCO", "Line Count",
+        ResultLevel.Program);
+    assertEquals(3, summary.getCount());
+    assertEquals(200.0, summary.getStandardDeviation(), 0.0001);
+
+    assertNull(aggregator.getSummary("LineCountByPCO", "Line Count",
+        ResultLevel.Operation));
+
+    // the report is the same however many threads are used
+    CohortAggregator singleAggregator = new CohortAggregator();
+
+    singleAggregator.setThreadCount(1);
+    singleAggregator.addResultsFiles(fileList);
+
+    assertEquals(writeReport(singleAggregator), writeReport(aggregator));
+
+  }
+
+  public void testAddResultsFiles_TopCalculations() throws Exception
+  {
+
+    List<File> fileList = new ArrayList<File>();
+    CohortAggregator aggregator = new CohortAggregator();
+    MetricSummary summary;
+
+    fileList.add(writeTopCalculations(1));
+    fileList.add(writeTopCalculations(2));
+    fileList.add(writeTopCalculations(3));
+    aggregator.addResultsFiles(fileList);
+
+    // only the program total of each submission is summarized at the level
+    // of the program, not the totals of its top operations
+    summary = aggregator.getSummary("Top5_20PercentOfCalculations",
+        "Calculation Count", ResultLevel.Program);
+    assertEquals(3, summary.getCount());
+    assertEquals(12.0, summary.getMean(), 0.0001);
+    assertEquals(6.0, summary.getMinimum(), 0);
+    assertEquals(18.0, summary.getMaximum(), 0);
+
+    // the top 5 of the 6 operations of each submission are listed
+    summary = aggregator.getSummary("Top5_20PercentOfCalculations",
+        "Calculation Count", ResultLevel.Operation);
+    assertEquals(15, summary.getCount());
+
+  }
+
+  /**
+   * Writes the Top5_20PercentOfCalculations report of a class of 6
+   * operations, each holding the given number of calculations.
+   */
+  private static File writeTopCalculations(int theCalculations)
+      throws Exception
+  {
+
+    File file = File.createTempFile("oopap", ResultsFile.FILE_EXTENSION);
+    ResultsFileWriter resultsWriter = new ResultsFileWriter(file);
+    TopCalculationsSourceAnalyzer analyzer =
+        new TopCalculationsSourceAnalyzer();
+    Map<String, List<String>> sourceMap = new HashMap<String, List<String>>();
+    List<String> lines = new ArrayList<String>();
+    StringBuilder calculation = new StringBuilder("    x = 0");
+
+    for (int i = 0; i < theCalculations; i++)
+    {
+
+      calculation.append(" + 1");
+
+    }
+
+    lines.add("public class Shape");
+    lines.add("{");
+
+    for (int i = 0; i < 6; i++)
+    {
+
+      lines.add("  public void operation" + i + "()");
+      lines.add("  {");
+      lines.add(calculation + ";");
+      lines.add("  }");
+
+    }
+
+    lines.add("}");
+    sourceMap.put("Shape.java", lines);
+    analyzer.analyzeSource(sourceMap);
+
+    file.deleteOnExit();
+    resultsWriter.beginReport("Top5_20PercentOfCalculations");
+    analyzer.writeWorksheetReport(resultsWriter);
+    resultsWriter.close();
+
+    return file;
+
+  }
+
+  private static File writeResults(String theFirst, String theSecond)
+      throws Exception
+  {
+
+    File file = File.createTempFile("oopap", ResultsFile.FILE_EXTENSION);
+    ResultsFileWriter resultsWriter = new ResultsFileWriter(file);
+    int total = 100 * Integer.parseInt(theFirst) / 10;
+
+    file.deleteOnExit();
+    resultsWriter.beginReport("LineCountByPCO");
+    writeRow(resultsWriter, "Class Name", "Operation Name", "Line Count");
+    writeRow(resultsWriter, "Shape", "", theFirst);
+    writeRow(resultsWriter, "Circle", "", theSecond);
+    resultsWriter.endRow();
+    writeRow(resultsWriter, "Program Total", "", Integer.toString(total));
+    resultsWriter.close();
+
+    return file;
+
+  }
+
+  private static void writeRow(ResultsFileWriter theWriter, String... theCells)
+  {
+
+    for (String currCell : theCells)
+    {
+
+      theWriter.writeCell(currCell);
+
+    }
+
+    theWriter.endRow();
+
+  }
+
+  private static String writeReport(CohortAggregator theAggregator)
+      throws Exception
+  {
+
+    StringWriter out = new StringWriter();
+    CSVWriter csvWriter = new CSVWriter(out);
+
+    theAggregator.writeWorksheetReport(csvWriter);
+    csvWriter.close();
+
+    return out.toString();
+
+  }
+
+}
@@ -0,0 +1,88 @@
+package test.automated.edu.monmouth.se.oopap.io;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.monmouth.se.oopap.io.CSVUtil;
+import edu.monmouth.se.oopap.io.CSVWriter;
+import junit.framework.TestCase;
+
+public class CSVWriterUnitTest extends TestCase
+{
+
+  public void testWriteCell_Quoted() throws Exception
+  {
+
+    StringWriter out = new StringWriter();
+    CSVWriter csvWriter = new CSVWriter(out);
+
+    csvWriter.writeCell("plain");
+    csvWriter.writeCell("a,b");
+    csvWriter.writeCell("say \"hi\"");
+    csvWriter.writeCell("two\nlines");
+    csvWriter.writeCell((String) null);
+    csvWriter.endRow();
+    csvWriter.close();
+
+    assertEquals("plain,\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\",null\n", out
+        .toString());
+
+  }
+
+  public void testWriteCell_Int() throws Exception
+  {
+
+    StringWriter out = new StringWriter();
+    CSVWriter csvWriter = new CSVWriter(out);
+
+    csvWriter.writeCell(0);
+    csvWriter.writeCell(42);
+    csvWriter.writeCell(-7);
+    csvWriter.writeCell(Integer.MIN_VALUE);
+    csvWriter.endRow();
+    // a blank row
+    csvWriter.endRow();
+    csvWriter.writeCell(Integer.MAX_VALUE);
+    csvWriter.endRow();
+    csvWriter.close();
+
+    assertEquals("0,42,-7,-2147483648\n\n2147483647\n", out.toString());
+
+  }
+
+  public void testWriteRow_SameAsCSVUtil() throws Exception
+  {
+
+    List<List<String>> reportContents = new ArrayList<List<String>>();
+    StringWriter out = new StringWriter();
+    CSVWriter csvWriter = new CSVWriter(out);
+    StringBuilder expected = new StringBuilder();
+
+    reportContents.add(Arrays.asList("Class Name", "Operation Name", "Count"));
+    reportContents.add(new ArrayList<String>());
+    reportContents.add(Arrays.asList("Shape\";", "", "3"));
+
+    for (List<String> currRow : reportContents)
+    {
+
+      csvWriter.writeRow(currRow);
+
+    }
+    for (String currLine : CSVUtil.generateCSVReport(reportContents))
+    {
+
+      expected.append(currLine).append('\n');
+
+    }
+
+    csvWriter.close();
+
+    assertEquals(expected.toString(), out.toString());
+    assertEquals("Class Name,Operation Name,Count\n\n\"Shape\"\";\",,3\n", out
+        .toString());
+
+  }
+
+}
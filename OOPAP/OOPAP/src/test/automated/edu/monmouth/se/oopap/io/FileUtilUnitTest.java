@@ -2,8 +2,11 @@ package test.automated.edu.monmouth.se.oopap.io;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 import edu.monmouth.se.oopap.io.FileUtil;
 import junit.framework.TestCase;
@@ -65,4 +68,34 @@ public class FileUtilUnitTest extends TestCase
 
   }
 
+  public void testGetSourceFileContents_Charset() throws IOException
+  {
+
+    File test = File.createTempFile("oopap", ".txt");
+    FileOutputStream out = new FileOutputStream(test);
+
+    try
+    {
+
+      out.write("Shapes,Zo\u00eb,zoe\r\n\u00c5sa\n\nlast".getBytes("UTF-8"));
+      out.close();
+
+      // the lines are decoded with the charset given, whatever the platform
+      assertEquals(Arrays.asList("Shapes,Zo\u00eb,zoe", "\u00c5sa", "",
+          "last"), FileUtil.getSourceFileContents(test, Charset
+          .forName("UTF-8")));
+      assertEquals("Zo\u00c3\u00ab", FileUtil.getSourceFileContents(test,
+          Charset.forName("ISO-8859-1")).get(0).split(",")[1]);
+
+    }
+    finally
+    {
+
+      out.close();
+      test.delete();
+
+    }
+
+  }
+
 }
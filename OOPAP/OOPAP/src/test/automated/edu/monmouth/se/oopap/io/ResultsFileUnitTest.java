@@ -0,0 +1,135 @@
+package test.automated.edu.monmouth.se.oopap.io;
+
+import java.io.File;
+import java.io.IOException;
+
+import edu.monmouth.se.oopap.enumerator.ResultLevel;
+import edu.monmouth.se.oopap.io.ResultsFile;
+import edu.monmouth.se.oopap.io.ResultsFileWriter;
+import edu.monmouth.se.oopap.io.ResultsTable;
+import junit.framework.TestCase;
+
+public class ResultsFileUnitTest extends TestCase
+{
+
+  public void testWrite_RoundTrip() throws Exception
+  {
+
+    File file = File.createTempFile("oopap", ResultsFile.FILE_EXTENSION);
+    ResultsFileWriter resultsWriter = new ResultsFileWriter(file);
+    ResultsFile resultsFile;
+    ResultsTable table;
+
+    file.deleteOnExit();
+
+    resultsWriter.beginReport("CommentLines");
+    writeRow(resultsWriter, "Class Name", "Operation Name", "Count", "%");
+    writeRow(resultsWriter, "Shape", "area", "3", "57.1");
+    writeRow(resultsWriter, "Shape", "", "4", "n/a");
+    resultsWriter.endRow();
+    writeRow(resultsWriter, "Program Total", "", "4", "100.0");
+
+    resultsWriter.beginReport("NumberOfChildren");
+    writeRow(resultsWriter, "Class Name", "Number of Children");
+    resultsWriter.endRow();
+    writeRow(resultsWriter, "Shape", "2");
+
+    resultsWriter.close();
+    resultsFile = ResultsFile.read(file);
+
+    assertEquals(2, resultsFile.getTableCount());
+    // each name is held once, however many tables refer to it
+    assertEquals(3, resultsFile.getNameList().size());
+
+    table = resultsFile.getTable("CommentLines");
+    assertEquals(3, table.getRowCount());
+    assertEquals(2, table.getColumnCount());
+    assertEquals(1, table.getColumnIndex("%"));
+    assertEquals(1, table.getColumnScale(1));
+
+    assertEquals(ResultLevel.Operation, table.getLevel(0));
+    assertEquals("Shape", table.getClassName(0));
+    assertEquals("area", table.getOperationName(0));
+    assertEquals(571, table.getValue(0, 1));
+    assertEquals(57.1, table.getDoubleValue(0, 1), 0.0001);
+
+    assertEquals(ResultLevel.Class, table.getLevel(1));
+    assertNull(table.getOperationName(1));
+    assertEquals(ResultsTable.MISSING_VALUE, table.getValue(1, 1));
+    assertTrue(Double.isNaN(table.getDoubleValue(1, 1)));
+
+    assertEquals(ResultLevel.Program, table.getLevel(2));
+    assertEquals(1000, table.getValue(2, 1));
+
+    table = resultsFile.getTable("NumberOfChildren");
+    assertEquals(1, table.getRowCount());
+    assertEquals(table.getClassId(0), resultsFile.getTable(0).getClassId(0));
+    assertEquals(2, table.getColumnValues(0)[0]);
+
+    assertNull(resultsFile.getTable("LineCountByPCO"));
+
+  }
+
+  public void testAbort() throws Exception
+  {
+
+    File file = File.createTempFile("oopap", ResultsFile.FILE_EXTENSION);
+    ResultsFileWriter resultsWriter = new ResultsFileWriter(file);
+
+    file.deleteOnExit();
+
+    resultsWriter.beginReport("NumberOfChildren");
+    writeRow(resultsWriter, "Class Name", "Number of Children");
+    writeRow(resultsWriter, "Shape", "2");
+    resultsWriter.close();
+
+    // the reports of an analysis that failed are discarded along with the
+    // results of the earlier analysis
+    resultsWriter = new ResultsFileWriter(file);
+    resultsWriter.beginReport("NumberOfChildren");
+    writeRow(resultsWriter, "Class Name", "Number of Children");
+    resultsWriter.abort();
+
+    assertFalse(file.exists());
+    assertEquals(0, resultsWriter.getResultsFile().getTableCount());
+
+  }
+
+  public void testRead_NotAResultsFile() throws Exception
+  {
+
+    File file = File.createTempFile("oopap", ResultsFile.FILE_EXTENSION);
+
+    file.deleteOnExit();
+
+    try
+    {
+
+      ResultsFile.read(file);
+      fail("An empty file is not a results file");
+
+    }
+    catch (IOException e)
+    {
+
+      // expected
+
+    }
+
+  }
+
+  private static void writeRow(ResultsFileWriter theWriter, String... theCells)
+  {
+
+    for (String currCell : theCells)
+    {
+
+      theWriter.writeCell(currCell);
+
+    }
+
+    theWriter.endRow();
+
+  }
+
+}
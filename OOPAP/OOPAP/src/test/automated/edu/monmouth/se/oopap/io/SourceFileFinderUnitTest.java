@@ -0,0 +1,129 @@
+package test.automated.edu.monmouth.se.oopap.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.monmouth.se.oopap.io.SourceFileFinder;
+import junit.framework.TestCase;
+
+public class SourceFileFinderUnitTest extends TestCase
+{
+
+  private File root;
+
+  protected void setUp() throws IOException
+  {
+
+    root = File.createTempFile("oopap", "");
+    root.delete();
+
+    String[] paths = { "Main.java", "notes.txt", ".Hidden.java",
+        "shapes/Shape.java", "shapes/round/Circle.java",
+        "shapes/round/CircleTest.java", "build/Generated.java",
+        "tools/build/Old.java", ".git/Config.java" };
+
+    for (String currPath : paths)
+    {
+
+      File currFile = new File(root, currPath);
+
+      currFile.getParentFile().mkdirs();
+      currFile.createNewFile();
+
+    }
+
+  }
+
+  protected void tearDown()
+  {
+
+    delete(root);
+
+  }
+
+  private void delete(File theFile)
+  {
+
+    File[] children = theFile.listFiles();
+
+    if (children != null)
+    {
+
+      for (File currChild : children)
+      {
+
+        delete(currChild);
+
+      }
+
+    }
+
+    theFile.delete();
+
+  }
+
+  private List<String> find(SourceFileFinder theFinder)
+  {
+
+    List<String> pathList = new ArrayList<String>();
+
+    for (File currFile : theFinder)
+    {
+
+      pathList.add(theFinder.getRelativePath(currFile));
+
+    }
+
+    // the order of the files within a directory depends on the file system
+    Collections.sort(pathList);
+
+    return pathList;
+
+  }
+
+  public void testIterator()
+  {
+
+    SourceFileFinder finder = new SourceFileFinder(root, ".java");
+
+    assertEquals(Arrays.asList("Main.java", "build/Generated.java",
+        "shapes/Shape.java", "shapes/round/Circle.java",
+        "shapes/round/CircleTest.java", "tools/build/Old.java"), find(finder));
+
+  }
+
+  public void testIterator_Globs()
+  {
+
+    SourceFileFinder finder = new SourceFileFinder(root, ".java");
+
+    finder.addExclude("build/");
+    finder.addExclude("*Test.java");
+
+    assertEquals(Arrays.asList("Main.java", "shapes/Shape.java",
+        "shapes/round/Circle.java"), find(finder));
+
+    finder = new SourceFileFinder(root, ".java");
+    finder.addInclude("shapes/**/*.java");
+
+    assertEquals(Arrays.asList("shapes/Shape.java",
+        "shapes/round/Circle.java", "shapes/round/CircleTest.java"),
+        find(finder));
+
+  }
+
+  public void testIterator_SingleFile()
+  {
+
+    File sourceFile = new File(root, "Main.java");
+    SourceFileFinder finder = new SourceFileFinder(sourceFile, ".java");
+
+    assertEquals(Arrays.asList("Main.java"), find(finder));
+
+  }
+
+}
@@ -0,0 +1,136 @@
+package test.automated.edu.monmouth.se.oopap.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.monmouth.se.oopap.io.SourceFileReader;
+import junit.framework.TestCase;
+
+public class SourceFileReaderUnitTest extends TestCase
+{
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private List<String> readWithBufferedReader(String theContents)
+      throws IOException
+  {
+
+    List<String> lineList = new ArrayList<String>();
+    BufferedReader in = new BufferedReader(new StringReader(theContents));
+    String currLine;
+
+    while ((currLine = in.readLine()) != null)
+    {
+
+      lineList.add(currLine);
+
+    }
+
+    return lineList;
+
+  }
+
+  private List<String> readWithSourceFileReader(SourceFileReader theReader,
+      String theContents) throws IOException
+  {
+
+    List<String> lineList = new ArrayList<String>();
+    File sourceFile = File.createTempFile("oopap", ".java");
+    CharSequence currLine;
+
+    try
+    {
+
+      FileOutputStream out = new FileOutputStream(sourceFile);
+
+      out.write(theContents.getBytes("UTF-8"));
+      out.close();
+
+      theReader.open(sourceFile);
+
+      while ((currLine = theReader.readLine()) != null)
+      {
+
+        lineList.add(currLine.toString());
+
+      }
+
+    }
+    finally
+    {
+
+      // the file must have been closed for the delete to succeed everywhere
+      assertTrue(sourceFile.delete());
+
+    }
+
+    return lineList;
+
+  }
+
+  public void testReadLine()
+  {
+
+    String[] contents = { "", "\n", "\r", "\r\n", "abc", "abc\n", "a\r\n\r\nb",
+        "a\rb\nc\r\n", "\n\r", "  int x = 1; // caf\u00e9\n}" };
+    SourceFileReader reader = new SourceFileReader(UTF8);
+
+    try
+    {
+
+      // the same reader is used for every file
+      for (String currContents : contents)
+      {
+
+        assertEquals(readWithBufferedReader(currContents),
+            readWithSourceFileReader(reader, currContents));
+
+      }
+
+    }
+    catch (IOException e)
+    {
+
+      fail(e.getMessage());
+
+    }
+
+  }
+
+  public void testReadLine_MappedFile()
+  {
+
+    StringBuilder contents = new StringBuilder();
+
+    // build a file larger than the threshold at which files are mapped
+    while (contents.length() <= SourceFileReader.MAP_THRESHOLD)
+    {
+
+      contents.append("    total = total + " + contents.length() + ";\r\n");
+
+    }
+
+    try
+    {
+
+      assertEquals(readWithBufferedReader(contents.toString()),
+          readWithSourceFileReader(new SourceFileReader(UTF8), contents
+              .toString()));
+
+    }
+    catch (IOException e)
+    {
+
+      fail(e.getMessage());
+
+    }
+
+  }
+
+}
@@ -0,0 +1,128 @@
+package test.automated.edu.monmouth.se.oopap.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import edu.monmouth.se.oopap.io.XLSXWriter;
+import junit.framework.TestCase;
+
+public class XLSXWriterUnitTest extends TestCase
+{
+
+  private Map<String, String> readParts(byte[] theWorkbook) throws Exception
+  {
+
+    Map<String, String> partMap = new LinkedHashMap<String, String>();
+    ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(
+        theWorkbook));
+    ZipEntry currEntry;
+
+    while ((currEntry = in.getNextEntry()) != null)
+    {
+
+      ByteArrayOutputStream part = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int count;
+
+      while ((count = in.read(buffer)) > 0)
+      {
+
+        part.write(buffer, 0, count);
+
+      }
+
+      partMap.put(currEntry.getName(), part.toString("UTF-8"));
+
+    }
+
+    in.close();
+
+    return partMap;
+
+  }
+
+  public void testWriteSheets() throws Exception
+  {
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    XLSXWriter workbookWriter = new XLSXWriter(out);
+
+    workbookWriter.beginSheet("LineCountByPCO");
+    workbookWriter.writeCell("Class Name");
+    workbookWriter.writeCell("Count");
+    workbookWriter.endRow();
+    // a blank row
+    workbookWriter.endRow();
+    workbookWriter.writeCell("A<B>&\"C\"");
+    workbookWriter.writeCell("");
+    workbookWriter.writeCell(12);
+    workbookWriter.writeCell("25.0");
+    workbookWriter.writeCell("007");
+    workbookWriter.endRow();
+    workbookWriter.beginSheet("Bad/Name");
+    workbookWriter.beginSheet("linecountbypco");
+    workbookWriter.close();
+
+    Map<String, String> partMap = this.readParts(out.toByteArray());
+    String sheet = partMap.get("xl/worksheets/sheet1.xml");
+    String workbook = partMap.get("xl/workbook.xml");
+
+    assertTrue(partMap.containsKey("[Content_Types].xml"));
+    assertTrue(partMap.containsKey("_rels/.rels"));
+    assertTrue(partMap.containsKey("xl/_rels/workbook.xml.rels"));
+    assertTrue(partMap.containsKey("xl/worksheets/sheet3.xml"));
+
+    assertTrue(sheet.indexOf("<row r=\"1\"><c r=\"A1\" t=\"inlineStr\">"
+        + "<is><t>Class Name</t></is></c>") >= 0);
+    assertTrue(sheet.indexOf("<row r=\"2\">") < 0);
+    assertTrue(sheet.indexOf("<row r=\"3\"><c r=\"A3\" t=\"inlineStr\"><is>"
+        + "<t>A&lt;B&gt;&amp;&quot;C&quot;</t></is></c>"
+        + "<c r=\"C3\"><v>12</v></c><c r=\"D3\"><v>25.0</v></c>"
+        + "<c r=\"E3\" t=\"inlineStr\"><is><t>007</t></is></c></row>") >= 0);
+
+    assertTrue(workbook.indexOf("<sheet name=\"LineCountByPCO\" sheetId=\"1\"")
+        >= 0);
+    assertTrue(workbook.indexOf("<sheet name=\"Bad_Name\" sheetId=\"2\"") >= 0);
+    assertTrue(workbook.indexOf(
+        "<sheet name=\"linecountbypco (2)\" sheetId=\"3\"") >= 0);
+
+  }
+
+  public void testClose_EmptyWorkbook() throws Exception
+  {
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new XLSXWriter(out).close();
+
+    assertTrue(this.readParts(out.toByteArray()).get("xl/workbook.xml")
+        .indexOf("<sheet name=\"Sheet1\"") >= 0);
+
+  }
+
+  public void testWriteCell_NoSheet() throws Exception
+  {
+
+    XLSXWriter workbookWriter = new XLSXWriter(new ByteArrayOutputStream());
+
+    try
+    {
+
+      workbookWriter.writeCell("cell");
+      fail("a cell can only be written to a sheet");
+
+    }
+    catch (IllegalStateException e)
+    {
+
+      // expected
+
+    }
+
+  }
+
+}
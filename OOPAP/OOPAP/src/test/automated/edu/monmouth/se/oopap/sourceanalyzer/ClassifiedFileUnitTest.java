@@ -0,0 +1,56 @@
+package test.automated.edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.Arrays;
+
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.sourceanalyzer.ClassifiedFile;
+import junit.framework.TestCase;
+
+public class ClassifiedFileUnitTest extends TestCase
+{
+
+  public void testClassifiedFile()
+  {
+
+    String[] lines = {
+        "public class Foo extends Bar",
+        "{",
+        "  public void first()",
+        "  {",
+        "    if (done)",
+        "    {",
+        "      return;",
+        "    }",
+        "  }",
+        "  public int second()",
+        "  {",
+        "    return 1;",
+        "}" };
+    ClassifiedFile classifiedFile = new ClassifiedFile("Foo.java", Arrays
+        .asList(lines));
+
+    assertEquals("Foo.java", classifiedFile.getSourceFileName());
+    assertEquals(lines.length, classifiedFile.getLineCount());
+
+    for (int i = 0; i < lines.length; i++)
+    {
+
+      assertEquals(lines[i], classifiedFile.getLine(i));
+      assertEquals(LineAnalyzer.getLineType(lines[i]), classifiedFile
+          .getLineType(i));
+
+    }
+
+    assertEquals(1, classifiedFile.getClassCount());
+    assertEquals(0, classifiedFile.getClassLine(0));
+
+    // the second operation is closed by the brace closing the class
+    assertEquals(2, classifiedFile.getOperationCount());
+    assertEquals(2, classifiedFile.getOperationStartLine(0));
+    assertEquals(8, classifiedFile.getOperationEndLine(0));
+    assertEquals(9, classifiedFile.getOperationStartLine(1));
+    assertEquals(12, classifiedFile.getOperationEndLine(1));
+
+  }
+
+}
@@ -0,0 +1,162 @@
+package test.automated.edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.sourceanalyzer.LackOfCohesionInMethodsSourceAnalyzer;
+import junit.framework.TestCase;
+
+public class LackOfCohesionInMethodsSourceAnalyzerUnitTest extends TestCase
+{
+
+  /**
+   * Creates a class declaring the fields given, with an operation for each
+   * line given whose body is that line.
+   */
+  private static List<String> createClass(String[] theFields,
+      List<String> theOperationLines)
+  {
+
+    List<String> source = new ArrayList<String>();
+
+    source.add("public class Sample");
+    source.add("{");
+
+    for (String currField : theFields)
+    {
+
+      source.add("  private int " + currField + ";");
+
+    }
+
+    source.add("");
+
+    for (int i = 0; i < theOperationLines.size(); i++)
+    {
+
+      source.add("  public int operation" + i + "()");
+      source.add("  {");
+      source.add("    " + theOperationLines.get(i));
+      source.add("  }");
+
+    }
+
+    source.add("}");
+
+    return source;
+
+  }
+
+  /**
+   * Analyzes a single class and returns its LCOM value.
+   */
+  private static int getLCOM(List<String> theSource)
+  {
+
+    LackOfCohesionInMethodsSourceAnalyzer analyzer =
+        new LackOfCohesionInMethodsSourceAnalyzer();
+    Map<String, List<String>> sourceMap = new HashMap<String, List<String>>();
+
+    sourceMap.put("Sample.java", theSource);
+    analyzer.analyzeSource(sourceMap);
+
+    // the heading row and a blank row come before the class
+    List<List<String>> worksheetReport = analyzer.generateWorksheetReport();
+
+    assertEquals(3, worksheetReport.size());
+    assertEquals("Sample.java", worksheetReport.get(2).get(0));
+
+    return Integer.parseInt(worksheetReport.get(2).get(1));
+
+  }
+
+  /**
+   * Adds the same line to a list a number of times.
+   */
+  private static void addLines(List<String> theLines, String theLine,
+      int theCount)
+  {
+
+    for (int i = 0; i < theCount; i++)
+    {
+
+      theLines.add(theLine);
+
+    }
+
+  }
+
+  public void testLCOM_SubstringFields()
+  {
+
+    List<String> lines = new ArrayList<String>();
+
+    // countTotal also contains count, so both operations use count and
+    // share it, leaving the 4 operations without fields: 6 - 1
+    lines.add("count = count + 1;");
+    lines.add("return countTotal;");
+    addLines(lines, "return 0;", 4);
+
+    assertEquals(5, getLCOM(createClass(
+        new String[] { "count", "countTotal" }, lines)));
+
+  }
+
+  public void testLCOM_NoSharedFields()
+  {
+
+    List<String> lines = new ArrayList<String>();
+
+    // each field is used by a single operation, so no pair shares a field
+    lines.add("return width;");
+    lines.add("return height;");
+    lines.add("return 0;");
+
+    assertEquals(3, getLCOM(createClass(new String[] { "width", "height" },
+        lines)));
+
+    // a field used by no operation leaves the value at 0
+    assertEquals(0, getLCOM(createClass(new String[] { "depth" }, lines)));
+
+  }
+
+  public void testLCOM_SharedFields()
+  {
+
+    List<String> lines = new ArrayList<String>();
+
+    // 3 pairs share width, and a field used twice in a line counts once
+    lines.add("return width;");
+    lines.add("return width * width;");
+    lines.add("width = width + 1;");
+    addLines(lines, "return 0;", 4);
+
+    assertEquals(3, getLCOM(createClass(new String[] { "width" }, lines)));
+
+    // the value is not negative
+    lines.set(3, "return width;");
+
+    assertEquals(0, getLCOM(createClass(new String[] { "width" }, lines)));
+
+  }
+
+  public void testLCOM_ManyOperations()
+  {
+
+    List<String> lines = new ArrayList<String>();
+
+    // the operations using size are numbered 40 to 69, beyond the first word
+    // of the bit sets: 40 operations share total and 30 share size, leaving
+    // 60 operations without fields: 1770 - (780 + 435)
+    addLines(lines, "return total;", 40);
+    addLines(lines, "return size;", 30);
+    addLines(lines, "return 0;", 60);
+
+    assertEquals(555, getLCOM(createClass(new String[] { "total", "size" },
+        lines)));
+
+  }
+
+}
@@ -0,0 +1,160 @@
+package test.automated.edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import edu.monmouth.se.oopap.sourceanalyzer.ResponseForAClassSourceAnalyzer;
+import junit.framework.TestCase;
+
+public class ResponseForAClassSourceAnalyzerUnitTest extends TestCase
+{
+
+  private static final long SEED = 20080415L;
+
+  private static final String[] NAMES = { "run", "runAll", "go", "go",
+      "get$Value", "$", "", "a.b", "x+", "count" };
+
+  private static final String[] LINES = {
+      "    run();",
+      "    runAll ();",
+      "    run\t(x);",
+      "    obj.run  (x);",
+      "    get$Value();",
+      "    $();",
+      "    x = ( 1 );",
+      "    return;",
+      "    xx(",
+      "    a.b(c);",
+      "    axb(c);",
+      "    count(run(go()));",
+      "    run();\n    stop();",
+      "    stop();\n    run();",
+      "    a\r(b",
+      "    go\n(",
+      "    go\u2028();",
+      "  public void run()",
+      "  private int count(int theValue)",
+      "    go();",
+      "    go ();",
+      "" };
+
+  /**
+   * The calls counted by the analyzer before the names were matched
+   * together, each line matched against the regular expression of each name.
+   */
+  private static int countOperationCallsByRegex(List<String> theLines,
+      List<String> theNames)
+  {
+
+    int callCount = 0;
+
+    for (String currLine : theLines)
+    {
+
+      for (String currName : theNames)
+      {
+
+        if (currLine.matches(".*" + currName + "\\s*\\(.*")
+            && !currLine.contains("public") && !currLine.contains("private")
+            && !currLine.contains("protected"))
+        {
+
+          callCount++;
+
+        }
+
+      }
+
+    }
+
+    return callCount;
+
+  }
+
+  public void testCountOperationCalls()
+  {
+
+    List<String> lines = Arrays.asList(LINES);
+    List<String> names = Arrays.asList(NAMES);
+
+    assertEquals(countOperationCallsByRegex(lines, names),
+        ResponseForAClassSourceAnalyzer.countOperationCalls(lines, names));
+
+    // each case on its own
+    for (String currLine : LINES)
+    {
+
+      for (String currName : NAMES)
+      {
+
+        assertEquals(currLine + " " + currName, countOperationCallsByRegex(
+            Arrays.asList(currLine), Arrays.asList(currName)),
+            ResponseForAClassSourceAnalyzer.countOperationCalls(Arrays
+                .asList(currLine), Arrays.asList(currName)));
+
+      }
+
+    }
+
+  }
+
+  public void testCountOperationCalls_Random()
+  {
+
+    Random random = new Random(SEED);
+    String[] fragments = { "run", "go", "$", "get$Value", "a.b", "x", "+",
+        "(", ")", " ", "\t", "\n", ";", ".", "public" };
+
+    for (int i = 0; i < 500; i++)
+    {
+
+      List<String> lines = new ArrayList<String>();
+      List<String> names = new ArrayList<String>();
+
+      for (int j = random.nextInt(10); j >= 0; j--)
+      {
+
+        StringBuilder currLine = new StringBuilder();
+
+        for (int k = random.nextInt(8); k >= 0; k--)
+        {
+
+          currLine.append(fragments[random.nextInt(fragments.length)]);
+
+        }
+
+        lines.add(currLine.toString());
+
+      }
+
+      for (int j = random.nextInt(4); j >= 0; j--)
+      {
+
+        names.add(NAMES[random.nextInt(NAMES.length)]);
+
+      }
+
+      assertEquals(lines + " " + names, countOperationCallsByRegex(lines,
+          names), ResponseForAClassSourceAnalyzer.countOperationCalls(lines,
+          names));
+
+    }
+
+  }
+
+  public void testCountOperationCalls_InvalidExpression()
+  {
+
+    // names that are not valid regular expressions are matched as written
+    List<String> names = Arrays.asList("run[", "(x", "*go");
+    List<String> lines = Arrays.asList("    run[();", "    (x (1);",
+        "    *go();", "    run();", "    go();", "    run[\n();");
+
+    assertEquals(4, ResponseForAClassSourceAnalyzer.countOperationCalls(
+        lines, names));
+
+  }
+
+}
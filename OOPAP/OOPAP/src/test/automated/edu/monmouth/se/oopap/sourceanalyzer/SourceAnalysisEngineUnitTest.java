@@ -0,0 +1,603 @@
+package test.automated.edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.monmouth.se.oopap.enumerator.LineType;
+import edu.monmouth.se.oopap.enumerator.ReportType;
+import edu.monmouth.se.oopap.exception.UnhandledReportTypeException;
+import edu.monmouth.se.oopap.io.FileUtil;
+import edu.monmouth.se.oopap.io.SourceFileFinder;
+import edu.monmouth.se.oopap.sourceanalyzer.*;
+import junit.framework.TestCase;
+
+public class SourceAnalysisEngineUnitTest extends TestCase
+{
+
+  /**
+   * Analyzer that fails on the first line it is given.
+   */
+  public static class FailingSourceAnalyzer extends LineCountSourceAnalyzer
+  {
+
+    private static final long serialVersionUID = 1L;
+
+    public void analyzeLine(String theLine, LineType theLineType)
+    {
+
+      throw new IllegalArgumentException(theLine);
+
+    }
+
+  }
+
+  /**
+   * The reports run by the controller.
+   */
+  private static final ReportType[] REPORT_TYPES = {
+      ReportType.LineCountByPCO, ReportType.PSPPhysicalLOCByPCO,
+      ReportType.PSPLogicalLOCByPCO, ReportType.LackOfCohesionInMethods,
+      ReportType.PSPClassOperation, ReportType.DepthOfInheritanceTree,
+      ReportType.NumberOfChildren, ReportType.PrivateVarCountByPC,
+      ReportType.PublicVarCountByPC, ReportType.MethodVarCountByPC,
+      ReportType.CommentLines, ReportType.CommentedLines,
+      ReportType.SumOfCommentAndCommented, ReportType.ResponseForAClass,
+      ReportType.CodingViolation };
+
+  /**
+   * The seed of the files generated.
+   */
+  private static final long SEED = 20080415L;
+
+  private Map<String, List<String>> createSourceMap()
+  {
+
+    Map<String, List<String>> sourceMap = new HashMap<String, List<String>>();
+
+    sourceMap.put("Shape.java", Arrays.asList("package shapes;", "",
+        "import java.util.List;", "", "/**", " * A shape.", " */",
+        "public class Shape", "{", "  private int sides;",
+        "  public int count;", "", "  public Shape()", "  {",
+        "    sides = 0;", "  }", "", "  // the area", "  public int area()",
+        "  {", "    int total = sides * 2;", "    if (total > 0) {",
+        "      total = total + 1;", "    }", "    return total;", "  }",
+        "}"));
+    sourceMap.put("Square.java", Arrays.asList("package shapes;",
+        "public class Square extends Shape", "{", "  private int side;",
+        "  public Square(int theSide)", "  {", "    side = theSide;",
+        "    area();", "  }", "  //  side = 2;", "}"));
+    sourceMap.put("Cube.java", Arrays.asList(
+        "public class Cube extends Square", "{", "  public Cube()", "  {",
+        "    super(1);", "  }", "}"));
+    sourceMap.put("Empty.java", new ArrayList<String>());
+
+    return sourceMap;
+
+  }
+
+  private List<SourceAnalyzer> createAnalyzers()
+      throws UnhandledReportTypeException
+  {
+
+    List<SourceAnalyzer> analyzerList = new ArrayList<SourceAnalyzer>();
+
+    for (ReportType currReport : REPORT_TYPES)
+    {
+
+      analyzerList.add(SourceAnalyzerFactory
+          .getConcreteSourceAnalyzer(currReport));
+
+    }
+
+    return analyzerList;
+
+  }
+
+  private void assertSameReports(List<SourceAnalyzer> theExpected,
+      List<SourceAnalyzer> theActual)
+  {
+
+    assertEquals(theExpected.size(), theActual.size());
+
+    for (int i = 0; i < theExpected.size(); i++)
+    {
+
+      assertEquals(theExpected.get(i).generateConsoleReport(), theActual.get(
+          i).generateConsoleReport());
+      assertEquals(theExpected.get(i).generateWorksheetReport(), theActual
+          .get(i).generateWorksheetReport());
+
+    }
+
+  }
+
+  public void testAnalyzeSource_SinglePass() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+    SourceAnalysisEngine engine = new SourceAnalysisEngine();
+
+    for (SourceAnalyzer currAnalyzer : expectedList)
+    {
+
+      currAnalyzer.analyzeSource(sourceMap);
+
+    }
+    for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+    {
+
+      engine.addAnalyzer(currAnalyzer);
+
+    }
+
+    engine.analyzeSource(sourceMap);
+
+    assertSameReports(expectedList, engine.getAnalyzerList());
+
+  }
+
+  public void testAnalyzeSource_Concurrent() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+    SourceAnalysisEngine engine = new SourceAnalysisEngine(4);
+
+    for (SourceAnalyzer currAnalyzer : expectedList)
+    {
+
+      currAnalyzer.analyzeSource(sourceMap);
+
+    }
+    for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+    {
+
+      engine.addAnalyzer(currAnalyzer);
+
+    }
+
+    engine.analyzeSource(sourceMap);
+
+    assertSameReports(expectedList, engine.getAnalyzerList());
+
+  }
+
+  public void testAnalyzeSource_ByFile() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+    SourceAnalysisEngine engine = new SourceAnalysisEngine(4);
+
+    // more files than analyzers, so the files are analyzed concurrently
+    for (int i = 0; i < 40; i++)
+    {
+
+      sourceMap.put("Shape" + i + ".java", sourceMap.get("Shape.java"));
+
+    }
+    // an operation left open carries the brace stack into the next file
+    sourceMap.put("Open.java", Arrays.asList("public class Open", "{",
+        "  public void open()", "  {", "    {", "  }"));
+
+    for (SourceAnalyzer currAnalyzer : expectedList)
+    {
+
+      currAnalyzer.analyzeSource(sourceMap);
+
+    }
+    for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+    {
+
+      engine.addAnalyzer(currAnalyzer);
+
+    }
+
+    engine.analyzeSource(sourceMap);
+
+    assertSameReports(expectedList, engine.getAnalyzerList());
+
+  }
+
+  public void testAnalyzeSourceFiles() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    Map<String, File> sourceFileMap = new LinkedHashMap<String, File>();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+
+    try
+    {
+
+      // write each file of the source map to disk, keeping the order of the
+      // source map
+      for (String currSourceFileName : sourceMap.keySet())
+      {
+
+        File currFile = File.createTempFile("oopap", ".java");
+
+        FileUtil.writeReport(currFile, sourceMap.get(currSourceFileName));
+        sourceFileMap.put(currSourceFileName, currFile);
+
+      }
+
+      for (SourceAnalyzer currAnalyzer : expectedList)
+      {
+
+        currAnalyzer.analyzeSource(sourceMap);
+
+      }
+
+      // on the calling thread, on a pool with more analyzers than files and
+      // on a pool with more files than analyzers
+      for (int threadCount = 1; threadCount <= 2; threadCount++)
+      {
+
+        for (int analyzerCount = 1; analyzerCount <= REPORT_TYPES.length;
+            analyzerCount += REPORT_TYPES.length - 1)
+        {
+
+          SourceAnalysisEngine engine = new SourceAnalysisEngine(threadCount);
+
+          for (SourceAnalyzer currAnalyzer : this.createAnalyzers().subList(
+              0, analyzerCount))
+          {
+
+            engine.addAnalyzer(currAnalyzer);
+
+          }
+
+          engine.analyzeSourceFiles(sourceFileMap);
+
+          assertSameReports(expectedList.subList(0, analyzerCount), engine
+              .getAnalyzerList());
+
+        }
+
+      }
+
+    }
+    finally
+    {
+
+      for (File currFile : sourceFileMap.values())
+      {
+
+        currFile.delete();
+
+      }
+
+    }
+
+  }
+
+  public void testAnalyzeSource_Pipelined() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    File sourcePath = File.createTempFile("oopap", "");
+
+    // an operation left open carries the brace stack into the next file
+    sourceMap.put("Open.java", Arrays.asList("public class Open", "{",
+        "  public void open()", "  {", "    {", "  }"));
+
+    try
+    {
+
+      sourcePath.delete();
+      new File(sourcePath, "shapes").mkdirs();
+
+      // write each file of the source map to disk, some within a package
+      for (String currSourceFileName : sourceMap.keySet())
+      {
+
+        FileUtil.writeReport(new File(new File(sourcePath, "shapes"),
+            currSourceFileName), sourceMap.get(currSourceFileName));
+        FileUtil.writeReport(new File(sourcePath, currSourceFileName),
+            sourceMap.get(currSourceFileName));
+
+      }
+
+      for (int threadCount = 1; threadCount <= 2; threadCount++)
+      {
+
+        SourceAnalysisEngine engine = new SourceAnalysisEngine(threadCount);
+        SourceAnalysisPipeline pipeline = new SourceAnalysisPipeline(engine);
+        SourceAnalysisEngine expectedEngine = new SourceAnalysisEngine();
+
+        for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+        {
+
+          engine.addAnalyzer(currAnalyzer);
+
+        }
+        for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+        {
+
+          expectedEngine.addAnalyzer(currAnalyzer);
+
+        }
+
+        // a queue of a single file forces every stage to wait on the next
+        pipeline.setQueueCapacity(1);
+
+        Map<String, File> sourceFileMap = pipeline.analyzeSource(
+            new SourceFileFinder(sourcePath, ".java"));
+
+        assertEquals(2 * sourceMap.size(), sourceFileMap.size());
+        assertTrue(sourceFileMap.containsKey("shapes/Open.java"));
+
+        expectedEngine.analyzeSourceFiles(sourceFileMap);
+
+        assertSameReports(expectedEngine.getAnalyzerList(), engine
+            .getAnalyzerList());
+
+      }
+
+    }
+    finally
+    {
+
+      for (String currSourceFileName : sourceMap.keySet())
+      {
+
+        new File(new File(sourcePath, "shapes"), currSourceFileName).delete();
+        new File(sourcePath, currSourceFileName).delete();
+
+      }
+
+      new File(sourcePath, "shapes").delete();
+      sourcePath.delete();
+
+    }
+
+  }
+
+  public void testAnalyzeSource_ByFileUnbalancedBraces() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap =
+        new LinkedHashMap<String, List<String>>();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+    SourceAnalysisEngine engine = new SourceAnalysisEngine(4);
+    Random random = new Random(SEED);
+    String[] fileLines = { "{", "}", "}", "  public void operation()",
+        "  private int count;", "    int value = 0;", "    // value = 1;",
+        "public class Other", "    return;" };
+
+    // files leaving operations open, and closing braces left open by the
+    // files before them, so that files begin at every depth
+    for (int i = 0; i < 60; i++)
+    {
+
+      List<String> sourceLines = new ArrayList<String>();
+
+      sourceLines.add("public class Unbalanced" + i);
+
+      for (int j = random.nextInt(40); j > 0; j--)
+      {
+
+        sourceLines.add(fileLines[random.nextInt(fileLines.length)].replace(
+            "operation", "operation" + random.nextInt(8)));
+
+      }
+
+      sourceMap.put("Unbalanced" + i + ".java", sourceLines);
+
+    }
+
+    for (SourceAnalyzer currAnalyzer : expectedList)
+    {
+
+      currAnalyzer.analyzeSource(sourceMap);
+
+    }
+    for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+    {
+
+      engine.addAnalyzer(currAnalyzer);
+
+    }
+
+    engine.analyzeSource(sourceMap);
+
+    assertSameReports(expectedList, engine.getAnalyzerList());
+
+  }
+
+  public void testAnalyzeSource_Cached() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+    File cachePath = File.createTempFile("oopap", "");
+
+    // an operation left open carries the brace stack into the next file
+    sourceMap.put("Open.java", Arrays.asList("public class Open", "{",
+        "  public void open()", "  {", "    {", "  }"));
+
+    for (SourceAnalyzer currAnalyzer : expectedList)
+    {
+
+      currAnalyzer.analyzeSource(sourceMap);
+
+    }
+
+    try
+    {
+
+      cachePath.delete();
+
+      AnalysisCache analysisCache = new AnalysisCache(cachePath);
+
+      // the first run fills the cache, the second is served by it
+      for (int runCount = 1; runCount <= 2; runCount++)
+      {
+
+        SourceAnalysisEngine engine = new SourceAnalysisEngine();
+
+        for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+        {
+
+          engine.addAnalyzer(currAnalyzer);
+
+        }
+
+        engine.setAnalysisCache(analysisCache);
+        engine.analyzeSource(sourceMap);
+
+        assertSameReports(expectedList, engine.getAnalyzerList());
+        assertEquals((runCount - 1) * sourceMap.size(), analysisCache
+            .getHitCount());
+        assertEquals(sourceMap.size(), analysisCache.getMissCount());
+
+      }
+
+    }
+    finally
+    {
+
+      delete(cachePath);
+
+    }
+
+  }
+
+  public void testAnalyzeSource_CachedManyOperations() throws Exception
+  {
+
+    Map<String, List<String>> sourceMap = this.createSourceMap();
+    List<SourceAnalyzer> expectedList = this.createAnalyzers();
+    File cachePath = File.createTempFile("oopap", "");
+
+    // classes with enough operations to fill, and grow, the table of their
+    // maps of operations; the reports list the operations in table order
+    for (int operationCount = 12; operationCount <= 48; operationCount *= 2)
+    {
+
+      List<String> sourceLines = new ArrayList<String>();
+
+      sourceLines.add("public class Many" + operationCount);
+      sourceLines.add("{");
+
+      for (int i = 0; i < operationCount; i++)
+      {
+
+        sourceLines.add("  // operation " + i);
+        sourceLines.add("  public int operation" + i + "(int theValue)");
+        sourceLines.add("  {");
+        sourceLines.add("    int value = theValue * " + i + ";");
+        sourceLines.add("    return value;");
+        sourceLines.add("  }");
+
+      }
+
+      sourceLines.add("}");
+      sourceMap.put("Many" + operationCount + ".java", sourceLines);
+
+    }
+
+    for (SourceAnalyzer currAnalyzer : expectedList)
+    {
+
+      currAnalyzer.analyzeSource(sourceMap);
+
+    }
+
+    try
+    {
+
+      cachePath.delete();
+
+      AnalysisCache analysisCache = new AnalysisCache(cachePath);
+
+      // the first run fills the cache, the others are served by it
+      for (int threadCount = 1; threadCount <= 4; threadCount += 3)
+      {
+
+        for (int runCount = 1; runCount <= 2; runCount++)
+        {
+
+          SourceAnalysisEngine engine = new SourceAnalysisEngine(threadCount);
+
+          for (SourceAnalyzer currAnalyzer : this.createAnalyzers())
+          {
+
+            engine.addAnalyzer(currAnalyzer);
+
+          }
+
+          engine.setAnalysisCache(analysisCache);
+          engine.analyzeSource(sourceMap);
+
+          assertSameReports(expectedList, engine.getAnalyzerList());
+
+        }
+
+      }
+
+      assertEquals(3 * sourceMap.size(), analysisCache.getHitCount());
+
+    }
+    finally
+    {
+
+      delete(cachePath);
+
+    }
+
+  }
+
+  private static void delete(File theFile)
+  {
+
+    File[] children = theFile.listFiles();
+
+    if (children != null)
+    {
+
+      for (File currChild : children)
+      {
+
+        delete(currChild);
+
+      }
+
+    }
+
+    theFile.delete();
+
+  }
+
+  public void testAnalyzeSource_ConcurrentFailure()
+  {
+
+    SourceAnalysisEngine engine = new SourceAnalysisEngine(2);
+
+    engine.addAnalyzer(new LineCountSourceAnalyzer());
+    engine.addAnalyzer(new FailingSourceAnalyzer());
+
+    try
+    {
+
+      engine.analyzeSource(this.createSourceMap());
+      fail("the failure of the analyzer must be reported");
+
+    }
+    catch (IllegalArgumentException e)
+    {
+
+      // expected
+
+    }
+
+  }
+
+}
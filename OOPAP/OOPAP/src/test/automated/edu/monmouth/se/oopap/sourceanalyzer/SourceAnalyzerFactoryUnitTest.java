@@ -146,7 +146,7 @@ public class SourceAnalyzerFactoryUnitTest extends TestCase
 
   }
 
-  public void testGetConcreteSourceAnalyzer_UnhandledReportType()
+  public void testGetConcreteSourceAnalyzer_GlobalVarCountByPC()
   {
 
     SourceAnalyzer analyzer;
@@ -157,12 +157,39 @@ public class SourceAnalyzerFactoryUnitTest extends TestCase
       analyzer = SourceAnalyzerFactory
           .getConcreteSourceAnalyzer(ReportType.GlobalVarCountByPC);
 
-      // If the exception isn't thrown, fail the test
-      fail("UnhandledReportTypeException not thrown");
+      assertTrue(analyzer instanceof GlobalVarCountSourceAnalyzer);
 
     } catch (UnhandledReportTypeException e)
     {
 
+      e.printStackTrace();
+      fail(e.getMessage());
+
+    }
+
+  }
+
+  public void testGetConcreteSourceAnalyzer_EveryReportType()
+  {
+
+    // every report type is handled, so no exception may be thrown
+    for (ReportType currReportType : ReportType.values())
+    {
+
+      try
+      {
+
+        assertNotNull(SourceAnalyzerFactory
+            .getConcreteSourceAnalyzer(currReportType));
+
+      } catch (UnhandledReportTypeException e)
+      {
+
+        e.printStackTrace();
+        fail(e.getMessage());
+
+      }
+
     }
 
   }
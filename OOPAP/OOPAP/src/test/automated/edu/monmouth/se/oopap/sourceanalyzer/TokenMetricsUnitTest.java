@@ -0,0 +1,151 @@
+package test.automated.edu.monmouth.se.oopap.sourceanalyzer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.enumerator.TokenCountType;
+import edu.monmouth.se.oopap.sourceanalyzer.ClassifiedFile;
+import edu.monmouth.se.oopap.sourceanalyzer.GlobalVarCountSourceAnalyzer;
+import edu.monmouth.se.oopap.sourceanalyzer.TokenMetrics;
+import edu.monmouth.se.oopap.sourceanalyzer.TopCalculationsSourceAnalyzer;
+import edu.monmouth.se.oopap.sourceanalyzer.TotalLibraryCallsSourceAnalyzer;
+import junit.framework.TestCase;
+
+public class TokenMetricsUnitTest extends TestCase
+{
+
+  private static final String[] LINES = {
+      "import java.util.List;",
+      "import java.util.*;",
+      "import static java.lang.Math.*;",
+      "public class Foo",
+      "{",
+      "  private static final int LIMIT = 10, STEP = 2;",
+      "  private static List<String> names;",
+      "  private int count;",
+      "  public Foo()",
+      "  {",
+      "    count = bar(LIMIT);",
+      "  }",
+      "  public int bar(int theValue)",
+      "  {",
+      "    int total = 0;",
+      "    // if (total) total + 1",
+      "    for (int i = 0; i < theValue; i++)",
+      "    {",
+      "      total += i * STEP;",
+      "    }",
+      "    do",
+      "    {",
+      "      total--;",
+      "    } while (total > LIMIT);",
+      "    if (total == 0)",
+      "    {",
+      "      System.out.println(total > 1 ? \"many\" : \"one\");",
+      "    }",
+      "    return Math.max(total, new Foo().count);",
+      "  }",
+      "}" };
+
+  public void testTokenMetrics()
+  {
+
+    ClassifiedFile classifiedFile = new ClassifiedFile("Foo.java", Arrays
+        .asList(LINES));
+    TokenMetrics tokenMetrics = classifiedFile.getTokenMetrics();
+
+    // the metrics are taken once and shared
+    assertSame(tokenMetrics, classifiedFile.getTokenMetrics());
+
+    assertEquals(2, tokenMetrics.getOperationCount());
+    assertEquals("Foo", tokenMetrics.getOperationName(0));
+    assertEquals("bar", tokenMetrics.getOperationName(1));
+
+    // the constructor calls bar, its own declaration is not a call
+    assertEquals(1, tokenMetrics.getOperationCount(TokenCountType.Call, 0));
+    assertEquals(0, tokenMetrics.getOperationCount(
+        TokenCountType.Calculation, 0));
+
+    // the while closing the do is part of its loop, the comment is not read
+    assertEquals(2, tokenMetrics.getOperationCount(TokenCountType.Decision, 1));
+    assertEquals(2, tokenMetrics.getOperationCount(TokenCountType.Loop, 1));
+    assertEquals(8, tokenMetrics.getOperationCount(
+        TokenCountType.Calculation, 1));
+    assertEquals(12, tokenMetrics.getOperationCount(TokenCountType.Operator,
+        1));
+    assertEquals(3, tokenMetrics.getOperationCount(TokenCountType.Call, 1));
+
+    // the angle brackets of List<String> and the asterisks of the imports
+    // are not operators
+    assertEquals(15, tokenMetrics.getFileCount(TokenCountType.Operator));
+    assertEquals(8, tokenMetrics.getFileCount(TokenCountType.Calculation));
+    assertEquals(4, tokenMetrics.getFileCount(TokenCountType.Call));
+    assertEquals(Integer.valueOf(1), tokenMetrics.getOperationCalls(1).get(
+        "println"));
+
+    assertEquals(3, tokenMetrics.getStaticFieldCount());
+    assertTrue(tokenMetrics.getDeclaredNames().contains("Foo"));
+    assertTrue(tokenMetrics.getDeclaredNames().contains("bar"));
+
+  }
+
+  public void testTokenMetrics_NoCalls()
+  {
+
+    String[] lines = { "public class Bar", "{", "  public int first()", "  {",
+        "    return 1;", "  }", "  public void second()", "  {",
+        "    first();", "  }", "}" };
+    TokenMetrics tokenMetrics = new ClassifiedFile("Bar.java", Arrays
+        .asList(lines)).getTokenMetrics();
+
+    // an operation calling nothing has an empty call map
+    assertEquals(2, tokenMetrics.getOperationCount());
+    assertTrue(tokenMetrics.getOperationCalls(0).isEmpty());
+    assertEquals(Integer.valueOf(1), tokenMetrics.getOperationCalls(1).get(
+        "first"));
+
+  }
+
+  public void testTokenMetricsReports()
+  {
+
+    Map<String, List<String>> sourceMap = new HashMap<String, List<String>>();
+    TotalLibraryCallsSourceAnalyzer callsAnalyzer =
+        new TotalLibraryCallsSourceAnalyzer();
+    GlobalVarCountSourceAnalyzer globalAnalyzer =
+        new GlobalVarCountSourceAnalyzer();
+    TopCalculationsSourceAnalyzer topAnalyzer =
+        new TopCalculationsSourceAnalyzer();
+    List<List<String>> worksheetReport;
+
+    sourceMap.put("Foo.java", Arrays.asList(LINES));
+    callsAnalyzer.analyzeSource(sourceMap);
+    globalAnalyzer.analyzeSource(sourceMap);
+    topAnalyzer.analyzeSource(sourceMap);
+
+    // bar and the constructor of Foo are declared by the program, println
+    // and max are library calls
+    worksheetReport = callsAnalyzer.generateWorksheetReport();
+    assertEquals(Arrays.asList("Program Total", "", "4", "2"),
+        worksheetReport.get(worksheetReport.size() - 1));
+
+    worksheetReport = globalAnalyzer.generateWorksheetReport();
+    assertEquals(Arrays.asList("Foo.java", "3"), worksheetReport.get(2));
+    assertEquals(Arrays.asList("Program Total", "3"), worksheetReport
+        .get(worksheetReport.size() - 1));
+
+    // fewer than 5 operations, so every operation is listed, the most
+    // calculations first
+    worksheetReport = topAnalyzer.generateWorksheetReport();
+    assertEquals(Arrays.asList("Foo.java", "bar", "8", "100.0"),
+        worksheetReport.get(1));
+    assertEquals(Arrays.asList("Foo.java", "Foo", "0", "0.0"),
+        worksheetReport.get(2));
+    assertEquals(Arrays.asList("Top 5 Operations", "", "8", "100.0"),
+        worksheetReport.get(4));
+
+  }
+
+}
@@ -0,0 +1,76 @@
+package test.benchmark.edu.monmouth.se.oopap;
+
+/**
+ * A single benchmark. The operation measured is run repeatedly by the
+ * BenchmarkRunner, after setUp has been called once.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public abstract class Benchmark
+{
+
+  /**
+   * The name of the benchmark.
+   */
+  private String name;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theName
+   *          The name of the benchmark
+   */
+  public Benchmark(String theName)
+  {
+
+    this.name = theName;
+
+  }
+
+  /**
+   * Method used to retrieve the name of the benchmark.
+   * 
+   * @return the name
+   */
+  public String getName()
+  {
+
+    return this.name;
+
+  }
+
+  /**
+   * Method used to prepare the benchmark before it is run.
+   * 
+   * @throws Exception
+   *           If the benchmark cannot be prepared.
+   */
+  public void setUp() throws Exception
+  {
+
+  }
+
+  /**
+   * Method used to run the operation measured once. The result is consumed
+   * by the runner so that the operation cannot be optimized away.
+   * 
+   * @return the result of the operation
+   * @throws Exception
+   *           If the operation fails.
+   */
+  public abstract Object run() throws Exception;
+
+  /**
+   * Method used to release anything held by the benchmark once it has been
+   * run.
+   * 
+   * @throws Exception
+   *           If the benchmark cannot be released.
+   */
+  public void tearDown() throws Exception
+  {
+
+  }
+
+}
@@ -0,0 +1,285 @@
+package test.benchmark.edu.monmouth.se.oopap;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+/**
+ * Runs benchmarks and reports their throughput and allocation rate. Each
+ * benchmark is run for a number of warm up iterations, whose results are
+ * discarded, followed by a number of measured iterations. An iteration runs
+ * the operation of the benchmark repeatedly for a fixed time.
+ * 
+ * The allocation is that of the thread running the benchmark, and is only
+ * reported by virtual machines providing the allocated bytes of a thread.
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class BenchmarkRunner
+{
+
+  /**
+   * Receives the result of every operation, so that no operation can be
+   * optimized away.
+   */
+  public static volatile Object sink;
+
+  /**
+   * The number of warm up iterations.
+   */
+  private int warmupIterations;
+
+  /**
+   * The number of measured iterations.
+   */
+  private int measuredIterations;
+
+  /**
+   * The length of each iteration in milliseconds.
+   */
+  private long iterationMillis;
+
+  /**
+   * The thread management bean, used to obtain the bytes allocated by the
+   * current thread. Null if not supported.
+   */
+  private Object threadBean;
+
+  /**
+   * The method of the thread management bean returning the bytes allocated by
+   * a thread. Null if not supported.
+   */
+  private Method allocatedBytesMethod;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theWarmupIterations
+   *          The number of warm up iterations
+   * @param theMeasuredIterations
+   *          The number of measured iterations, at least 1
+   * @param theIterationMillis
+   *          The length of each iteration in milliseconds
+   */
+  public BenchmarkRunner(int theWarmupIterations, int theMeasuredIterations,
+      long theIterationMillis)
+  {
+
+    this.warmupIterations = Math.max(0, theWarmupIterations);
+    this.measuredIterations = Math.max(1, theMeasuredIterations);
+    this.iterationMillis = Math.max(1, theIterationMillis);
+
+    try
+    {
+
+      // only available from the management extensions of some vendors
+      Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+
+      this.threadBean = ManagementFactory.getThreadMXBean();
+      this.allocatedBytesMethod = beanClass.getMethod(
+          "getThreadAllocatedBytes", long.class);
+      this.getAllocatedBytes();
+
+    }
+    catch (Exception e)
+    {
+
+      this.threadBean = null;
+      this.allocatedBytesMethod = null;
+
+    }
+
+  }
+
+  /**
+   * Method used to run a benchmark and report the result on the console. A
+   * benchmark that fails is reported as failed.
+   * 
+   * @param theBenchmark
+   *          The benchmark to be run
+   * @return the mean number of operations per second, or -1 if the benchmark
+   *         failed
+   */
+  public double run(Benchmark theBenchmark)
+  {
+
+    double[] opsPerSecond = new double[measuredIterations];
+    // the total operations and bytes allocated by the measured iterations
+    long totalOps = 0;
+    long totalBytes = 0;
+
+    try
+    {
+
+      theBenchmark.setUp();
+
+      try
+      {
+
+        for (int i = 0; i < warmupIterations; i++)
+        {
+
+          this.runIteration(theBenchmark);
+
+        }
+
+        for (int i = 0; i < measuredIterations; i++)
+        {
+
+          long startBytes = this.getAllocatedBytes();
+          long startTime = System.nanoTime();
+          long ops = this.runIteration(theBenchmark);
+          long elapsed = System.nanoTime() - startTime;
+
+          totalBytes += this.getAllocatedBytes() - startBytes;
+          totalOps += ops;
+          opsPerSecond[i] = ops * 1e9 / elapsed;
+
+        }
+
+      }
+      finally
+      {
+
+        theBenchmark.tearDown();
+
+      }
+
+    }
+    catch (Throwable e)
+    {
+
+      String failure = e.toString();
+
+      // only the first line of a message spanning several lines is reported
+      if (failure.indexOf('\n') >= 0)
+      {
+
+        failure = failure.substring(0, failure.indexOf('\n'));
+
+      }
+
+      System.out.println(pad(theBenchmark.getName(), 48) + "FAILED "
+          + failure);
+
+      return -1;
+
+    }
+
+    // the mean and standard deviation of the measured iterations
+    double mean = 0;
+    double variance = 0;
+
+    for (double currOpsPerSecond : opsPerSecond)
+    {
+
+      mean += currOpsPerSecond / opsPerSecond.length;
+
+    }
+    for (double currOpsPerSecond : opsPerSecond)
+    {
+
+      variance += (currOpsPerSecond - mean) * (currOpsPerSecond - mean)
+          / opsPerSecond.length;
+
+    }
+
+    System.out.println(pad(theBenchmark.getName(), 48)
+        + pad(String.format("%.1f", mean), 16)
+        + pad(String.format("+- %.1f", Math.sqrt(variance)), 16)
+        + (allocatedBytesMethod == null ? "n/a" : String.format("%.0f",
+            (double) totalBytes / totalOps)));
+
+    return mean;
+
+  }
+
+  /**
+   * Method used to print the heading of the results on the console.
+   */
+  public void printHeading()
+  {
+
+    System.out.println(pad("Benchmark", 48) + pad("ops/s", 16)
+        + pad("error", 16) + "bytes/op");
+
+  }
+
+  /**
+   * Method used to run the operation of a benchmark repeatedly for the length
+   * of an iteration.
+   * 
+   * @param theBenchmark
+   *          The benchmark to be run
+   * @return the number of operations run
+   * @throws Exception
+   *           If the operation fails.
+   */
+  private long runIteration(Benchmark theBenchmark) throws Exception
+  {
+
+    long endTime = System.nanoTime() + iterationMillis * 1000000L;
+    long ops = 0;
+
+    do
+    {
+
+      sink = theBenchmark.run();
+      ops++;
+
+    }
+    while (System.nanoTime() < endTime);
+
+    return ops;
+
+  }
+
+  /**
+   * Method used to obtain the number of bytes allocated by the current thread.
+   * 
+   * @return the allocated bytes, or 0 if not supported
+   * @throws Exception
+   *           If the bytes cannot be obtained.
+   */
+  private long getAllocatedBytes() throws Exception
+  {
+
+    if (allocatedBytesMethod == null)
+    {
+
+      return 0;
+
+    }
+
+    return (Long) allocatedBytesMethod.invoke(threadBean, Thread
+        .currentThread().getId());
+
+  }
+
+  /**
+   * Method used to pad a string with spaces to a width.
+   * 
+   * @param theString
+   *          The string to be padded
+   * @param theWidth
+   *          The width of the result
+   * @return the padded string
+   */
+  private static String pad(String theString, int theWidth)
+  {
+
+    StringBuilder padded = new StringBuilder(theString);
+
+    do
+    {
+
+      padded.append(' ');
+
+    }
+    while (padded.length() < theWidth);
+
+    return padded.toString();
+
+  }
+
+}
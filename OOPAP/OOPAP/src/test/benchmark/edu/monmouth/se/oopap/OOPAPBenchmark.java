@@ -0,0 +1,504 @@
+package test.benchmark.edu.monmouth.se.oopap;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import edu.monmouth.se.oopap.OOPAPController;
+import edu.monmouth.se.oopap.analyzer.LineAnalyzer;
+import edu.monmouth.se.oopap.analyzer.SourceTokenizer;
+import edu.monmouth.se.oopap.analyzer.TokenBuffer;
+import edu.monmouth.se.oopap.enumerator.ReportType;
+import edu.monmouth.se.oopap.exception.UnhandledReportTypeException;
+import edu.monmouth.se.oopap.io.CSVUtil;
+import edu.monmouth.se.oopap.io.CSVWriter;
+import edu.monmouth.se.oopap.io.FileUtil;
+import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalyzer;
+import edu.monmouth.se.oopap.sourceanalyzer.SourceAnalyzerFactory;
+
+/**
+ * Benchmarks of the line analyzer, every source analyzer, the CSV report and
+ * a full analysis by the controller, run over a corpus generated by the
+ * SyntheticCorpusGenerator.
+ * 
+ * The line analyzer benchmarks measure a single line per operation, cycling
+ * through every line of the corpus. The source analyzer benchmarks analyze
+ * the whole corpus per operation, the CSV benchmarks format the worksheet
+ * reports of every analyzer and the controller benchmark reads the corpus
+ * from disk and writes every report.
+ * 
+ * Usage: OOPAPBenchmark [-warmup n] [-iterations n] [-time ms] [-filter text]
+ * followed by any of the options of the SyntheticCorpusGenerator
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class OOPAPBenchmark
+{
+
+  /**
+   * The source of the corpus, the class name to class contents association
+   * map.
+   */
+  private Map<String, List<String>> sourceMap;
+
+  /**
+   * Every line of the corpus.
+   */
+  private String[] lines;
+
+  /**
+   * Primary constructor.
+   * 
+   * @param theSourceMap
+   *          The corpus to be analyzed
+   */
+  public OOPAPBenchmark(Map<String, List<String>> theSourceMap)
+  {
+
+    List<String> lineList = new ArrayList<String>();
+
+    this.sourceMap = theSourceMap;
+
+    for (List<String> currFileContents : theSourceMap.values())
+    {
+
+      lineList.addAll(currFileContents);
+
+    }
+
+    this.lines = lineList.toArray(new String[lineList.size()]);
+
+  }
+
+  /**
+   * Method used to create every benchmark.
+   * 
+   * @return the benchmarks, in the order they are run
+   */
+  public List<Benchmark> createBenchmarks()
+  {
+
+    List<Benchmark> benchmarkList = new ArrayList<Benchmark>();
+
+    benchmarkList.add(new LineBenchmark("LineAnalyzer.getLineType")
+    {
+
+      Object run(String theLine)
+      {
+
+        return LineAnalyzer.getLineType(theLine);
+
+      }
+
+    });
+    benchmarkList.add(new LineBenchmark("LineAnalyzer.getNumOperators")
+    {
+
+      Object run(String theLine)
+      {
+
+        return LineAnalyzer.getNumOperators(theLine);
+
+      }
+
+    });
+    benchmarkList.add(new LineBenchmark("SourceTokenizer.tokenizeLine")
+    {
+
+      private SourceTokenizer tokenizer = new SourceTokenizer();
+
+      private TokenBuffer tokenBuffer = new TokenBuffer();
+
+      Object run(String theLine)
+      {
+
+        tokenBuffer.clear();
+
+        return tokenizer.tokenizeLine(theLine, tokenBuffer);
+
+      }
+
+    });
+    benchmarkList.add(new LineBenchmark("LineAnalyzer.isVariableDeclaration")
+    {
+
+      Object run(String theLine)
+      {
+
+        return LineAnalyzer.isVariableDeclaration(theLine);
+
+      }
+
+    });
+    benchmarkList.add(new LineBenchmark("LineAnalyzer.isMethodCall")
+    {
+
+      Object run(String theLine)
+      {
+
+        return LineAnalyzer.isMethodCall(theLine);
+
+      }
+
+    });
+
+    // every report type handled by the factory
+    for (final ReportType currReport : ReportType.values())
+    {
+
+      try
+      {
+
+        SourceAnalyzerFactory.getConcreteSourceAnalyzer(currReport);
+
+      }
+      catch (UnhandledReportTypeException e)
+      {
+
+        continue;
+
+      }
+
+      benchmarkList.add(new Benchmark(currReport + ".analyzeSource")
+      {
+
+        public Object run() throws Exception
+        {
+
+          SourceAnalyzer sourceAnalyzer = SourceAnalyzerFactory
+              .getConcreteSourceAnalyzer(currReport);
+
+          sourceAnalyzer.analyzeSource(sourceMap);
+
+          return sourceAnalyzer;
+
+        }
+
+      });
+
+    }
+
+    benchmarkList.add(new Benchmark("CSVUtil.generateCSVReport")
+    {
+
+      private List<List<List<String>>> worksheetReportList;
+
+      public void setUp() throws Exception
+      {
+
+        worksheetReportList = new ArrayList<List<List<String>>>();
+
+        for (ReportType currReport : ReportType.values())
+        {
+
+          try
+          {
+
+            SourceAnalyzer sourceAnalyzer = SourceAnalyzerFactory
+                .getConcreteSourceAnalyzer(currReport);
+
+            sourceAnalyzer.analyzeSource(sourceMap);
+
+            if (sourceAnalyzer.generateWorksheetReport() != null)
+            {
+
+              worksheetReportList.add(sourceAnalyzer
+                  .generateWorksheetReport());
+
+            }
+
+          }
+          catch (UnhandledReportTypeException e)
+          {
+
+            // only the handled reports are formatted
+
+          }
+          catch (RuntimeException e)
+          {
+
+            // an analyzer that fails is measured by its own benchmark
+
+          }
+
+        }
+
+      }
+
+      public Object run()
+      {
+
+        int lineCount = 0;
+
+        for (List<List<String>> currWorksheetReport : worksheetReportList)
+        {
+
+          lineCount += CSVUtil.generateCSVReport(currWorksheetReport).size();
+
+        }
+
+        return lineCount;
+
+      }
+
+    });
+
+    benchmarkList.add(new Benchmark("CSVWriter.writeWorksheetReport")
+    {
+
+      private List<SourceAnalyzer> analyzerList;
+
+      public void setUp() throws Exception
+      {
+
+        analyzerList = new ArrayList<SourceAnalyzer>();
+
+        for (ReportType currReport : ReportType.values())
+        {
+
+          try
+          {
+
+            SourceAnalyzer sourceAnalyzer = SourceAnalyzerFactory
+                .getConcreteSourceAnalyzer(currReport);
+
+            sourceAnalyzer.analyzeSource(sourceMap);
+            analyzerList.add(sourceAnalyzer);
+
+          }
+          catch (UnhandledReportTypeException e)
+          {
+
+            // only the handled reports are formatted
+
+          }
+          catch (RuntimeException e)
+          {
+
+            // an analyzer that fails is measured by its own benchmark
+
+          }
+
+        }
+
+      }
+
+      public Object run() throws Exception
+      {
+
+        StringWriter out = new StringWriter();
+        CSVWriter csvWriter = new CSVWriter(out);
+
+        for (SourceAnalyzer currAnalyzer : analyzerList)
+        {
+
+          currAnalyzer.writeWorksheetReport(csvWriter);
+
+        }
+
+        return out.getBuffer().length();
+
+      }
+
+    });
+
+    benchmarkList.add(new Benchmark("OOPAPController.runAnalysis")
+    {
+
+      private File workPath;
+
+      public void setUp() throws Exception
+      {
+
+        workPath = File.createTempFile("oopap", "");
+        workPath.delete();
+        new File(workPath, "source").mkdirs();
+        new File(workPath, "output").mkdirs();
+
+        for (String currSourceFileName : sourceMap.keySet())
+        {
+
+          FileUtil.writeReport(new File(new File(workPath, "source"),
+              currSourceFileName), sourceMap.get(currSourceFileName));
+
+        }
+
+      }
+
+      public Object run() throws Exception
+      {
+
+        OOPAPController controller = new OOPAPController();
+
+        // a single thread, so the allocation of the analysis is measured
+        controller.setAnalysisThreadCount(1);
+        controller.runAnalysis(new File(workPath, "source").getPath(),
+            ".java", new File(workPath, "output").getPath(), "Student",
+            "Project");
+
+        return controller.getFullConsoleReport();
+
+      }
+
+      public void tearDown()
+      {
+
+        delete(workPath);
+
+      }
+
+    });
+
+    return benchmarkList;
+
+  }
+
+  /**
+   * Method used to delete a file or a directory and everything within it.
+   * 
+   * @param theFile
+   *          The file to be deleted
+   */
+  private static void delete(File theFile)
+  {
+
+    File[] children = theFile.listFiles();
+
+    if (children != null)
+    {
+
+      for (File currChild : children)
+      {
+
+        delete(currChild);
+
+      }
+
+    }
+
+    theFile.delete();
+
+  }
+
+  /**
+   * Run the benchmarks.
+   * 
+   * @param args
+   *          [-warmup n] [-iterations n] [-time ms] [-filter text] and the
+   *          options of the corpus
+   */
+  public static void main(String[] args)
+  {
+
+    int warmupIterations = 3;
+    int measuredIterations = 5;
+    long iterationMillis = 1000;
+    String filter = "";
+
+    for (int i = 0; i + 1 < args.length; i += 2)
+    {
+
+      if (args[i].equals("-warmup"))
+      {
+
+        warmupIterations = Integer.parseInt(args[i + 1]);
+
+      }
+      else if (args[i].equals("-iterations"))
+      {
+
+        measuredIterations = Integer.parseInt(args[i + 1]);
+
+      }
+      else if (args[i].equals("-time"))
+      {
+
+        iterationMillis = Long.parseLong(args[i + 1]);
+
+      }
+      else if (args[i].equals("-filter"))
+      {
+
+        filter = args[i + 1];
+
+      }
+
+    }
+
+    OOPAPBenchmark benchmark = new OOPAPBenchmark(SyntheticCorpusGenerator
+        .configure(args).generateSourceMap());
+    BenchmarkRunner runner = new BenchmarkRunner(warmupIterations,
+        measuredIterations, iterationMillis);
+
+    System.out.println("Corpus: " + benchmark.sourceMap.size() + " files, "
+        + benchmark.lines.length + " lines");
+    runner.printHeading();
+
+    for (Benchmark currBenchmark : benchmark.createBenchmarks())
+    {
+
+      if (currBenchmark.getName().indexOf(filter) >= 0)
+      {
+
+        runner.run(currBenchmark);
+
+      }
+
+    }
+
+  }
+
+  /**
+   * Benchmark of an operation on a single line. Each operation is given the
+   * next line of the corpus.
+   */
+  private abstract class LineBenchmark extends Benchmark
+  {
+
+    /**
+     * The index of the next line.
+     */
+    private int lineIndex;
+
+    /**
+     * Primary constructor.
+     * 
+     * @param theName
+     *          The name of the benchmark
+     */
+    LineBenchmark(String theName)
+    {
+
+      super(theName);
+
+    }
+
+    /**
+     * Method used to run the operation on a single line.
+     * 
+     * @param theLine
+     *          The line
+     * @return the result of the operation
+     */
+    abstract Object run(String theLine);
+
+    public Object run()
+    {
+
+      if (lineIndex == lines.length)
+      {
+
+        lineIndex = 0;
+
+      }
+
+      return this.run(lines[lineIndex++]);
+
+    }
+
+  }
+
+}
@@ -0,0 +1,633 @@
+package test.benchmark.edu.monmouth.se.oopap;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import edu.monmouth.se.oopap.io.FileUtil;
+
+/**
+ * Generates synthetic Java source for scale and stress testing. The source is
+ * fully determined by the seed and the settings of the generator, and each
+ * file is generated independently of the others, so a corpus of any size may
+ * be written one file at a time.
+ * 
+ * The classes form a forest of inheritance trees, each class having up to
+ * fanOut subclasses and each tree being inheritanceDepth levels deep below its
+ * root. Each class has fieldsPerClass fields and methodsPerClass methods, each
+ * method using a random selection of the fields, declaring locals and calling
+ * methods of other classes. Comment lines, commented out code and method
+ * javadoc are added with a probability of commentDensity per statement.
+ * 
+ * Usage: SyntheticCorpusGenerator [-files n] [-seed n] [-methods n]
+ * [-fields n] [-depth n] [-fanout n] [-comments p] output
+ * 
+ * @author Andrew Tasso
+ * @version %I% %G%
+ */
+public class SyntheticCorpusGenerator
+{
+
+  /**
+   * The number of files written to each package directory.
+   */
+  public static final int FILES_PER_PACKAGE = 1000;
+
+  /**
+   * The seed of the corpus.
+   */
+  private long seed;
+
+  /**
+   * The number of files in the corpus, one class per file.
+   */
+  private int fileCount;
+
+  /**
+   * The number of methods of each class.
+   */
+  private int methodsPerClass;
+
+  /**
+   * The number of fields of each class.
+   */
+  private int fieldsPerClass;
+
+  /**
+   * The number of levels below the root of each inheritance tree.
+   */
+  private int inheritanceDepth;
+
+  /**
+   * The number of subclasses of each class within an inheritance tree.
+   */
+  private int fanOut;
+
+  /**
+   * The probability of a comment accompanying each statement.
+   */
+  private double commentDensity;
+
+  /**
+   * Primary constructor. Generates 100 classes with 5 methods and 4 fields,
+   * in inheritance trees 3 levels deep with 2 subclasses per class, and a
+   * comment density of 0.2.
+   * 
+   * @param theSeed
+   *          The seed of the corpus
+   */
+  public SyntheticCorpusGenerator(long theSeed)
+  {
+
+    this.seed = theSeed;
+    this.fileCount = 100;
+    this.methodsPerClass = 5;
+    this.fieldsPerClass = 4;
+    this.inheritanceDepth = 3;
+    this.fanOut = 2;
+    this.commentDensity = 0.2;
+
+  }
+
+  /**
+   * Method used to set the number of files in the corpus.
+   * 
+   * @param theFileCount
+   *          The number of files
+   */
+  public void setFileCount(int theFileCount)
+  {
+
+    this.fileCount = Math.max(0, theFileCount);
+
+  }
+
+  /**
+   * Method used to retrieve the number of files in the corpus.
+   * 
+   * @return the number of files
+   */
+  public int getFileCount()
+  {
+
+    return this.fileCount;
+
+  }
+
+  /**
+   * Method used to set the number of methods of each class.
+   * 
+   * @param theMethodsPerClass
+   *          The number of methods
+   */
+  public void setMethodsPerClass(int theMethodsPerClass)
+  {
+
+    this.methodsPerClass = Math.max(0, theMethodsPerClass);
+
+  }
+
+  /**
+   * Method used to set the number of fields of each class.
+   * 
+   * @param theFieldsPerClass
+   *          The number of fields
+   */
+  public void setFieldsPerClass(int theFieldsPerClass)
+  {
+
+    this.fieldsPerClass = Math.max(0, theFieldsPerClass);
+
+  }
+
+  /**
+   * Method used to set the number of levels below the root of each
+   * inheritance tree. A depth of 0 generates no subclasses.
+   * 
+   * @param theInheritanceDepth
+   *          The depth of each tree
+   */
+  public void setInheritanceDepth(int theInheritanceDepth)
+  {
+
+    this.inheritanceDepth = Math.max(0, theInheritanceDepth);
+
+  }
+
+  /**
+   * Method used to set the number of subclasses of each class within an
+   * inheritance tree. A fan out of 0 generates no subclasses.
+   * 
+   * @param theFanOut
+   *          The number of subclasses
+   */
+  public void setFanOut(int theFanOut)
+  {
+
+    this.fanOut = Math.max(0, theFanOut);
+
+  }
+
+  /**
+   * Method used to set the probability of a comment accompanying each
+   * statement.
+   * 
+   * @param theCommentDensity
+   *          The probability, between 0 and 1
+   */
+  public void setCommentDensity(double theCommentDensity)
+  {
+
+    this.commentDensity = Math.max(0, Math.min(1, theCommentDensity));
+
+  }
+
+  /**
+   * Method used to retrieve the name of a class of the corpus.
+   * 
+   * @param theIndex
+   *          The index of the class
+   * @return the name of the class
+   */
+  public static String getClassName(int theIndex)
+  {
+
+    return "C" + theIndex;
+
+  }
+
+  /**
+   * Method used to retrieve the path of a file of the corpus relative to the
+   * root of the corpus. The files are spread over packages of
+   * FILES_PER_PACKAGE files each.
+   * 
+   * @param theIndex
+   *          The index of the file
+   * @return the relative path of the file
+   */
+  public static String getFilePath(int theIndex)
+  {
+
+    return getPackageName(theIndex) + "/" + getClassName(theIndex) + ".java";
+
+  }
+
+  /**
+   * Method used to retrieve the index of the superclass of a class.
+   * 
+   * @param theIndex
+   *          The index of the class
+   * @return the index of the superclass, or -1 if the class is the root of
+   *         its inheritance tree
+   */
+  public int getSuperclassIndex(int theIndex)
+  {
+
+    if (fanOut == 0 || inheritanceDepth == 0)
+    {
+
+      return -1;
+
+    }
+
+    // the number of classes in each complete tree
+    long treeSize = 1;
+    long levelSize = 1;
+
+    for (int i = 0; i < inheritanceDepth && treeSize <= fileCount; i++)
+    {
+
+      levelSize *= fanOut;
+      treeSize += levelSize;
+
+    }
+
+    long treeStart = theIndex - theIndex % treeSize;
+    long treeIndex = theIndex - treeStart;
+
+    if (treeIndex == 0)
+    {
+
+      return -1;
+
+    }
+
+    // the classes of a tree are numbered level by level
+    return (int) (treeStart + (treeIndex - 1) / fanOut);
+
+  }
+
+  /**
+   * Method used to generate the contents of a single file of the corpus.
+   * 
+   * @param theIndex
+   *          The index of the file
+   * @return the lines of the file
+   */
+  public List<String> generateFile(int theIndex)
+  {
+
+    // each file has a generator of its own, so files may be generated in any
+    // order
+    Random random = new Random(seed * 1000003L + theIndex);
+    List<String> fileContents = new ArrayList<String>();
+    String className = getClassName(theIndex);
+    int superclassIndex = this.getSuperclassIndex(theIndex);
+
+    fileContents.add("package " + getPackageName(theIndex) + ";");
+    fileContents.add("");
+    fileContents.add("import java.util.List;");
+    fileContents.add("");
+    fileContents.add("/**");
+    fileContents.add(" * Synthetic class " + theIndex + ".");
+    fileContents.add(" */");
+    fileContents.add("public class " + className
+        + (superclassIndex < 0 ? "" : " extends "
+            + getClassName(superclassIndex)));
+    fileContents.add("{");
+    fileContents.add("");
+
+    for (int i = 0; i < fieldsPerClass; i++)
+    {
+
+      this.addComment(random, fileContents, "  ", "field " + i);
+      fileContents.add("  " + (random.nextInt(3) == 0 ? "public" : "private")
+          + " int field" + i + ";");
+
+    }
+
+    for (int i = 0; i < methodsPerClass; i++)
+    {
+
+      fileContents.add("");
+      this.addMethod(random, fileContents, theIndex, i);
+
+    }
+
+    fileContents.add("");
+    fileContents.add("}");
+
+    return fileContents;
+
+  }
+
+  /**
+   * Method used to generate the whole corpus in memory.
+   * 
+   * @return the class name to class contents association map, in the order
+   *         of the files
+   */
+  public Map<String, List<String>> generateSourceMap()
+  {
+
+    Map<String, List<String>> sourceMap =
+        new LinkedHashMap<String, List<String>>();
+
+    for (int i = 0; i < fileCount; i++)
+    {
+
+      sourceMap.put(getClassName(i) + ".java", this.generateFile(i));
+
+    }
+
+    return sourceMap;
+
+  }
+
+  /**
+   * Method used to write the corpus beneath a directory, one file at a time,
+   * so that corpora of any size may be written.
+   * 
+   * @param theRootPath
+   *          The directory the corpus is written beneath
+   * @throws IOException
+   *           If a file cannot be written.
+   */
+  public void writeCorpus(File theRootPath) throws IOException
+  {
+
+    for (int i = 0; i < fileCount; i++)
+    {
+
+      File currFile = new File(theRootPath, getFilePath(i));
+
+      // create the package directory with its first file
+      if (i % FILES_PER_PACKAGE == 0)
+      {
+
+        currFile.getParentFile().mkdirs();
+
+      }
+
+      FileUtil.writeReport(currFile, this.generateFile(i));
+
+    }
+
+  }
+
+  /**
+   * Method used to generate a single method.
+   * 
+   * @param theRandom
+   *          The generator of the file
+   * @param theFileContents
+   *          The lines of the file
+   * @param theClassIndex
+   *          The index of the class
+   * @param theMethodIndex
+   *          The index of the method
+   */
+  private void addMethod(Random theRandom, List<String> theFileContents,
+      int theClassIndex, int theMethodIndex)
+  {
+
+    int statementCount = 2 + theRandom.nextInt(6);
+
+    if (theRandom.nextDouble() < commentDensity)
+    {
+
+      theFileContents.add("  /**");
+      theFileContents.add("   * Operation " + theMethodIndex + ".");
+      theFileContents.add("   */");
+
+    }
+
+    theFileContents.add("  public int method" + theMethodIndex
+        + "(int theValue)");
+    theFileContents.add("  {");
+    theFileContents.add("");
+    theFileContents.add("    int total = theValue;");
+
+    for (int i = 0; i < statementCount; i++)
+    {
+
+      this.addComment(theRandom, theFileContents, "    ", "step " + i);
+
+      switch (theRandom.nextInt(5))
+      {
+
+      case 0:
+
+        theFileContents.add("    int local" + i + " = total * " + (i + 1)
+            + ";");
+
+        break;
+
+      case 1:
+
+        theFileContents.add("    if (total > " + theRandom.nextInt(100) + ")");
+        theFileContents.add("    {");
+        theFileContents.add("      total = total - "
+            + this.fieldReference(theRandom) + ";");
+        theFileContents.add("    }");
+
+        break;
+
+      case 2:
+
+        theFileContents.add("    for (int i" + i + " = 0; i" + i + " < "
+            + (1 + theRandom.nextInt(10)) + "; i" + i + "++)");
+        theFileContents.add("    {");
+        theFileContents.add("      total += " + this.fieldReference(theRandom)
+            + ";");
+        theFileContents.add("    }");
+
+        break;
+
+      case 3:
+
+        // call a method of another class of the corpus
+        theFileContents.add("    total += new "
+            + getClassName(theRandom.nextInt(Math.max(1, fileCount)))
+            + "().method" + theRandom.nextInt(Math.max(1, methodsPerClass))
+            + "(total);");
+
+        break;
+
+      default:
+
+        theFileContents.add("    " + this.fieldReference(theRandom)
+            + " = total + 1;");
+
+      }
+
+    }
+
+    theFileContents.add("    return total;");
+    theFileContents.add("");
+    theFileContents.add("  }");
+
+  }
+
+  /**
+   * Method used to add a comment line, or a line of commented out code, with
+   * the probability of the comment density.
+   * 
+   * @param theRandom
+   *          The generator of the file
+   * @param theFileContents
+   *          The lines of the file
+   * @param theIndent
+   *          The indentation of the comment
+   * @param theText
+   *          The text of the comment
+   */
+  private void addComment(Random theRandom, List<String> theFileContents,
+      String theIndent, String theText)
+  {
+
+    if (theRandom.nextDouble() < commentDensity)
+    {
+
+      // one in four comments is code that has been commented out
+      theFileContents.add(theIndent
+          + (theRandom.nextInt(4) == 0 ? "//  total = 0;" : "// " + theText));
+
+    }
+
+  }
+
+  /**
+   * Method used to refer to a random field of the class, or to a local value
+   * if the class has no fields.
+   * 
+   * @param theRandom
+   *          The generator of the file
+   * @return the reference
+   */
+  private String fieldReference(Random theRandom)
+  {
+
+    if (fieldsPerClass == 0)
+    {
+
+      return "theValue";
+
+    }
+
+    return "field" + theRandom.nextInt(fieldsPerClass);
+
+  }
+
+  /**
+   * Method used to retrieve the package of a file of the corpus.
+   * 
+   * @param theIndex
+   *          The index of the file
+   * @return the name of the package
+   */
+  private static String getPackageName(int theIndex)
+  {
+
+    return "p" + theIndex / FILES_PER_PACKAGE;
+
+  }
+
+  /**
+   * Write a synthetic corpus.
+   * 
+   * @param args
+   *          [-files n] [-seed n] [-methods n] [-fields n] [-depth n]
+   *          [-fanout n] [-comments p] output
+   */
+  public static void main(String[] args)
+  {
+
+    try
+    {
+
+      // the options are pairs followed by the output directory
+      if (args.length % 2 == 0)
+      {
+
+        System.err.println("Usage: SyntheticCorpusGenerator [-files n] "
+            + "[-seed n] [-methods n] [-fields n] [-depth n] [-fanout n] "
+            + "[-comments p] output");
+        System.exit(2);
+
+      }
+
+      configure(args).writeCorpus(new File(args[args.length - 1]));
+
+    }
+    catch (Exception e)
+    {
+
+      e.printStackTrace();
+      System.exit(1);
+
+    }
+
+  }
+
+  /**
+   * Method used to create a generator configured by the options of a command
+   * line. Options the generator does not recognize are ignored, so that the
+   * options may be shared with other drivers.
+   * 
+   * @param args
+   *          The command line, options being pairs of name and value
+   * @return the generator
+   */
+  public static SyntheticCorpusGenerator configure(String[] args)
+  {
+
+    SyntheticCorpusGenerator generator = new SyntheticCorpusGenerator(0);
+
+    for (int i = 0; i + 1 < args.length; i += 2)
+    {
+
+      if (args[i].equals("-seed"))
+      {
+
+        generator.seed = Long.parseLong(args[i + 1]);
+
+      }
+      else if (args[i].equals("-files"))
+      {
+
+        generator.setFileCount(Integer.parseInt(args[i + 1]));
+
+      }
+      else if (args[i].equals("-methods"))
+      {
+
+        generator.setMethodsPerClass(Integer.parseInt(args[i + 1]));
+
+      }
+      else if (args[i].equals("-fields"))
+      {
+
+        generator.setFieldsPerClass(Integer.parseInt(args[i + 1]));
+
+      }
+      else if (args[i].equals("-depth"))
+      {
+
+        generator.setInheritanceDepth(Integer.parseInt(args[i + 1]));
+
+      }
+      else if (args[i].equals("-fanout"))
+      {
+
+        generator.setFanOut(Integer.parseInt(args[i + 1]));
+
+      }
+      else if (args[i].equals("-comments"))
+      {
+
+        generator.setCommentDensity(Double.parseDouble(args[i + 1]));
+
+      }
+
+    }
+
+    return generator;
+
+  }
+
+}